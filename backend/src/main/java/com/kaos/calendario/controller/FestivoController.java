@@ -18,6 +18,9 @@ import com.kaos.calendario.dto.FestivoResponse;
 import com.kaos.calendario.dto.FestivoCsvUploadResponse;
 import com.kaos.calendario.entity.TipoFestivo;
 import com.kaos.calendario.service.FestivoService;
+import com.kaos.importacion.dto.ImportacionJobResponse;
+import com.kaos.importacion.entity.TipoImportacion;
+import com.kaos.importacion.service.ImportacionJobService;
 
 /**
  * Controller REST para Festivos.
@@ -30,6 +33,7 @@ import com.kaos.calendario.service.FestivoService;
 public class FestivoController {
 
     private final FestivoService service;
+    private final ImportacionJobService importacionJobService;
 
     @GetMapping
     @Operation(summary = "Lista festivos con filtros opcionales")
@@ -71,9 +75,13 @@ public class FestivoController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Lanza la carga masiva en segundo plano. Devuelve 202 con el job; el resultado
+     * ({@link FestivoCsvUploadResponse}) se consulta en {@code GET /api/v1/importaciones/{id}}.
+     */
     @PostMapping(value = "/carga-masiva", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Operation(summary = "Carga masiva de festivos desde CSV")
-    public ResponseEntity<FestivoCsvUploadResponse> cargarFestivosCsv(
+    @Operation(summary = "Lanza la carga masiva de festivos desde CSV")
+    public ResponseEntity<ImportacionJobResponse> cargarFestivosCsv(
             @RequestParam("file") MultipartFile file) {
         log.info("POST /api/v1/festivos/carga-masiva - archivo: {}", file.getOriginalFilename());
         
@@ -85,6 +93,7 @@ public class FestivoController {
             throw new IllegalArgumentException("El archivo debe ser formato CSV");
         }
         
-        return ResponseEntity.ok(service.cargarCsv(file));
+        return ResponseEntity.accepted()
+                .body(importacionJobService.crear(TipoImportacion.FESTIVOS_CSV, file, null));
     }
 }
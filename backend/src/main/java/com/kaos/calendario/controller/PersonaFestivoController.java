@@ -11,7 +11,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.kaos.calendario.dto.FestivoResponse;
 import com.kaos.calendario.service.FestivoService;
-import com.kaos.persona.entity.Persona;
 import com.kaos.persona.repository.PersonaRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -43,10 +42,10 @@ public class PersonaFestivoController {
                 personaId, fechaInicio, fechaFin);
         
         // Obtener ciudad de la persona
-        Persona persona = personaRepository.findById(personaId)
+        String ciudad = personaRepository.findCiudadById(personaId)
                 .orElseThrow(() -> new EntityNotFoundException("Persona no encontrada con id: " + personaId));
         
         // Listar festivos por ciudad
-        return ResponseEntity.ok(service.listarPorCiudad(persona.getCiudad(), fechaInicio, fechaFin));
+        return ResponseEntity.ok(service.listarPorCiudad(ciudad, fechaInicio, fechaFin));
     }
 }
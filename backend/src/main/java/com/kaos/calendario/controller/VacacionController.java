@@ -22,10 +22,14 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kaos.calendario.dto.ExcelAnalysisResponse;
 import com.kaos.calendario.dto.ExcelImportResponse;
+import com.kaos.calendario.dto.ParametrosImportacionExcel;
 import com.kaos.calendario.dto.VacacionRequest;
 import com.kaos.calendario.dto.VacacionResponse;
 import com.kaos.calendario.service.ExcelImportService;
 import com.kaos.calendario.service.VacacionService;
+import com.kaos.importacion.dto.ImportacionJobResponse;
+import com.kaos.importacion.entity.TipoImportacion;
+import com.kaos.importacion.service.ImportacionJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -45,6 +49,7 @@ public class VacacionController {
 
     private final VacacionService service;
     private final ExcelImportService excelImportService;
+    private final ImportacionJobService importacionJobService;
     private final ObjectMapper objectMapper;
 
     @GetMapping
@@ -117,7 +122,9 @@ public class VacacionController {
     }
 
     /**
-     * Importa vacaciones y ausencias desde un fichero Excel (.xlsx).
+     * Importa vacaciones y ausencias desde un fichero Excel (.xlsx) en segundo plano.
+     * Devuelve 202 con el job; el avance y el resultado ({@link ExcelImportResponse})
+     * se consultan en {@code GET /api/v1/importaciones/{id}}.
      *
      * @param file     fichero Excel con el calendario de vacaciones
      * @param año      año fiscal (por defecto el año en curso)
@@ -126,8 +133,8 @@ public class VacacionController {
      *                     Opcional; si no se envía se asume {}
      */
     @PostMapping(value = "/importar-excel", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    @Operation(summary = "Importa vacaciones/ausencias desde un fichero Excel")
-    public ResponseEntity<ExcelImportResponse> importarExcel(
+    @Operation(summary = "Lanza la importación de vacaciones/ausencias desde un fichero Excel")
+    public ResponseEntity<ImportacionJobResponse> importarExcel(
             @RequestPart("file") MultipartFile file,
             @RequestParam(defaultValue = "#{T(java.time.LocalDate).now().getYear()}") int año,
             @RequestParam(required = false) String mappingsJson) {
@@ -150,11 +157,8 @@ public class VacacionController {
             }
         }
 
-        try {
-            ExcelImportResponse result = excelImportService.importarExcel(file, año, mappings);
-            return ResponseEntity.ok(result);
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Error leyendo el fichero Excel: " + e.getMessage());
-        }
+        ImportacionJobResponse job = importacionJobService.crear(
+                TipoImportacion.VACACIONES_EXCEL, file, new ParametrosImportacionExcel(año, mappings));
+        return ResponseEntity.accepted().body(job);
     }
 }
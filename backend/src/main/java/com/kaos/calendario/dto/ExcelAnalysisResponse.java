@@ -27,6 +27,14 @@ public record ExcelAnalysisResponse(
      * @param nombreExcel  nombre tal como aparece en el Excel
      * @param personaId    ID de la persona encontrada en BD
      * @param personaNombre nombre completo de la persona en BD
+     * @param criterio     regla que resolvió el nombre (EXACTA, NORMALIZADA, CONTENIDA,
+     *                     DOS_PRIMERAS_PALABRAS, SIMILITUD)
+     * @param confianza    confianza de la coincidencia, de 0 a 1
      */
-    public record PersonaMatch(String nombreExcel, Long personaId, String personaNombre) {}
+    public record PersonaMatch(
+            String nombreExcel,
+            Long personaId,
+            String personaNombre,
+            String criterio,
+            double confianza) {}
 }
@@ -0,0 +1,14 @@
+package com.kaos.calendario.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección mínima de un festivo (ciudad y fecha), usada para construir los calendarios
+ * laborales sin cargar las entidades completas.
+ */
+public interface FechaFestivoCiudad {
+
+    String getCiudad();
+
+    LocalDate getFecha();
+}
@@ -0,0 +1,14 @@
+package com.kaos.calendario.dto;
+
+import java.util.Map;
+
+/**
+ * Parámetros de un job de importación del Excel de vacaciones.
+ *
+ * @param año      año fiscal (e.g. 2026 para España FY26; 2025 para Chile FY2025)
+ * @param mappings mapeo manual nombre-excel → personaId para nombres no auto-resueltos
+ */
+public record ParametrosImportacionExcel(
+        int año,
+        Map<String, Long> mappings
+) {}
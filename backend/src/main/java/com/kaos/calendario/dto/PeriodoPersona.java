@@ -0,0 +1,17 @@
+package com.kaos.calendario.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección mínima de una vacación o ausencia existente (persona y rango de fechas),
+ * usada para detectar solapamientos en memoria durante la importación.
+ */
+public interface PeriodoPersona {
+
+    Long getPersonaId();
+
+    LocalDate getFechaInicio();
+
+    /** Fecha fin inclusive; null en ausencias indefinidas. */
+    LocalDate getFechaFin();
+}
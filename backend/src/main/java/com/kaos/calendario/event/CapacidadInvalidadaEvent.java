@@ -0,0 +1,65 @@
+package com.kaos.calendario.event;
+
+import java.time.LocalDate;
+
+/**
+ * Evento de dominio publicado cuando cambia un dato que afecta a la capacidad de los squads
+ * (festivos, vacaciones, ausencias, dedicación o perfil horario).
+ * <p>
+ * Los campos no nulos delimitan el alcance: solo se invalidan las capacidades precalculadas
+ * de los squads/años que coinciden. Si todos los criterios son nulos se invalida todo.
+ * </p>
+ *
+ * @param squadId         Squad afectado (nullable)
+ * @param personaId       Persona afectada (nullable)
+ * @param ciudad          Ciudad cuyos festivos cambian (nullable)
+ * @param perfilHorarioId Perfil horario modificado (nullable)
+ * @param anioDesde       Primer año afectado (null = sin límite inferior)
+ * @param anioHasta       Último año afectado (null = sin límite superior)
+ */
+public record CapacidadInvalidadaEvent(
+        Long squadId,
+        Long personaId,
+        String ciudad,
+        Long perfilHorarioId,
+        Integer anioDesde,
+        Integer anioHasta
+) {
+
+    /** Cambio en la composición o datos de un squad. */
+    public static CapacidadInvalidadaEvent deSquad(Long squadId) {
+        return new CapacidadInvalidadaEvent(squadId, null, null, null, null, null);
+    }
+
+    /** Cambio en los datos de una persona (ciudad, perfil, estado) que afecta a todos los años. */
+    public static CapacidadInvalidadaEvent dePersona(Long personaId) {
+        return new CapacidadInvalidadaEvent(null, personaId, null, null, null, null);
+    }
+
+    /**
+     * Cambio en vacaciones/ausencias de una persona en un rango de fechas.
+     *
+     * @param fechaFin null para rangos abiertos (ausencia indefinida)
+     */
+    public static CapacidadInvalidadaEvent dePersona(Long personaId, LocalDate fechaInicio, LocalDate fechaFin) {
+        return new CapacidadInvalidadaEvent(null, personaId, null, null,
+                fechaInicio.getYear(), fechaFin != null ? fechaFin.getYear() : null);
+    }
+
+    /** Alta, baja o modificación de un festivo de una ciudad. */
+    public static CapacidadInvalidadaEvent deCiudad(String ciudad, LocalDate fecha) {
+        return new CapacidadInvalidadaEvent(null, null, ciudad, null, fecha.getYear(), fecha.getYear());
+    }
+
+    /** Modificación de las horas de un perfil horario. */
+    public static CapacidadInvalidadaEvent dePerfilHorario(Long perfilHorarioId) {
+        return new CapacidadInvalidadaEvent(null, null, null, perfilHorarioId, null, null);
+    }
+
+    /**
+     * Indica si el evento afecta a un año concreto.
+     */
+    public boolean afectaAnio(int anio) {
+        return (anioDesde == null || anio >= anioDesde) && (anioHasta == null || anio <= anioHasta);
+    }
+}
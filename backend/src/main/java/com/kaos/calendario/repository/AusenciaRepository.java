@@ -1,11 +1,13 @@
 package com.kaos.calendario.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.kaos.calendario.dto.PeriodoPersona;
 import com.kaos.calendario.entity.Ausencia;
 
 /**
@@ -27,15 +29,17 @@ public interface AusenciaRepository extends JpaRepository<Ausencia, Long> {
     List<Ausencia> findActivasByPersonaId(@Param("personaId") Long personaId, @Param("fecha") LocalDate fecha);
 
     /**
-     * Busca ausencias de un squad en un rango de fechas.
-     * Incluye ausencias que se solapan con el rango (fechaFin null = indefinida = siempre solapa).
+     * Busca ausencias de un squad que se solapan con [fechaInicio, fechaFin] (null = sin límite).
+     * Incluye las indefinidas (fechaFin null = rango sin límite superior = siempre solapa).
+     * Por cada miembro del squad, búsqueda por intervalo en el índice GiST de
+     * {@code excl_ausencia_persona_solape}.
      */
-    @Query("SELECT a FROM Ausencia a " +
-           "JOIN a.persona p " +
-           "JOIN SquadMember sm ON sm.persona.id = p.id " +
-           "WHERE sm.squad.id = :squadId " +
-           "AND (CAST(:fechaInicio AS date) IS NULL OR a.fechaFin IS NULL OR a.fechaFin >= :fechaInicio) " +
-           "AND (CAST(:fechaFin AS date) IS NULL OR a.fechaInicio <= :fechaFin)")
+    @Query(value = "SELECT a.* FROM ausencia a " +
+           "JOIN squad_member sm ON sm.persona_id = a.persona_id " +
+           "WHERE sm.squad_id = :squadId " +
+           "AND daterange(a.fecha_inicio, a.fecha_fin, '[]') " +
+           "&& daterange(CAST(:fechaInicio AS date), CAST(:fechaFin AS date), '[]')",
+           nativeQuery = true)
     List<Ausencia> findBySquadIdAndFechaRange(
             @Param("squadId") Long squadId,
             @Param("fechaInicio") LocalDate fechaInicio,
@@ -43,18 +47,16 @@ public interface AusenciaRepository extends JpaRepository<Ausencia, Long> {
     );
 
     /**
-     * Verifica si existe solapamiento de ausencias para una persona.
-     * Retorna true si hay alguna ausencia que se solape con el rango dado.
-     * Pasa null en ausenciaId para excluir ningún registro (usado en importación).
+     * Rangos de las ausencias de varias personas que se solapan con [fechaInicio, fechaFin],
+     * incluidas las indefinidas (fechaFin null).
      */
-    @Query("SELECT CASE WHEN COUNT(a) > 0 THEN TRUE ELSE FALSE END FROM Ausencia a " +
-           "WHERE a.persona.id = :personaId " +
-           "AND (:ausenciaId IS NULL OR a.id != :ausenciaId) " +
-           "AND a.fechaInicio <= :fechaFin " +
-           "AND a.fechaFin >= :fechaInicio")
-    boolean existsSolapamiento(
-            @Param("personaId") Long personaId,
-            @Param("ausenciaId") Long ausenciaId,
+    @Query("SELECT a.persona.id AS personaId, a.fechaInicio AS fechaInicio, a.fechaFin AS fechaFin " +
+           "FROM Ausencia a " +
+           "WHERE a.persona.id IN :personaIds " +
+           "AND (a.fechaFin IS NULL OR a.fechaFin >= :fechaInicio) " +
+           "AND a.fechaInicio <= :fechaFin")
+    List<PeriodoPersona> findPeriodosByPersonaIdIn(
+            @Param("personaIds") Collection<Long> personaIds,
             @Param("fechaInicio") LocalDate fechaInicio,
             @Param("fechaFin") LocalDate fechaFin
     );
@@ -0,0 +1,75 @@
+package com.kaos.calendario.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import com.kaos.calendario.entity.Ausencia;
+import com.kaos.calendario.entity.Vacacion;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Inserciones masivas de vacaciones y ausencias mediante JDBC batch.
+ * <p>
+ * Para importaciones de cientos de filas se insertan aquí en lotes de {@link #TAMANO_LOTE}
+ * en lugar de con {@code saveAll()}: aunque Hibernate ya agrupa los INSERT, así no se crean
+ * ni se gestionan entidades en el contexto de persistencia. El ID lo asigna el
+ * {@code DEFAULT nextval} de la columna sobre la secuencia {@code <tabla>_id_seq}, la misma
+ * de la que reserva bloques Hibernate, y no se devuelve. Los campos de auditoría se rellenan
+ * a mano porque no pasan por el {@code AuditingEntityListener}.
+ * </p>
+ * Participa en la transacción activa (mismo DataSource que JPA).
+ */
+@Repository
+@RequiredArgsConstructor
+public class CalendarioBatchRepository {
+
+    /** Filas por sentencia batch. */
+    static final int TAMANO_LOTE = 500;
+
+    private static final String INSERT_VACACION =
+            "INSERT INTO vacacion (persona_id, fecha_inicio, fecha_fin, dias_laborables, tipo, estado, "
+            + "comentario, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_AUSENCIA =
+            "INSERT INTO ausencia (persona_id, fecha_inicio, fecha_fin, tipo, comentario, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta las vacaciones en lotes. La persona solo necesita tener el ID.
+     */
+    public void insertarVacaciones(List<Vacacion> vacaciones) {
+        if (vacaciones.isEmpty()) return;
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_VACACION, vacaciones, TAMANO_LOTE, (ps, v) -> {
+            ps.setLong(1, v.getPersona().getId());
+            ps.setDate(2, Date.valueOf(v.getFechaInicio()));
+            ps.setDate(3, Date.valueOf(v.getFechaFin()));
+            ps.setInt(4, v.getDiasLaborables());
+            ps.setString(5, v.getTipo().name());
+            ps.setString(6, v.getEstado().name());
+            ps.setString(7, v.getComentario());
+            ps.setTimestamp(8, ahora);
+        });
+    }
+
+    /**
+     * Inserta las ausencias en lotes. La persona solo necesita tener el ID.
+     */
+    public void insertarAusencias(List<Ausencia> ausencias) {
+        if (ausencias.isEmpty()) return;
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_AUSENCIA, ausencias, TAMANO_LOTE, (ps, a) -> {
+            ps.setLong(1, a.getPersona().getId());
+            ps.setDate(2, Date.valueOf(a.getFechaInicio()));
+            ps.setDate(3, a.getFechaFin() != null ? Date.valueOf(a.getFechaFin()) : null);
+            ps.setString(4, a.getTipo().name());
+            ps.setString(5, a.getComentario());
+            ps.setTimestamp(6, ahora);
+        });
+    }
+}
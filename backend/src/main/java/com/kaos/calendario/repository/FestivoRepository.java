@@ -1,13 +1,22 @@
 package com.kaos.calendario.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.kaos.calendario.dto.FechaFestivoCiudad;
 import com.kaos.calendario.entity.Festivo;
 import com.kaos.calendario.entity.TipoFestivo;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositorio para {@link Festivo}.
@@ -16,37 +25,109 @@ import com.kaos.calendario.entity.TipoFestivo;
 @Repository
 public interface FestivoRepository extends JpaRepository<Festivo, Long> {
 
+    /**
+     * Límites que sustituyen a un extremo de rango nulo. Así los predicados sobre {@code fecha}
+     * son siempre comparaciones directas y pueden usar los índices de la columna.
+     */
+    LocalDate SIN_LIMITE_INICIO = LocalDate.of(1, 1, 1);
+    LocalDate SIN_LIMITE_FIN = LocalDate.of(9999, 12, 31);
+
+    /**
+     * Busca festivos en un rango de fechas (inclusive), de todas las ciudades.
+     */
+    @Query("SELECT f FROM Festivo f WHERE f.fecha >= :fechaInicio AND f.fecha <= :fechaFin")
+    List<Festivo> findByFechaRange(
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin
+    );
+
     /**
      * Busca festivos por año.
+     * Se traduce a un rango de fechas: {@code YEAR(fecha)} impediría usar {@code idx_festivo_fecha}.
      */
-    @Query("SELECT f FROM Festivo f WHERE YEAR(f.fecha) = :anio")
-    List<Festivo> findByAnio(@Param("anio") int anio);
+    default List<Festivo> findByAnio(int anio) {
+        return findByFechaRange(LocalDate.of(anio, 1, 1), LocalDate.of(anio, 12, 31));
+    }
 
     /**
      * Busca festivos por tipo.
      */
     List<Festivo> findByTipo(TipoFestivo tipo);
 
+    /**
+     * Busca festivos de un tipo en un rango de fechas (inclusive).
+     */
+    @Query("SELECT f FROM Festivo f WHERE f.tipo = :tipo AND f.fecha >= :fechaInicio AND f.fecha <= :fechaFin")
+    List<Festivo> findByTipoAndFechaRange(
+            @Param("tipo") TipoFestivo tipo,
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin
+    );
+
     /**
      * Busca festivos por año y tipo.
      */
-    @Query("SELECT f FROM Festivo f WHERE YEAR(f.fecha) = :anio AND f.tipo = :tipo")
-    List<Festivo> findByAnioAndTipo(@Param("anio") int anio, @Param("tipo") TipoFestivo tipo);
+    default List<Festivo> findByAnioAndTipo(int anio, TipoFestivo tipo) {
+        return findByTipoAndFechaRange(tipo, LocalDate.of(anio, 1, 1), LocalDate.of(anio, 12, 31));
+    }
 
     /**
-     * Busca festivos de una ciudad en un rango de fechas.
+     * Busca festivos de una ciudad en un rango de fechas (inclusive), ordenados por fecha,
+     * por {@code idx_festivo_ciudad_fecha}.
      */
     @Query("SELECT f FROM Festivo f WHERE f.ciudad = :ciudad " +
-           "AND (:fechaInicio IS NULL OR f.fecha >= :fechaInicio) " +
-           "AND (:fechaFin IS NULL OR f.fecha <= :fechaFin)")
-    List<Festivo> findByCiudadAndFechaRange(
+           "AND f.fecha >= :fechaInicio AND f.fecha <= :fechaFin ORDER BY f.fecha")
+    List<Festivo> findByCiudadAndFechaBetween(
             @Param("ciudad") String ciudad,
             @Param("fechaInicio") LocalDate fechaInicio,
             @Param("fechaFin") LocalDate fechaFin
     );
 
+    /**
+     * Busca festivos de una ciudad en un rango de fechas, ordenados por fecha.
+     * Los extremos nulos dejan el rango abierto por ese lado.
+     */
+    default List<Festivo> findByCiudadAndFechaRange(String ciudad, LocalDate fechaInicio, LocalDate fechaFin) {
+        return findByCiudadAndFechaBetween(ciudad,
+                fechaInicio != null ? fechaInicio : SIN_LIMITE_INICIO,
+                fechaFin != null ? fechaFin : SIN_LIMITE_FIN);
+    }
+
+    /**
+     * Fechas festivas de varias ciudades en un rango (inclusive), solo ciudad y fecha.
+     */
+    @Query("SELECT f.ciudad AS ciudad, f.fecha AS fecha FROM Festivo f " +
+           "WHERE f.ciudad IN :ciudades AND f.fecha >= :fechaInicio AND f.fecha <= :fechaFin")
+    List<FechaFestivoCiudad> findFechasByCiudadInAndFechaRange(
+            @Param("ciudades") Collection<String> ciudades,
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin
+    );
+
+    /**
+     * Calendario de festivos por ciudad en un rango (inclusive).
+     * Todas las ciudades pedidas están en el mapa, con un conjunto vacío si no tienen festivos.
+     */
+    default Map<String, Set<LocalDate>> findFestivosPorCiudad(
+            Collection<String> ciudades, LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<String, Set<LocalDate>> porCiudad = new HashMap<>();
+        for (String ciudad : ciudades) {
+            porCiudad.put(ciudad, new HashSet<>());
+        }
+        if (porCiudad.isEmpty()) {
+            return porCiudad;
+        }
+        for (FechaFestivoCiudad f : findFechasByCiudadInAndFechaRange(porCiudad.keySet(), fechaInicio, fechaFin)) {
+            porCiudad.get(f.getCiudad()).add(f.getFecha());
+        }
+        return porCiudad;
+    }
+
     /**
      * Verifica si ya existe un festivo con fecha, descripción y ciudad.
+     * No vacía antes los INSERT pendientes (que la carga CSV acumula para enviarlos en lote):
+     * solo ve lo ya escrito en BD.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
     boolean existsByFechaAndDescripcionAndCiudad(LocalDate fecha, String descripcion, String ciudad);
 }
@@ -1,11 +1,13 @@
 package com.kaos.calendario.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.kaos.calendario.dto.PeriodoPersona;
 import com.kaos.calendario.entity.EstadoVacacion;
 import com.kaos.calendario.entity.TipoVacacion;
 import com.kaos.calendario.entity.Vacacion;
@@ -27,11 +29,14 @@ public interface VacacionRepository extends JpaRepository<Vacacion, Long> {
     List<Vacacion> findByPersonaIdAndTipoAndEstado(Long personaId, TipoVacacion tipo, EstadoVacacion estado);
 
     /**
-     * Busca vacaciones por persona en un rango de fechas.
+     * Busca vacaciones por persona que se solapan con [fechaInicio, fechaFin] (null = sin límite).
+     * El predicado sobre {@code daterange} usa el índice GiST de {@code excl_vacacion_persona_solape}.
      */
-    @Query("SELECT v FROM Vacacion v WHERE v.persona.id = :personaId " +
-           "AND (:fechaInicio IS NULL OR v.fechaFin >= :fechaInicio) " +
-           "AND (:fechaFin IS NULL OR v.fechaInicio <= :fechaFin)")
+    @Query(value = "SELECT v.* FROM vacacion v " +
+           "WHERE v.persona_id = :personaId " +
+           "AND daterange(v.fecha_inicio, v.fecha_fin, '[]') " +
+           "&& daterange(CAST(:fechaInicio AS date), CAST(:fechaFin AS date), '[]')",
+           nativeQuery = true)
     List<Vacacion> findByPersonaIdAndFechaRange(
             @Param("personaId") Long personaId,
             @Param("fechaInicio") LocalDate fechaInicio,
@@ -39,12 +44,16 @@ public interface VacacionRepository extends JpaRepository<Vacacion, Long> {
     );
 
     /**
-     * Busca vacaciones de un squad en un rango de fechas.
+     * Busca vacaciones de un squad que se solapan con [fechaInicio, fechaFin] (null = sin límite).
+     * Por cada miembro del squad, búsqueda por intervalo en el índice GiST de
+     * {@code excl_vacacion_persona_solape}.
      */
-    @Query("SELECT v FROM Vacacion v JOIN SquadMember sm ON v.persona.id = sm.persona.id " +
-           "WHERE sm.squad.id = :squadId " +
-           "AND (CAST(:fechaInicio AS date) IS NULL OR v.fechaFin >= :fechaInicio) " +
-           "AND (CAST(:fechaFin AS date) IS NULL OR v.fechaInicio <= :fechaFin)")
+    @Query(value = "SELECT v.* FROM vacacion v " +
+           "JOIN squad_member sm ON sm.persona_id = v.persona_id " +
+           "WHERE sm.squad_id = :squadId " +
+           "AND daterange(v.fecha_inicio, v.fecha_fin, '[]') " +
+           "&& daterange(CAST(:fechaInicio AS date), CAST(:fechaFin AS date), '[]')",
+           nativeQuery = true)
     List<Vacacion> findBySquadIdAndFechaRange(
             @Param("squadId") Long squadId,
             @Param("fechaInicio") LocalDate fechaInicio,
@@ -52,17 +61,16 @@ public interface VacacionRepository extends JpaRepository<Vacacion, Long> {
     );
 
     /**
-     * Verifica si existe solapamiento de vacaciones para una persona.
-     * Retorna true si hay alguna vacación que se solape con el rango dado.
+     * Rangos de las vacaciones de varias personas que se solapan con [fechaInicio, fechaFin].
+     * Carga en una sola consulta lo necesario para validar solapamientos de una importación.
      */
-    @Query("SELECT CASE WHEN COUNT(v) > 0 THEN TRUE ELSE FALSE END FROM Vacacion v " +
-           "WHERE v.persona.id = :personaId " +
-           "AND v.id != :vacacionId " +
-           "AND v.fechaInicio <= :fechaFin " +
-           "AND v.fechaFin >= :fechaInicio")
-    boolean existsSolapamiento(
-            @Param("personaId") Long personaId,
-            @Param("vacacionId") Long vacacionId,
+    @Query("SELECT v.persona.id AS personaId, v.fechaInicio AS fechaInicio, v.fechaFin AS fechaFin " +
+           "FROM Vacacion v " +
+           "WHERE v.persona.id IN :personaIds " +
+           "AND v.fechaFin >= :fechaInicio " +
+           "AND v.fechaInicio <= :fechaFin")
+    List<PeriodoPersona> findPeriodosByPersonaIdIn(
+            @Param("personaIds") Collection<Long> personaIds,
             @Param("fechaInicio") LocalDate fechaInicio,
             @Param("fechaFin") LocalDate fechaFin
     );
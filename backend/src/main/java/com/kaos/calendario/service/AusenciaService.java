@@ -2,13 +2,17 @@ package com.kaos.calendario.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.kaos.calendario.dto.AusenciaRequest;
 import com.kaos.calendario.dto.AusenciaResponse;
 import com.kaos.calendario.entity.Ausencia;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.calendario.mapper.AusenciaMapper;
 import com.kaos.calendario.repository.AusenciaRepository;
+import com.kaos.common.exception.ViolacionRestriccion;
 import com.kaos.persona.entity.Persona;
 import com.kaos.persona.repository.PersonaRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +20,8 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Servicio para gestión de ausencias.
+ * Los solapamientos de una misma persona (incluidas las ausencias indefinidas) los rechaza
+ * la BD ({@value #RESTRICCION_SOLAPE}).
  */
 @Slf4j
 @Service
@@ -23,9 +29,13 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional(readOnly = true)
 public class AusenciaService {
 
+    /** Restricción de exclusión que impide ausencias solapadas de una persona (changeset 039). */
+    static final String RESTRICCION_SOLAPE = "excl_ausencia_persona_solape";
+
     private final AusenciaRepository repository;
     private final PersonaRepository personaRepository;
     private final AusenciaMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Lista todas las ausencias con filtros opcionales.
@@ -72,7 +82,8 @@ public class AusenciaService {
         Ausencia entity = mapper.toEntity(request);
         entity.setPersona(persona);
 
-        Ausencia saved = repository.save(entity);
+        Ausencia saved = guardar(entity);
+        publicarCambio(request.personaId(), request.fechaInicio(), request.fechaFin());
         log.info("Ausencia creada con ID: {}", saved.getId());
         return mapper.toResponse(saved);
     }
@@ -92,6 +103,9 @@ public class AusenciaService {
             throw new IllegalArgumentException("La fecha de fin debe ser posterior o igual a la fecha de inicio");
         }
 
+        // La capacidad se invalida tanto para el rango anterior como para el nuevo
+        publicarCambio(entity.getPersona().getId(), entity.getFechaInicio(), entity.getFechaFin());
+
         // Si cambió persona, validar existe
         if (!entity.getPersona().getId().equals(request.personaId())) {
             Persona persona = personaRepository.findById(request.personaId())
@@ -102,7 +116,8 @@ public class AusenciaService {
         // Actualizar campos
         mapper.updateEntity(request, entity);
 
-        Ausencia saved = repository.save(entity);
+        Ausencia saved = guardar(entity);
+        publicarCambio(request.personaId(), request.fechaInicio(), request.fechaFin());
         log.info("Ausencia {} actualizada", id);
         return mapper.toResponse(saved);
     }
@@ -114,11 +129,11 @@ public class AusenciaService {
     public void eliminar(Long id) {
         log.info("Eliminando ausencia {}", id);
 
-        if (!repository.existsById(id)) {
-            throw new IllegalArgumentException("Ausencia no encontrada: " + id);
-        }
+        Ausencia entity = repository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Ausencia no encontrada: " + id));
 
-        repository.deleteById(id);
+        repository.delete(entity);
+        publicarCambio(entity.getPersona().getId(), entity.getFechaInicio(), entity.getFechaFin());
         log.info("Ausencia {} eliminada", id);
     }
 
@@ -131,4 +146,27 @@ public class AusenciaService {
                 repository.findBySquadIdAndFechaRange(squadId, fechaInicio, fechaFin)
         );
     }
+
+    /**
+     * Guarda y vacía en el acto, para que un solapamiento llegue aquí y no al confirmar.
+     *
+     * @throws IllegalArgumentException si la persona ya tiene una ausencia en esas fechas
+     */
+    private Ausencia guardar(Ausencia entity) {
+        try {
+            return repository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            if (ViolacionRestriccion.es(e, RESTRICCION_SOLAPE)) {
+                throw new IllegalArgumentException("Ya existe una ausencia para esta persona en el período indicado", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Notifica el cambio para invalidar la capacidad cacheada de la persona en esas fechas.
+     */
+    private void publicarCambio(Long personaId, LocalDate fechaInicio, LocalDate fechaFin) {
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.dePersona(personaId, fechaInicio, fechaFin));
+    }
 }
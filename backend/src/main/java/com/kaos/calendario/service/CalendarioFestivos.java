@@ -0,0 +1,52 @@
+package com.kaos.calendario.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.kaos.calendario.dto.FestivoResponse;
+
+/**
+ * Consultas de festivos por ciudad que usan la capacidad, el cómputo de días laborables y
+ * los festivos de una persona.
+ * <p>
+ * Separa a los consumidores del origen de los datos. Con
+ * {@code kaos.calendario.festivos.en-memoria} (por defecto) se usa
+ * {@link CalendarioFestivosEnMemoria}, una instantánea que se recarga tras cada escritura de
+ * festivos en esta instancia; desactivado, {@link CalendarioFestivosBd} consulta la tabla
+ * {@code festivo} por {@code idx_festivo_ciudad_fecha} en cada llamada.
+ * </p>
+ */
+public interface CalendarioFestivos {
+
+    /**
+     * Indica si la fecha es festiva en la ciudad.
+     */
+    boolean esFestivo(String ciudad, LocalDate fecha);
+
+    /**
+     * Días festivos de la ciudad entre dos fechas (inclusive).
+     */
+    int contarFestivos(String ciudad, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Días festivos de lunes a viernes de la ciudad entre dos fechas (inclusive), los que
+     * restan días laborables.
+     */
+    int contarFestivosLaborables(String ciudad, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Fechas festivas por ciudad en un rango (inclusive).
+     * Todas las ciudades pedidas están en el mapa, con un conjunto vacío si no tienen festivos.
+     */
+    Map<String, Set<LocalDate>> festivosPorCiudad(Collection<String> ciudades, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Festivos de una ciudad en un rango, ordenados por fecha.
+     *
+     * @param desde inicio del rango (nullable = sin límite)
+     * @param hasta fin del rango (nullable = sin límite)
+     */
+    List<FestivoResponse> listar(String ciudad, LocalDate desde, LocalDate hasta);
+}
@@ -0,0 +1,70 @@
+package com.kaos.calendario.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import com.kaos.calendario.dto.FestivoResponse;
+import com.kaos.calendario.mapper.FestivoMapper;
+import com.kaos.calendario.repository.FestivoRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link CalendarioFestivos} sobre la tabla {@code festivo}: cada consulta va a la BD con
+ * predicados directos sobre ciudad y fecha, resueltos por {@code idx_festivo_ciudad_fecha}.
+ * Se usa con {@code kaos.calendario.festivos.en-memoria=false}, cuando varias instancias
+ * escriben festivos y una instantánea local podría quedarse atrasada.
+ */
+@Component
+@ConditionalOnProperty(name = "kaos.calendario.festivos.en-memoria", havingValue = "false")
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CalendarioFestivosBd implements CalendarioFestivos {
+
+    private final FestivoRepository repository;
+    private final FestivoMapper mapper;
+
+    @Override
+    public boolean esFestivo(String ciudad, LocalDate fecha) {
+        return !fechas(ciudad, fecha, fecha).isEmpty();
+    }
+
+    @Override
+    public int contarFestivos(String ciudad, LocalDate desde, LocalDate hasta) {
+        return fechas(ciudad, desde, hasta).size();
+    }
+
+    @Override
+    public int contarFestivosLaborables(String ciudad, LocalDate desde, LocalDate hasta) {
+        int laborables = 0;
+        for (LocalDate fecha : fechas(ciudad, desde, hasta)) {
+            if (fecha.getDayOfWeek() != DayOfWeek.SATURDAY && fecha.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                laborables++;
+            }
+        }
+        return laborables;
+    }
+
+    @Override
+    public Map<String, Set<LocalDate>> festivosPorCiudad(Collection<String> ciudades, LocalDate desde, LocalDate hasta) {
+        return repository.findFestivosPorCiudad(ciudades, desde, hasta);
+    }
+
+    @Override
+    public List<FestivoResponse> listar(String ciudad, LocalDate desde, LocalDate hasta) {
+        return mapper.toResponseList(repository.findByCiudadAndFechaRange(ciudad, desde, hasta));
+    }
+
+    /** Fechas festivas distintas de una ciudad en un rango (inclusive). */
+    private Set<LocalDate> fechas(String ciudad, LocalDate desde, LocalDate hasta) {
+        if (ciudad == null || desde.isAfter(hasta)) {
+            return Set.of();
+        }
+        return repository.findFestivosPorCiudad(List.of(ciudad), desde, hasta).get(ciudad);
+    }
+}
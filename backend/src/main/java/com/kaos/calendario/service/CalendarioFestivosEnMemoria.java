@@ -0,0 +1,211 @@
+package com.kaos.calendario.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.kaos.calendario.dto.FestivoResponse;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
+import com.kaos.calendario.mapper.FestivoMapper;
+import com.kaos.calendario.repository.FestivoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link CalendarioFestivos} en memoria: una instantánea inmutable de la tabla {@code festivo}
+ * agrupada por ciudad, con las fechas como días epoch ordenados.
+ * <p>
+ * Los festivos cambian pocas veces al año, así que la capacidad, el cómputo de días
+ * laborables de las vacaciones y los festivos de una persona se resuelven aquí sin consultar
+ * la BD: {@link #esFestivo} y los recuentos por rango son búsquedas binarias.
+ * </p>
+ * <p>
+ * La instantánea se carga al arrancar (o en el primer uso) y se sustituye entera, de forma
+ * atómica, al recibir un {@link CapacidadInvalidadaEvent} de ciudad tras el commit de un
+ * alta, modificación, baja o carga CSV de festivos. Se procesa antes que
+ * {@link CapacidadCache}, para que las capacidades que se reconstruyan ya vean el cambio.
+ * Solo se entera de las escrituras hechas en esta instancia: con varias instancias sobre la
+ * misma BD hay que desactivar {@code kaos.calendario.festivos.en-memoria} y usar
+ * {@link CalendarioFestivosBd}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kaos.calendario.festivos.en-memoria", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CalendarioFestivosEnMemoria implements CalendarioFestivos {
+
+    private final FestivoRepository repository;
+    private final FestivoMapper mapper;
+
+    private volatile Instantanea instantanea;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void alArrancar() {
+        recargar();
+    }
+
+    /**
+     * Recarga la instantánea cuando cambian los festivos de alguna ciudad.
+     * Se lee en una transacción nueva: la que publicó el evento ya está confirmada.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCapacidadInvalidada(CapacidadInvalidadaEvent evento) {
+        if (evento.ciudad() != null) {
+            recargar();
+        }
+    }
+
+    /**
+     * Lee todos los festivos y publica una nueva instantánea. Las recargas se serializan para
+     * que una lectura anterior a un commit no sustituya a otra posterior.
+     */
+    public synchronized void recargar() {
+        Instantanea nueva = Instantanea.de(mapper.toResponseList(repository.findAll()));
+        instantanea = nueva;
+        log.info("Calendario de festivos cargado: {} festivos en {} ciudades", nueva.total(), nueva.porCiudad().size());
+    }
+
+    @Override
+    public boolean esFestivo(String ciudad, LocalDate fecha) {
+        FestivosCiudad festivos = instantanea().porCiudad().get(ciudad);
+        return festivos != null && Arrays.binarySearch(festivos.dias(), (int) fecha.toEpochDay()) >= 0;
+    }
+
+    @Override
+    public int contarFestivos(String ciudad, LocalDate desde, LocalDate hasta) {
+        FestivosCiudad festivos = instantanea().porCiudad().get(ciudad);
+        return festivos == null ? 0 : contar(festivos.dias(), desde, hasta);
+    }
+
+    @Override
+    public int contarFestivosLaborables(String ciudad, LocalDate desde, LocalDate hasta) {
+        FestivosCiudad festivos = instantanea().porCiudad().get(ciudad);
+        return festivos == null ? 0 : contar(festivos.diasLaborables(), desde, hasta);
+    }
+
+    @Override
+    public Map<String, Set<LocalDate>> festivosPorCiudad(Collection<String> ciudades, LocalDate desde, LocalDate hasta) {
+        Instantanea actual = instantanea();
+        Map<String, Set<LocalDate>> porCiudad = new HashMap<>();
+        for (String ciudad : ciudades) {
+            Set<LocalDate> fechas = new HashSet<>();
+            FestivosCiudad festivos = actual.porCiudad().get(ciudad);
+            if (festivos != null) {
+                int[] dias = festivos.dias();
+                for (int i = primeroDesde(dias, desde.toEpochDay()); i < dias.length && dias[i] <= hasta.toEpochDay(); i++) {
+                    fechas.add(LocalDate.ofEpochDay(dias[i]));
+                }
+            }
+            porCiudad.put(ciudad, fechas);
+        }
+        return porCiudad;
+    }
+
+    @Override
+    public List<FestivoResponse> listar(String ciudad, LocalDate desde, LocalDate hasta) {
+        FestivosCiudad festivos = instantanea().porCiudad().get(ciudad);
+        if (festivos == null) {
+            return List.of();
+        }
+        int[] dias = festivos.diasPorFestivo();
+        int inicio = desde != null ? primeroDesde(dias, desde.toEpochDay()) : 0;
+        int fin = hasta != null ? primeroDesde(dias, hasta.toEpochDay() + 1) : dias.length;
+        return inicio < fin ? List.of(Arrays.copyOfRange(festivos.festivos(), inicio, fin)) : List.of();
+    }
+
+    private Instantanea instantanea() {
+        Instantanea actual = instantanea;
+        if (actual == null) {
+            synchronized (this) {
+                if (instantanea == null) {
+                    recargar();
+                }
+                actual = instantanea;
+            }
+        }
+        return actual;
+    }
+
+    private static int contar(int[] dias, LocalDate desde, LocalDate hasta) {
+        return Math.max(0, primeroDesde(dias, hasta.toEpochDay() + 1) - primeroDesde(dias, desde.toEpochDay()));
+    }
+
+    /** Posición del primer día {@code >= dia} en un array ordenado (admite repetidos). */
+    private static int primeroDesde(int[] dias, long dia) {
+        int bajo = 0;
+        int alto = dias.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (dias[medio] < dia) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Festivos de una ciudad.
+     *
+     * @param dias           días epoch festivos, ordenados y sin repetir
+     * @param diasLaborables los de {@code dias} que caen de lunes a viernes
+     * @param festivos       festivos ordenados por fecha (puede haber varios el mismo día)
+     * @param diasPorFestivo día epoch de cada elemento de {@code festivos}
+     */
+    private record FestivosCiudad(int[] dias, int[] diasLaborables, FestivoResponse[] festivos, int[] diasPorFestivo) {
+
+        static FestivosCiudad de(List<FestivoResponse> festivos) {
+            FestivoResponse[] ordenados = festivos.stream()
+                    .sorted(Comparator.comparing(FestivoResponse::fecha))
+                    .toArray(FestivoResponse[]::new);
+            int[] diasPorFestivo = new int[ordenados.length];
+            for (int i = 0; i < ordenados.length; i++) {
+                diasPorFestivo[i] = (int) ordenados[i].fecha().toEpochDay();
+            }
+            int[] dias = Arrays.stream(diasPorFestivo).distinct().toArray();
+            int[] diasLaborables = Arrays.stream(dias).filter(d -> !esFinDeSemana(d)).toArray();
+            return new FestivosCiudad(dias, diasLaborables, ordenados, diasPorFestivo);
+        }
+
+        private static boolean esFinDeSemana(int dia) {
+            DayOfWeek diaSemana = LocalDate.ofEpochDay(dia).getDayOfWeek();
+            return diaSemana == DayOfWeek.SATURDAY || diaSemana == DayOfWeek.SUNDAY;
+        }
+    }
+
+    private record Instantanea(Map<String, FestivosCiudad> porCiudad, int total) {
+
+        static Instantanea de(List<FestivoResponse> festivos) {
+            Map<String, List<FestivoResponse>> agrupados = new HashMap<>();
+            for (FestivoResponse festivo : festivos) {
+                agrupados.computeIfAbsent(festivo.ciudad(), c -> new ArrayList<>()).add(festivo);
+            }
+            Map<String, FestivosCiudad> porCiudad = new HashMap<>();
+            agrupados.forEach((ciudad, deCiudad) -> porCiudad.put(ciudad, FestivosCiudad.de(deCiudad)));
+            return new Instantanea(Collections.unmodifiableMap(porCiudad), festivos.size());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.kaos.calendario.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import com.kaos.calendario.entity.Ausencia;
+import com.kaos.calendario.entity.MotivoReduccion;
+import com.kaos.calendario.entity.Vacacion;
+
+/**
+ * Calendario laboral precalculado de una persona para un año natural.
+ * <p>
+ * Cada día del año ocupa un bit (índice = día del año - 1) en cuatro mapas de bits:
+ * fin de semana, festivo, vacación y ausencia. El mapa de días laborables se deriva
+ * una única vez al construir el calendario, de forma que contar días disponibles en
+ * cualquier rango se resuelve con {@link Long#bitCount} sobre palabras de 64 bits
+ * y consultar un día concreto es O(1).
+ * </p>
+ * <p>
+ * Instancias inmutables tras su construcción: pueden compartirse entre peticiones.
+ * </p>
+ */
+public final class CalendarioLaboral {
+
+    /** 6 palabras × 64 bits = 384 ≥ 366 días. */
+    private static final int PALABRAS = 6;
+
+    private final int anio;
+    private final int diasAnio;
+    private final long[] finSemana = new long[PALABRAS];
+    private final long[] festivo = new long[PALABRAS];
+    private final long[] vacacion = new long[PALABRAS];
+    private final long[] ausencia = new long[PALABRAS];
+    private final long[] laborable = new long[PALABRAS];
+
+    private CalendarioLaboral(int anio) {
+        this.anio = anio;
+        this.diasAnio = LocalDate.of(anio, 1, 1).lengthOfYear();
+    }
+
+    /**
+     * Construye el calendario de un año a partir de los festivos de la ciudad de la persona
+     * y de sus vacaciones y ausencias. Las fechas fuera del año se ignoran y los rangos
+     * que cruzan el límite del año se recortan.
+     *
+     * @param anio       Año natural del calendario
+     * @param festivos   Fechas festivas de la ciudad de la persona
+     * @param vacaciones Vacaciones de la persona
+     * @param ausencias  Ausencias de la persona (fechaFin null = indefinida)
+     * @return Calendario inmutable
+     */
+    public static CalendarioLaboral construir(
+            int anio,
+            Collection<LocalDate> festivos,
+            Collection<Vacacion> vacaciones,
+            Collection<Ausencia> ausencias) {
+
+        CalendarioLaboral calendario = new CalendarioLaboral(anio);
+        calendario.marcarFinesSemana();
+
+        if (festivos != null) {
+            for (LocalDate fecha : festivos) {
+                if (fecha.getYear() == anio) {
+                    marcar(calendario.festivo, fecha.getDayOfYear() - 1);
+                }
+            }
+        }
+        if (vacaciones != null) {
+            for (Vacacion v : vacaciones) {
+                calendario.marcarRango(calendario.vacacion, v.getFechaInicio(), v.getFechaFin());
+            }
+        }
+        if (ausencias != null) {
+            for (Ausencia a : ausencias) {
+                calendario.marcarRango(calendario.ausencia, a.getFechaInicio(), a.getFechaFin());
+            }
+        }
+
+        calendario.derivarLaborables();
+        return calendario;
+    }
+
+    public int getAnio() {
+        return anio;
+    }
+
+    /**
+     * Indica si la fecha es laborable (no es fin de semana, festivo, vacación ni ausencia).
+     *
+     * @param fecha Fecha dentro del año del calendario
+     * @return true si la persona trabaja ese día
+     */
+    public boolean esLaborable(LocalDate fecha) {
+        return leer(laborable, indice(fecha));
+    }
+
+    /**
+     * Motivo por el que un día no es laborable.
+     * Prioridad: fin de semana &gt; festivo &gt; vacación &gt; ausencia.
+     *
+     * @param fecha Fecha dentro del año del calendario
+     * @return motivo de reducción, o null si el día es laborable
+     */
+    public MotivoReduccion motivoReduccion(LocalDate fecha) {
+        int i = indice(fecha);
+        if (leer(finSemana, i)) {
+            return MotivoReduccion.FIN_SEMANA;
+        }
+        if (leer(festivo, i)) {
+            return MotivoReduccion.FESTIVO;
+        }
+        if (leer(vacacion, i)) {
+            return MotivoReduccion.VACACION;
+        }
+        if (leer(ausencia, i)) {
+            return MotivoReduccion.AUSENCIA;
+        }
+        return null;
+    }
+
+    /**
+     * Cuenta los días laborables de un rango, recortado a los límites del año.
+     *
+     * @param fechaInicio Fecha inicio (inclusive)
+     * @param fechaFin    Fecha fin (inclusive)
+     * @return número de días laborables del rango dentro de este año
+     */
+    public int contarLaborables(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio.getYear() > anio || fechaFin.getYear() < anio) {
+            return 0;
+        }
+        int desde = fechaInicio.getYear() < anio ? 0 : fechaInicio.getDayOfYear() - 1;
+        int hasta = fechaFin.getYear() > anio ? diasAnio - 1 : fechaFin.getDayOfYear() - 1;
+        if (desde > hasta) {
+            return 0;
+        }
+        return contar(laborable, desde, hasta);
+    }
+
+    // ── Construcción ─────────────────────────────────────────────────────────
+
+    private void marcarFinesSemana() {
+        DayOfWeek primerDia = LocalDate.of(anio, 1, 1).getDayOfWeek();
+        for (DayOfWeek finde : new DayOfWeek[] {DayOfWeek.SATURDAY, DayOfWeek.SUNDAY}) {
+            int offset = (finde.getValue() - primerDia.getValue() + 7) % 7;
+            for (int i = offset; i < diasAnio; i += 7) {
+                marcar(finSemana, i);
+            }
+        }
+    }
+
+    private void marcarRango(long[] bits, LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null || fechaInicio.getYear() > anio) {
+            return;
+        }
+        if (fechaFin != null && fechaFin.getYear() < anio) {
+            return;
+        }
+        int desde = fechaInicio.getYear() < anio ? 0 : fechaInicio.getDayOfYear() - 1;
+        int hasta = fechaFin == null || fechaFin.getYear() > anio ? diasAnio - 1 : fechaFin.getDayOfYear() - 1;
+        for (int w = desde >>> 6; w <= hasta >>> 6; w++) {
+            bits[w] |= mascara(w, desde, hasta);
+        }
+    }
+
+    private void derivarLaborables() {
+        for (int w = 0; w < PALABRAS; w++) {
+            laborable[w] = ~(finSemana[w] | festivo[w] | vacacion[w] | ausencia[w]);
+        }
+        // Limpiar los bits que quedan fuera del año
+        for (int i = diasAnio; i < PALABRAS * 64; i++) {
+            laborable[i >>> 6] &= ~(1L << (i & 63));
+        }
+    }
+
+    // ── Operaciones de bits ──────────────────────────────────────────────────
+
+    private int indice(LocalDate fecha) {
+        if (fecha.getYear() != anio) {
+            throw new IllegalArgumentException("Fecha " + fecha + " fuera del calendario " + anio);
+        }
+        return fecha.getDayOfYear() - 1;
+    }
+
+    private static void marcar(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << (i & 63);
+    }
+
+    private static boolean leer(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << (i & 63))) != 0;
+    }
+
+    private static int contar(long[] bits, int desde, int hasta) {
+        int total = 0;
+        for (int w = desde >>> 6; w <= hasta >>> 6; w++) {
+            total += Long.bitCount(bits[w] & mascara(w, desde, hasta));
+        }
+        return total;
+    }
+
+    /**
+     * Máscara de la palabra {@code w} con los bits del rango [desde, hasta] activos.
+     */
+    private static long mascara(int w, int desde, int hasta) {
+        long mascara = -1L;
+        if (w == desde >>> 6) {
+            mascara &= -1L << (desde & 63);
+        }
+        if (w == hasta >>> 6) {
+            mascara &= -1L >>> (63 - (hasta & 63));
+        }
+        return mascara;
+    }
+}
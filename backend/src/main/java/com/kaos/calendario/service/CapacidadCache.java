@@ -0,0 +1,194 @@
+package com.kaos.calendario.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché LRU acotada de capacidades precalculadas por (squad, año).
+ * <p>
+ * Las entradas se invalidan con precisión al recibir un {@link CapacidadInvalidadaEvent}
+ * tras el commit de la transacción que modificó los datos: solo se descartan los squads
+ * y años afectados. Una construcción que coincide con una invalidación no se almacena,
+ * para no guardar datos leídos antes del cambio.
+ * </p>
+ * <p>
+ * Configuración: {@code kaos.capacidad.cache.enabled} (desactivable en tests) y
+ * {@code kaos.capacidad.cache.max-entries}. Métricas expuestas en Micrometer bajo
+ * {@code kaos.capacidad.cache.*}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class CapacidadCache implements MeterBinder {
+
+    private final boolean habilitada;
+    private final int maxEntradas;
+    private final Map<Clave, CapacidadSquadAnio> entradas;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    /** Se incrementa con cada invalidación; las construcciones concurrentes la comparan antes de guardar. */
+    private long generacion;
+
+    public CapacidadCache(
+            @Value("${kaos.capacidad.cache.enabled:true}") boolean habilitada,
+            @Value("${kaos.capacidad.cache.max-entries:500}") int maxEntradas) {
+        this.habilitada = habilitada;
+        this.maxEntradas = maxEntradas;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, CapacidadSquadAnio> eldest) {
+                if (size() > CapacidadCache.this.maxEntradas) {
+                    desalojos.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve la capacidad del squad para el año, construyéndola si no está en caché.
+     * La construcción se ejecuta fuera del bloqueo.
+     *
+     * @param squadId   ID del squad
+     * @param anio      Año natural
+     * @param construir Carga desde BD en caso de fallo
+     */
+    CapacidadSquadAnio obtener(Long squadId, int anio, Supplier<CapacidadSquadAnio> construir) {
+        if (!habilitada) {
+            return construir.get();
+        }
+
+        Clave clave = new Clave(squadId, anio);
+        long generacionInicial;
+        synchronized (this) {
+            CapacidadSquadAnio cacheada = entradas.get(clave);
+            if (cacheada != null) {
+                aciertos.incrementAndGet();
+                return cacheada;
+            }
+            generacionInicial = generacion;
+        }
+
+        fallos.incrementAndGet();
+        CapacidadSquadAnio construida = construir.get();
+
+        synchronized (this) {
+            if (generacion == generacionInicial) {
+                entradas.put(clave, construida);
+            }
+        }
+        return construida;
+    }
+
+    /**
+     * Descarta las entradas afectadas por el cambio, una vez confirmada la transacción.
+     * Si el evento se publica fuera de transacción se procesa inmediatamente.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCapacidadInvalidada(CapacidadInvalidadaEvent evento) {
+        if (!habilitada) {
+            return;
+        }
+
+        int eliminadas = 0;
+        synchronized (this) {
+            generacion++;
+            Iterator<Map.Entry<Clave, CapacidadSquadAnio>> it = entradas.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Clave, CapacidadSquadAnio> entrada = it.next();
+                if (afecta(evento, entrada.getKey(), entrada.getValue())) {
+                    it.remove();
+                    eliminadas++;
+                }
+            }
+        }
+        invalidaciones.addAndGet(eliminadas);
+        log.debug("Caché de capacidad: {} entradas invalidadas por {}", eliminadas, evento);
+    }
+
+    /**
+     * Vacía la caché por completo.
+     */
+    public synchronized void limpiar() {
+        generacion++;
+        invalidaciones.addAndGet(entradas.size());
+        entradas.clear();
+    }
+
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    public long getDesalojos() {
+        return desalojos.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("kaos.capacidad.cache.gets", aciertos, AtomicLong::get)
+                .tag("result", "hit")
+                .description("Consultas a la caché de capacidad resueltas sin ir a BD")
+                .register(registry);
+        FunctionCounter.builder("kaos.capacidad.cache.gets", fallos, AtomicLong::get)
+                .tag("result", "miss")
+                .description("Consultas a la caché de capacidad que requirieron construir el calendario")
+                .register(registry);
+        FunctionCounter.builder("kaos.capacidad.cache.evictions", desalojos, AtomicLong::get)
+                .description("Entradas desalojadas por tamaño máximo")
+                .register(registry);
+        FunctionCounter.builder("kaos.capacidad.cache.invalidations", invalidaciones, AtomicLong::get)
+                .description("Entradas invalidadas por cambios en los datos")
+                .register(registry);
+        Gauge.builder("kaos.capacidad.cache.size", this, CapacidadCache::tamanio)
+                .description("Entradas (squad, año) en caché")
+                .register(registry);
+    }
+
+    private static boolean afecta(CapacidadInvalidadaEvent evento, Clave clave, CapacidadSquadAnio capacidad) {
+        if (!evento.afectaAnio(clave.anio())) {
+            return false;
+        }
+        if (evento.squadId() != null) {
+            return evento.squadId().equals(clave.squadId());
+        }
+        if (evento.personaId() != null) {
+            return capacidad.buscarMiembro(evento.personaId()) != null;
+        }
+        if (evento.ciudad() != null) {
+            return capacidad.miembros().stream().anyMatch(m -> evento.ciudad().equals(m.ciudad()));
+        }
+        if (evento.perfilHorarioId() != null) {
+            return capacidad.miembros().stream().anyMatch(m -> evento.perfilHorarioId().equals(m.perfilHorarioId()));
+        }
+        return true;
+    }
+
+    private record Clave(Long squadId, int anio) {
+    }
+}
@@ -1,22 +1,22 @@
 package com.kaos.calendario.service;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.kaos.calendario.dto.CapacidadDiaResponse;
 import com.kaos.calendario.dto.CapacidadPersonaResponse;
 import com.kaos.calendario.dto.CapacidadSquadResponse;
 import com.kaos.calendario.entity.Ausencia;
-import com.kaos.calendario.entity.Festivo;
 import com.kaos.calendario.entity.MotivoReduccion;
 import com.kaos.calendario.entity.Vacacion;
 import com.kaos.calendario.repository.AusenciaRepository;
-import com.kaos.calendario.repository.FestivoRepository;
 import com.kaos.calendario.repository.VacacionRepository;
 import com.kaos.dedicacion.entity.SquadMember;
 import com.kaos.dedicacion.repository.SquadMemberRepository;
@@ -29,6 +29,9 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Servicio para cálculo de capacidad de squads.
  * Motor de cálculo que considera: perfil horario, dedicación, festivos, vacaciones, ausencias.
+ * Los días no laborables de cada persona se precalculan por año en un {@link CalendarioLaboral}
+ * (mapa de bits), de modo que la capacidad de un rango se obtiene por recuento de bits.
+ * Los calendarios de cada (squad, año) se guardan en {@link CapacidadCache}.
  */
 @Slf4j
 @Service
@@ -38,9 +41,10 @@ public class CapacidadService {
 
     private final SquadRepository squadRepository;
     private final SquadMemberRepository squadMemberRepository;
-    private final FestivoRepository festivoRepository;
+    private final CalendarioFestivos calendarioFestivos;
     private final VacacionRepository vacacionRepository;
     private final AusenciaRepository ausenciaRepository;
+    private final CapacidadCache cache;
 
     /**
      * Calcula la capacidad de un squad en un rango de fechas.
@@ -52,41 +56,22 @@ public class CapacidadService {
     public CapacidadSquadResponse calcularCapacidad(Long squadId, LocalDate fechaInicio, LocalDate fechaFin) {
         log.info("Calculando capacidad del squad {} entre {} y {}", squadId, fechaInicio, fechaFin);
 
-        // Validar fechas
-        if (fechaFin.isBefore(fechaInicio)) {
-            throw new IllegalArgumentException("La fecha de fin debe ser posterior o igual a la fecha de inicio");
-        }
-
-        // Validar squad existe
-        Squad squad = squadRepository.findById(squadId)
-                .orElseThrow(() -> new IllegalArgumentException("Squad no encontrado: " + squadId));
+        validarRango(fechaInicio, fechaFin);
+        List<CapacidadSquadAnio> anios = obtenerCapacidades(squadId, fechaInicio.getYear(), fechaFin.getYear());
+        CapacidadSquadAnio primerAnio = anios.get(0);
 
-        // Obtener miembros activos del squad
-        List<SquadMember> miembros = squadMemberRepository.findBySquadId(squadId);
-        if (miembros.isEmpty()) {
+        if (primerAnio.miembros().isEmpty()) {
             log.warn("Squad {} no tiene miembros activos", squadId);
-            return new CapacidadSquadResponse(squadId, squad.getNombre(), fechaInicio, fechaFin, 0.0, List.of());
+            return new CapacidadSquadResponse(squadId, primerAnio.squadNombre(), fechaInicio, fechaFin, 0.0, List.of());
         }
 
-        // Cargar festivos del rango
-        List<Festivo> festivos = festivoRepository.findByAnio(fechaInicio.getYear());
-        if (fechaInicio.getYear() != fechaFin.getYear()) {
-            festivos.addAll(festivoRepository.findByAnio(fechaFin.getYear()));
-        }
-
-        // Cargar vacaciones del squad en rango
-        List<Vacacion> vacaciones = vacacionRepository.findBySquadIdAndFechaRange(squadId, fechaInicio, fechaFin);
-
-        // Cargar ausencias del squad en rango
-        List<Ausencia> ausencias = ausenciaRepository.findBySquadIdAndFechaRange(squadId, fechaInicio, fechaFin);
-
         // Calcular capacidad por persona
-        List<CapacidadPersonaResponse> capacidadesPersonas = new ArrayList<>();
+        List<CapacidadPersonaResponse> capacidadesPersonas = new ArrayList<>(primerAnio.miembros().size());
         double horasTotalesSquad = 0.0;
 
-        for (SquadMember miembro : miembros) {
+        for (CapacidadSquadAnio.Miembro miembro : primerAnio.miembros()) {
             CapacidadPersonaResponse capacidadPersona = calcularCapacidadPersona(
-                    miembro, fechaInicio, fechaFin, festivos, vacaciones, ausencias);
+                    miembro, fechaInicio, fechaFin, calendariosDe(anios, miembro.personaId()));
             capacidadesPersonas.add(capacidadPersona);
             horasTotalesSquad += capacidadPersona.horasTotales();
         }
@@ -94,7 +79,7 @@ public class CapacidadService {
         log.info("Capacidad total del squad {}: {} horas", squadId, horasTotalesSquad);
         return new CapacidadSquadResponse(
                 squadId,
-                squad.getNombre(),
+                primerAnio.squadNombre(),
                 fechaInicio,
                 fechaFin,
                 horasTotalesSquad,
@@ -102,101 +87,181 @@ public class CapacidadService {
         );
     }
 
+    /**
+     * Calcula solo las horas totales de un squad en un rango de fechas, sin detalle por día.
+     * Recuento directo sobre los calendarios laborales: no genera {@link CapacidadDiaResponse}.
+     *
+     * @param squadId ID del squad
+     * @param fechaInicio Fecha inicio (inclusive)
+     * @param fechaFin Fecha fin (inclusive)
+     * @return Horas disponibles del squad en el rango
+     */
+    public double calcularHorasTotales(Long squadId, LocalDate fechaInicio, LocalDate fechaFin) {
+        validarRango(fechaInicio, fechaFin);
+
+        double horasTotales = 0.0;
+        for (CapacidadSquadAnio anio : obtenerCapacidades(squadId, fechaInicio.getYear(), fechaFin.getYear())) {
+            for (CapacidadSquadAnio.Miembro miembro : anio.miembros()) {
+                horasTotales += miembro.horasTeoricasDiarias()
+                        * miembro.calendario().contarLaborables(fechaInicio, fechaFin);
+            }
+        }
+        return horasTotales;
+    }
+
+    /**
+     * Calcula las horas disponibles de una persona del squad en un día concreto.
+     *
+     * @param squadId ID del squad
+     * @param personaId ID de la persona
+     * @param fecha Día a consultar
+     * @return Horas disponibles (0 si el día no es laborable para la persona)
+     * @throws IllegalArgumentException si la persona no pertenece al squad
+     */
+    public double calcularHorasDisponibles(Long squadId, Long personaId, LocalDate fecha) {
+        CapacidadSquadAnio.Miembro miembro = obtenerCapacidades(squadId, fecha.getYear(), fecha.getYear())
+                .get(0)
+                .buscarMiembro(personaId);
+        if (miembro == null) {
+            throw new IllegalArgumentException("Persona no pertenece al squad del sprint");
+        }
+
+        return miembro.calendario().esLaborable(fecha) ? miembro.horasTeoricasDiarias() : 0.0;
+    }
+
     /**
      * Calcula capacidad de una persona en un rango de fechas.
      */
     private CapacidadPersonaResponse calcularCapacidadPersona(
-            SquadMember miembro,
+            CapacidadSquadAnio.Miembro miembro,
             LocalDate fechaInicio,
             LocalDate fechaFin,
-            List<Festivo> todosFestivos,
-            List<Vacacion> todasVacaciones,
-            List<Ausencia> todasAusencias) {
-
-        Persona persona = miembro.getPersona();
-        log.debug("Calculando capacidad para persona {}", persona.getNombre());
+            Map<Integer, CalendarioLaboral> calendariosPersona) {
 
-        // Filtrar festivos por ciudad de la persona
-        Set<LocalDate> festivosPersona = todosFestivos.stream()
-                .filter(f -> f.getCiudad().equals(persona.getCiudad()))
-                .map(Festivo::getFecha)
-                .collect(Collectors.toSet());
+        log.debug("Calculando capacidad para persona {}", miembro.personaNombre());
 
-        List<Vacacion> vacacionesPersona = todasVacaciones.stream()
-                .filter(v -> v.getPersona().getId().equals(persona.getId()))
-                .toList();
-
-        List<Ausencia> ausenciasPersona = todasAusencias.stream()
-                .filter(a -> a.getPersona().getId().equals(persona.getId()))
-                .toList();
+        double horasTeoricasDiarias = miembro.horasTeoricasDiarias();
+        int diasLaborables = 0;
+        for (CalendarioLaboral calendario : calendariosPersona.values()) {
+            diasLaborables += calendario.contarLaborables(fechaInicio, fechaFin);
+        }
 
-        // Calcular capacidad día a día
-        List<CapacidadDiaResponse> detallesDias = new ArrayList<>();
-        double horasTotalesPersona = 0.0;
+        // Detalle día a día: consulta O(1) sobre el calendario del año correspondiente
+        List<CapacidadDiaResponse> detallesDias =
+                new ArrayList<>((int) ChronoUnit.DAYS.between(fechaInicio, fechaFin) + 1);
 
         LocalDate fecha = fechaInicio;
         while (!fecha.isAfter(fechaFin)) {
-            CapacidadDiaResponse capacidadDia = calcularCapacidadDia(
-                    fecha, miembro, festivosPersona, vacacionesPersona, ausenciasPersona);
-            detallesDias.add(capacidadDia);
-            horasTotalesPersona += capacidadDia.horasDisponibles();
+            MotivoReduccion motivo = calendariosPersona.get(fecha.getYear()).motivoReduccion(fecha);
+            detallesDias.add(motivo == null
+                    ? new CapacidadDiaResponse(fecha, horasTeoricasDiarias, horasTeoricasDiarias, 100, null)
+                    : new CapacidadDiaResponse(fecha, 0.0, horasTeoricasDiarias, 0, motivo));
             fecha = fecha.plusDays(1);
         }
 
         return new CapacidadPersonaResponse(
-                persona.getId(),
-                persona.getNombre(),
-                horasTotalesPersona,
+                miembro.personaId(),
+                miembro.personaNombre(),
+                horasTeoricasDiarias * diasLaborables,
                 detallesDias
         );
     }
 
     /**
-     * Calcula capacidad de una persona en un día específico.
+     * Obtiene la capacidad precalculada del squad para cada año del rango, desde la
+     * {@link CapacidadCache} o construyéndola si no está.
+     *
+     * @return una entrada por año, en orden
      */
-    private CapacidadDiaResponse calcularCapacidadDia(
-            LocalDate fecha,
-            SquadMember miembro,
-            Set<LocalDate> festivosPersona,
-            List<Vacacion> vacacionesPersona,
-            List<Ausencia> ausenciasPersona) {
-
-        // Calcular horas teóricas diarias
-        Double horasSemanales = miembro.getPersona().getPerfilHorario().getTotalSemanal().doubleValue();
-        Integer dedicacion = miembro.getPorcentaje();
-        double horasTeoricasDiarias = (horasSemanales / 5.0) * (dedicacion / 100.0);
-
-        // Verificar si es fin de semana
-        DayOfWeek diaSemana = fecha.getDayOfWeek();
-        if (diaSemana == DayOfWeek.SATURDAY || diaSemana == DayOfWeek.SUNDAY) {
-            return new CapacidadDiaResponse(fecha, 0.0, horasTeoricasDiarias, 0, MotivoReduccion.FIN_SEMANA);
+    private List<CapacidadSquadAnio> obtenerCapacidades(Long squadId, int anioInicio, int anioFin) {
+        List<CapacidadSquadAnio> anios = new ArrayList<>(anioFin - anioInicio + 1);
+        for (int anio = anioInicio; anio <= anioFin; anio++) {
+            int anioConstruir = anio;
+            anios.add(cache.obtener(squadId, anio, () -> construirCapacidadAnio(squadId, anioConstruir)));
         }
+        return anios;
+    }
 
-        // Verificar si es festivo
-        if (festivosPersona.contains(fecha)) {
-            return new CapacidadDiaResponse(fecha, 0.0, horasTeoricasDiarias, 0, MotivoReduccion.FESTIVO);
+    /**
+     * Construye los calendarios laborales de los miembros del squad para un año.
+     * Pide a {@link CalendarioFestivos} solo los festivos de las ciudades de los miembros, carga
+     * vacaciones y ausencias del año completo una sola vez y los reparte por ciudad/persona
+     * antes de construir los mapas de bits.
+     */
+    private CapacidadSquadAnio construirCapacidadAnio(Long squadId, int anio) {
+        Squad squad = buscarSquad(squadId);
+        List<SquadMember> miembros = squadMemberRepository.findBySquadId(squadId);
+        if (miembros.isEmpty()) {
+            return new CapacidadSquadAnio(squadId, squad.getNombre(), anio, List.of());
         }
 
-        // Verificar si hay vacación
-        boolean tieneVacacion = vacacionesPersona.stream()
-                .anyMatch(v -> !fecha.isBefore(v.getFechaInicio()) && !fecha.isAfter(v.getFechaFin()));
-        if (tieneVacacion) {
-            return new CapacidadDiaResponse(fecha, 0.0, horasTeoricasDiarias, 0, MotivoReduccion.VACACION);
+        LocalDate inicioAnio = LocalDate.of(anio, 1, 1);
+        LocalDate finAnio = LocalDate.of(anio, 12, 31);
+
+        Set<String> ciudades = new HashSet<>();
+        for (SquadMember miembro : miembros) {
+            ciudades.add(miembro.getPersona().getCiudad());
+        }
+        Map<String, Set<LocalDate>> festivosPorCiudad =
+                calendarioFestivos.festivosPorCiudad(ciudades, inicioAnio, finAnio);
+
+        Map<Long, List<Vacacion>> vacacionesPorPersona = new HashMap<>();
+        for (Vacacion v : vacacionRepository.findBySquadIdAndFechaRange(squadId, inicioAnio, finAnio)) {
+            vacacionesPorPersona.computeIfAbsent(v.getPersona().getId(), id -> new ArrayList<>()).add(v);
         }
 
-        // Verificar si hay ausencia
-        boolean tieneAusencia = ausenciasPersona.stream()
-                .anyMatch(a -> {
-                    boolean despuesInicio = !fecha.isBefore(a.getFechaInicio());
-                    boolean antesFin = a.getFechaFin() == null || !fecha.isAfter(a.getFechaFin());
-                    return despuesInicio && antesFin;
-                });
-        if (tieneAusencia) {
-            return new CapacidadDiaResponse(fecha, 0.0, horasTeoricasDiarias, 0, MotivoReduccion.AUSENCIA);
+        Map<Long, List<Ausencia>> ausenciasPorPersona = new HashMap<>();
+        for (Ausencia a : ausenciaRepository.findBySquadIdAndFechaRange(squadId, inicioAnio, finAnio)) {
+            ausenciasPorPersona.computeIfAbsent(a.getPersona().getId(), id -> new ArrayList<>()).add(a);
         }
 
-        // Día laborable normal - capacidad completa
-        int porcentaje = 100;
-        return new CapacidadDiaResponse(fecha, horasTeoricasDiarias, horasTeoricasDiarias, porcentaje, null);
+        List<CapacidadSquadAnio.Miembro> resultado = new ArrayList<>(miembros.size());
+        for (SquadMember miembro : miembros) {
+            Persona persona = miembro.getPersona();
+            CalendarioLaboral calendario = CalendarioLaboral.construir(
+                    anio,
+                    festivosPorCiudad.getOrDefault(persona.getCiudad(), Set.of()),
+                    vacacionesPorPersona.getOrDefault(persona.getId(), List.of()),
+                    ausenciasPorPersona.getOrDefault(persona.getId(), List.of()));
+            resultado.add(new CapacidadSquadAnio.Miembro(
+                    persona.getId(),
+                    persona.getNombre(),
+                    persona.getCiudad(),
+                    persona.getPerfilHorario().getId(),
+                    horasTeoricasDiarias(miembro),
+                    calendario));
+        }
+
+        return new CapacidadSquadAnio(squadId, squad.getNombre(), anio, List.copyOf(resultado));
+    }
+
+    private Map<Integer, CalendarioLaboral> calendariosDe(List<CapacidadSquadAnio> anios, Long personaId) {
+        Map<Integer, CalendarioLaboral> calendarios = new HashMap<>();
+        for (CapacidadSquadAnio anio : anios) {
+            CapacidadSquadAnio.Miembro miembro = anio.buscarMiembro(personaId);
+            if (miembro != null) {
+                calendarios.put(anio.anio(), miembro.calendario());
+            }
+        }
+        return calendarios;
+    }
+
+    /**
+     * Horas teóricas diarias: (horas semanales del perfil / 5) × dedicación.
+     */
+    private double horasTeoricasDiarias(SquadMember miembro) {
+        double horasSemanales = miembro.getPersona().getPerfilHorario().getTotalSemanal().doubleValue();
+        return (horasSemanales / 5.0) * (miembro.getPorcentaje() / 100.0);
+    }
+
+    private void validarRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new IllegalArgumentException("La fecha de fin debe ser posterior o igual a la fecha de inicio");
+        }
+    }
+
+    private Squad buscarSquad(Long squadId) {
+        return squadRepository.findById(squadId)
+                .orElseThrow(() -> new IllegalArgumentException("Squad no encontrado: " + squadId));
     }
 }
@@ -0,0 +1,54 @@
+package com.kaos.calendario.service;
+
+import java.util.List;
+
+/**
+ * Capacidad precalculada de un squad para un año natural: miembros con sus horas
+ * teóricas diarias y su {@link CalendarioLaboral}. Es la unidad que guarda {@link CapacidadCache}.
+ *
+ * @param squadId     ID del squad
+ * @param squadNombre Nombre del squad
+ * @param anio        Año natural
+ * @param miembros    Miembros del squad en el orden devuelto por el repositorio
+ */
+record CapacidadSquadAnio(
+        Long squadId,
+        String squadNombre,
+        int anio,
+        List<Miembro> miembros
+) {
+
+    /**
+     * Miembro del squad con los datos necesarios para calcular su capacidad.
+     *
+     * @param personaId            ID de la persona
+     * @param personaNombre        Nombre de la persona
+     * @param ciudad               Ciudad (determina festivos)
+     * @param perfilHorarioId      Perfil horario de la persona
+     * @param horasTeoricasDiarias (horas semanales / 5) × dedicación
+     * @param calendario           Calendario laboral del año
+     */
+    record Miembro(
+            Long personaId,
+            String personaNombre,
+            String ciudad,
+            Long perfilHorarioId,
+            double horasTeoricasDiarias,
+            CalendarioLaboral calendario
+    ) {
+    }
+
+    /**
+     * Busca un miembro por persona.
+     *
+     * @return el miembro o null si la persona no pertenece al squad
+     */
+    Miembro buscarMiembro(Long personaId) {
+        for (Miembro miembro : miembros) {
+            if (miembro.personaId().equals(personaId)) {
+                return miembro;
+            }
+        }
+        return null;
+    }
+}
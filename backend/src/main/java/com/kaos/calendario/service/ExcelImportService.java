@@ -1,35 +1,41 @@
 package com.kaos.calendario.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.multipart.MultipartFile;
 import com.kaos.calendario.dto.ExcelAnalysisResponse;
 import com.kaos.calendario.dto.ExcelImportResponse;
+import com.kaos.calendario.dto.ParametrosImportacionExcel;
 import com.kaos.calendario.entity.Ausencia;
 import com.kaos.calendario.entity.EstadoVacacion;
 import com.kaos.calendario.entity.TipoAusencia;
 import com.kaos.calendario.entity.TipoVacacion;
 import com.kaos.calendario.entity.Vacacion;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.calendario.repository.AusenciaRepository;
+import com.kaos.calendario.repository.CalendarioBatchRepository;
 import com.kaos.calendario.repository.VacacionRepository;
+import com.kaos.common.excel.ExcelStreamReader;
+import com.kaos.common.excel.ExcelStreamReader.FilaExcel;
+import com.kaos.importacion.entity.TipoImportacion;
+import com.kaos.importacion.service.ImportacionEnCurso;
+import com.kaos.importacion.service.ProcesadorImportacion;
 import com.kaos.persona.entity.Persona;
 import com.kaos.persona.repository.PersonaRepository;
 import lombok.RequiredArgsConstructor;
@@ -57,11 +63,15 @@ import lombok.extern.slf4j.Slf4j;
  *   <li>O → Ausencia OTRO (solo Chile)</li>
  *   <li>Resto (C, T, Z, M, VAL, COR, COR, etc.) → ignorados</li>
  * </ul>
+ *
+ * <p>La importación se ejecuta como job de {@link com.kaos.importacion.service.ImportacionJobService}
+ * (tipo {@link TipoImportacion#VACACIONES_EXCEL}); el análisis (dry-run) sigue siendo síncrono.</p>
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ExcelImportService {
+public class ExcelImportService
+        implements ProcesadorImportacion<ParametrosImportacionExcel, ExcelImportResponse> {
 
     // ──────────────────────────────────────────────────────────────────────
     // Constantes
@@ -97,6 +107,12 @@ public class ExcelImportService {
      */
     private static final long MAX_GAP_DAYS = 3;
 
+    /** Última fila (0-based) en la que se busca la cabecera de meses. */
+    private static final int MAX_MONTH_ROW = 30;
+
+    /** Filas de persona confirmadas por transacción en la importación. */
+    static final int TAMANO_BLOQUE = 50;
+
     // ──────────────────────────────────────────────────────────────────────
     // Dependencias
     // ──────────────────────────────────────────────────────────────────────
@@ -104,6 +120,10 @@ public class ExcelImportService {
     private final PersonaRepository personaRepository;
     private final VacacionRepository vacacionRepository;
     private final AusenciaRepository ausenciaRepository;
+    private final CalendarioBatchRepository batchRepository;
+    private final CalendarioFestivos calendarioFestivos;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
 
     // ──────────────────────────────────────────────────────────────────────
     // Punto de entrada
@@ -122,38 +142,20 @@ public class ExcelImportService {
         // LinkedHashSet para mantener orden de aparición y evitar duplicados
         Set<String> nombresEncontrados = new LinkedHashSet<>();
 
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-            for (int si = 0; si < workbook.getNumberOfSheets(); si++) {
-                Sheet sheet = workbook.getSheetAt(si);
-                int monthRowIdx = findMonthRow(sheet);
-                if (monthRowIdx < 0) continue;
-
-                for (int r = monthRowIdx + 2; r <= sheet.getLastRowNum(); r++) {
-                    Row row = sheet.getRow(r);
-                    if (row == null) continue;
-                    String nombre = getStringValue(row.getCell(1));
-                    if (nombre == null || nombre.isBlank()) continue;
-                    Cell col2Cell = row.getCell(2);
-                    if (col2Cell == null || col2Cell.getCellType() == CellType.BLANK) continue;
-                    String col2 = getStringValue(col2Cell);
-                    if (col2 != null && (col2.equalsIgnoreCase("Dias rest. FY25")
-                            || col2.equalsIgnoreCase("Localización")
-                            || col2.equalsIgnoreCase("Coordinación"))) {
-                        continue;
-                    }
-                    nombresEncontrados.add(nombre.trim());
-                }
-            }
-        }
+        recorrerFilasPersona(file, año, false,
+                (nombre, fila, colDateMap) -> nombresEncontrados.add(nombre.trim()));
 
+        IndiceNombresPersona indice = IndiceNombresPersona.construir(personaRepository.findByActivoTrue());
         List<ExcelAnalysisResponse.PersonaMatch> resueltas = new ArrayList<>();
         List<String> noResueltas = new ArrayList<>();
 
         for (String nombre : nombresEncontrados) {
-            Optional<Persona> personaOpt = resolvePersona(nombre, Collections.emptyMap());
-            if (personaOpt.isPresent()) {
-                Persona p = personaOpt.get();
-                resueltas.add(new ExcelAnalysisResponse.PersonaMatch(nombre, p.getId(), p.getNombre()));
+            Optional<IndiceNombresPersona.Coincidencia> coincidencia =
+                    resolvePersona(nombre, Collections.emptyMap(), indice);
+            if (coincidencia.isPresent()) {
+                Persona p = coincidencia.get().persona();
+                resueltas.add(new ExcelAnalysisResponse.PersonaMatch(nombre, p.getId(), p.getNombre(),
+                        coincidencia.get().criterio().name(), coincidencia.get().confianza()));
             } else {
                 noResueltas.add(nombre);
             }
@@ -164,170 +166,205 @@ public class ExcelImportService {
     }
 
     /**
-     * Importa vacaciones/ausencias desde un fichero Excel.
+     * Importa vacaciones/ausencias desde un fichero Excel, confirmando cada
+     * {@link #TAMANO_BLOQUE} filas de persona en su propia transacción.
      *
-     * @param file     fichero .xlsx subido por el usuario
-     * @param año      año fiscal (e.g. 2026 para España FY26; 2025 para Chile FY2025)
-     * @param mappings mapeo manual nombre-excel → personaId para nombres no auto-resueltos.
-     *                 Puede ser null o vacío si no hay mapeos manuales.
+     * <p>Primero cuenta las filas de persona (para el avance del job) y después las
+     * recorre saltando las {@link ImportacionEnCurso#getFilaInicial() ya confirmadas}, de
+     * modo que un job fallido se reanuda sin duplicar registros ni contadores.</p>
+     *
+     * @param importacion fichero .xlsx, año fiscal y mapeos manuales nombre-excel → personaId
      */
-    @Transactional
-    public ExcelImportResponse importarExcel(MultipartFile file, int año,
-                                              Map<String, Long> mappings) throws IOException {
-        Map<String, Long> effectiveMappings = (mappings != null) ? mappings : Collections.emptyMap();
-        log.info("Iniciando importación Excel: {}, año fiscal {}, {} mapeos manuales",
-                file.getOriginalFilename(), año, effectiveMappings.size());
-
-        int personasProcesadas = 0;
-        int vacacionesCreadas = 0;
-        int ausenciasCreadas = 0;
-        List<String> personasNoEncontradas = new ArrayList<>();
-        List<String> errores = new ArrayList<>();
-
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-
-            for (int si = 0; si < workbook.getNumberOfSheets(); si++) {
-                Sheet sheet = workbook.getSheetAt(si);
-                String sheetName = sheet.getSheetName();
-                log.info("Procesando hoja: {}", sheetName);
-
-                // 1. Buscar la fila con los nombres de mes
-                int monthRowIdx = findMonthRow(sheet);
-                if (monthRowIdx < 0) {
-                    log.warn("Hoja '{}' no tiene fila de meses — se omite", sheetName);
-                    continue;
-                }
+    @Override
+    public ExcelImportResponse procesar(
+            ImportacionEnCurso<ParametrosImportacionExcel, ExcelImportResponse> importacion) throws IOException {
+        ParametrosImportacionExcel parametros = importacion.getParametros();
+        int año = parametros.año();
+        Map<String, Long> effectiveMappings = (parametros.mappings() != null)
+                ? parametros.mappings() : Collections.emptyMap();
+        int filaInicial = importacion.getFilaInicial();
+        log.info("Iniciando importación Excel: {}, año fiscal {}, {} mapeos manuales, desde la fila {}",
+                importacion.getFichero().getFileName(), año, effectiveMappings.size(), filaInicial);
+
+        int[] total = {0};
+        recorrerFilasPersona(importacion.getFichero(), año, true, (nombre, fila, colDateMap) -> total[0]++);
+        importacion.total(total[0]);
+
+        ResultadoImportacion resultado = new ResultadoImportacion(importacion.getResultadoPrevio());
+        IndiceNombresPersona indice = IndiceNombresPersona.construir(personaRepository.findByActivoTrue());
+        int[] filasLeidas = {0};
+
+        recorrerFilasPersona(importacion.getFichero(), año, true, (nombre, fila, colDateMap) -> {
+            if (++filasLeidas[0] <= filaInicial) return;
+            leerFila(nombre, fila, colDateMap, effectiveMappings, indice, resultado);
+            if (filasLeidas[0] % TAMANO_BLOQUE == 0) {
+                confirmarBloque(importacion, filasLeidas[0], resultado);
+            }
+        });
+        confirmarBloque(importacion, filasLeidas[0], resultado);
 
-                // 2. Construir mapa columna → LocalDate
-                Map<Integer, LocalDate> colDateMap = buildColumnDateMap(sheet, monthRowIdx, año);
-                if (colDateMap.isEmpty()) {
-                    log.warn("Hoja '{}' no generó mapa de fechas — se omite", sheetName);
-                    continue;
-                }
+        log.info("Importación completada: {} personas, {} vacaciones, {} ausencias, {} no encontradas, {} errores",
+                resultado.personasProcesadas, resultado.vacacionesCreadas, resultado.ausenciasCreadas,
+                resultado.personasNoEncontradas.size(), resultado.errores.size());
 
-                // 3. Detectar la primera columna de datos de calendario
-                int firstCalendarCol = colDateMap.keySet().stream().mapToInt(i -> i).min().orElse(6);
-
-                // 4. Procesar filas de personas (a partir de monthRowIdx + 2)
-                for (int r = monthRowIdx + 2; r <= sheet.getLastRowNum(); r++) {
-                    Row row = sheet.getRow(r);
-                    if (row == null) continue;
-
-                    String nombre = getStringValue(row.getCell(1));
-                    if (nombre == null || nombre.isBlank()) continue;
-
-                    // Distinguir fila de persona de fila de sección/cabecera:
-                    // col[2] debe ser numérica o un nombre de ciudad (no nulo)
-                    Cell col2Cell = row.getCell(2);
-                    if (col2Cell == null || col2Cell.getCellType() == CellType.BLANK) continue;
-                    // Ignorar fila si col[2] es texto genérico de cabecera
-                    String col2 = getStringValue(col2Cell);
-                    if (col2 != null && (col2.equalsIgnoreCase("Dias rest. FY25")
-                            || col2.equalsIgnoreCase("Localización")
-                            || col2.equalsIgnoreCase("Coordinación"))) {
-                        continue;
-                    }
+        return resultado.toResponse();
+    }
 
-                    // Buscar persona en BD (auto-resolución + mapeo manual)
-                    Optional<Persona> personaOpt = resolvePersona(nombre, effectiveMappings);
-                    if (personaOpt.isEmpty()) {
-                        if (!personasNoEncontradas.contains(nombre)) {
-                            personasNoEncontradas.add(nombre);
-                        }
-                        continue;
-                    }
-                    Persona persona = personaOpt.get();
-
-                    // Recopilar (fecha → código)
-                    TreeMap<LocalDate, String> dayCodes = new TreeMap<>();
-                    for (Map.Entry<Integer, LocalDate> entry : colDateMap.entrySet()) {
-                        int col = entry.getKey();
-                        if (col < firstCalendarCol) continue;
-                        Cell cell = row.getCell(col);
-                        String code = getStringValue(cell);
-                        if (code != null && !code.isBlank()) {
-                            // Normalizar código (quitar variantes como "C-1h")
-                            String normalizedCode = normalizeCode(code);
-                            if (normalizedCode != null) {
-                                dayCodes.put(entry.getValue(), normalizedCode);
-                            }
-                        }
-                    }
+    @Override
+    public TipoImportacion getTipo() {
+        return TipoImportacion.VACACIONES_EXCEL;
+    }
 
-                    if (dayCodes.isEmpty()) {
-                        personasProcesadas++;
-                        continue;
-                    }
+    @Override
+    public Class<ParametrosImportacionExcel> getTipoParametros() {
+        return ParametrosImportacionExcel.class;
+    }
+
+    @Override
+    public Class<ExcelImportResponse> getTipoResultado() {
+        return ExcelImportResponse.class;
+    }
+
+    /**
+     * Guarda los rangos leídos desde el último bloque y registra el avance en la misma
+     * transacción. Las invalidaciones de capacidad se publican dentro para que el listener
+     * AFTER_COMMIT solo actúe si el bloque se confirma.
+     */
+    private void confirmarBloque(ImportacionEnCurso<ParametrosImportacionExcel, ExcelImportResponse> importacion,
+                                 int filasLeidas, ResultadoImportacion resultado) {
+        transactionOperations.executeWithoutResult(status -> {
+            guardarRangos(resultado);
+            resultado.personasModificadas.forEach(id -> eventPublisher.publishEvent(CapacidadInvalidadaEvent.dePersona(id)));
+            importacion.confirmar(filasLeidas, resultado.errores.size(), resultado.toResponse());
+        });
+        resultado.filas.clear();
+        resultado.personasModificadas.clear();
+    }
 
-                    // Agrupar días consecutivos del mismo tipo en rangos
-                    List<DayRange> ranges = groupConsecutiveDays(dayCodes);
-
-                    for (DayRange range : ranges) {
-                        try {
-                            TipoVacacion tipoVac = VACACION_CODES.get(range.code());
-                            TipoAusencia tipoAus = AUSENCIA_CODES.get(range.code());
-
-                            if (tipoVac != null) {
-                                // Verificar que no existe solapamiento
-                                boolean solapa = vacacionRepository.existsSolapamiento(
-                                        persona.getId(), null, range.inicio(), range.fin());
-                                if (solapa) {
-                                    log.warn("Solapamiento para {} [{} - {}] — se omite",
-                                            nombre, range.inicio(), range.fin());
-                                    continue;
-                                }
-                                Vacacion v = Vacacion.builder()
-                                        .persona(persona)
-                                        .fechaInicio(range.inicio())
-                                        .fechaFin(range.fin())
-                                        .diasLaborables(calcularDiasLaborables(range.inicio(), range.fin()))
-                                        .tipo(tipoVac)
-                                        .estado(EstadoVacacion.REGISTRADA)
-                                        .build();
-                                vacacionRepository.save(v);
-                                vacacionesCreadas++;
-
-                            } else if (tipoAus != null) {
-                                boolean solapaAus = ausenciaRepository.existsSolapamiento(
-                                        persona.getId(), null, range.inicio(), range.fin());
-                                if (solapaAus) {
-                                    log.warn("Ausencia duplicada para {} [{} - {}] — se omite",
-                                            nombre, range.inicio(), range.fin());
-                                    continue;
-                                }
-                                Ausencia a = Ausencia.builder()
-                                        .persona(persona)
-                                        .fechaInicio(range.inicio())
-                                        .fechaFin(range.fin())
-                                        .tipo(tipoAus)
-                                        .comentario("Importado desde Excel")
-                                        .build();
-                                ausenciaRepository.save(a);
-                                ausenciasCreadas++;
-                            }
-                        } catch (Exception ex) {
-                            String msg = String.format("%s [%s – %s (%s)]: %s",
-                                    nombre, range.inicio(), range.fin(), range.code(), ex.getMessage());
-                            errores.add(msg);
-                            log.error("Error importando rango: {}", msg, ex);
+    /**
+     * Resuelve la persona de una fila y agrupa sus días en rangos. No accede a BD (salvo
+     * mapeos manuales a personas inactivas): los rangos se guardan en {@link #guardarRangos}.
+     */
+    private void leerFila(String nombre, FilaExcel fila, Map<Integer, LocalDate> colDateMap,
+                          Map<String, Long> mappings, IndiceNombresPersona indice,
+                          ResultadoImportacion resultado) {
+        // Buscar persona (mapeo manual + resolución en memoria)
+        Optional<IndiceNombresPersona.Coincidencia> coincidencia = resolvePersona(nombre, mappings, indice);
+        if (coincidencia.isEmpty()) {
+            if (!resultado.personasNoEncontradas.contains(nombre)) {
+                resultado.personasNoEncontradas.add(nombre);
+            }
+            return;
+        }
+        Persona persona = coincidencia.get().persona();
+
+        // Recopilar (fecha → código)
+        TreeMap<LocalDate, String> dayCodes = new TreeMap<>();
+        for (Map.Entry<Integer, LocalDate> entry : colDateMap.entrySet()) {
+            String code = fila.texto(entry.getKey());
+            if (code != null) {
+                // Normalizar código (quitar variantes como "C-1h")
+                String normalizedCode = normalizeCode(code);
+                if (normalizedCode != null) {
+                    dayCodes.put(entry.getValue(), normalizedCode);
+                }
+            }
+        }
+
+        // Agrupar días consecutivos del mismo tipo en rangos
+        if (!dayCodes.isEmpty()) {
+            resultado.filas.add(new FilaImportada(nombre, persona, groupConsecutiveDays(dayCodes)));
+        }
+        resultado.personasProcesadas++;
+    }
+
+    /**
+     * Valida solapamientos y persiste los rangos leídos del bloque.
+     * <p>
+     * Carga de una vez los periodos existentes de todas las personas afectadas en la ventana
+     * de fechas del bloque (una consulta para vacaciones y otra para ausencias), comprueba
+     * cada rango en memoria con {@link PeriodosOcupados} y, al aceptarlo, lo marca como ocupado
+     * para que los rangos siguientes del bloque también se validen contra él (los de bloques
+     * anteriores ya están en BD). Las filas aceptadas se insertan con JDBC batch.
+     * </p>
+     */
+    private void guardarRangos(ResultadoImportacion resultado) {
+        if (resultado.filas.isEmpty()) return;
+
+        Set<Long> personaIds = new HashSet<>();
+        LocalDate desde = LocalDate.MAX;
+        LocalDate hasta = LocalDate.MIN;
+        for (FilaImportada fila : resultado.filas) {
+            personaIds.add(fila.persona().getId());
+            for (DayRange range : fila.ranges()) {
+                if (range.inicio().isBefore(desde)) desde = range.inicio();
+                if (range.fin().isAfter(hasta)) hasta = range.fin();
+            }
+        }
+
+        PeriodosOcupados vacacionesOcupadas = PeriodosOcupados.de(
+                vacacionRepository.findPeriodosByPersonaIdIn(personaIds, desde, hasta));
+        PeriodosOcupados ausenciasOcupadas = PeriodosOcupados.de(
+                ausenciaRepository.findPeriodosByPersonaIdIn(personaIds, desde, hasta));
+
+        List<Vacacion> vacaciones = new ArrayList<>();
+        List<Ausencia> ausencias = new ArrayList<>();
+
+        for (FilaImportada fila : resultado.filas) {
+            Persona persona = fila.persona();
+            for (DayRange range : fila.ranges()) {
+                try {
+                    TipoVacacion tipoVac = VACACION_CODES.get(range.code());
+                    TipoAusencia tipoAus = AUSENCIA_CODES.get(range.code());
+
+                    if (tipoVac != null) {
+                        // Verificar que no existe solapamiento
+                        if (vacacionesOcupadas.solapa(persona.getId(), range.inicio(), range.fin())) {
+                            log.warn("Solapamiento para {} [{} - {}] — se omite",
+                                    fila.nombre(), range.inicio(), range.fin());
+                            continue;
                         }
+                        vacaciones.add(Vacacion.builder()
+                                .persona(persona)
+                                .fechaInicio(range.inicio())
+                                .fechaFin(range.fin())
+                                .diasLaborables(calcularDiasLaborables(persona.getCiudad(), range.inicio(), range.fin()))
+                                .tipo(tipoVac)
+                                .estado(EstadoVacacion.REGISTRADA)
+                                .build());
+                        vacacionesOcupadas.ocupar(persona.getId(), range.inicio(), range.fin());
+                        resultado.vacacionesCreadas++;
+                        resultado.personasModificadas.add(persona.getId());
+
+                    } else if (tipoAus != null) {
+                        if (ausenciasOcupadas.solapa(persona.getId(), range.inicio(), range.fin())) {
+                            log.warn("Ausencia duplicada para {} [{} - {}] — se omite",
+                                    fila.nombre(), range.inicio(), range.fin());
+                            continue;
+                        }
+                        ausencias.add(Ausencia.builder()
+                                .persona(persona)
+                                .fechaInicio(range.inicio())
+                                .fechaFin(range.fin())
+                                .tipo(tipoAus)
+                                .comentario("Importado desde Excel")
+                                .build());
+                        ausenciasOcupadas.ocupar(persona.getId(), range.inicio(), range.fin());
+                        resultado.ausenciasCreadas++;
+                        resultado.personasModificadas.add(persona.getId());
                     }
-
-                    personasProcesadas++;
+                } catch (Exception ex) {
+                    String msg = String.format("%s [%s – %s (%s)]: %s",
+                            fila.nombre(), range.inicio(), range.fin(), range.code(), ex.getMessage());
+                    resultado.errores.add(msg);
+                    log.error("Error importando rango: {}", msg, ex);
                 }
             }
         }
 
-        log.info("Importación completada: {} personas, {} vacaciones, {} ausencias, {} no encontradas, {} errores",
-                personasProcesadas, vacacionesCreadas, ausenciasCreadas,
-                personasNoEncontradas.size(), errores.size());
-
-        return new ExcelImportResponse(
-                personasProcesadas,
-                vacacionesCreadas,
-                ausenciasCreadas,
-                personasNoEncontradas,
-                errores);
+        // Un fallo de BD aquí deshace el bloque: el job se reanuda desde el bloque anterior
+        batchRepository.insertarVacaciones(vacaciones);
+        batchRepository.insertarAusencias(ausencias);
     }
 
     // ──────────────────────────────────────────────────────────────────────
@@ -335,21 +372,53 @@ public class ExcelImportService {
     // ──────────────────────────────────────────────────────────────────────
 
     /**
-     * Encuentra el índice de la fila que contiene los nombres de mes (ENERO, FEBRERO...).
-     * Devuelve -1 si no se encuentra.
+     * Recorre en streaming las filas de persona de todas las hojas, en una sola pasada.
+     *
+     * @param requiereCalendario si es true, las hojas sin mapa columna → fecha se omiten
+     * @param procesador         recibe cada fila de persona con el mapa de fechas de su hoja
      */
-    private int findMonthRow(Sheet sheet) {
-        for (int r = 0; r <= Math.min(sheet.getLastRowNum(), 30); r++) {
-            Row row = sheet.getRow(r);
-            if (row == null) continue;
-            for (Cell cell : row) {
-                String val = getStringValue(cell);
-                if (val != null && MONTH_MAP.containsKey(val.trim().toUpperCase())) {
-                    return r;
-                }
+    private void recorrerFilasPersona(MultipartFile file, int año, boolean requiereCalendario,
+                                      ProcesadorFilaPersona procesador) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            ExcelStreamReader.leer(in, new LectorHojaVacaciones(año, requiereCalendario, procesador));
+        }
+    }
+
+    private void recorrerFilasPersona(Path fichero, int año, boolean requiereCalendario,
+                                      ProcesadorFilaPersona procesador) throws IOException {
+        ExcelStreamReader.leer(fichero, new LectorHojaVacaciones(año, requiereCalendario, procesador));
+    }
+
+    /**
+     * Indica si la fila contiene algún nombre de mes (ENERO, FEBRERO...).
+     */
+    private boolean esFilaMeses(FilaExcel fila) {
+        for (int col = 0; col <= fila.ultimaColumna(); col++) {
+            String val = fila.texto(col);
+            if (val != null && MONTH_MAP.containsKey(val.toUpperCase())) {
+                return true;
             }
         }
-        return -1;
+        return false;
+    }
+
+    /**
+     * Distingue una fila de persona de una fila de sección/cabecera:
+     * col[1] debe tener nombre y col[2] no puede estar vacía ni ser texto de cabecera.
+     *
+     * @return el nombre de la persona, o null si no es una fila de persona
+     */
+    private String nombrePersona(FilaExcel fila) {
+        String nombre = fila.texto(1);
+        if (nombre == null) return null;
+        if (!fila.tieneValor(2)) return null;
+        String col2 = fila.texto(2);
+        if (col2 != null && (col2.equalsIgnoreCase("Dias rest. FY25")
+                || col2.equalsIgnoreCase("Localización")
+                || col2.equalsIgnoreCase("Coordinación"))) {
+            return null;
+        }
+        return nombre;
     }
 
     /**
@@ -363,20 +432,18 @@ public class ExcelImportService {
      *       Diciembre usan {@code año - 1}; Enero en adelante usa {@code año}.</li>
      * </ul>
      */
-    private Map<Integer, LocalDate> buildColumnDateMap(Sheet sheet, int monthRowIdx, int año) {
-        Row monthRow = sheet.getRow(monthRowIdx);
-        Row dayRow   = sheet.getRow(monthRowIdx + 1);
+    private Map<Integer, LocalDate> buildColumnDateMap(FilaExcel monthRow, FilaExcel dayRow, int año) {
         if (monthRow == null || dayRow == null) return Map.of();
 
         // Paso 1: detectar la columna de inicio de cada mes
         // TreeMap para mantener el orden de columna
         TreeMap<Integer, Integer> colMonth = new TreeMap<>(); // col → month number
-        for (Cell cell : monthRow) {
-            String val = getStringValue(cell);
+        for (int col = 0; col <= monthRow.ultimaColumna(); col++) {
+            String val = monthRow.texto(col);
             if (val != null) {
-                Integer m = MONTH_MAP.get(val.trim().toUpperCase());
+                Integer m = MONTH_MAP.get(val.toUpperCase());
                 if (m != null) {
-                    colMonth.put(cell.getColumnIndex(), m);
+                    colMonth.put(col, m);
                 }
             }
         }
@@ -390,20 +457,18 @@ public class ExcelImportService {
         Map<Integer, LocalDate> colDateMap = new HashMap<>();
 
         // Iterar la fila de días
-        for (Cell cell : dayRow) {
-            if (cell == null || cell.getCellType() == CellType.BLANK) continue;
+        for (int col = 0; col <= dayRow.ultimaColumna(); col++) {
+            String s = dayRow.texto(col);
+            if (s == null) continue;
             int day;
-            if (cell.getCellType() == CellType.NUMERIC) {
-                day = (int) cell.getNumericCellValue();
-            } else {
-                String s = getStringValue(cell);
-                if (s == null) continue;
-                try { day = Integer.parseInt(s.trim()); } catch (NumberFormatException e) { continue; }
+            try {
+                day = Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                // Número con formato decimal ("1.00")
+                try { day = (int) Double.parseDouble(s); } catch (NumberFormatException e2) { continue; }
             }
             if (day < 1 || day > 31) continue;
 
-            int col = cell.getColumnIndex();
-
             // Encontrar el mes correspondiente: el mes cuya columna de inicio es <= col
             Map.Entry<Integer, Integer> monthEntry = colMonth.floorEntry(col);
             if (monthEntry == null) continue;
@@ -438,40 +503,28 @@ public class ExcelImportService {
      * Orden de búsqueda:
      * <ol>
      *   <li>Mapeo manual ({@code mappings}) — el usuario asignó explícitamente este nombre</li>
-     *   <li>Coincidencia exacta en BD (case-insensitive)</li>
-     *   <li>Coincidencia parcial única en BD</li>
+     *   <li>Reglas del {@link IndiceNombresPersona}: exacta, normalizada, parcial única,
+     *       dos primeras palabras y similitud</li>
      * </ol>
      *
      * @param nombre   nombre tal como aparece en el Excel
      * @param mappings mapa nombre-excel → personaId proporcionado por el usuario
+     * @param indice   índice de personas activas construido para esta importación
      */
-    private Optional<Persona> resolvePersona(String nombre, Map<String, Long> mappings) {
+    private Optional<IndiceNombresPersona.Coincidencia> resolvePersona(
+            String nombre, Map<String, Long> mappings, IndiceNombresPersona indice) {
         // 1. Mapeo manual explícito
         Long manualId = mappings.get(nombre.trim());
         if (manualId == null) manualId = mappings.get(nombre); // fallback sin trim
         if (manualId != null) {
-            return personaRepository.findById(manualId);
+            // La persona mapeada puede no estar activa (y por tanto fuera del índice)
+            Persona indexada = indice.buscarPorId(manualId);
+            Optional<Persona> persona = indexada != null ? Optional.of(indexada) : personaRepository.findById(manualId);
+            return persona.map(p -> IndiceNombresPersona.Coincidencia.de(p, IndiceNombresPersona.Criterio.MANUAL));
         }
 
-        // 2. Coincidencia exacta BD
-        Optional<Persona> exact = personaRepository.findByNombreIgnoreCase(nombre.trim());
-        if (exact.isPresent()) return exact;
-
-        // 3. Coincidencia parcial única
-        String[] parts = nombre.trim().split("\\s+");
-        if (parts.length == 0) return Optional.empty();
-
-        List<Persona> candidates = personaRepository.findByNombreContainingIgnoreCase(nombre.trim());
-        if (candidates.size() == 1) return Optional.of(candidates.get(0));
-
-        // Intentar con las dos primeras palabras si no hubo resultado
-        if (parts.length >= 2 && candidates.isEmpty()) {
-            String partial = parts[0] + " " + parts[1];
-            candidates = personaRepository.findByNombreContainingIgnoreCase(partial);
-            if (candidates.size() == 1) return Optional.of(candidates.get(0));
-        }
-
-        return Optional.empty();
+        // 2. Resolución en memoria
+        return indice.resolver(nombre);
     }
 
     /**
@@ -538,9 +591,10 @@ public class ExcelImportService {
     // ──────────────────────────────────────────────────────────────────────
 
     /**
-     * Calcula días laborables entre dos fechas inclusive, excluyendo sábados y domingos.
+     * Calcula días laborables entre dos fechas inclusive, excluyendo sábados, domingos y los
+     * festivos de la ciudad.
      */
-    private int calcularDiasLaborables(LocalDate inicio, LocalDate fin) {
+    private int calcularDiasLaborables(String ciudad, LocalDate inicio, LocalDate fin) {
         int count = 0;
         LocalDate d = inicio;
         while (!d.isAfter(fin)) {
@@ -550,29 +604,7 @@ public class ExcelImportService {
             }
             d = d.plusDays(1);
         }
-        return count;
-    }
-
-    /**
-     * Extrae el valor de texto de una celda (STRING o NUMERIC convertido a String),
-     * o devuelve null si la celda está en blanco.
-     */
-    private String getStringValue(Cell cell) {
-        if (cell == null) return null;
-        return switch (cell.getCellType()) {
-            case STRING  -> cell.getStringCellValue().trim().isEmpty() ? null
-                                                                        : cell.getStringCellValue().trim();
-            case NUMERIC -> {
-                double d = cell.getNumericCellValue();
-                // Si es entero, devolver como entero (evitar "1.0")
-                yield (d == Math.floor(d)) ? String.valueOf((int) d) : String.valueOf(d);
-            }
-            case FORMULA -> {
-                try { yield cell.getStringCellValue(); }
-                catch (Exception e) { yield String.valueOf((int) cell.getNumericCellValue()); }
-            }
-            default -> null;
-        };
+        return count - calendarioFestivos.contarFestivosLaborables(ciudad, inicio, fin);
     }
 
     // ──────────────────────────────────────────────────────────────────────
@@ -581,4 +613,126 @@ public class ExcelImportService {
 
     /** Rango contíguo de días con el mismo código de tipo. */
     private record DayRange(LocalDate inicio, LocalDate fin, String code) {}
+
+    /** Fila de persona resuelta con sus rangos, pendiente de validar y guardar. */
+    private record FilaImportada(String nombre, Persona persona, List<DayRange> ranges) {}
+
+    /** Recibe cada fila de persona junto con el mapa columna → fecha de su hoja. */
+    @FunctionalInterface
+    private interface ProcesadorFilaPersona {
+        void procesar(String nombre, FilaExcel fila, Map<Integer, LocalDate> colDateMap);
+    }
+
+    /**
+     * Contadores acumulados durante la importación, más las filas y personas del bloque en curso.
+     */
+    private static final class ResultadoImportacion {
+        private int personasProcesadas;
+        private int vacacionesCreadas;
+        private int ausenciasCreadas;
+        private final List<String> personasNoEncontradas = new ArrayList<>();
+        private final List<String> errores = new ArrayList<>();
+        private final Set<Long> personasModificadas = new LinkedHashSet<>();
+        private final List<FilaImportada> filas = new ArrayList<>();
+
+        /** Continúa desde el resultado de una ejecución anterior, si la hay. */
+        private ResultadoImportacion(Optional<ExcelImportResponse> previo) {
+            previo.ifPresent(p -> {
+                personasProcesadas = p.personasProcesadas();
+                vacacionesCreadas = p.vacacionesCreadas();
+                ausenciasCreadas = p.ausenciasCreadas();
+                personasNoEncontradas.addAll(p.personasNoEncontradas());
+                errores.addAll(p.errores());
+            });
+        }
+
+        private ExcelImportResponse toResponse() {
+            return new ExcelImportResponse(personasProcesadas, vacacionesCreadas, ausenciasCreadas,
+                    List.copyOf(personasNoEncontradas), List.copyOf(errores));
+        }
+    }
+
+    /**
+     * Máquina de estados por hoja sobre las filas emitidas por {@link ExcelStreamReader}:
+     * busca la fila de meses (entre las primeras 31 filas), construye el
+     * mapa de fechas con la fila siguiente y entrega las filas de persona a partir de ahí.
+     * Solo conserva la fila de meses hasta leer la de días.
+     */
+    private final class LectorHojaVacaciones implements ExcelStreamReader.ManejadorFilas {
+
+        private final int año;
+        private final boolean requiereCalendario;
+        private final ProcesadorFilaPersona procesador;
+
+        private String sheetName;
+        private int monthRowIdx;
+        private FilaExcel monthRow;
+        private Map<Integer, LocalDate> colDateMap;
+        private boolean omitida;
+
+        private LectorHojaVacaciones(int año, boolean requiereCalendario, ProcesadorFilaPersona procesador) {
+            this.año = año;
+            this.requiereCalendario = requiereCalendario;
+            this.procesador = procesador;
+        }
+
+        @Override
+        public void inicioHoja(String nombre) {
+            sheetName = nombre;
+            monthRowIdx = -1;
+            monthRow = null;
+            colDateMap = null;
+            omitida = false;
+            if (requiereCalendario) {
+                log.info("Procesando hoja: {}", nombre);
+            }
+        }
+
+        @Override
+        public void fila(int r, FilaExcel fila) {
+            if (omitida) return;
+
+            // 1. Buscar la fila con los nombres de mes
+            if (monthRowIdx < 0) {
+                if (r > MAX_MONTH_ROW) {
+                    omitir("no tiene fila de meses");
+                } else if (esFilaMeses(fila)) {
+                    monthRowIdx = r;
+                    monthRow = fila.copia();
+                }
+                return;
+            }
+
+            // 2. Construir mapa columna → LocalDate con la fila de días (monthRowIdx + 1)
+            if (colDateMap == null) {
+                colDateMap = buildColumnDateMap(monthRow, r == monthRowIdx + 1 ? fila : null, año);
+                monthRow = null;
+                if (colDateMap.isEmpty() && requiereCalendario) {
+                    omitir("no generó mapa de fechas");
+                    return;
+                }
+                if (r == monthRowIdx + 1) return;
+            }
+
+            // 3. Procesar filas de personas (a partir de monthRowIdx + 2)
+            String nombre = nombrePersona(fila);
+            if (nombre != null) {
+                procesador.procesar(nombre, fila, colDateMap);
+            }
+        }
+
+        @Override
+        public void finHoja(String nombre) {
+            if (monthRowIdx < 0 && !omitida) {
+                omitir("no tiene fila de meses");
+            }
+        }
+
+        private void omitir(String motivo) {
+            omitida = true;
+            if (requiereCalendario) {
+                log.warn("Hoja '{}' {} — se omite", sheetName, motivo);
+            }
+        }
+    }
 }
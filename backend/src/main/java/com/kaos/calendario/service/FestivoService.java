@@ -4,13 +4,21 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionOperations;
 import com.kaos.calendario.dto.FestivoCsvError;
 import com.kaos.calendario.dto.FestivoCsvRow;
 import com.kaos.calendario.dto.FestivoCsvUploadResponse;
@@ -18,8 +26,12 @@ import com.kaos.calendario.dto.FestivoRequest;
 import com.kaos.calendario.dto.FestivoResponse;
 import com.kaos.calendario.entity.Festivo;
 import com.kaos.calendario.entity.TipoFestivo;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.calendario.mapper.FestivoMapper;
 import com.kaos.calendario.repository.FestivoRepository;
+import com.kaos.importacion.entity.TipoImportacion;
+import com.kaos.importacion.service.ImportacionEnCurso;
+import com.kaos.importacion.service.ProcesadorImportacion;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,10 +44,16 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
-public class FestivoService {
+public class FestivoService implements ProcesadorImportacion<Void, FestivoCsvUploadResponse> {
+
+    /** Líneas del CSV confirmadas por transacción. */
+    static final int TAMANO_BLOQUE_CSV = 500;
 
     private final FestivoRepository repository;
     private final FestivoMapper mapper;
+    private final CalendarioFestivos calendario;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
 
     /**
      * Lista festivos con filtros opcionales.
@@ -91,6 +109,7 @@ public class FestivoService {
 
         Festivo entity = mapper.toEntity(request);
         Festivo saved = repository.save(entity);
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.deCiudad(request.ciudad(), request.fecha()));
         log.info("Festivo creado con id: {}", saved.getId());
         return mapper.toResponse(saved);
     }
@@ -118,10 +137,14 @@ public class FestivoService {
             }
         }
 
+        // La capacidad se invalida tanto para la ciudad/fecha anterior como para la nueva
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.deCiudad(entity.getCiudad(), entity.getFecha()));
+
         // Actualizar campos
         mapper.updateEntity(request, entity);
 
         Festivo updated = repository.save(entity);
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.deCiudad(request.ciudad(), request.fecha()));
         log.info("Festivo actualizado: {}", id);
         return mapper.toResponse(updated);
     }
@@ -132,15 +155,16 @@ public class FestivoService {
     @Transactional
     public void eliminar(Long id) {
         log.info("Eliminando festivo con id: {}", id);
-        if (!repository.existsById(id)) {
-            throw new EntityNotFoundException("Festivo no encontrado con id: " + id);
-        }
-        repository.deleteById(id);
+        Festivo entity = repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Festivo no encontrado con id: " + id));
+        repository.delete(entity);
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.deCiudad(entity.getCiudad(), entity.getFecha()));
         log.info("Festivo eliminado: {}", id);
     }
 
     /**
-     * Lista festivos de una ciudad en un rango de fechas.
+     * Lista festivos de una ciudad en un rango de fechas, ordenados por fecha
+     * (ver {@link CalendarioFestivos}).
      *
      * @param ciudad      nombre de la ciudad
      * @param fechaInicio inicio del rango (nullable)
@@ -148,8 +172,7 @@ public class FestivoService {
      */
     public List<FestivoResponse> listarPorCiudad(String ciudad, LocalDate fechaInicio, LocalDate fechaFin) {
         log.debug("Listando festivos de ciudad: {} (desde {} hasta {})", ciudad, fechaInicio, fechaFin);
-        List<Festivo> festivos = repository.findByCiudadAndFechaRange(ciudad, fechaInicio, fechaFin);
-        return mapper.toResponseList(festivos);
+        return calendario.listar(ciudad, fechaInicio, fechaFin);
     }
 
     /**
@@ -158,26 +181,85 @@ public class FestivoService {
      * Ejemplo: 2026-01-01;Año Nuevo;NACIONAL;Madrid
      * 
      * Procesamiento parcial: festivos duplicados se ignoran, errores no bloquean el resto.
+     * Se ejecuta como job de importación: cada {@link #TAMANO_BLOQUE_CSV} líneas se confirman
+     * en su propia transacción y, al reanudar, se saltan las líneas ya confirmadas.
      *
-     * @param file archivo CSV
+     * @param importacion archivo CSV (sin parámetros)
      * @return resumen de carga con detalles de errores
      */
-    @Transactional
-    public FestivoCsvUploadResponse cargarCsv(MultipartFile file) {
-        log.info("Procesando carga masiva CSV: {}", file.getOriginalFilename());
-        
-        List<FestivoCsvError> errores = new ArrayList<>();
-        int totalProcesados = 0;
-        int exitosos = 0;
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FestivoCsvUploadResponse procesar(ImportacionEnCurso<Void, FestivoCsvUploadResponse> importacion)
+            throws IOException {
+        log.info("Procesando carga masiva CSV: {}, desde la línea {}",
+                importacion.getFichero().getFileName(), importacion.getFilaInicial());
+
+        CargaCsv carga = new CargaCsv(importacion.getResultadoPrevio());
+        List<String> bloque = new ArrayList<>(TAMANO_BLOQUE_CSV);
         int numeroFila = 0;
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-            
+        try (BufferedReader reader = abrirCsv(importacion.getFichero())) {
+            importacion.total((int) reader.lines().count());
+        }
+
+        try (BufferedReader reader = abrirCsv(importacion.getFichero())) {
             String linea;
             while ((linea = reader.readLine()) != null) {
                 numeroFila++;
-                totalProcesados++;
+                if (numeroFila <= importacion.getFilaInicial()) {
+                    continue;
+                }
+                bloque.add(linea);
+                if (bloque.size() == TAMANO_BLOQUE_CSV) {
+                    confirmarBloqueCsv(importacion, bloque, numeroFila, carga);
+                }
+            }
+        }
+        confirmarBloqueCsv(importacion, bloque, numeroFila, carga);
+
+        log.info("Carga masiva completada: {} procesados, {} exitosos, {} errores",
+                carga.totalProcesados, carga.exitosos, carga.errores.size());
+
+        return carga.toResponse();
+    }
+
+    @Override
+    public TipoImportacion getTipo() {
+        return TipoImportacion.FESTIVOS_CSV;
+    }
+
+    @Override
+    public Class<Void> getTipoParametros() {
+        return Void.class;
+    }
+
+    @Override
+    public Class<FestivoCsvUploadResponse> getTipoResultado() {
+        return FestivoCsvUploadResponse.class;
+    }
+
+    /**
+     * Abre el CSV en UTF-8; las secuencias inválidas se sustituyen en lugar de fallar.
+     */
+    private BufferedReader abrirCsv(Path fichero) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(fichero), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Procesa las líneas del bloque (la última es {@code ultimaFila}) y registra el avance
+     * en la misma transacción.
+     */
+    private void confirmarBloqueCsv(ImportacionEnCurso<Void, FestivoCsvUploadResponse> importacion,
+                                    List<String> bloque, int ultimaFila, CargaCsv carga) {
+        Set<CapacidadInvalidadaEvent> invalidaciones = new LinkedHashSet<>();
+        // Los INSERT del bloque se envían en lote al confirmar; hasta entonces los duplicados
+        // dentro del propio bloque se detectan aquí
+        Set<FestivoCsvRow> creados = new HashSet<>();
+        transactionOperations.executeWithoutResult(status -> {
+            int numeroFila = ultimaFila - bloque.size();
+            for (String linea : bloque) {
+                numeroFila++;
+                carga.totalProcesados++;
 
                 // Ignorar líneas vacías
                 if (linea.isBlank()) {
@@ -186,22 +268,21 @@ public class FestivoService {
 
                 try {
                     FestivoCsvRow row = parseCsvRow(linea);
-                    procesarFilaCsv(row, numeroFila, errores);
-                    exitosos++;
+                    if (procesarFilaCsv(row, numeroFila, creados)) {
+                        invalidaciones.add(CapacidadInvalidadaEvent.deCiudad(row.ciudad(), row.fecha()));
+                    }
+                    carga.exitosos++;
                 } catch (Exception e) {
                     log.warn("Error en fila {}: {}", numeroFila, e.getMessage());
-                    errores.add(new FestivoCsvError(numeroFila, e.getMessage()));
+                    carga.errores.add(new FestivoCsvError(numeroFila, e.getMessage()));
                 }
             }
-        } catch (IOException e) {
-            log.error("Error leyendo archivo CSV", e);
-            throw new IllegalArgumentException("Error leyendo archivo CSV: " + e.getMessage());
-        }
-
-        log.info("Carga masiva completada: {} procesados, {} exitosos, {} errores",
-                totalProcesados, exitosos, errores.size());
 
-        return new FestivoCsvUploadResponse(totalProcesados, exitosos, errores.size(), errores);
+            // Un evento por (ciudad, año) afectado, no por fila
+            invalidaciones.forEach(eventPublisher::publishEvent);
+            importacion.confirmar(ultimaFila, carga.errores.size(), carga.toResponse());
+        });
+        bloque.clear();
     }
 
     /**
@@ -234,13 +315,18 @@ public class FestivoService {
 
     /**
      * Procesa una fila del CSV creando el festivo.
-     * Si ya existe (duplicado), lo ignora sin lanzar error.
+     * Si ya existe (duplicado), en BD o antes en el mismo bloque, lo ignora sin lanzar error.
+     *
+     * @param creados filas ya creadas en el bloque (sin tipo), aún sin escribir en BD
+     * @return true si se ha creado el festivo
      */
-    private void procesarFilaCsv(FestivoCsvRow row, int numeroFila, List<FestivoCsvError> errores) {
+    private boolean procesarFilaCsv(FestivoCsvRow row, int numeroFila, Set<FestivoCsvRow> creados) {
         // Verificar duplicado - ignorar sin error
-        if (repository.existsByFechaAndDescripcionAndCiudad(row.fecha(), row.descripcion(), row.ciudad())) {
+        FestivoCsvRow clave = new FestivoCsvRow(row.fecha(), row.descripcion(), null, row.ciudad());
+        if (creados.contains(clave)
+                || repository.existsByFechaAndDescripcionAndCiudad(row.fecha(), row.descripcion(), row.ciudad())) {
             log.debug("Fila {}: festivo duplicado, ignorando", numeroFila);
-            return;
+            return false;
         }
 
         // Crear festivo
@@ -252,6 +338,28 @@ public class FestivoService {
                 .build();
 
         repository.save(festivo);
+        creados.add(clave);
         log.debug("Fila {}: festivo creado para ciudad {}", numeroFila, row.ciudad());
+        return true;
+    }
+
+    /** Contadores acumulados de una carga CSV. */
+    private static final class CargaCsv {
+        private int totalProcesados;
+        private int exitosos;
+        private final List<FestivoCsvError> errores = new ArrayList<>();
+
+        /** Continúa desde el resultado de una ejecución anterior, si la hay. */
+        private CargaCsv(Optional<FestivoCsvUploadResponse> previo) {
+            previo.ifPresent(p -> {
+                totalProcesados = p.totalProcesados();
+                exitosos = p.exitosos();
+                errores.addAll(p.detalleErrores());
+            });
+        }
+
+        private FestivoCsvUploadResponse toResponse() {
+            return new FestivoCsvUploadResponse(totalProcesados, exitosos, errores.size(), List.copyOf(errores));
+        }
     }
 }
@@ -0,0 +1,229 @@
+package com.kaos.calendario.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import com.kaos.persona.entity.Persona;
+
+/**
+ * Índice en memoria para resolver nombres de Excel contra las personas activas.
+ * <p>
+ * Se construye una vez por importación/análisis y sustituye las consultas por fila
+ * ({@code findByNombreIgnoreCase} y dos {@code LIKE '%...%'}). Reglas, en orden:
+ * </p>
+ * <ol>
+ *   <li>{@link Criterio#EXACTA}: mismo nombre sin distinguir mayúsculas.</li>
+ *   <li>{@link Criterio#NORMALIZADA}: mismo nombre ignorando además tildes, signos y orden de palabras.</li>
+ *   <li>{@link Criterio#CONTENIDA}: una única persona cuyo nombre contiene el del Excel.</li>
+ *   <li>{@link Criterio#DOS_PRIMERAS_PALABRAS}: si ninguna lo contiene, una única persona que
+ *       contiene las dos primeras palabras.</li>
+ *   <li>{@link Criterio#SIMILITUD}: la persona más parecida (coeficiente de Dice sobre bigramas),
+ *       si supera {@link #UMBRAL_SIMILITUD} y no hay empate cercano.</li>
+ * </ol>
+ * Las reglas que encuentran varias personas se consideran ambiguas y pasan a la siguiente.
+ * Los resultados se memorizan por nombre, ya que un mismo nombre aparece en varias hojas.
+ */
+final class IndiceNombresPersona {
+
+    /** Similitud mínima para aceptar una coincidencia aproximada. */
+    static final double UMBRAL_SIMILITUD = 0.8;
+
+    /** Diferencia mínima entre la mejor y la segunda mejor similitud. */
+    private static final double MARGEN_SIMILITUD = 0.05;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Regla con la que se resolvió un nombre. La confianza es fija por regla salvo en
+     * {@link #SIMILITUD}, donde se escala con la similitud obtenida.
+     */
+    enum Criterio {
+        MANUAL(1.0),
+        EXACTA(1.0),
+        NORMALIZADA(0.95),
+        CONTENIDA(0.8),
+        DOS_PRIMERAS_PALABRAS(0.7),
+        SIMILITUD(0.7);
+
+        private final double confianza;
+
+        Criterio(double confianza) {
+            this.confianza = confianza;
+        }
+    }
+
+    /**
+     * Persona resuelta junto con la regla aplicada y la confianza (0-1).
+     */
+    record Coincidencia(Persona persona, Criterio criterio, double confianza) {
+
+        static Coincidencia de(Persona persona, Criterio criterio) {
+            return new Coincidencia(persona, criterio, criterio.confianza);
+        }
+    }
+
+    private record Entrada(Persona persona, String normalizado, Set<String> bigramas) {
+    }
+
+    private final Map<Long, Persona> porId = new HashMap<>();
+    private final Map<String, List<Persona>> porNombre = new HashMap<>();
+    private final Map<String, List<Persona>> porClaveNormalizada = new HashMap<>();
+    private final List<Entrada> entradas = new ArrayList<>();
+    private final Map<String, Optional<Coincidencia>> resueltos = new HashMap<>();
+
+    private IndiceNombresPersona(Collection<Persona> personas) {
+        for (Persona persona : personas) {
+            if (persona.getNombre() == null) {
+                continue;
+            }
+            String normalizado = normalizar(persona.getNombre());
+            porId.put(persona.getId(), persona);
+            porNombre.computeIfAbsent(persona.getNombre().trim().toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+                    .add(persona);
+            porClaveNormalizada.computeIfAbsent(claveSinOrden(normalizado), k -> new ArrayList<>()).add(persona);
+            entradas.add(new Entrada(persona, normalizado, bigramas(claveSinOrden(normalizado))));
+        }
+    }
+
+    /**
+     * Construye el índice a partir de las personas (normalmente, las activas).
+     */
+    static IndiceNombresPersona construir(Collection<Persona> personas) {
+        return new IndiceNombresPersona(personas);
+    }
+
+    /**
+     * Persona indexada con ese ID, o null si no está (p.ej. inactiva).
+     */
+    Persona buscarPorId(Long id) {
+        return porId.get(id);
+    }
+
+    /**
+     * Resuelve un nombre del Excel aplicando las reglas en orden.
+     */
+    Optional<Coincidencia> resolver(String nombre) {
+        return resueltos.computeIfAbsent(nombre.trim(), this::resolverSinCache);
+    }
+
+    private Optional<Coincidencia> resolverSinCache(String nombre) {
+        // 1. Coincidencia exacta (sin distinguir mayúsculas)
+        Persona exacta = unica(porNombre.get(nombre.toLowerCase(Locale.ROOT)));
+        if (exacta != null) {
+            return Optional.of(Coincidencia.de(exacta, Criterio.EXACTA));
+        }
+
+        String normalizado = normalizar(nombre);
+        if (normalizado.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // 2. Mismo nombre ignorando tildes y orden de palabras
+        Persona normalizada = unica(porClaveNormalizada.get(claveSinOrden(normalizado)));
+        if (normalizada != null) {
+            return Optional.of(Coincidencia.de(normalizada, Criterio.NORMALIZADA));
+        }
+
+        // 3. Coincidencia parcial única
+        List<Persona> contienen = contienen(normalizado);
+        if (contienen.size() == 1) {
+            return Optional.of(Coincidencia.de(contienen.get(0), Criterio.CONTENIDA));
+        }
+
+        // 4. Dos primeras palabras, solo si nadie contenía el nombre completo
+        String[] palabras = normalizado.split(" ");
+        if (palabras.length >= 2 && contienen.isEmpty()) {
+            List<Persona> dosPalabras = contienen(palabras[0] + " " + palabras[1]);
+            if (dosPalabras.size() == 1) {
+                return Optional.of(Coincidencia.de(dosPalabras.get(0), Criterio.DOS_PRIMERAS_PALABRAS));
+            }
+        }
+
+        // 5. Similitud aproximada
+        return porSimilitud(normalizado);
+    }
+
+    private List<Persona> contienen(String fragmento) {
+        List<Persona> candidatos = new ArrayList<>(2);
+        for (Entrada entrada : entradas) {
+            if (entrada.normalizado().contains(fragmento)) {
+                candidatos.add(entrada.persona());
+            }
+        }
+        return candidatos;
+    }
+
+    private Optional<Coincidencia> porSimilitud(String normalizado) {
+        Set<String> bigramas = bigramas(claveSinOrden(normalizado));
+        Entrada mejor = null;
+        double mejorScore = 0.0;
+        double segundoScore = 0.0;
+        for (Entrada entrada : entradas) {
+            double score = dice(bigramas, entrada.bigramas());
+            if (score > mejorScore) {
+                segundoScore = mejorScore;
+                mejorScore = score;
+                mejor = entrada;
+            } else if (score > segundoScore) {
+                segundoScore = score;
+            }
+        }
+
+        if (mejor == null || mejorScore < UMBRAL_SIMILITUD || mejorScore - segundoScore < MARGEN_SIMILITUD) {
+            return Optional.empty();
+        }
+        double confianza = Math.round(Criterio.SIMILITUD.confianza * mejorScore * 100) / 100.0;
+        return Optional.of(new Coincidencia(mejor.persona(), Criterio.SIMILITUD, confianza));
+    }
+
+    private static Persona unica(List<Persona> personas) {
+        return personas != null && personas.size() == 1 ? personas.get(0) : null;
+    }
+
+    /**
+     * Minúsculas, sin tildes y con los signos reducidos a un espacio.
+     */
+    static String normalizar(String nombre) {
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(nombre, Normalizer.Form.NFD)).replaceAll("");
+        return NO_ALFANUMERICO.matcher(sinTildes.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String claveSinOrden(String normalizado) {
+        String[] palabras = normalizado.split(" ");
+        Arrays.sort(palabras);
+        return String.join(" ", palabras);
+    }
+
+    private static Set<String> bigramas(String texto) {
+        Set<String> bigramas = new HashSet<>();
+        for (int i = 0; i < texto.length() - 1; i++) {
+            bigramas.add(texto.substring(i, i + 2));
+        }
+        return bigramas;
+    }
+
+    private static double dice(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> menor = a.size() <= b.size() ? a : b;
+        Set<String> mayor = menor == a ? b : a;
+        int comunes = 0;
+        for (String bigrama : menor) {
+            if (mayor.contains(bigrama)) {
+                comunes++;
+            }
+        }
+        return 2.0 * comunes / (a.size() + b.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.kaos.calendario.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import com.kaos.calendario.dto.PeriodoPersona;
+
+/**
+ * Periodos ocupados por persona para detectar solapamientos en memoria.
+ * <p>
+ * Por cada persona guarda intervalos disjuntos ordenados ({@code inicio → fin}, ambos
+ * inclusive): al ocupar un rango se fusiona con los que toca, de modo que comprobar un
+ * solapamiento es una sola búsqueda {@code floorEntry} en O(log n). Los rangos sin fecha fin
+ * (ausencias indefinidas) se tratan como abiertos hasta {@link LocalDate#MAX}.
+ * </p>
+ */
+final class PeriodosOcupados {
+
+    private final Map<Long, TreeMap<LocalDate, LocalDate>> porPersona = new HashMap<>();
+
+    /**
+     * Construye la estructura a partir de los periodos existentes en BD.
+     */
+    static PeriodosOcupados de(Iterable<? extends PeriodoPersona> periodos) {
+        PeriodosOcupados ocupados = new PeriodosOcupados();
+        for (PeriodoPersona periodo : periodos) {
+            ocupados.ocupar(periodo.getPersonaId(), periodo.getFechaInicio(), periodo.getFechaFin());
+        }
+        return ocupados;
+    }
+
+    /**
+     * Indica si [inicio, fin] se solapa con algún periodo ocupado de la persona.
+     */
+    boolean solapa(Long personaId, LocalDate inicio, LocalDate fin) {
+        TreeMap<LocalDate, LocalDate> intervalos = porPersona.get(personaId);
+        if (intervalos == null) return false;
+        // Al ser disjuntos, basta con el último intervalo que empieza antes del fin
+        Map.Entry<LocalDate, LocalDate> anterior = intervalos.floorEntry(fin(fin));
+        return anterior != null && !anterior.getValue().isBefore(inicio);
+    }
+
+    /**
+     * Marca [inicio, fin] como ocupado para la persona, fusionándolo con los intervalos que solapa.
+     *
+     * @param fin fecha fin inclusive, o null si es indefinido
+     */
+    void ocupar(Long personaId, LocalDate inicio, LocalDate fin) {
+        TreeMap<LocalDate, LocalDate> intervalos = porPersona.computeIfAbsent(personaId, k -> new TreeMap<>());
+        LocalDate nuevoInicio = inicio;
+        LocalDate nuevoFin = fin(fin);
+
+        Map.Entry<LocalDate, LocalDate> anterior = intervalos.floorEntry(nuevoInicio);
+        if (anterior != null && !anterior.getValue().isBefore(nuevoInicio)) {
+            nuevoInicio = anterior.getKey();
+            nuevoFin = max(nuevoFin, anterior.getValue());
+            intervalos.remove(anterior.getKey());
+        }
+        Map.Entry<LocalDate, LocalDate> siguiente = intervalos.ceilingEntry(nuevoInicio);
+        while (siguiente != null && !siguiente.getKey().isAfter(nuevoFin)) {
+            nuevoFin = max(nuevoFin, siguiente.getValue());
+            intervalos.remove(siguiente.getKey());
+            siguiente = intervalos.ceilingEntry(nuevoInicio);
+        }
+        intervalos.put(nuevoInicio, nuevoFin);
+    }
+
+    private static LocalDate fin(LocalDate fin) {
+        return fin != null ? fin : LocalDate.MAX;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
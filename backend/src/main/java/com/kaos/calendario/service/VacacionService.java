@@ -3,13 +3,17 @@ package com.kaos.calendario.service;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.kaos.calendario.dto.VacacionRequest;
 import com.kaos.calendario.dto.VacacionResponse;
 import com.kaos.calendario.entity.Vacacion;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.calendario.mapper.VacacionMapper;
 import com.kaos.calendario.repository.VacacionRepository;
+import com.kaos.common.exception.ViolacionRestriccion;
 import com.kaos.persona.entity.Persona;
 import com.kaos.persona.repository.PersonaRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,7 +21,9 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Servicio para gestión de vacaciones.
- * Calcula días laborables excluyendo fines de semana, valida solapamientos.
+ * Calcula días laborables excluyendo fines de semana y los festivos de la ciudad de la persona
+ * ({@link CalendarioFestivos}). Los solapamientos de una misma persona los rechaza la BD
+ * ({@value #RESTRICCION_SOLAPE}), sin consulta previa ni carrera entre peticiones concurrentes.
  */
 @Slf4j
 @Service
@@ -25,9 +31,14 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional(readOnly = true)
 public class VacacionService {
 
+    /** Restricción de exclusión que impide vacaciones solapadas de una persona (changeset 039). */
+    static final String RESTRICCION_SOLAPE = "excl_vacacion_persona_solape";
+
     private final VacacionRepository repository;
     private final PersonaRepository personaRepository;
     private final VacacionMapper mapper;
+    private final CalendarioFestivos calendarioFestivos;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Lista todas las vacaciones con filtros opcionales.
@@ -55,7 +66,7 @@ public class VacacionService {
 
     /**
      * Crea una nueva vacación.
-     * Valida fechas, calcula días laborables, verifica solapamiento.
+     * Valida fechas y calcula días laborables; el solapamiento lo detecta la BD al guardar.
      */
     @Transactional
     public VacacionResponse crear(VacacionRequest request) {
@@ -71,17 +82,13 @@ public class VacacionService {
         Persona persona = personaRepository.findById(request.personaId())
                 .orElseThrow(() -> new IllegalArgumentException("Persona no encontrada: " + request.personaId()));
 
-        // Validar no hay solapamiento
-        if (repository.existsSolapamiento(request.personaId(), null, request.fechaInicio(), request.fechaFin())) {
-            throw new IllegalArgumentException("Ya existe una vacación para esta persona en el período indicado");
-        }
-
         // Crear entity
         Vacacion entity = mapper.toEntity(request);
         entity.setPersona(persona);
-        entity.setDiasLaborables(calcularDiasLaborables(request.fechaInicio(), request.fechaFin()));
+        entity.setDiasLaborables(calcularDiasLaborables(persona.getCiudad(), request.fechaInicio(), request.fechaFin()));
 
-        Vacacion saved = repository.save(entity);
+        Vacacion saved = guardar(entity);
+        publicarCambio(request.personaId(), request.fechaInicio(), request.fechaFin());
         log.info("Vacación creada con ID: {} ({} días laborables)", saved.getId(), saved.getDiasLaborables());
         return mapper.toResponse(saved);
     }
@@ -101,6 +108,9 @@ public class VacacionService {
             throw new IllegalArgumentException("La fecha de fin debe ser posterior o igual a la fecha de inicio");
         }
 
+        // La capacidad se invalida tanto para el rango anterior como para el nuevo
+        publicarCambio(entity.getPersona().getId(), entity.getFechaInicio(), entity.getFechaFin());
+
         // Si cambió persona, validar existe
         if (!entity.getPersona().getId().equals(request.personaId())) {
             Persona persona = personaRepository.findById(request.personaId())
@@ -108,16 +118,13 @@ public class VacacionService {
             entity.setPersona(persona);
         }
 
-        // Validar no hay solapamiento (excluyendo la vacación actual)
-        if (repository.existsSolapamiento(request.personaId(), id, request.fechaInicio(), request.fechaFin())) {
-            throw new IllegalArgumentException("Ya existe una vacación para esta persona en el período indicado");
-        }
-
         // Actualizar campos
         mapper.updateEntity(request, entity);
-        entity.setDiasLaborables(calcularDiasLaborables(request.fechaInicio(), request.fechaFin()));
+        entity.setDiasLaborables(calcularDiasLaborables(
+                entity.getPersona().getCiudad(), request.fechaInicio(), request.fechaFin()));
 
-        Vacacion saved = repository.save(entity);
+        Vacacion saved = guardar(entity);
+        publicarCambio(request.personaId(), request.fechaInicio(), request.fechaFin());
         log.info("Vacación {} actualizada ({} días laborables)", id, saved.getDiasLaborables());
         return mapper.toResponse(saved);
     }
@@ -129,11 +136,11 @@ public class VacacionService {
     public void eliminar(Long id) {
         log.info("Eliminando vacación {}", id);
 
-        if (!repository.existsById(id)) {
-            throw new IllegalArgumentException("Vacación no encontrada: " + id);
-        }
+        Vacacion entity = repository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Vacación no encontrada: " + id));
 
-        repository.deleteById(id);
+        repository.delete(entity);
+        publicarCambio(entity.getPersona().getId(), entity.getFechaInicio(), entity.getFechaFin());
         log.info("Vacación {} eliminada", id);
     }
 
@@ -148,17 +155,43 @@ public class VacacionService {
     }
 
     /**
-     * Calcula días laborables entre dos fechas (excluyendo sábados y domingos).
+     * Guarda y vacía en el acto, para que un solapamiento llegue aquí y no al confirmar.
+     *
+     * @throws IllegalArgumentException si la persona ya tiene una vacación en esas fechas
+     */
+    private Vacacion guardar(Vacacion entity) {
+        try {
+            return repository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            if (ViolacionRestriccion.es(e, RESTRICCION_SOLAPE)) {
+                throw new IllegalArgumentException("Ya existe una vacación para esta persona en el período indicado", e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Notifica el cambio para invalidar la capacidad cacheada de la persona en esas fechas.
+     */
+    private void publicarCambio(Long personaId, LocalDate fechaInicio, LocalDate fechaFin) {
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.dePersona(personaId, fechaInicio, fechaFin));
+    }
+
+    /**
+     * Calcula días laborables entre dos fechas (excluyendo sábados, domingos y los festivos
+     * de la ciudad de la persona).
+     * @param ciudad Ciudad de la persona
      * @param inicio Fecha inicio (inclusive)
      * @param fin Fecha fin (inclusive)
      * @return Número de días laborables
      */
-    private int calcularDiasLaborables(LocalDate inicio, LocalDate fin) {
-        return (int) inicio.datesUntil(fin.plusDays(1))
+    private int calcularDiasLaborables(String ciudad, LocalDate inicio, LocalDate fin) {
+        int diasEntreSemana = (int) inicio.datesUntil(fin.plusDays(1))
                 .filter(fecha -> {
                     DayOfWeek dia = fecha.getDayOfWeek();
                     return dia != DayOfWeek.SATURDAY && dia != DayOfWeek.SUNDAY;
                 })
                 .count();
+        return diasEntreSemana - calendarioFestivos.contarFestivosLaborables(ciudad, inicio, fin);
     }
 }
@@ -0,0 +1,24 @@
+package com.kaos.common.cache;
+
+/**
+ * Caché de segundo nivel de Hibernate para las tablas de referencia: perfiles horarios,
+ * squads y configuración de tipos de issue Jira. Las regiones, sus tamaños y caducidades
+ * están en {@code ehcache.xml}; las estadísticas se publican en Micrometer
+ * ({@code hibernate.second.level.cache.*}, {@code hibernate.cache.query.*}).
+ * <p>
+ * Las escrituras por Hibernate mantienen la caché al día (estrategia READ_WRITE) y, para las
+ * consultas cacheables, la región de timestamps invalida los resultados de las tablas
+ * modificadas. Hibernate tampoco sirve desfasadas las entidades con {@code @Formula}
+ * ({@code PerfilHorario.totalSemanal}): no las guarda en caché al darlas de alta y, tras
+ * modificarlas, la siguiente lectura devuelve la fórmula recalculada.
+ * </p>
+ */
+public final class CacheReferencias {
+
+    public static final String REGION_PERFIL_HORARIO = "perfil_horario";
+    public static final String REGION_SQUAD = "squad";
+    public static final String REGION_JIRA_ISSUE_TYPE_CONFIG = "jira_issue_type_config";
+
+    private CacheReferencias() {
+    }
+}
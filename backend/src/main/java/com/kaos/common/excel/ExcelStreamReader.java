@@ -0,0 +1,209 @@
+package com.kaos.common.excel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JRuntimeException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Lector de ficheros .xlsx en streaming (modelo de eventos SAX de POI).
+ * <p>
+ * A diferencia de {@code new XSSFWorkbook(in)}, no construye el libro en memoria: recorre
+ * el XML de cada hoja y entrega las filas una a una a un {@link ManejadorFilas}. La fila
+ * entregada se reutiliza entre llamadas, así que la memoria de pico es la de una fila más
+ * la tabla de textos compartidos. Si el manejador necesita conservar una fila debe usar
+ * {@link FilaExcel#copia()}.
+ * </p>
+ * <p>
+ * Los valores llegan como texto formateado (números enteros sin decimales, fórmulas con su
+ * último resultado calculado). Las celdas vacías no se emiten.
+ * </p>
+ */
+public final class ExcelStreamReader {
+
+    private ExcelStreamReader() {
+    }
+
+    /**
+     * Recibe las filas de cada hoja, en orden de hoja y de fila.
+     */
+    public interface ManejadorFilas {
+
+        default void inicioHoja(String nombre) {
+        }
+
+        /**
+         * @param indice Índice 0-based de la fila en la hoja (las filas ausentes se saltan)
+         * @param fila   Celdas de la fila; solo válida durante la llamada
+         */
+        void fila(int indice, FilaExcel fila);
+
+        default void finHoja(String nombre) {
+        }
+    }
+
+    /**
+     * Lee un .xlsx desde un stream. El contenido se vuelca a un fichero temporal para que
+     * POI pueda acceder a las partes del ZIP sin cargarlas todas en memoria.
+     *
+     * @throws IllegalArgumentException si el contenido no es un .xlsx válido
+     */
+    public static void leer(InputStream in, ManejadorFilas manejador) throws IOException {
+        Path temporal = Files.createTempFile("kaos-import-", ".xlsx");
+        try {
+            Files.copy(in, temporal, StandardCopyOption.REPLACE_EXISTING);
+            leer(temporal, manejador);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Lee un .xlsx desde disco en modo solo lectura.
+     *
+     * @throws IllegalArgumentException si el fichero no es un .xlsx válido
+     */
+    public static void leer(Path fichero, ManejadorFilas manejador) throws IOException {
+        try (OPCPackage paquete = OPCPackage.open(fichero.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(paquete);
+            ReadOnlySharedStringsTable textos = new ReadOnlySharedStringsTable(paquete);
+            StylesTable estilos = reader.getStylesTable();
+            DataFormatter formatter = new DataFormatter();
+
+            XSSFReader.SheetIterator hojas = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (hojas.hasNext()) {
+                try (InputStream hoja = hojas.next()) {
+                    String nombre = hojas.getSheetName();
+                    manejador.inicioHoja(nombre);
+
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(
+                            estilos, textos, new AdaptadorHoja(manejador), formatter, false));
+                    parser.parse(new InputSource(hoja));
+
+                    manejador.finHoja(nombre);
+                }
+            }
+        } catch (OpenXML4JException | OpenXML4JRuntimeException | SAXException | ParserConfigurationException e) {
+            throw new IllegalArgumentException("El fichero no es un Excel .xlsx válido: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Traduce los eventos de POI (referencias "H12") a índices de columna sobre una fila reutilizable.
+     */
+    private static final class AdaptadorHoja implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ManejadorFilas manejador;
+        private final FilaExcel fila = new FilaExcel();
+        private int columnaAnterior;
+
+        private AdaptadorHoja(ManejadorFilas manejador) {
+            this.manejador = manejador;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            fila.limpiar();
+            columnaAnterior = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            manejador.fila(rowNum, fila);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // Algunos generadores omiten el atributo "r": se asume la columna siguiente
+            int columna = cellReference != null
+                    ? new CellReference(cellReference).getCol()
+                    : columnaAnterior + 1;
+            columnaAnterior = columna;
+            fila.poner(columna, formattedValue);
+        }
+    }
+
+    /**
+     * Celdas de una fila indexadas por columna (0-based).
+     */
+    public static final class FilaExcel {
+
+        private String[] valores = new String[16];
+        private int ultimaColumna = -1;
+
+        /**
+         * Valor tal cual aparece en la hoja, o null si la celda está vacía.
+         */
+        public String valor(int columna) {
+            return columna <= ultimaColumna ? valores[columna] : null;
+        }
+
+        /**
+         * Valor recortado, o null si la celda está vacía o solo contiene espacios.
+         */
+        public String texto(int columna) {
+            String valor = valor(columna);
+            if (valor == null) {
+                return null;
+            }
+            String recortado = valor.trim();
+            return recortado.isEmpty() ? null : recortado;
+        }
+
+        /**
+         * Indica si la celda tiene contenido (aunque sean espacios).
+         */
+        public boolean tieneValor(int columna) {
+            return valor(columna) != null;
+        }
+
+        /**
+         * Índice de la última columna con valor, o -1 si la fila está vacía.
+         */
+        public int ultimaColumna() {
+            return ultimaColumna;
+        }
+
+        /**
+         * Copia independiente, para conservar la fila después de la llamada al manejador.
+         */
+        public FilaExcel copia() {
+            FilaExcel copia = new FilaExcel();
+            copia.valores = Arrays.copyOf(valores, Math.max(ultimaColumna + 1, 1));
+            copia.ultimaColumna = ultimaColumna;
+            return copia;
+        }
+
+        void poner(int columna, String valor) {
+            if (columna >= valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(columna + 1, valores.length * 2));
+            }
+            valores[columna] = valor;
+            ultimaColumna = Math.max(ultimaColumna, columna);
+        }
+
+        void limpiar() {
+            Arrays.fill(valores, 0, ultimaColumna + 1, null);
+            ultimaColumna = -1;
+        }
+    }
+}
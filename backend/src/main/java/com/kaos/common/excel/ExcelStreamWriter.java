@@ -0,0 +1,128 @@
+package com.kaos.common.excel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Escritor de hojas Excel en streaming para exportaciones e informes.
+ * <p>
+ * Usa {@link SXSSFWorkbook}: solo mantiene en memoria una ventana de filas y vuelca el
+ * resto a un fichero temporal, por lo que el consumo de heap es constante sea cual sea el
+ * número de filas. En lugar de {@code autoSizeColumn} (que recorre todas las celdas y
+ * necesita las filas en memoria) el ancho de cada columna se calcula a partir de la
+ * longitud máxima de texto registrada al escribir.
+ * </p>
+ * <p>
+ * Una instancia escribe una sola hoja y no es thread-safe:
+ * </p>
+ * <pre>{@code
+ * try (ExcelStreamWriter excel = new ExcelStreamWriter("Timeline", "Persona", "Fecha")) {
+ *     excel.fila("Ana", "2026-03-02");
+ *     excel.escribir(out);
+ * }
+ * }</pre>
+ */
+public class ExcelStreamWriter implements AutoCloseable {
+
+    /** Filas retenidas en memoria antes de volcarlas a disco. */
+    public static final int VENTANA_FILAS_DEFECTO = 100;
+
+    /** Ancho máximo en caracteres (Excel admite 255). */
+    private static final int ANCHO_MAXIMO = 100;
+
+    /** Margen en caracteres añadido al texto más largo de cada columna. */
+    private static final int MARGEN = 2;
+
+    private final SXSSFWorkbook workbook;
+    private final Sheet sheet;
+    private final int[] anchos;
+    private int siguienteFila;
+
+    /**
+     * Crea la hoja con la fila de cabecera y la ventana por defecto.
+     *
+     * @param nombreHoja Nombre de la hoja
+     * @param cabeceras  Títulos de columna
+     */
+    public ExcelStreamWriter(String nombreHoja, String... cabeceras) {
+        this(VENTANA_FILAS_DEFECTO, nombreHoja, cabeceras);
+    }
+
+    /**
+     * Crea la hoja con la fila de cabecera.
+     *
+     * @param ventanaFilas Filas retenidas en memoria
+     * @param nombreHoja   Nombre de la hoja
+     * @param cabeceras    Títulos de columna
+     */
+    public ExcelStreamWriter(int ventanaFilas, String nombreHoja, String... cabeceras) {
+        this.workbook = new SXSSFWorkbook(ventanaFilas);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(nombreHoja);
+        this.anchos = new int[cabeceras.length];
+        fila((Object[]) cabeceras);
+    }
+
+    /**
+     * Añade una fila. Los valores {@link Number} se escriben como numéricos; el resto como texto
+     * ({@code null} deja la celda vacía).
+     *
+     * @throws IllegalArgumentException si hay más valores que columnas
+     */
+    public void fila(Object... valores) {
+        if (valores.length > anchos.length) {
+            throw new IllegalArgumentException(
+                    "La fila tiene " + valores.length + " valores y la hoja " + anchos.length + " columnas");
+        }
+
+        Row row = sheet.createRow(siguienteFila++);
+        for (int i = 0; i < valores.length; i++) {
+            Object valor = valores[i];
+            if (valor == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            String texto;
+            if (valor instanceof Number numero) {
+                cell.setCellValue(numero.doubleValue());
+                texto = numero.toString();
+            } else {
+                texto = valor.toString();
+                cell.setCellValue(texto);
+            }
+            anchos[i] = Math.max(anchos[i], texto.length());
+        }
+    }
+
+    /**
+     * Filas escritas, incluida la cabecera.
+     */
+    public int filas() {
+        return siguienteFila;
+    }
+
+    /**
+     * Ajusta los anchos de columna y vuelca el libro al stream. No cierra el stream.
+     */
+    public void escribir(OutputStream out) throws IOException {
+        for (int i = 0; i < anchos.length; i++) {
+            // Unidad de ancho de POI: 1/256 de carácter
+            sheet.setColumnWidth(i, Math.min(anchos[i] + MARGEN, ANCHO_MAXIMO) * 256);
+        }
+        workbook.write(out);
+        out.flush();
+    }
+
+    /**
+     * Libera el libro y elimina los ficheros temporales de la ventana.
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+}
@@ -1,6 +1,7 @@
 package com.kaos.common.exception;
 
 import java.util.List;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -90,6 +91,14 @@ public class GlobalExceptionHandler {
                 .body(ErrorResponse.of("SOLAPAMIENTO_SPRINT", ex.getMessage()));
     }
 
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencia(ConcurrencyFailureException ex) {
+        log.warn("Modificación concurrente: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.of("CONFLICTO_CONCURRENCIA",
+                        "El recurso ha sido modificado por otro usuario. Reintente la operación."));
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponse> handleDataIntegrity(DataIntegrityViolationException ex) {
         log.warn("Violación de integridad de datos: {}", ex.getMostSpecificCause().getMessage());
@@ -0,0 +1,31 @@
+package com.kaos.common.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Identifica qué restricción de BD ha provocado una {@link DataIntegrityViolationException},
+ * para que los servicios traduzcan a un error de negocio las que validan reglas de dominio
+ * (p. ej. las restricciones de exclusión de solapamientos) y dejen pasar el resto.
+ */
+public final class ViolacionRestriccion {
+
+    private ViolacionRestriccion() {
+    }
+
+    /**
+     * @param e           excepción lanzada al escribir
+     * @param restriccion nombre de la restricción en BD
+     * @return true si la violación corresponde a esa restricción
+     */
+    public static boolean es(DataIntegrityViolationException e, String restriccion) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return restriccion.equalsIgnoreCase(cve.getConstraintName());
+            }
+        }
+        // Hibernate no extrae el nombre de todas las violaciones (p. ej. exclusión, SQLState 23P01)
+        String mensaje = e.getMostSpecificCause().getMessage();
+        return mensaje != null && mensaje.contains(restriccion);
+    }
+}
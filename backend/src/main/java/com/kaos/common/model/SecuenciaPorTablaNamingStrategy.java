@@ -0,0 +1,38 @@
+package com.kaos.common.model;
+
+import java.util.Map;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.StandardNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+/**
+ * Nombra la secuencia de cada entidad como la que PostgreSQL crea para una columna
+ * {@code BIGSERIAL}: {@code <tabla>_id_seq}.
+ * <p>
+ * Así el generador de {@link BaseEntity} usa la secuencia existente de cada tabla (con
+ * {@code INCREMENT BY 50}, ver changeset 038) y el {@code DEFAULT nextval(...)} de la columna
+ * sigue sirviendo para los INSERT por JDBC y los seeds SQL.
+ * Se registra con {@code hibernate.id.db_structure_naming_strategy}.
+ * </p>
+ */
+public class SecuenciaPorTablaNamingStrategy extends StandardNamingStrategy {
+
+    static final String SUFIJO = "_id_seq";
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+                                               Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String tabla = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        if (tabla == null || tabla.isBlank()) {
+            throw new IllegalStateException("Generador de secuencia sin tabla: " + configValues);
+        }
+        JdbcEnvironment jdbcEnvironment = serviceRegistry.getService(JdbcEnvironment.class);
+        return new QualifiedSequenceName(catalogName, schemaName,
+                jdbcEnvironment.getIdentifierHelper().toIdentifier(tabla + SUFIJO));
+    }
+}
@@ -1,11 +1,13 @@
 package com.kaos.dedicacion.service;
 
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.dedicacion.dto.SquadMemberRequest;
 import com.kaos.dedicacion.dto.SquadMemberResponse;
 import com.kaos.dedicacion.entity.SquadMember;
@@ -30,6 +32,7 @@ public class SquadMemberService {
     private final SquadMemberMapper mapper;
     private final PersonaRepository personaRepository;
     private final SquadRepository squadRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Lista miembros de un squad.
@@ -88,6 +91,7 @@ public class SquadMemberService {
         entity.setSquad(squad);
 
         SquadMember saved = repository.save(entity);
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.deSquad(request.squadId()));
         log.info("Asignación creada con id: {}", saved.getId());
         return mapper.toResponse(saved);
     }
@@ -114,6 +118,9 @@ public class SquadMemberService {
         // Validar porcentaje total (excluyendo registro actual)
         validarPorcentajeTotal(request.personaId(), request.porcentaje(), id);
 
+        // La capacidad se invalida tanto para el squad anterior como para el nuevo
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.deSquad(entity.getSquad().getId()));
+
         // Resolver entidades si cambiaron
         if (!entity.getPersona().getId().equals(request.personaId())) {
             Persona persona = personaRepository.findById(request.personaId())
@@ -128,6 +135,7 @@ public class SquadMemberService {
 
         mapper.updateEntity(request, entity);
         SquadMember saved = repository.save(entity);
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.deSquad(request.squadId()));
         return mapper.toResponse(saved);
     }
 
@@ -137,10 +145,10 @@ public class SquadMemberService {
     @Transactional
     public void eliminar(Long id) {
         log.info("Eliminando asignación con id: {}", id);
-        if (!repository.existsById(id)) {
-            throw new EntityNotFoundException("Asignación no encontrada con id: " + id);
-        }
-        repository.deleteById(id);
+        SquadMember entity = repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Asignación no encontrada con id: " + id));
+        repository.delete(entity);
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.deSquad(entity.getSquad().getId()));
     }
 
     /**
@@ -1,9 +1,13 @@
 package com.kaos.horario.entity;
 
 import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Comment;
 import org.hibernate.annotations.Formula;
+import com.kaos.common.cache.CacheReferencias;
 import com.kaos.common.model.BaseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
@@ -18,6 +22,8 @@ import lombok.experimental.SuperBuilder;
  * Define las horas laborables de cada día de la semana y la zona horaria.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheReferencias.REGION_PERFIL_HORARIO)
 @Table(name = "perfil_horario")
 @Comment("Perfiles de horario laboral configurables por ubicación")
 @Getter
@@ -1,15 +1,24 @@
 package com.kaos.horario.repository;
 
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import com.kaos.horario.entity.PerfilHorario;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositorio JPA para {@link PerfilHorario}.
+ * El listado usa la caché de consultas de Hibernate (ver {@code CacheReferencias}).
  */
 @Repository
 public interface PerfilHorarioRepository extends JpaRepository<PerfilHorario, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<PerfilHorario> findAll();
+
     boolean existsByNombre(String nombre);
 
     boolean existsByNombreAndIdNot(String nombre, Long id);
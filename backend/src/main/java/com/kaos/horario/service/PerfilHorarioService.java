@@ -1,11 +1,13 @@
 package com.kaos.horario.service;
 
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.horario.dto.PerfilHorarioRequest;
 import com.kaos.horario.dto.PerfilHorarioResponse;
 import com.kaos.horario.entity.PerfilHorario;
@@ -25,6 +27,7 @@ public class PerfilHorarioService {
     private final PerfilHorarioRepository repository;
     private final PerfilHorarioMapper mapper;
     private final PersonaRepository personaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Lista todos los perfiles de horario.
@@ -75,6 +78,7 @@ public class PerfilHorarioService {
         validarNombreUnico(request.nombre(), id);
         mapper.updateEntity(request, entity);
         PerfilHorario saved = repository.save(entity);
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.dePerfilHorario(id));
         return mapper.toResponse(saved);
     }
 
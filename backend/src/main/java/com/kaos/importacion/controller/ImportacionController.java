@@ -0,0 +1,43 @@
+package com.kaos.importacion.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.kaos.importacion.dto.ImportacionJobResponse;
+import com.kaos.importacion.service.ImportacionJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controller REST para consultar y reanudar importaciones asíncronas.
+ * Las importaciones se lanzan desde los endpoints de cada módulo
+ * (p.ej. {@code /vacaciones/importar-excel}, {@code /festivos/carga-masiva}).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/importaciones")
+@RequiredArgsConstructor
+@Tag(name = "Importacion", description = "Seguimiento de importaciones en segundo plano")
+public class ImportacionController {
+
+    private final ImportacionJobService service;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtiene el estado, avance y resultado de una importación")
+    public ResponseEntity<ImportacionJobResponse> obtener(@PathVariable Long id) {
+        log.debug("GET /api/v1/importaciones/{}", id);
+        return ResponseEntity.ok(service.obtener(id));
+    }
+
+    @PostMapping("/{id}/reanudar")
+    @Operation(summary = "Reanuda una importación fallida desde el último bloque confirmado")
+    public ResponseEntity<ImportacionJobResponse> reanudar(@PathVariable Long id) {
+        log.info("POST /api/v1/importaciones/{}/reanudar", id);
+        return ResponseEntity.accepted().body(service.reanudar(id));
+    }
+}
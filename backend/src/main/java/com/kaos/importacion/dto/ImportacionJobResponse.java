@@ -0,0 +1,32 @@
+package com.kaos.importacion.dto;
+
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kaos.importacion.entity.EstadoImportacion;
+import com.kaos.importacion.entity.TipoImportacion;
+
+/**
+ * Estado y avance de un job de importación.
+ *
+ * @param totalFilas        filas del fichero, o null si aún no se conocen
+ * @param porcentaje        avance 0-100, o null si no se conoce el total
+ * @param filasPorSegundo   ritmo de la ejecución actual, o null si aún no hay datos
+ * @param segundosRestantes estimación del tiempo restante, solo mientras está EN_CURSO
+ * @param resultado         resultado acumulado, con el mismo formato que la importación síncrona
+ */
+public record ImportacionJobResponse(
+        Long id,
+        TipoImportacion tipo,
+        EstadoImportacion estado,
+        String nombreFichero,
+        Integer totalFilas,
+        int filasProcesadas,
+        Double porcentaje,
+        Double filasPorSegundo,
+        Long segundosRestantes,
+        int errores,
+        String mensajeError,
+        LocalDateTime iniciadoEn,
+        LocalDateTime finalizadoEn,
+        JsonNode resultado
+) {}
@@ -0,0 +1,22 @@
+package com.kaos.importacion.entity;
+
+/**
+ * Estado de un job de importación.
+ */
+public enum EstadoImportacion {
+    /** Fichero recibido, esperando hilo libre */
+    PENDIENTE,
+
+    /** Procesándose; los bloques ya confirmados están en BD */
+    EN_CURSO,
+
+    /** Fichero procesado por completo */
+    COMPLETADA,
+
+    /** Interrumpida por un error o un reinicio; se puede reanudar desde el último bloque */
+    FALLIDA;
+
+    public boolean esFinal() {
+        return this == COMPLETADA || this == FALLIDA;
+    }
+}
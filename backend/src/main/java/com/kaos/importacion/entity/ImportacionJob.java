@@ -0,0 +1,89 @@
+package com.kaos.importacion.entity;
+
+import java.time.LocalDateTime;
+import org.hibernate.annotations.Comment;
+import com.kaos.common.model.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * ImportacionJob: importación de un fichero procesada en segundo plano y por bloques.
+ * <p>
+ * Cada bloque se confirma en su propia transacción junto con {@code filasProcesadas} y el
+ * {@code resultado} acumulado, de modo que el job siempre refleja exactamente lo que hay en
+ * BD. Si falla a mitad, se reanuda desde {@code filasProcesadas} reutilizando el fichero
+ * guardado en {@code rutaFichero}.
+ * </p>
+ */
+@Entity
+@Table(name = "importacion_job")
+@Comment("Importaciones de ficheros en segundo plano")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class ImportacionJob extends BaseEntity {
+
+    @Comment("Tipo de importación")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 30)
+    private TipoImportacion tipo;
+
+    @Comment("Estado del job")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoImportacion estado;
+
+    @Comment("Nombre original del fichero subido")
+    @Column(name = "nombre_fichero", length = 255)
+    private String nombreFichero;
+
+    @Comment("Copia local del fichero, conservada hasta completar la importación")
+    @Column(name = "ruta_fichero", nullable = false, length = 500)
+    private String rutaFichero;
+
+    @Comment("Parámetros de la importación en JSON")
+    @Column(name = "parametros", columnDefinition = "TEXT")
+    private String parametros;
+
+    @Comment("Filas a procesar, si se conocen")
+    @Column(name = "total_filas")
+    private Integer totalFilas;
+
+    @Comment("Filas confirmadas en BD (punto de reanudación)")
+    @Column(name = "filas_procesadas", nullable = false)
+    private int filasProcesadas;
+
+    @Comment("Filas ya confirmadas al iniciar la ejecución actual, para calcular el ritmo")
+    @Column(name = "filas_iniciales", nullable = false)
+    private int filasIniciales;
+
+    @Comment("Errores de fila acumulados")
+    @Column(name = "errores", nullable = false)
+    private int errores;
+
+    @Comment("Resultado acumulado en JSON (mismo formato que la respuesta síncrona)")
+    @Column(name = "resultado", columnDefinition = "TEXT")
+    private String resultado;
+
+    @Comment("Causa del fallo si el job está FALLIDA")
+    @Column(name = "mensaje_error", length = 1000)
+    private String mensajeError;
+
+    @Comment("Inicio de la ejecución actual")
+    @Column(name = "iniciado_en")
+    private LocalDateTime iniciadoEn;
+
+    @Comment("Fin de la última ejecución")
+    @Column(name = "finalizado_en")
+    private LocalDateTime finalizadoEn;
+}
@@ -0,0 +1,12 @@
+package com.kaos.importacion.entity;
+
+/**
+ * Tipo de fichero que procesa un job de importación.
+ */
+public enum TipoImportacion {
+    /** Calendario Excel de vacaciones y ausencias */
+    VACACIONES_EXCEL,
+
+    /** CSV de festivos por ciudad */
+    FESTIVOS_CSV
+}
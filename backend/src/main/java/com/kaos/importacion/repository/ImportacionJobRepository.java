@@ -0,0 +1,62 @@
+package com.kaos.importacion.repository;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.kaos.importacion.entity.EstadoImportacion;
+import com.kaos.importacion.entity.ImportacionJob;
+
+/**
+ * Repositorio para {@link ImportacionJob}.
+ */
+@Repository
+public interface ImportacionJobRepository extends JpaRepository<ImportacionJob, Long> {
+
+    /**
+     * Jobs en alguno de los estados indicados.
+     */
+    List<ImportacionJob> findByEstadoIn(Collection<EstadoImportacion> estados);
+
+    /**
+     * Registra el avance de un bloque. Debe ejecutarse en la misma transacción que los datos
+     * del bloque para que el punto de reanudación nunca quede por delante ni por detrás de la BD.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportacionJob j SET j.filasProcesadas = :filas, j.errores = :errores, " +
+           "j.resultado = :resultado, j.updatedAt = CURRENT_TIMESTAMP WHERE j.id = :id")
+    int registrarProgreso(
+            @Param("id") Long id,
+            @Param("filas") int filas,
+            @Param("errores") int errores,
+            @Param("resultado") String resultado
+    );
+
+    /**
+     * Registra el número total de filas del fichero, calculado al empezar.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportacionJob j SET j.totalFilas = :total WHERE j.id = :id")
+    int registrarTotal(@Param("id") Long id, @Param("total") int total);
+
+    /**
+     * Cambia el estado solo si el job sigue en {@code desde}.
+     *
+     * @return 1 si se ha cambiado, 0 si el job estaba en otro estado
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportacionJob j SET j.estado = :hasta, j.mensajeError = NULL " +
+           "WHERE j.id = :id AND j.estado = :desde")
+    int cambiarEstado(
+            @Param("id") Long id,
+            @Param("desde") EstadoImportacion desde,
+            @Param("hasta") EstadoImportacion hasta
+    );
+}
@@ -0,0 +1,97 @@
+package com.kaos.importacion.service;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Contexto de una ejecución de importación que recibe el {@link ProcesadorImportacion}.
+ * <p>
+ * Expone el fichero, los parámetros, el punto de reanudación y el resultado acumulado de
+ * ejecuciones anteriores, y recibe el avance de cada bloque confirmado.
+ * </p>
+ *
+ * @param <P> parámetros de la importación
+ * @param <R> resultado acumulado
+ */
+public final class ImportacionEnCurso<P, R> {
+
+    /**
+     * Destino del avance de la importación.
+     */
+    public interface Seguimiento<R> {
+
+        void total(int filas);
+
+        void confirmar(int filasProcesadas, int errores, R resultado);
+    }
+
+    private final Path fichero;
+    private final P parametros;
+    private final int filaInicial;
+    private final R resultadoPrevio;
+    private final Seguimiento<R> seguimiento;
+
+    public ImportacionEnCurso(Path fichero, P parametros, int filaInicial, R resultadoPrevio,
+                              Seguimiento<R> seguimiento) {
+        this.fichero = fichero;
+        this.parametros = parametros;
+        this.filaInicial = filaInicial;
+        this.resultadoPrevio = resultadoPrevio;
+        this.seguimiento = seguimiento;
+    }
+
+    /**
+     * Importación completa de un fichero sin job asociado (el avance se descarta).
+     */
+    public static <P, R> ImportacionEnCurso<P, R> sinSeguimiento(Path fichero, P parametros) {
+        return new ImportacionEnCurso<>(fichero, parametros, 0, null, new Seguimiento<>() {
+            @Override
+            public void total(int filas) {
+            }
+
+            @Override
+            public void confirmar(int filasProcesadas, int errores, R resultado) {
+            }
+        });
+    }
+
+    public Path getFichero() {
+        return fichero;
+    }
+
+    public P getParametros() {
+        return parametros;
+    }
+
+    /**
+     * Filas ya confirmadas en ejecuciones anteriores; el procesador debe saltarlas.
+     */
+    public int getFilaInicial() {
+        return filaInicial;
+    }
+
+    /**
+     * Resultado acumulado hasta {@link #getFilaInicial()}, si se está reanudando.
+     */
+    public Optional<R> getResultadoPrevio() {
+        return Optional.ofNullable(resultadoPrevio);
+    }
+
+    /**
+     * Informa del total de filas del fichero (para el cálculo del tiempo restante).
+     */
+    public void total(int filas) {
+        seguimiento.total(filas);
+    }
+
+    /**
+     * Registra un bloque. Llamar dentro de la transacción que guarda el bloque.
+     *
+     * @param filasProcesadas filas procesadas desde el inicio del fichero, incluido el bloque
+     * @param errores         errores de fila acumulados
+     * @param resultado       resultado acumulado
+     */
+    public void confirmar(int filasProcesadas, int errores, R resultado) {
+        seguimiento.confirmar(filasProcesadas, errores, resultado);
+    }
+}
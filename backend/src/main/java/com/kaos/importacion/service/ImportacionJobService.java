@@ -0,0 +1,334 @@
+package com.kaos.importacion.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaos.importacion.dto.ImportacionJobResponse;
+import com.kaos.importacion.entity.EstadoImportacion;
+import com.kaos.importacion.entity.ImportacionJob;
+import com.kaos.importacion.entity.TipoImportacion;
+import com.kaos.importacion.repository.ImportacionJobRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio de jobs de importación asíncrona.
+ * <p>
+ * La subida copia el fichero a {@code kaos.importacion.directorio}, registra el job y
+ * devuelve su ID sin esperar. El procesado corre en un pool acotado
+ * ({@code kaos.importacion.hilos} hilos, {@code kaos.importacion.cola} jobs en espera) y
+ * delega en el {@link ProcesadorImportacion} del tipo, que confirma el fichero por bloques.
+ * Si la ejecución falla, los bloques confirmados se conservan y el job puede reanudarse
+ * desde el último.
+ * </p>
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ImportacionJobService {
+
+    private static final int MAX_MENSAJE_ERROR = 1000;
+
+    private final ImportacionJobRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Map<TipoImportacion, ProcesadorImportacion<?, ?>> procesadores =
+            new EnumMap<>(TipoImportacion.class);
+    private final Path directorio;
+    private final Executor executor;
+
+    @Autowired
+    public ImportacionJobService(
+            ImportacionJobRepository repository,
+            ObjectMapper objectMapper,
+            List<ProcesadorImportacion<?, ?>> procesadores,
+            @Value("${kaos.importacion.directorio:${java.io.tmpdir}/kaos-importaciones}") String directorio,
+            @Value("${kaos.importacion.hilos:2}") int hilos,
+            @Value("${kaos.importacion.cola:20}") int cola) {
+        this(repository, objectMapper, procesadores, Path.of(directorio), crearPool(hilos, cola));
+    }
+
+    ImportacionJobService(ImportacionJobRepository repository, ObjectMapper objectMapper,
+                          List<ProcesadorImportacion<?, ?>> procesadores, Path directorio, Executor executor) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        procesadores.forEach(p -> this.procesadores.put(p.getTipo(), p));
+        this.directorio = directorio;
+        this.executor = executor;
+    }
+
+    private static ExecutorService crearPool(int hilos, int cola) {
+        AtomicInteger contador = new AtomicInteger();
+        return new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola),
+                r -> {
+                    Thread hilo = new Thread(r, "importacion-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void detener() {
+        if (executor instanceof ExecutorService pool) {
+            // Los jobs en curso quedan EN_CURSO y se marcan como FALLIDA al arrancar
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Registra un job y lo encola. No abre transacción: el job debe estar confirmado antes
+     * de que el hilo de importación lo lea.
+     *
+     * @param tipo       tipo de importación
+     * @param file       fichero subido
+     * @param parametros parámetros del procesador (se guardan en JSON), o null
+     * @throws IllegalStateException si la cola está llena (el job queda FALLIDA y reanudable)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportacionJobResponse crear(TipoImportacion tipo, MultipartFile file, Object parametros) {
+        if (!procesadores.containsKey(tipo)) {
+            throw new IllegalArgumentException("Tipo de importación no soportado: " + tipo);
+        }
+
+        Path fichero = guardarFichero(file);
+        ImportacionJob job = repository.save(ImportacionJob.builder()
+                .tipo(tipo)
+                .estado(EstadoImportacion.PENDIENTE)
+                .nombreFichero(file.getOriginalFilename())
+                .rutaFichero(fichero.toString())
+                .parametros(parametros != null ? aJson(parametros) : null)
+                .build());
+        log.info("Importación {} registrada: {} ({})", job.getId(), tipo, file.getOriginalFilename());
+
+        encolar(job);
+        return toResponse(job);
+    }
+
+    /**
+     * Obtiene el estado y el avance de un job.
+     */
+    public ImportacionJobResponse obtener(Long id) {
+        return toResponse(buscar(id));
+    }
+
+    /**
+     * Vuelve a encolar un job FALLIDA. Se reanuda desde el último bloque confirmado.
+     *
+     * @throws IllegalStateException si el job no está FALLIDA o su fichero ya no existe
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportacionJobResponse reanudar(Long id) {
+        ImportacionJob job = buscar(id);
+        if (!Files.exists(Path.of(job.getRutaFichero()))) {
+            throw new IllegalStateException("El fichero de la importación " + id + " ya no está disponible");
+        }
+        // Cambio de estado condicional: dos reanudaciones simultáneas no lanzan dos ejecuciones
+        if (repository.cambiarEstado(id, EstadoImportacion.FALLIDA, EstadoImportacion.PENDIENTE) == 0) {
+            throw new IllegalStateException("Solo se pueden reanudar importaciones fallidas. Estado actual: "
+                    + job.getEstado());
+        }
+        job = buscar(id);
+        log.info("Reanudando importación {} desde la fila {}", id, job.getFilasProcesadas());
+
+        encolar(job);
+        return toResponse(job);
+    }
+
+    /**
+     * Al arrancar, los jobs que quedaron PENDIENTE o EN_CURSO en una ejecución anterior del
+     * servidor pasan a FALLIDA para que se puedan reanudar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void marcarInterrumpidas() {
+        List<ImportacionJob> interrumpidas = repository.findByEstadoIn(
+                List.of(EstadoImportacion.PENDIENTE, EstadoImportacion.EN_CURSO));
+        for (ImportacionJob job : interrumpidas) {
+            job.setEstado(EstadoImportacion.FALLIDA);
+            job.setMensajeError("Interrumpida por reinicio del servidor");
+            job.setFinalizadoEn(LocalDateTime.now());
+        }
+        if (!interrumpidas.isEmpty()) {
+            log.warn("{} importaciones interrumpidas marcadas como FALLIDA", interrumpidas.size());
+        }
+    }
+
+    /**
+     * Ejecuta un job en el hilo actual. Cada bloque se confirma por separado, así que aquí
+     * no se abre transacción.
+     */
+    void ejecutar(Long id) {
+        ImportacionJob job = buscar(id);
+        job.setEstado(EstadoImportacion.EN_CURSO);
+        job.setIniciadoEn(LocalDateTime.now());
+        job.setFinalizadoEn(null);
+        job.setMensajeError(null);
+        job.setFilasIniciales(job.getFilasProcesadas());
+        job = repository.save(job);
+
+        try {
+            Object resultado = procesar(procesadores.get(job.getTipo()), job);
+
+            job = buscar(id);
+            job.setEstado(EstadoImportacion.COMPLETADA);
+            job.setResultado(aJson(resultado));
+            job.setFinalizadoEn(LocalDateTime.now());
+            repository.save(job);
+            Files.deleteIfExists(Path.of(job.getRutaFichero()));
+            log.info("Importación {} completada: {} filas", id, job.getFilasProcesadas());
+        } catch (Exception e) {
+            job = buscar(id);
+            log.error("Importación {} fallida tras {} filas confirmadas", id, job.getFilasProcesadas(), e);
+            job.setEstado(EstadoImportacion.FALLIDA);
+            job.setMensajeError(truncar(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+            job.setFinalizadoEn(LocalDateTime.now());
+            repository.save(job);
+        }
+    }
+
+    private <P, R> R procesar(ProcesadorImportacion<P, R> procesador, ImportacionJob job) throws IOException {
+        Long id = job.getId();
+        P parametros = job.getParametros() != null
+                ? objectMapper.readValue(job.getParametros(), procesador.getTipoParametros())
+                : null;
+        R previo = job.getFilasProcesadas() > 0 && job.getResultado() != null
+                ? objectMapper.readValue(job.getResultado(), procesador.getTipoResultado())
+                : null;
+
+        return procesador.procesar(new ImportacionEnCurso<>(
+                Path.of(job.getRutaFichero()), parametros, job.getFilasProcesadas(), previo,
+                new ImportacionEnCurso.Seguimiento<>() {
+                    @Override
+                    public void total(int filas) {
+                        repository.registrarTotal(id, filas);
+                    }
+
+                    @Override
+                    public void confirmar(int filasProcesadas, int errores, R resultado) {
+                        repository.registrarProgreso(id, filasProcesadas, errores, aJson(resultado));
+                    }
+                }));
+    }
+
+    private void encolar(ImportacionJob job) {
+        Long id = job.getId();
+        try {
+            executor.execute(() -> ejecutar(id));
+        } catch (RejectedExecutionException e) {
+            job.setEstado(EstadoImportacion.FALLIDA);
+            job.setMensajeError("Cola de importaciones llena");
+            repository.save(job);
+            throw new IllegalStateException("Hay demasiadas importaciones en curso; reanude la importación "
+                    + id + " más tarde");
+        }
+    }
+
+    private Path guardarFichero(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            Files.createDirectories(directorio);
+            Path destino = directorio.resolve(UUID.randomUUID() + "-" + nombreSeguro(file.getOriginalFilename()));
+            Files.copy(in, destino, StandardCopyOption.REPLACE_EXISTING);
+            return destino;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error guardando el fichero de importación: " + e.getMessage(), e);
+        }
+    }
+
+    private static String nombreSeguro(String nombre) {
+        return nombre == null ? "fichero" : nombre.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private ImportacionJob buscar(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Importación no encontrada con id: " + id));
+    }
+
+    private ImportacionJobResponse toResponse(ImportacionJob job) {
+        Integer total = job.getTotalFilas();
+        int procesadas = job.getFilasProcesadas();
+
+        Double porcentaje = total != null && total > 0
+                ? Math.round(Math.min(procesadas, total) * 1000.0 / total) / 10.0
+                : null;
+
+        Double ritmo = null;
+        Long restantes = null;
+        if (job.getIniciadoEn() != null) {
+            LocalDateTime hasta = job.getFinalizadoEn() != null ? job.getFinalizadoEn() : LocalDateTime.now();
+            double segundos = Duration.between(job.getIniciadoEn(), hasta).toMillis() / 1000.0;
+            int filasEjecucion = procesadas - job.getFilasIniciales();
+            if (segundos > 0 && filasEjecucion > 0) {
+                ritmo = Math.round(filasEjecucion / segundos * 10) / 10.0;
+                if (job.getEstado() == EstadoImportacion.EN_CURSO && total != null) {
+                    restantes = (long) Math.ceil(Math.max(total - procesadas, 0) / (filasEjecucion / segundos));
+                }
+            }
+        }
+
+        return new ImportacionJobResponse(
+                job.getId(),
+                job.getTipo(),
+                job.getEstado(),
+                job.getNombreFichero(),
+                total,
+                procesadas,
+                porcentaje,
+                ritmo,
+                restantes,
+                job.getErrores(),
+                job.getMensajeError(),
+                job.getIniciadoEn(),
+                job.getFinalizadoEn(),
+                leerJson(job.getResultado()));
+    }
+
+    private String aJson(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el estado de la importación", e);
+        }
+    }
+
+    private JsonNode leerJson(String json) {
+        if (json == null) return null;
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            log.warn("Resultado de importación ilegible: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String truncar(String mensaje) {
+        return mensaje.length() <= MAX_MENSAJE_ERROR ? mensaje : mensaje.substring(0, MAX_MENSAJE_ERROR);
+    }
+}
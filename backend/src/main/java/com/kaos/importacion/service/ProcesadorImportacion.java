@@ -0,0 +1,27 @@
+package com.kaos.importacion.service;
+
+import java.io.IOException;
+import com.kaos.importacion.entity.TipoImportacion;
+
+/**
+ * Procesa un tipo de fichero de importación por bloques.
+ * <p>
+ * Las implementaciones recorren el fichero desde {@link ImportacionEnCurso#getFilaInicial()},
+ * confirman cada bloque en su propia transacción llamando a
+ * {@link ImportacionEnCurso#confirmar} dentro de ella, y devuelven el resultado final. No
+ * deben abrir una transacción que abarque todo el fichero.
+ * </p>
+ *
+ * @param <P> parámetros de la importación (serializables a JSON)
+ * @param <R> resultado acumulado (serializable a JSON)
+ */
+public interface ProcesadorImportacion<P, R> {
+
+    TipoImportacion getTipo();
+
+    Class<P> getTipoParametros();
+
+    Class<R> getTipoResultado();
+
+    R procesar(ImportacionEnCurso<P, R> importacion) throws IOException;
+}
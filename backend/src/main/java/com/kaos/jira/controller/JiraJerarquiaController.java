@@ -0,0 +1,62 @@
+package com.kaos.jira.controller;
+
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.kaos.jira.dto.IssueHuerfanaResponse;
+import com.kaos.jira.dto.RollupJiraResponse;
+import com.kaos.jira.service.JiraJerarquiaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controller REST para la jerarquía de issues Jira importadas.
+ * Agregados por padre (épicas, historias) e issues cuyo padre no está importado.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/jira/jerarquia")
+@RequiredArgsConstructor
+@Tag(name = "Jira", description = "Jerarquía y agregados de issues Jira")
+public class JiraJerarquiaController {
+
+    private final JiraJerarquiaService service;
+
+    /**
+     * Agregados de todas las issues con descendientes del squad.
+     * GET /api/v1/jira/jerarquia/squad/{squadId}/rollup
+     */
+    @GetMapping("/squad/{squadId}/rollup")
+    @Operation(summary = "Agregados por padre (hijos, descendientes por estado y subtipo, profundidad) del squad")
+    public ResponseEntity<List<RollupJiraResponse>> rollupSquad(@PathVariable Long squadId) {
+        log.debug("GET /api/v1/jira/jerarquia/squad/{}/rollup", squadId);
+        return ResponseEntity.ok(service.rollupSquad(squadId));
+    }
+
+    /**
+     * Agregado de los descendientes de una issue.
+     * GET /api/v1/jira/jerarquia/issue/{jiraKey}/rollup
+     */
+    @GetMapping("/issue/{jiraKey}/rollup")
+    @Operation(summary = "Agregado de los descendientes de una issue")
+    public ResponseEntity<RollupJiraResponse> rollupIssue(@PathVariable String jiraKey) {
+        log.debug("GET /api/v1/jira/jerarquia/issue/{}/rollup", jiraKey);
+        return ResponseEntity.ok(service.rollupIssue(jiraKey));
+    }
+
+    /**
+     * Issues del squad cuyo padre no está importado.
+     * GET /api/v1/jira/jerarquia/squad/{squadId}/huerfanas
+     */
+    @GetMapping("/squad/{squadId}/huerfanas")
+    @Operation(summary = "Issues del squad cuyo padre no está importado")
+    public ResponseEntity<List<IssueHuerfanaResponse>> huerfanas(@PathVariable Long squadId) {
+        log.debug("GET /api/v1/jira/jerarquia/squad/{}/huerfanas", squadId);
+        return ResponseEntity.ok(service.huerfanas(squadId));
+    }
+}
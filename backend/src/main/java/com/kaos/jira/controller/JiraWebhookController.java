@@ -0,0 +1,55 @@
+package com.kaos.jira.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.kaos.jira.service.JiraWebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controller REST que recibe los webhooks de issues de Jira.
+ * Responde en cuanto el evento queda encolado; la importación se hace en segundo plano
+ * (ver {@link JiraWebhookService}). Sin {@code kaos.jira.webhook.secreto} responde 404.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/jira/webhook")
+@RequiredArgsConstructor
+@Tag(name = "Jira", description = "Recepción de webhooks de issues de Jira")
+public class JiraWebhookController {
+
+    static final String CABECERA_FIRMA = "X-Hub-Signature";
+    private static final String REINTENTAR_SEGUNDOS = "30";
+
+    private final JiraWebhookService service;
+
+    @PostMapping
+    @Operation(summary = "Recibe un evento de issue creada, modificada o eliminada y lo encola")
+    public ResponseEntity<Void> recibir(
+            @RequestBody byte[] cuerpo,
+            @RequestHeader(value = CABECERA_FIRMA, required = false) String firma) {
+        if (!service.habilitado()) {
+            // Sin secreto no se puede autenticar el origen: el endpoint no existe
+            return ResponseEntity.notFound().build();
+        }
+        if (!service.firmaValida(cuerpo, firma)) {
+            log.warn("POST /api/v1/jira/webhook con firma no válida");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!service.recibir(cuerpo)) {
+            // Jira reintenta los webhooks que reciben 5xx
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, REINTENTAR_SEGUNDOS)
+                    .build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
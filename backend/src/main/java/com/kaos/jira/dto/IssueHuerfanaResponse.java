@@ -0,0 +1,12 @@
+package com.kaos.jira.dto;
+
+/**
+ * Issue cuyo padre ({@code parentKey}) no está importado en KAOS.
+ */
+public record IssueHuerfanaResponse(
+        String jiraKey,
+        String parentKey,
+        String tipo,
+        String estado
+) {
+}
@@ -0,0 +1,27 @@
+package com.kaos.jira.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Issue recibida de la búsqueda de Jira, reducida a los campos que usa la importación.
+ * Se construye directamente desde el JSON en streaming, sin pasar por árboles de
+ * {@code Map}; los campos ausentes en la respuesta quedan a null.
+ *
+ * @param jiraKey     clave de la issue (ej: RED-123)
+ * @param titulo      {@code fields.summary}
+ * @param tipo        {@code fields.issuetype.name}
+ * @param estado      {@code fields.status.name}
+ * @param parentKey   {@code fields.parent.key}; null si no es sub-task
+ * @param sprint      nombre del sprint Jira (el activo si hay varios, si no el último)
+ * @param actualizada {@code fields.updated}
+ */
+public record IssueJira(
+        String jiraKey,
+        String titulo,
+        String tipo,
+        String estado,
+        String parentKey,
+        String sprint,
+        OffsetDateTime actualizada
+) {
+}
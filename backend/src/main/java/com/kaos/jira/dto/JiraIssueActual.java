@@ -0,0 +1,27 @@
+package com.kaos.jira.dto;
+
+/**
+ * Proyección de los campos sincronizables de una issue ya importada,
+ * usada para decidir en memoria si una issue recibida de Jira ha cambiado.
+ */
+public interface JiraIssueActual {
+
+    Long getId();
+
+    String getJiraKey();
+
+    String getTitulo();
+
+    String getTipo();
+
+    String getEstado();
+
+    Long getSquadId();
+
+    /** Null si la issue no está vinculada a ningún sprint. */
+    Long getSprintId();
+
+    String getParentKey();
+
+    String getSubtipoJira();
+}
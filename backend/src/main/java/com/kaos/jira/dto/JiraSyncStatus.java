@@ -1,7 +1,9 @@
 package com.kaos.jira.dto;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -15,12 +17,23 @@ public class JiraSyncStatus {
 
     private int issuesImportadas;
     private int issuesActualizadas;
+    /** Issues recibidas que ya estaban importadas sin ningún cambio (no se escriben). */
+    private int issuesSinCambios;
     private final List<String> errores = new ArrayList<>();
+    /** Claves de las issues que no se pudieron importar. */
+    private final Set<String> clavesConError = new LinkedHashSet<>();
 
     public void addError(String error) {
         this.errores.add(error);
     }
 
+    public void addError(String jiraKey, String error) {
+        addError(error);
+        if (jiraKey != null) {
+            this.clavesConError.add(jiraKey);
+        }
+    }
+
     public boolean tieneErrores() {
         return !errores.isEmpty();
     }
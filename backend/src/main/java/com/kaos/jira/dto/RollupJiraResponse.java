@@ -0,0 +1,24 @@
+package com.kaos.jira.dto;
+
+import java.util.Map;
+
+/**
+ * Agregado de los descendientes de una issue padre (épica, historia...).
+ * Los descendientes sin estado o sin subtipo no aparecen en el mapa correspondiente.
+ *
+ * @param jiraKey       clave del padre
+ * @param hijos         descendientes directos
+ * @param descendientes descendientes a cualquier nivel
+ * @param profundidad   niveles hasta el descendiente más lejano
+ * @param porEstado     descendientes por estado
+ * @param porSubtipo    descendientes por subtipo kaos (solo sub-tasks)
+ */
+public record RollupJiraResponse(
+        String jiraKey,
+        long hijos,
+        long descendientes,
+        int profundidad,
+        Map<String, Long> porEstado,
+        Map<String, Long> porSubtipo
+) {
+}
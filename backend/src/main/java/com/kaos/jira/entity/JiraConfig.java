@@ -5,17 +5,15 @@ import com.kaos.common.model.BaseEntity;
 import com.kaos.squad.entity.Squad;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -23,19 +21,14 @@ import lombok.experimental.SuperBuilder;
 
 /**
  * Configuración de integración con Jira para un squad.
- * Almacena las credenciales y parámetros de conexión al board de Jira.
- */
-@Entity
-@Table(name = "jira_config")
-@Comment("Configuración de integración Jira por squad")
- * Configuración de un proyecto Jira a sincronizar.
- * Define la clave de proyecto y el tipo de sincronización.
+ * Almacena las credenciales y parámetros de conexión al board de Jira, la clave de
+ * proyecto y el tipo de sincronización.
  */
 @Entity
 @Table(name = "jira_config", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"project_key", "tipo"}, name = "uq_jira_config_project_tipo")
 })
-@Comment("Configuración de proyectos Jira a sincronizar")
+@Comment("Configuración de integración Jira por squad y proyecto")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -68,19 +61,17 @@ public class JiraConfig extends BaseEntity {
     @Column(name = "board_correctivo_id")
     private Long boardCorrectivoId;
 
-    @Comment("Clave del proyecto Jira del squad (ej: RED, GREEN)")
-    @Column(name = "project_key", length = 20)
-    private String projectKey;
-    @Comment("Clave del proyecto Jira (ej: BACK, FRONT)")
-    @Column(name = "project_key", nullable = false, length = 50)
+    @Comment("Clave del proyecto Jira (ej: RED, BACK)")
+    @Column(name = "project_key", length = 50)
     private String projectKey;
 
-    @Comment("Tipo de sincronización: EVOLUTIVO (sprints abiertos) o CORRECTIVO (backlog/bugs)")
+    @Comment("Tipo de sincronización: EVOLUTIVO (sprints abiertos), CORRECTIVO (backlog/bugs) o null para ambos")
     @Enumerated(EnumType.STRING)
-    @Column(name = "tipo", nullable = false, length = 20)
+    @Column(name = "tipo", length = 20)
     private TipoSincronizacion tipo;
 
     @Comment("Indica si esta configuración está activa")
     @Column(name = "activo", nullable = false)
+    @Builder.Default
     private boolean activo = true;
 }
@@ -3,9 +3,6 @@ package com.kaos.jira.entity;
 import org.hibernate.annotations.Comment;
 import com.kaos.common.model.BaseEntity;
 import com.kaos.planificacion.entity.Sprint;
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import com.kaos.squad.entity.Squad;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -22,15 +19,10 @@ import lombok.experimental.SuperBuilder;
 
 /**
  * Issue importada desde Jira.
- * Almacena la información básica de cada issue sincronizada.
- */
-@Entity
-@Table(name = "jira_issue")
-@Comment("Issues importadas desde Jira")
- * Issue importado desde Jira.
- * El campo {@code subtipoJira} se calcula al importar: para sub-tasks
- * (parentKey != null) se detecta comparando el summary contra los
- * patrones definidos en {@link JiraIssueTypeConfig}.
+ * Almacena la información básica de cada issue sincronizada. El campo
+ * {@code subtipoJira} se calcula al importar: para sub-tasks (parentKey != null)
+ * se detecta comparando el título contra los patrones definidos en
+ * {@link JiraIssueTypeConfig}.
  */
 @Entity
 @Table(name = "jira_issue", indexes = {
@@ -38,7 +30,7 @@ import lombok.experimental.SuperBuilder;
     @Index(columnList = "parent_key", name = "idx_jira_issue_parent"),
     @Index(columnList = "estado",     name = "idx_jira_issue_estado")
 })
-@Comment("Issues importados desde Jira por squad")
+@Comment("Issues importadas desde Jira")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -54,12 +46,12 @@ public class JiraIssue extends BaseEntity {
     @Column(name = "titulo", nullable = false, length = 500)
     private String titulo;
 
-    @Comment("Tipo de issue (ej: Story, Bug, Task)")
+    @Comment("Tipo de issue en Jira (ej: Story, Bug, Sub-task)")
     @Column(name = "tipo", length = 50)
     private String tipo;
 
     @Comment("Estado actual del issue en Jira")
-    @Column(name = "estado", length = 50)
+    @Column(name = "estado", length = 100)
     private String estado;
 
     @Comment("Configuración Jira con la que fue importado")
@@ -67,35 +59,20 @@ public class JiraIssue extends BaseEntity {
     @JoinColumn(name = "config_id", nullable = false)
     private JiraConfig config;
 
-    @Comment("Sprint KAOS al que está vinculado (null si no hay sprint activo)")
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "sprint_id")
-    private Sprint sprint;
     @Comment("Squad al que pertenece el issue")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "squad_id", nullable = false)
     private Squad squad;
 
-    @Comment("Clave del issue en Jira (ej: KAOS-123)")
-    @Column(name = "issue_key", nullable = false, length = 50)
-    private String issueKey;
-
-    @Comment("Título/resumen del issue en Jira")
-    @Column(name = "summary", nullable = false, length = 500)
-    private String summary;
-
-    @Comment("Tipo en Jira: Sub-task, Story, Bug, Task...")
-    @Column(name = "tipo_jira", length = 50)
-    private String tipoJira;
+    @Comment("Sprint KAOS al que está vinculado (null si no hay sprint activo)")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sprint_id")
+    private Sprint sprint;
 
     @Comment("Categoría kaos: CORRECTIVO o EVOLUTIVO")
     @Column(name = "categoria", length = 30)
     private String categoria;
 
-    @Comment("Estado actual en Jira (ej: In Progress, Done)")
-    @Column(name = "estado", length = 100)
-    private String estado;
-
     @Comment("Clave del issue padre (null si no es sub-task)")
     @Column(name = "parent_key", length = 50)
     private String parentKey;
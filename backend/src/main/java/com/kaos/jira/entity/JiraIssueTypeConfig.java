@@ -1,10 +1,16 @@
 package com.kaos.jira.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Comment;
+import com.kaos.common.cache.CacheReferencias;
 import com.kaos.common.model.BaseEntity;
+import com.kaos.jira.event.JiraIssueTypeConfigListener;
 import com.kaos.squad.entity.Squad;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
@@ -21,8 +27,13 @@ import lombok.experimental.SuperBuilder;
  * Configuración de tipos/sub-tipos de issue Jira por squad.
  * Permite definir, para cada tipo de issue Jira, qué sub-tipo kaos corresponde
  * según el patrón detectado en el summary, los estados válidos y el estado final.
+ * Cada escritura invalida el clasificador de sub-tipos cacheado del squad
+ * (ver {@link JiraIssueTypeConfigListener}).
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheReferencias.REGION_JIRA_ISSUE_TYPE_CONFIG)
+@EntityListeners(JiraIssueTypeConfigListener.class)
 @Table(name = "jira_issue_type_config", indexes = {
     @Index(columnList = "squad_id", name = "idx_jira_type_config_squad"),
     @Index(columnList = "activa",   name = "idx_jira_type_config_activa")
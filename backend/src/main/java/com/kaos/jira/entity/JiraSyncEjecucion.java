@@ -0,0 +1,59 @@
+package com.kaos.jira.entity;
+
+import java.time.LocalDateTime;
+import org.hibernate.annotations.Comment;
+import com.kaos.common.model.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Ejecución de la sincronización programada de un proyecto Jira.
+ * Complementa a {@link JiraSyncStatus} y {@link JiraSyncMarca} con la duración y el
+ * resultado de cada ejecución, incluidas las fallidas y las omitidas.
+ */
+@Entity
+@Table(name = "jira_sync_ejecucion", indexes = {
+    @Index(columnList = "project_key, inicio", name = "idx_jira_sync_ejecucion_project_inicio")
+})
+@Comment("Historial de ejecuciones de la sincronización programada por proyecto Jira")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class JiraSyncEjecucion extends BaseEntity {
+
+    @Comment("Clave del proyecto Jira (ej: BACK, FRONT)")
+    @Column(name = "project_key", nullable = false, length = 50)
+    private String projectKey;
+
+    @Comment("Host de la instancia Jira")
+    @Column(name = "host", length = 255)
+    private String host;
+
+    @Comment("Inicio de la ejecución (tras obtener plaza de concurrencia)")
+    @Column(name = "inicio", nullable = false)
+    private LocalDateTime inicio;
+
+    @Comment("Duración de la ejecución en milisegundos")
+    @Column(name = "duracion_ms", nullable = false)
+    private long duracionMs;
+
+    @Comment("Resultado: CORRECTA, FALLIDA u OMITIDA")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resultado", nullable = false, length = 20)
+    private ResultadoSincronizacion resultado;
+
+    @Comment("Causa del fallo si el resultado es FALLIDA")
+    @Column(name = "mensaje_error", length = 1000)
+    private String mensajeError;
+}
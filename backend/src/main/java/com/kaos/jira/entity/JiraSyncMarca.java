@@ -0,0 +1,54 @@
+package com.kaos.jira.entity;
+
+import java.time.OffsetDateTime;
+import org.hibernate.annotations.Comment;
+import com.kaos.common.model.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Marca de agua de la sincronización incremental de una config Jira para un tipo de consulta.
+ * Guarda la mayor fecha {@code updated} de Jira vista en la última sincronización (o, si
+ * alguna issue no se pudo importar, la de justo antes de la primera fallida), de modo que la
+ * siguiente solo pide lo modificado desde entonces, medido con el reloj de Jira y no con el
+ * de KAOS. Sustituye a {@link JiraSyncStatus#getUltimaSync()}, compartida por todas
+ * las configs de un proyecto.
+ */
+@Entity
+@Table(name = "jira_sync_marca", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"config_id", "tipo"}, name = "uq_jira_sync_marca_config_tipo")
+})
+@Comment("Marca de agua de la sincronización incremental por config Jira y tipo de consulta")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class JiraSyncMarca extends BaseEntity {
+
+    @Comment("Configuración Jira sincronizada")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "config_id", nullable = false)
+    private JiraConfig config;
+
+    @Comment("Consulta sincronizada: EVOLUTIVO o CORRECTIVO")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 20)
+    private TipoSincronizacion tipo;
+
+    @Comment("Fecha updated de Jira hasta la que todo está importado")
+    @Column(name = "actualizada_hasta", nullable = false)
+    private OffsetDateTime actualizadaHasta;
+}
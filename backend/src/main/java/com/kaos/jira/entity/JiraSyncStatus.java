@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -15,7 +16,9 @@ import lombok.experimental.SuperBuilder;
 
 /**
  * Estado de sincronización de un proyecto Jira.
- * Guarda la fecha de la última sincronización exitosa para permitir cargas incrementales.
+ * Guarda la fecha de la última sincronización exitosa y, si las últimas han fallado, la causa
+ * y cuántas van seguidas. Las cargas incrementales parten de {@link JiraSyncMarca}; la
+ * {@code ultimaSync} solo se usa para las configs que aún no tienen marca.
  */
 @Entity
 @Table(name = "jira_sync_status", uniqueConstraints = {
@@ -36,4 +39,17 @@ public class JiraSyncStatus extends BaseEntity {
     @Comment("Fecha y hora de la última sincronización exitosa; null si nunca se ha sincronizado")
     @Column(name = "ultima_sync")
     private LocalDateTime ultimaSync;
+
+    @Comment("Fecha y hora del último intento fallido de sincronización")
+    @Column(name = "ultimo_fallo")
+    private LocalDateTime ultimoFallo;
+
+    @Comment("Causa del último fallo; se limpia tras una sincronización correcta")
+    @Column(name = "ultimo_error", length = 1000)
+    private String ultimoError;
+
+    @Comment("Sincronizaciones fallidas seguidas desde la última correcta")
+    @Column(name = "fallos_consecutivos", nullable = false)
+    @Builder.Default
+    private int fallosConsecutivos = 0;
 }
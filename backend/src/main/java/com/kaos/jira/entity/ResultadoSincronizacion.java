@@ -0,0 +1,15 @@
+package com.kaos.jira.entity;
+
+/**
+ * Resultado de una ejecución de sincronización de un proyecto Jira.
+ */
+public enum ResultadoSincronizacion {
+    /** Todas las configuraciones del proyecto se sincronizaron sin error */
+    CORRECTA,
+
+    /** Alguna configuración falló; su {@code ultimaSync} no avanza */
+    FALLIDA,
+
+    /** No se lanzó porque la ejecución anterior del proyecto seguía en curso */
+    OMITIDA
+}
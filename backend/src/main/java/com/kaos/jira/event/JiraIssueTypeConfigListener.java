@@ -0,0 +1,28 @@
+package com.kaos.jira.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import com.kaos.jira.entity.JiraIssueTypeConfig;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Listener JPA de {@link JiraIssueTypeConfig}: publica un
+ * {@link JiraIssueTypeConfigModificadaEvent} por cada escritura, sea cual sea el servicio
+ * que la haga. Hibernate lo instancia a través del contenedor de Spring, que inyecta el
+ * publicador.
+ */
+@RequiredArgsConstructor
+public class JiraIssueTypeConfigListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onEscritura(JiraIssueTypeConfig config) {
+        Long squadId = config.getSquad() != null ? config.getSquad().getId() : null;
+        eventPublisher.publishEvent(new JiraIssueTypeConfigModificadaEvent(squadId));
+    }
+}
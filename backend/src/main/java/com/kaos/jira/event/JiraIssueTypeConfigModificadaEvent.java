@@ -0,0 +1,10 @@
+package com.kaos.jira.event;
+
+/**
+ * Evento de dominio publicado al crear, modificar o borrar una
+ * {@link com.kaos.jira.entity.JiraIssueTypeConfig}.
+ *
+ * @param squadId Squad cuya configuración cambia (null = todos)
+ */
+public record JiraIssueTypeConfigModificadaEvent(Long squadId) {
+}
@@ -15,4 +15,9 @@ public interface JiraConfigRepository extends JpaRepository<JiraConfig, Long> {
      * Busca todas las configuraciones activas para un squad.
      */
     List<JiraConfig> findBySquadId(Long squadId);
+
+    /**
+     * Configuraciones activas de todos los squads, para la sincronización programada.
+     */
+    List<JiraConfig> findByActivoTrue();
 }
@@ -0,0 +1,89 @@
+package com.kaos.jira.repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import com.kaos.jira.entity.JiraIssue;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Escritura masiva de issues Jira mediante JDBC batch.
+ * <p>
+ * Aquí se insertan y actualizan páginas enteras en lotes de {@link #TAMANO_LOTE} sin
+ * hidratar entidades: la sincronización compara contra proyecciones y nunca carga
+ * {@link JiraIssue} en el contexto de persistencia, que con JPA habría que leer o fusionar
+ * antes de cada UPDATE. El ID de las nuevas lo asigna el {@code DEFAULT nextval} de la
+ * columna sobre {@code jira_issue_id_seq}. Config, squad y sprint solo necesitan tener el
+ * ID; los campos de auditoría se rellenan a mano porque no pasan por el
+ * {@code AuditingEntityListener}.
+ * </p>
+ * Participa en la transacción activa (mismo DataSource que JPA).
+ */
+@Repository
+@RequiredArgsConstructor
+public class JiraIssueBatchRepository {
+
+    /** Filas por sentencia batch. */
+    static final int TAMANO_LOTE = 500;
+
+    private static final String INSERT_ISSUE =
+            "INSERT INTO jira_issue (jira_key, titulo, tipo, estado, config_id, squad_id, sprint_id, "
+            + "parent_key, subtipo_jira, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_ISSUE =
+            "UPDATE jira_issue SET titulo = ?, tipo = ?, estado = ?, squad_id = ?, sprint_id = ?, "
+            + "parent_key = ?, subtipo_jira = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta las issues nuevas en lotes.
+     */
+    public void insertar(List<JiraIssue> issues) {
+        if (issues.isEmpty()) return;
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_ISSUE, issues, TAMANO_LOTE, (ps, i) -> {
+            ps.setString(1, i.getJiraKey());
+            ps.setString(2, i.getTitulo());
+            ps.setString(3, i.getTipo());
+            ps.setString(4, i.getEstado());
+            ps.setLong(5, i.getConfig().getId());
+            ps.setLong(6, i.getSquad().getId());
+            if (i.getSprint() != null) {
+                ps.setLong(7, i.getSprint().getId());
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+            ps.setString(8, i.getParentKey());
+            ps.setString(9, i.getSubtipoJira());
+            ps.setTimestamp(10, ahora);
+        });
+    }
+
+    /**
+     * Actualiza en lotes los campos sincronizables de issues existentes (identificadas por ID).
+     * La config con la que se importó la issue no cambia.
+     */
+    public void actualizar(List<JiraIssue> issues) {
+        if (issues.isEmpty()) return;
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_ISSUE, issues, TAMANO_LOTE, (ps, i) -> {
+            ps.setString(1, i.getTitulo());
+            ps.setString(2, i.getTipo());
+            ps.setString(3, i.getEstado());
+            ps.setLong(4, i.getSquad().getId());
+            if (i.getSprint() != null) {
+                ps.setLong(5, i.getSprint().getId());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            ps.setString(6, i.getParentKey());
+            ps.setString(7, i.getSubtipoJira());
+            ps.setTimestamp(8, ahora);
+            ps.setLong(9, i.getId());
+        });
+    }
+}
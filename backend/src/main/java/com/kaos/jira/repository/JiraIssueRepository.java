@@ -1,8 +1,15 @@
 package com.kaos.jira.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.kaos.jira.dto.JiraIssueActual;
 import com.kaos.jira.entity.JiraIssue;
 
 /**
@@ -15,4 +22,25 @@ public interface JiraIssueRepository extends JpaRepository<JiraIssue, Long> {
      * Busca un issue por su clave Jira.
      */
     Optional<JiraIssue> findByJiraKey(String jiraKey);
+
+    /**
+     * Estado actual de las issues con las claves indicadas, en una sola consulta.
+     * No carga entidades en el contexto de persistencia.
+     */
+    @Query("SELECT i.id AS id, i.jiraKey AS jiraKey, i.titulo AS titulo, i.tipo AS tipo, " +
+           "i.estado AS estado, i.squad.id AS squadId, s.id AS sprintId, " +
+           "i.parentKey AS parentKey, i.subtipoJira AS subtipoJira " +
+           "FROM JiraIssue i LEFT JOIN i.sprint s " +
+           "WHERE i.jiraKey IN :claves")
+    List<JiraIssueActual> findActualesByJiraKeyIn(@Param("claves") Collection<String> claves);
+
+    /**
+     * Elimina las issues con las claves indicadas en una sola sentencia.
+     *
+     * @return número de issues eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM JiraIssue i WHERE i.jiraKey IN :claves")
+    int eliminarPorClaves(@Param("claves") Collection<String> claves);
 }
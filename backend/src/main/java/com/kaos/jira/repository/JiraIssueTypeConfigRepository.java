@@ -1,12 +1,16 @@
 package com.kaos.jira.repository;
 
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import com.kaos.jira.entity.JiraIssueTypeConfig;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositorio JPA para {@link JiraIssueTypeConfig}.
+ * Las búsquedas por squad usan la caché de consultas de Hibernate (ver {@code CacheReferencias}).
  */
 @Repository
 public interface JiraIssueTypeConfigRepository extends JpaRepository<JiraIssueTypeConfig, Long> {
@@ -18,6 +22,7 @@ public interface JiraIssueTypeConfigRepository extends JpaRepository<JiraIssueTy
      * @param tipoJira tipo de issue en Jira (ej: "Sub-task")
      * @return lista de configuraciones activas ordenadas por id
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<JiraIssueTypeConfig> findBySquadIdAndTipoJiraAndActivaTrue(Long squadId, String tipoJira);
 
     /**
@@ -26,5 +31,6 @@ public interface JiraIssueTypeConfigRepository extends JpaRepository<JiraIssueTy
      * @param squadId ID del squad
      * @return lista de configuraciones activas
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<JiraIssueTypeConfig> findBySquadIdAndActivaTrue(Long squadId);
 }
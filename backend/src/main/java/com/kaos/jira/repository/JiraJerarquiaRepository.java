@@ -0,0 +1,168 @@
+package com.kaos.jira.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import com.kaos.jira.dto.IssueHuerfanaResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tabla de cierre de la jerarquía de issues Jira ({@code jira_issue_jerarquia}) mediante JDBC.
+ * <p>
+ * Cada issue tiene un registro consigo misma (profundidad 0) y uno con cada ancestro que
+ * exista en {@code jira_issue}, siguiendo {@code parent_key}. Así los agregados por padre son
+ * un solo JOIN indexado en vez de recorrer el árbol fila a fila. Al cambiar la jerarquía se
+ * rehacen solo los árboles afectados: se borran los registros de sus issues y se vuelven a
+ * generar con CTE recursivas desde las raíces actuales.
+ * </p>
+ * Participa en la transacción activa (mismo DataSource que JPA).
+ */
+@Repository
+@RequiredArgsConstructor
+public class JiraJerarquiaRepository {
+
+    /** Tope de niveles al recorrer {@code parent_key}; evita bucles si Jira devolviera un ciclo. */
+    static final int MAX_PROFUNDIDAD = 10;
+
+    /** Issues de los árboles (según la tabla de cierre) que contienen alguna de las claves. */
+    private static final String SELECT_MIEMBROS =
+            "SELECT DISTINCT d.descendiente_key FROM jira_issue_jerarquia a "
+            + "JOIN jira_issue_jerarquia d ON d.ancestro_key = a.ancestro_key "
+            + "WHERE a.descendiente_key IN (:claves)";
+
+    /**
+     * Issues de los árboles actuales (según {@code parent_key}) que contienen alguna de las
+     * claves: sube hasta las raíces (sin padre o con el padre sin importar) y baja desde ellas.
+     */
+    private static final String SELECT_NODOS =
+            "WITH RECURSIVE arriba(clave, padre, nivel) AS ("
+            + "  SELECT i.jira_key, i.parent_key, 0 FROM jira_issue i WHERE i.jira_key IN (:claves)"
+            + "  UNION ALL"
+            + "  SELECT p.jira_key, p.parent_key, a.nivel + 1"
+            + "  FROM jira_issue p JOIN arriba a ON p.jira_key = a.padre"
+            + "  WHERE a.nivel < :maxProfundidad"
+            + "), nodos(clave, nivel) AS ("
+            + "  SELECT DISTINCT a.clave, 0 FROM arriba a"
+            + "  WHERE a.padre IS NULL OR NOT EXISTS (SELECT 1 FROM jira_issue p WHERE p.jira_key = a.padre)"
+            + "  UNION ALL"
+            + "  SELECT h.jira_key, n.nivel + 1"
+            + "  FROM jira_issue h JOIN nodos n ON h.parent_key = n.clave"
+            + "  WHERE n.nivel < :maxProfundidad"
+            + ") SELECT DISTINCT clave FROM nodos";
+
+    private static final String DELETE_DESCENDIENTES =
+            "DELETE FROM jira_issue_jerarquia WHERE descendiente_key IN (:claves)";
+
+    /** Registros de cierre de las issues indicadas con cada uno de sus ancestros. */
+    private static final String INSERT_CAMINOS =
+            "WITH RECURSIVE caminos(ancestro, descendiente, profundidad, squad_id) AS ("
+            + "  SELECT i.jira_key, i.jira_key, 0, i.squad_id FROM jira_issue i WHERE i.jira_key IN (:claves)"
+            + "  UNION ALL"
+            + "  SELECT p.jira_key, c.descendiente, c.profundidad + 1, p.squad_id"
+            + "  FROM caminos c"
+            + "  JOIN jira_issue h ON h.jira_key = c.ancestro"
+            + "  JOIN jira_issue p ON p.jira_key = h.parent_key"
+            + "  WHERE c.profundidad < :maxProfundidad"
+            + ") INSERT INTO jira_issue_jerarquia (ancestro_key, descendiente_key, profundidad, squad_id) "
+            + "SELECT ancestro, descendiente, profundidad, squad_id FROM caminos "
+            + "ON CONFLICT DO NOTHING";
+
+    private static final String SELECT_AGREGADOS =
+            "SELECT j.ancestro_key AS clave, d.estado AS estado, d.subtipo_jira AS subtipo, "
+            + "SUM(CASE WHEN j.profundidad = 1 THEN 1 ELSE 0 END) AS hijos, COUNT(*) AS descendientes, "
+            + "MAX(j.profundidad) AS profundidad "
+            + "FROM jira_issue_jerarquia j JOIN jira_issue d ON d.jira_key = j.descendiente_key "
+            + "WHERE %s AND j.profundidad > 0 "
+            + "GROUP BY j.ancestro_key, d.estado, d.subtipo_jira "
+            + "ORDER BY j.ancestro_key";
+
+    private static final String SELECT_HUERFANAS =
+            "SELECT i.jira_key, i.parent_key, i.tipo, i.estado FROM jira_issue i "
+            + "WHERE i.squad_id = :squadId AND i.parent_key IS NOT NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM jira_issue p WHERE p.jira_key = i.parent_key) "
+            + "ORDER BY i.jira_key";
+
+    /**
+     * Agregado de los descendientes de un padre para una combinación de estado y subtipo.
+     *
+     * @param clave         clave del padre
+     * @param estado        estado de los descendientes
+     * @param subtipo       subtipo kaos de los descendientes (null si no son sub-tasks)
+     * @param hijos         descendientes directos
+     * @param descendientes descendientes a cualquier nivel
+     * @param profundidad   nivel del descendiente más lejano
+     */
+    public record FilaAgregado(String clave, String estado, String subtipo,
+                               long hijos, long descendientes, int profundidad) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Issues que comparten árbol, según la tabla de cierre actual, con alguna de las claves.
+     */
+    public List<String> miembros(Collection<String> claves) {
+        if (claves.isEmpty()) return List.of();
+        return jdbcTemplate.queryForList(SELECT_MIEMBROS, Map.of("claves", claves), String.class);
+    }
+
+    /**
+     * Issues que comparten árbol, según {@code parent_key} en {@code jira_issue}, con alguna
+     * de las claves. Las claves que ya no existen se ignoran.
+     */
+    public List<String> nodos(Collection<String> claves) {
+        if (claves.isEmpty()) return List.of();
+        return jdbcTemplate.queryForList(SELECT_NODOS,
+                Map.of("claves", claves, "maxProfundidad", MAX_PROFUNDIDAD), String.class);
+    }
+
+    /**
+     * Borra los registros de cierre de las issues indicadas con todos sus ancestros.
+     */
+    public void eliminar(Collection<String> claves) {
+        if (claves.isEmpty()) return;
+        jdbcTemplate.update(DELETE_DESCENDIENTES, Map.of("claves", claves));
+    }
+
+    /**
+     * Genera los registros de cierre de las issues indicadas con todos sus ancestros.
+     */
+    public void insertar(Collection<String> claves) {
+        if (claves.isEmpty()) return;
+        jdbcTemplate.update(INSERT_CAMINOS, Map.of("claves", claves, "maxProfundidad", MAX_PROFUNDIDAD));
+    }
+
+    /**
+     * Agregados de todos los padres de un squad.
+     */
+    public List<FilaAgregado> agregadosSquad(Long squadId) {
+        return jdbcTemplate.query(SELECT_AGREGADOS.formatted("j.squad_id = :squadId"),
+                Map.of("squadId", squadId), (rs, n) -> fila(rs));
+    }
+
+    /**
+     * Agregados de un padre.
+     */
+    public List<FilaAgregado> agregadosIssue(String jiraKey) {
+        return jdbcTemplate.query(SELECT_AGREGADOS.formatted("j.ancestro_key = :clave"),
+                Map.of("clave", jiraKey), (rs, n) -> fila(rs));
+    }
+
+    /**
+     * Issues del squad cuyo padre no está importado.
+     */
+    public List<IssueHuerfanaResponse> huerfanas(Long squadId) {
+        return jdbcTemplate.query(SELECT_HUERFANAS, Map.of("squadId", squadId),
+                (rs, n) -> new IssueHuerfanaResponse(rs.getString("jira_key"), rs.getString("parent_key"),
+                        rs.getString("tipo"), rs.getString("estado")));
+    }
+
+    private static FilaAgregado fila(ResultSet rs) throws SQLException {
+        return new FilaAgregado(rs.getString("clave"), rs.getString("estado"), rs.getString("subtipo"),
+                rs.getLong("hijos"), rs.getLong("descendientes"), rs.getInt("profundidad"));
+    }
+}
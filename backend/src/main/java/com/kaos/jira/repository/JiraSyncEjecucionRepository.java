@@ -0,0 +1,33 @@
+package com.kaos.jira.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.kaos.jira.entity.JiraSyncEjecucion;
+
+/**
+ * Repositorio para {@link JiraSyncEjecucion}.
+ */
+@Repository
+public interface JiraSyncEjecucionRepository extends JpaRepository<JiraSyncEjecucion, Long> {
+
+    /**
+     * Últimas ejecuciones de un proyecto, de la más reciente a la más antigua.
+     */
+    List<JiraSyncEjecucion> findTop20ByProjectKeyOrderByInicioDesc(String projectKey);
+
+    /**
+     * Elimina el historial anterior a la fecha indicada.
+     *
+     * @return número de ejecuciones eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM JiraSyncEjecucion e WHERE e.inicio < :limite")
+    int eliminarAnterioresA(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,23 @@
+package com.kaos.jira.repository;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import com.kaos.jira.entity.JiraSyncMarca;
+import com.kaos.jira.entity.TipoSincronizacion;
+
+/**
+ * Repositorio para operaciones sobre JiraSyncMarca.
+ */
+@Repository
+public interface JiraSyncMarcaRepository extends JpaRepository<JiraSyncMarca, Long> {
+
+    /**
+     * Busca la marca de agua de una config para un tipo de consulta.
+     *
+     * @param configId id de la configuración Jira
+     * @param tipo     tipo de consulta
+     * @return Optional con la marca, vacío si esa consulta nunca ha terminado bien
+     */
+    Optional<JiraSyncMarca> findByConfigIdAndTipo(Long configId, TipoSincronizacion tipo);
+}
@@ -0,0 +1,142 @@
+package com.kaos.jira.service;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+import com.kaos.jira.dto.IssueJira;
+import com.kaos.jira.service.LectorBusquedaJira.Pagina;
+
+/**
+ * Recorre todas las páginas de una búsqueda JQL en {@code /rest/api/2/search}.
+ * <p>
+ * La primera página se pide en el hilo llamante para conocer {@code total} y el tamaño de
+ * página efectivo (Jira puede rebajar el {@code maxResults} pedido). El resto se piden en
+ * paralelo con hilos virtuales, con como mucho {@code paralelismo} peticiones a la vez.
+ * Las páginas se entregan al consumidor en el hilo llamante según llegan (no en orden de
+ * {@code startAt}), así que el consumidor no necesita ser thread-safe. Cada respuesta se lee
+ * en streaming con {@link LectorBusquedaJira} en el hilo que la pidió.
+ * </p>
+ * <p>
+ * Si una issue cambia de posición mientras se pagina puede llegar repetida o, si el
+ * conjunto crece, quedar fuera hasta la siguiente sincronización; el importador hace
+ * upsert por clave, así que las repeticiones son inocuas.
+ * </p>
+ */
+final class BusquedaPaginadaJira {
+
+    static final String RUTA_BUSQUEDA = "/rest/api/2/search";
+
+    private final RestClient client;
+    private final LectorBusquedaJira lector;
+    private final int tamanoPagina;
+    private final int paralelismo;
+
+    /**
+     * @param client       cliente con URL base y autenticación de la instancia Jira
+     * @param lector       lector de las respuestas de búsqueda
+     * @param tamanoPagina {@code maxResults} solicitado por página
+     * @param paralelismo  peticiones simultáneas como máximo tras la primera página
+     */
+    BusquedaPaginadaJira(RestClient client, LectorBusquedaJira lector, int tamanoPagina, int paralelismo) {
+        if (tamanoPagina < 1 || paralelismo < 1) {
+            throw new IllegalArgumentException("El tamaño de página y el paralelismo deben ser mayores que 0");
+        }
+        this.client = client;
+        this.lector = lector;
+        this.tamanoPagina = tamanoPagina;
+        this.paralelismo = paralelismo;
+    }
+
+    /**
+     * Ejecuta la búsqueda y entrega cada página al consumidor.
+     *
+     * @param jql        expresión JQL
+     * @param campos     lista de campos separada por comas ({@code fields})
+     * @param consumidor receptor de cada página de issues
+     * @return número de issues entregadas
+     * @throws IllegalStateException si falla alguna petición; las páginas ya entregadas no se deshacen
+     */
+    int recorrer(String jql, String campos, Consumer<List<IssueJira>> consumidor) {
+        Pagina primera = pedir(jql, campos, 0, tamanoPagina);
+        int entregadas = entregar(primera, consumidor);
+        if (primera.issues().isEmpty() || primera.total() <= primera.issues().size()) {
+            return entregadas;
+        }
+
+        int porPagina = primera.maxResults() > 0 ? primera.maxResults() : primera.issues().size();
+        Semaphore permisos = new Semaphore(paralelismo);
+        ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CompletionService<Pagina> completadas = new ExecutorCompletionService<>(hilos);
+            int pendientes = 0;
+            for (int startAt = porPagina; startAt < primera.total(); startAt += porPagina) {
+                int inicio = startAt;
+                completadas.submit(() -> {
+                    permisos.acquire();
+                    try {
+                        return pedir(jql, campos, inicio, porPagina);
+                    } finally {
+                        permisos.release();
+                    }
+                });
+                pendientes++;
+            }
+
+            for (; pendientes > 0; pendientes--) {
+                entregadas += entregar(completadas.take().get(), consumidor);
+            }
+            return entregadas;
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException("Error paginando la búsqueda Jira: " + causa.getMessage(), causa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Búsqueda Jira interrumpida", e);
+        } finally {
+            // Si algo falla, cancela las páginas que aún no han llegado
+            hilos.shutdownNow();
+        }
+    }
+
+    private static int entregar(Pagina pagina, Consumer<List<IssueJira>> consumidor) {
+        if (!pagina.issues().isEmpty()) {
+            consumidor.accept(pagina.issues());
+        }
+        return pagina.issues().size();
+    }
+
+    /**
+     * Pide una página y la lee en streaming desde el cuerpo de la respuesta, sin
+     * deserializarla a un árbol intermedio.
+     */
+    private Pagina pedir(String jql, String campos, int startAt, int maxResults) {
+        return client.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(RUTA_BUSQUEDA)
+                        .queryParam("jql", jql)
+                        .queryParam("startAt", startAt)
+                        .queryParam("maxResults", maxResults)
+                        .queryParam("fields", campos)
+                        .build())
+                .exchange((peticion, respuesta) -> {
+                    if (respuesta.getStatusCode().isError()) {
+                        throw new RestClientResponseException(
+                                "Jira respondió " + respuesta.getStatusCode().value() + " a la búsqueda (startAt="
+                                        + startAt + ")",
+                                respuesta.getStatusCode(), respuesta.getStatusText(), respuesta.getHeaders(),
+                                null, null);
+                    }
+                    try (InputStream cuerpo = respuesta.getBody()) {
+                        return lector.leer(cuerpo);
+                    }
+                });
+    }
+}
@@ -0,0 +1,86 @@
+package com.kaos.jira.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Cortocircuito de una instancia Jira.
+ * <p>
+ * Cerrado deja pasar todas las peticiones. Tras {@code umbralFallos} fallos seguidos (errores
+ * de conexión o respuestas 5xx) se abre y rechaza las peticiones sin enviarlas durante
+ * {@code apertura}; pasado ese tiempo deja pasar una sola petición de prueba: si va bien se
+ * cierra y si falla vuelve a abrirse. Así una instancia caída no recibe una petición por
+ * página de cada proyecto ni hace esperar a cada sincronización sus timeouts y reintentos.
+ * </p>
+ * Segura entre hilos; el reloj (nanosegundos) se inyecta para poder probarla sin esperas.
+ */
+final class CircuitoJira {
+
+    enum Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    private final int umbralFallos;
+    private final long aperturaNanos;
+    private final LongSupplier reloj;
+
+    private Estado estado = Estado.CERRADO;
+    private int fallosSeguidos;
+    private long abiertoDesde;
+    private boolean pruebaEnCurso;
+
+    CircuitoJira(int umbralFallos, long aperturaNanos, LongSupplier reloj) {
+        if (umbralFallos < 1 || aperturaNanos < 0) {
+            throw new IllegalArgumentException("Umbral o apertura del cortocircuito Jira no válidos");
+        }
+        this.umbralFallos = umbralFallos;
+        this.aperturaNanos = aperturaNanos;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Indica si se puede enviar una petición. En semiabierto solo la primera que lo pregunta
+     * obtiene permiso (la prueba) hasta que se registre su resultado.
+     */
+    synchronized boolean permitir() {
+        if (estado == Estado.ABIERTO && reloj.getAsLong() - abiertoDesde >= aperturaNanos) {
+            estado = Estado.SEMIABIERTO;
+            pruebaEnCurso = false;
+        }
+        return switch (estado) {
+            case CERRADO -> true;
+            case ABIERTO -> false;
+            case SEMIABIERTO -> {
+                if (pruebaEnCurso) {
+                    yield false;
+                }
+                pruebaEnCurso = true;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void registrarExito() {
+        estado = Estado.CERRADO;
+        fallosSeguidos = 0;
+        pruebaEnCurso = false;
+    }
+
+    synchronized void registrarFallo() {
+        fallosSeguidos++;
+        if (estado == Estado.SEMIABIERTO || fallosSeguidos >= umbralFallos) {
+            estado = Estado.ABIERTO;
+            abiertoDesde = reloj.getAsLong();
+            pruebaEnCurso = false;
+        }
+    }
+
+    synchronized Estado estado() {
+        return estado;
+    }
+
+    /** Milisegundos hasta que se permita la petición de prueba (0 si no está abierto). */
+    synchronized long msHastaPrueba() {
+        if (estado != Estado.ABIERTO) {
+            return 0;
+        }
+        return Math.max(0, (aperturaNanos - (reloj.getAsLong() - abiertoDesde)) / 1_000_000);
+    }
+}
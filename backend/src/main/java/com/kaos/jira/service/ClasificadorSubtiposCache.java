@@ -0,0 +1,90 @@
+package com.kaos.jira.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.kaos.jira.event.JiraIssueTypeConfigModificadaEvent;
+import com.kaos.jira.repository.JiraIssueTypeConfigRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché de {@link ClasificadorSubtipos} por squad.
+ * <p>
+ * El clasificador de un squad se construye con una sola consulta de sus configuraciones
+ * activas la primera vez que se necesita y se reutiliza en todas las sincronizaciones,
+ * sin consultas ni compilación de regex por issue. Se descarta al recibir un
+ * {@link JiraIssueTypeConfigModificadaEvent} tras el commit del cambio; una construcción
+ * que coincide con una invalidación no se almacena, para no guardar datos leídos antes
+ * del cambio.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClasificadorSubtiposCache {
+
+    private final JiraIssueTypeConfigRepository jiraIssueTypeConfigRepository;
+
+    private final Map<Long, ClasificadorSubtipos> entradas = new HashMap<>();
+
+    /** Se incrementa con cada invalidación; las construcciones concurrentes la comparan antes de guardar. */
+    private long generacion;
+
+    /**
+     * Clasificador del squad, construyéndolo si no está en caché.
+     * La consulta a BD se ejecuta fuera del bloqueo.
+     */
+    ClasificadorSubtipos obtener(Long squadId) {
+        long generacionInicial;
+        synchronized (this) {
+            ClasificadorSubtipos cacheado = entradas.get(squadId);
+            if (cacheado != null) {
+                return cacheado;
+            }
+            generacionInicial = generacion;
+        }
+
+        ClasificadorSubtipos construido = ClasificadorSubtipos.compilar(
+                jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(squadId));
+        log.debug("Clasificador de sub-tipos construido para squad {}", squadId);
+
+        synchronized (this) {
+            if (generacion == generacionInicial) {
+                entradas.put(squadId, construido);
+            }
+        }
+        return construido;
+    }
+
+    /**
+     * Descarta el clasificador del squad afectado (o todos si el evento no indica squad),
+     * una vez confirmada la transacción. Fuera de transacción se procesa inmediatamente.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onConfigModificada(JiraIssueTypeConfigModificadaEvent evento) {
+        synchronized (this) {
+            generacion++;
+            if (evento.squadId() != null) {
+                entradas.remove(evento.squadId());
+            } else {
+                entradas.clear();
+            }
+        }
+        log.debug("Clasificador de sub-tipos invalidado: {}", evento);
+    }
+
+    /**
+     * Vacía la caché por completo (p. ej. tras cambios hechos directamente en BD).
+     */
+    public synchronized void limpiar() {
+        generacion++;
+        entradas.clear();
+    }
+
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+}
@@ -0,0 +1,133 @@
+package com.kaos.jira.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import com.kaos.jira.entity.JiraConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Clientes HTTP de las instancias Jira.
+ * <p>
+ * Mantiene un {@link HttpClient} del JDK por URL base, cuyo pool de conexiones keep-alive
+ * reutilizan todas las sincronizaciones, páginas y configs de esa instancia, con timeout de
+ * conexión ({@code kaos.jira.http.timeout-conexion}) y de lectura de cada respuesta
+ * ({@code kaos.jira.http.timeout-lectura}). Cada {@link RestClient} devuelto lleva las
+ * credenciales de su config y un {@link InterceptorResilienciaJira} con reintentos
+ * ({@code kaos.jira.http.reintentos}, {@code espera-base}, {@code espera-maxima}), gzip y el
+ * {@link CircuitoJira} de su host ({@code kaos.jira.http.circuito.*}), compartido por todas
+ * las configs de ese host.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ClienteHttpJira {
+
+    private final RestClient.Builder restClientBuilder;
+    private final Duration timeoutConexion;
+    private final Duration timeoutLectura;
+    private final int reintentos;
+    private final Duration esperaBase;
+    private final Duration esperaMaxima;
+    private final int umbralFallos;
+    private final Duration apertura;
+
+    private final Map<String, HttpClient> conexiones = new ConcurrentHashMap<>();
+    private final Map<String, CircuitoJira> circuitos = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ClienteHttpJira(
+            RestClient.Builder restClientBuilder,
+            @Value("${kaos.jira.http.timeout-conexion:PT5S}") Duration timeoutConexion,
+            @Value("${kaos.jira.http.timeout-lectura:PT30S}") Duration timeoutLectura,
+            @Value("${kaos.jira.http.reintentos:3}") int reintentos,
+            @Value("${kaos.jira.http.espera-base:PT0.5S}") Duration esperaBase,
+            @Value("${kaos.jira.http.espera-maxima:PT30S}") Duration esperaMaxima,
+            @Value("${kaos.jira.http.circuito.umbral-fallos:5}") int umbralFallos,
+            @Value("${kaos.jira.http.circuito.apertura:PT1M}") Duration apertura) {
+        this.restClientBuilder = restClientBuilder;
+        this.timeoutConexion = timeoutConexion;
+        this.timeoutLectura = timeoutLectura;
+        this.reintentos = reintentos;
+        this.esperaBase = esperaBase;
+        this.esperaMaxima = esperaMaxima;
+        this.umbralFallos = umbralFallos;
+        this.apertura = apertura;
+    }
+
+    /**
+     * Cliente para la instancia de la config, con su URL base y sus credenciales.
+     * Es barato de crear: las conexiones y el cortocircuito se comparten.
+     */
+    public RestClient cliente(JiraConfig config) {
+        String host = JiraSyncOrquestador.host(config);
+        HttpClient conexion = conexiones.computeIfAbsent(origen(config.getJiraUrl()), origen -> {
+            log.debug("Nuevo cliente HTTP para Jira {}", origen);
+            return HttpClient.newBuilder()
+                    .connectTimeout(timeoutConexion)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        });
+        JdkClientHttpRequestFactory fabrica = new JdkClientHttpRequestFactory(conexion);
+        fabrica.setReadTimeout(timeoutLectura);
+
+        // clone(): el builder es un bean compartido y baseUrl() lo modificaría.
+        // El interceptor va el último para que cada reintento repita solo la petición HTTP.
+        return restClientBuilder.clone()
+                .baseUrl(config.getJiraUrl())
+                .requestFactory(fabrica)
+                .requestInterceptor(new InterceptorResilienciaJira(
+                        host, circuito(host), reintentos, esperaBase, esperaMaxima, Thread::sleep))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, basicAuth(config))
+                .defaultHeader(HttpHeaders.ACCEPT, "application/json")
+                .build();
+    }
+
+    /**
+     * Estado del cortocircuito de un host (CERRADO si aún no se ha usado).
+     */
+    CircuitoJira.Estado estadoCircuito(String host) {
+        CircuitoJira circuito = circuitos.get(host);
+        return circuito != null ? circuito.estado() : CircuitoJira.Estado.CERRADO;
+    }
+
+    private CircuitoJira circuito(String host) {
+        return circuitos.computeIfAbsent(host,
+                h -> new CircuitoJira(umbralFallos, apertura.toNanos(), System::nanoTime));
+    }
+
+    /** Esquema, host y puerto de la URL ({@code https://myorg.atlassian.net}). */
+    static String origen(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() != null && uri.getRawAuthority() != null) {
+                return uri.getScheme().toLowerCase() + "://" + uri.getRawAuthority().toLowerCase();
+            }
+        } catch (IllegalArgumentException e) {
+            // Se usa la URL tal cual
+        }
+        return url;
+    }
+
+    private static String basicAuth(JiraConfig config) {
+        String credentials = config.getUsuarioEmail() + ":" + config.getApiToken();
+        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @PreDestroy
+    void cerrar() {
+        conexiones.values().forEach(HttpClient::close);
+        conexiones.clear();
+    }
+}
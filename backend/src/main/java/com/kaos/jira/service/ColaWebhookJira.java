@@ -0,0 +1,130 @@
+package com.kaos.jira.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import com.kaos.jira.dto.IssueJira;
+
+/**
+ * Cola en memoria de cambios de issues recibidos por webhook, agrupados por clave Jira.
+ * <p>
+ * Cada clave ocupa una sola entrada: si llegan más eventos de la misma issue antes de
+ * aplicarla, el último sustituye al anterior (una issue editada diez veces seguidas se
+ * escribe una vez). Una entrada está lista cuando ha pasado la ventana desde su
+ * <em>primer</em> evento, de modo que una issue que no para de cambiar no se retrasa
+ * indefinidamente. Las entradas salen en el orden en que llegó su primer evento.
+ * </p>
+ * <p>
+ * La capacidad limita el número de claves distintas pendientes; con la cola llena se
+ * rechazan las claves nuevas (los eventos de claves ya pendientes se siguen agrupando).
+ * Los instantes se reciben en nanosegundos ({@link System#nanoTime()}) para poder probarla
+ * sin esperas. Segura entre hilos.
+ * </p>
+ */
+final class ColaWebhookJira {
+
+    /**
+     * Cambio pendiente de aplicar.
+     *
+     * @param jiraKey   clave de la issue
+     * @param eliminada true si el último evento fue un borrado
+     * @param issue     issue del último evento de alta o modificación (null si eliminada)
+     */
+    record Pendiente(String jiraKey, boolean eliminada, IssueJira issue) {
+
+        static Pendiente modificada(IssueJira issue) {
+            return new Pendiente(issue.jiraKey(), false, issue);
+        }
+
+        static Pendiente eliminada(String jiraKey) {
+            return new Pendiente(jiraKey, true, null);
+        }
+    }
+
+    private static final class Entrada {
+        private final long primerEvento;
+        private Pendiente pendiente;
+
+        private Entrada(long primerEvento, Pendiente pendiente) {
+            this.primerEvento = primerEvento;
+            this.pendiente = pendiente;
+        }
+    }
+
+    private final long ventanaNanos;
+    private final int capacidad;
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>();
+    private long agrupados;
+    private long rechazados;
+
+    /**
+     * @param ventanaNanos tiempo desde el primer evento de una clave hasta que se aplica
+     * @param capacidad    máximo de claves distintas pendientes
+     */
+    ColaWebhookJira(long ventanaNanos, int capacidad) {
+        if (ventanaNanos < 0 || capacidad < 1) {
+            throw new IllegalArgumentException("Ventana o capacidad de la cola de webhooks no válidas");
+        }
+        this.ventanaNanos = ventanaNanos;
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Encola un cambio, agrupándolo con el pendiente de la misma clave si lo hay.
+     *
+     * @param pendiente cambio recibido
+     * @param ahora     instante de recepción, en nanosegundos
+     * @return false si la cola está llena y la clave no estaba pendiente
+     */
+    synchronized boolean encolar(Pendiente pendiente, long ahora) {
+        Entrada entrada = entradas.get(pendiente.jiraKey());
+        if (entrada != null) {
+            entrada.pendiente = pendiente;
+            agrupados++;
+            return true;
+        }
+        if (entradas.size() >= capacidad) {
+            rechazados++;
+            return false;
+        }
+        entradas.put(pendiente.jiraKey(), new Entrada(ahora, pendiente));
+        return true;
+    }
+
+    /**
+     * Saca las entradas cuya ventana ha vencido, en orden de llegada.
+     *
+     * @param ahora   instante actual, en nanosegundos
+     * @param maximo  máximo de entradas a sacar
+     * @return cambios listos (vacío si no hay ninguno)
+     */
+    synchronized List<Pendiente> extraerListos(long ahora, int maximo) {
+        List<Pendiente> listos = new ArrayList<>();
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext() && listos.size() < maximo) {
+            Entrada entrada = it.next();
+            // La ventana es igual para todas: la primera no vencida cierra el recorrido
+            if (ahora - entrada.primerEvento < ventanaNanos) {
+                break;
+            }
+            listos.add(entrada.pendiente);
+            it.remove();
+        }
+        return listos;
+    }
+
+    synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    /** Eventos absorbidos por un cambio ya pendiente de la misma clave. */
+    synchronized long agrupados() {
+        return agrupados;
+    }
+
+    /** Claves nuevas rechazadas por cola llena. */
+    synchronized long rechazados() {
+        return rechazados;
+    }
+}
@@ -0,0 +1,229 @@
+package com.kaos.jira.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPInputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Interceptor de las peticiones a una instancia Jira: reintentos, cortocircuito y gzip.
+ * <p>
+ * Reintenta hasta {@code maxReintentos} veces los errores de conexión o lectura (incluidos
+ * los timeouts) y las respuestas 429, 502, 503 y 504. La espera es exponencial
+ * ({@code esperaBase × 2^intento}, con variación aleatoria para que los hilos que fallan a
+ * la vez no reintenten a la vez) y nunca mayor que {@code esperaMaxima}; si la respuesta
+ * trae {@code Retry-After} (segundos o fecha HTTP) se espera lo que indica. Si Jira pide
+ * esperar más que {@code esperaMaxima} no se reintenta y se devuelve su respuesta.
+ * </p>
+ * <p>
+ * Cada intento pasa antes por el {@link CircuitoJira} del host; con el circuito abierto se
+ * lanza {@link IllegalStateException} sin enviar la petición. Los errores de conexión y las
+ * respuestas 5xx cuentan como fallo; cualquier otra respuesta (incluido 429, que indica
+ * que el host está vivo) como éxito.
+ * </p>
+ * <p>
+ * Pide las respuestas comprimidas ({@code Accept-Encoding: gzip}) y las descomprime al
+ * leerlas, porque el cliente HTTP del JDK no lo hace.
+ * </p>
+ * Debe ser el último interceptor del cliente: cada reintento vuelve a ejecutar solo la
+ * petición HTTP.
+ */
+@Slf4j
+final class InterceptorResilienciaJira implements ClientHttpRequestInterceptor {
+
+    /** Espera entre intentos; los tests la sustituyen para no dormir. */
+    @FunctionalInterface
+    interface Espera {
+        void esperar(long ms) throws InterruptedException;
+    }
+
+    private static final Set<Integer> REINTENTABLES = Set.of(429, 502, 503, 504);
+    private static final String GZIP = "gzip";
+
+    private final String host;
+    private final CircuitoJira circuito;
+    private final int maxReintentos;
+    private final long esperaBaseMs;
+    private final long esperaMaximaMs;
+    private final Espera espera;
+
+    InterceptorResilienciaJira(String host, CircuitoJira circuito, int maxReintentos,
+                               Duration esperaBase, Duration esperaMaxima, Espera espera) {
+        if (maxReintentos < 0) {
+            throw new IllegalArgumentException("El número de reintentos no puede ser negativo");
+        }
+        this.host = host;
+        this.circuito = circuito;
+        this.maxReintentos = maxReintentos;
+        this.esperaBaseMs = esperaBase.toMillis();
+        this.esperaMaximaMs = esperaMaxima.toMillis();
+        this.espera = espera;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest peticion, byte[] cuerpo, ClientHttpRequestExecution ejecucion)
+            throws IOException {
+        peticion.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+
+        for (int intento = 0; ; intento++) {
+            if (!circuito.permitir()) {
+                throw new IllegalStateException("Jira " + host + " no disponible: demasiados fallos seguidos, "
+                        + "no se enviarán peticiones durante " + circuito.msHastaPrueba() + " ms");
+            }
+
+            ClientHttpResponse respuesta;
+            try {
+                respuesta = ejecutar(peticion, cuerpo, ejecucion);
+            } catch (IOException e) {
+                circuito.registrarFallo();
+                if (intento >= maxReintentos) {
+                    throw new IOException("Jira " + host + " sin respuesta tras " + (intento + 1)
+                            + " intentos: " + e.getMessage(), e);
+                }
+                long ms = exponencial(intento);
+                log.warn("Error de conexión con Jira {} ({}), reintento {}/{} en {} ms",
+                        host, e.getMessage(), intento + 1, maxReintentos, ms);
+                esperar(ms);
+                continue;
+            }
+
+            int codigo = respuesta.getStatusCode().value();
+            if (codigo >= 500) {
+                circuito.registrarFallo();
+            } else {
+                circuito.registrarExito();
+            }
+            if (!REINTENTABLES.contains(codigo) || intento >= maxReintentos) {
+                return descomprimir(respuesta);
+            }
+
+            Long indicada = retryAfterMs(respuesta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            if (indicada != null && indicada > esperaMaximaMs) {
+                log.warn("Jira {} respondió {} con Retry-After de {} ms (máximo {} ms): no se reintenta",
+                        host, codigo, indicada, esperaMaximaMs);
+                return descomprimir(respuesta);
+            }
+            long ms = indicada != null ? indicada : exponencial(intento);
+            respuesta.close();
+            log.warn("Jira {} respondió {}, reintento {}/{} en {} ms", host, codigo, intento + 1, maxReintentos, ms);
+            esperar(ms);
+        }
+    }
+
+    /**
+     * Ejecuta la petición. Con {@code JdkClientHttpRequestFactory} el timeout de lectura
+     * cancela la petición y llega como {@link CancellationException}, no como
+     * {@link IOException}; se traduce a {@link HttpTimeoutException} para que se reintente y
+     * cuente como fallo igual que el resto de errores de conexión.
+     */
+    private ClientHttpResponse ejecutar(HttpRequest peticion, byte[] cuerpo, ClientHttpRequestExecution ejecucion)
+            throws IOException {
+        try {
+            return ejecucion.execute(peticion, cuerpo);
+        } catch (CancellationException e) {
+            HttpTimeoutException timeout = new HttpTimeoutException("tiempo de lectura agotado");
+            timeout.initCause(e);
+            throw timeout;
+        }
+    }
+
+    /** Espera exponencial entre la mitad y el total de {@code base × 2^intento}, acotada al máximo. */
+    private long exponencial(int intento) {
+        long total = Math.min(esperaMaximaMs, esperaBaseMs << Math.min(intento, 20));
+        return total / 2 + ThreadLocalRandom.current().nextLong(total / 2 + 1);
+    }
+
+    private void esperar(long ms) throws InterruptedIOException {
+        try {
+            espera.esperar(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reintento a Jira " + host + " interrumpido");
+        }
+    }
+
+    /**
+     * Milisegundos indicados por {@code Retry-After} (segundos o fecha HTTP), o null si no
+     * viene o no se entiende.
+     */
+    static Long retryAfterMs(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return Math.max(0, Long.parseLong(valor.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime fecha = ZonedDateTime.parse(valor.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(fecha.getZone()), fecha).toMillis());
+            } catch (DateTimeParseException e2) {
+                return null;
+            }
+        }
+    }
+
+    private static ClientHttpResponse descomprimir(ClientHttpResponse respuesta) {
+        String codificacion = respuesta.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        return GZIP.equalsIgnoreCase(codificacion) ? new RespuestaGzip(respuesta) : respuesta;
+    }
+
+    /** Respuesta con el cuerpo descomprimido y sin las cabeceras de la versión comprimida. */
+    private static final class RespuestaGzip implements ClientHttpResponse {
+
+        private final ClientHttpResponse original;
+        private final HttpHeaders cabeceras;
+        private InputStream cuerpo;
+
+        private RespuestaGzip(ClientHttpResponse original) {
+            this.original = original;
+            HttpHeaders copia = new HttpHeaders();
+            copia.putAll(original.getHeaders());
+            copia.remove(HttpHeaders.CONTENT_ENCODING);
+            copia.remove(HttpHeaders.CONTENT_LENGTH);
+            this.cabeceras = HttpHeaders.readOnlyHttpHeaders(copia);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return original.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return original.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return cabeceras;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (cuerpo == null) {
+                cuerpo = new GZIPInputStream(original.getBody());
+            }
+            return cuerpo;
+        }
+
+        @Override
+        public void close() {
+            original.close();
+        }
+    }
+}
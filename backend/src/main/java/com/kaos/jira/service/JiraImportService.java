@@ -1,50 +1,64 @@
 package com.kaos.jira.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.kaos.jira.dto.IssueJira;
+import com.kaos.jira.dto.JiraIssueActual;
 import com.kaos.jira.dto.JiraSyncStatus;
 import com.kaos.jira.entity.JiraConfig;
 import com.kaos.jira.entity.JiraIssue;
+import com.kaos.jira.entity.JiraIssueTypeConfig;
+import com.kaos.jira.repository.JiraIssueBatchRepository;
 import com.kaos.jira.repository.JiraIssueRepository;
 import com.kaos.planificacion.entity.Sprint;
-import java.util.regex.Pattern;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import com.kaos.jira.entity.JiraIssue;
-import com.kaos.jira.entity.JiraIssueTypeConfig;
-import com.kaos.jira.repository.JiraIssueTypeConfigRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Servicio de importación de issues desde Jira.
- * Procesa y persiste las issues recibidas de la API de Jira,
+ * Procesa y persiste por páginas las issues recibidas de la API de Jira,
  * vinculándolas al sprint KAOS activo cuando corresponda.
  * Detecta el sub-tipo kaos de las sub-tasks según los patrones configurados
- * en {@link JiraIssueTypeConfig} y los asigna al campo {@code subtipoJira}.
+ * en {@link JiraIssueTypeConfig} (precompilados por squad en {@link ClasificadorSubtiposCache})
+ * y los asigna al campo {@code subtipoJira}.
+ * Las issues nuevas o cuyo padre o squad cambia se propagan a la jerarquía
+ * ({@link JiraJerarquiaService}).
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class JiraImportService {
 
     private final JiraIssueRepository jiraIssueRepository;
+    private final ClasificadorSubtiposCache clasificadorSubtiposCache;
+    private final JiraIssueBatchRepository jiraIssueBatchRepository;
+    private final JiraJerarquiaService jiraJerarquiaService;
 
     /**
-     * Procesa e importa una lista de issues de Jira.
-     * Crea o actualiza cada issue en la base de datos y la vincula
-     * al sprint KAOS activo si se proporciona.
+     * Procesa e importa una página de issues de Jira.
+     * <p>
+     * Lee y valida cada issue por separado (un error solo descarta esa issue), resuelve
+     * las que ya existen con una única consulta por clave y compara en memoria los campos
+     * sincronizables. Las nuevas se insertan y las modificadas se actualizan en lotes JDBC
+     * ({@link JiraIssueBatchRepository}); las que no han cambiado no se escriben.
+     * Si una clave llega repetida en la página se procesa una sola vez (la última).
+     * </p>
      *
-     * @param issues  Lista de issues obtenidas de la API Jira (campo "issues" del JSON)
+     * @param issues  Issues de una página de la búsqueda Jira
      * @param config  Configuración Jira del squad
      * @param sprint  Sprint KAOS activo (puede ser null si no hay sprint activo)
      * @param status  Objeto de estado para acumular resultados y errores
      */
     @Transactional
     public void processIssues(
-            List<Map<String, Object>> issues,
+            List<IssueJira> issues,
             JiraConfig config,
             Sprint sprint,
             JiraSyncStatus status) {
@@ -54,119 +68,154 @@ public class JiraImportService {
             return;
         }
 
-        for (Map<String, Object> issue : issues) {
+        Map<String, JiraIssue> leidas = new LinkedHashMap<>();
+        for (IssueJira issue : issues) {
             try {
-                String jiraKey = (String) issue.get("key");
-                if (jiraKey == null) {
-                    log.warn("Issue sin clave Jira, se omite");
-                    continue;
+                JiraIssue leida = leerIssue(issue, config, sprint);
+                if (leida != null) {
+                    leidas.put(leida.getJiraKey(), leida);
                 }
+            } catch (Exception e) {
+                String msg = "Error procesando issue " + issue.jiraKey() + ": " + e.getMessage();
+                log.error(msg, e);
+                status.addError(issue.jiraKey(), msg);
+            }
+        }
+        if (leidas.isEmpty()) {
+            return;
+        }
 
-                @SuppressWarnings("unchecked")
-                Map<String, Object> fields = (Map<String, Object>) issue.get("fields");
-                if (fields == null) {
-                    log.warn("Issue {} sin campos, se omite", jiraKey);
-                    continue;
-                }
+        Map<String, JiraIssueActual> actuales = new HashMap<>();
+        for (JiraIssueActual actual : jiraIssueRepository.findActualesByJiraKeyIn(leidas.keySet())) {
+            actuales.put(actual.getJiraKey(), actual);
+        }
 
-                String titulo = (String) fields.get("summary");
-                String tipo = extraerNombre(fields, "issuetype");
-                String estado = extraerNombre(fields, "status");
-
-                JiraIssue jiraIssue = jiraIssueRepository.findByJiraKey(jiraKey)
-                        .orElse(JiraIssue.builder()
-                                .jiraKey(jiraKey)
-                                .config(config)
-                                .build());
-
-                boolean esNueva = jiraIssue.getId() == null;
-                jiraIssue.setTitulo(titulo != null ? titulo : jiraKey);
-                jiraIssue.setTipo(tipo);
-                jiraIssue.setEstado(estado);
-                jiraIssue.setSprint(sprint);
-
-                jiraIssueRepository.save(jiraIssue);
-
-                if (esNueva) {
-                    status.setIssuesImportadas(status.getIssuesImportadas() + 1);
-                    log.debug("Issue importada: {}", jiraKey);
-                } else {
-                    status.setIssuesActualizadas(status.getIssuesActualizadas() + 1);
-                    log.debug("Issue actualizada: {}", jiraKey);
+        List<JiraIssue> nuevas = new ArrayList<>();
+        List<JiraIssue> modificadas = new ArrayList<>();
+        List<String> cambiaJerarquia = new ArrayList<>();
+        int sinCambios = 0;
+        for (JiraIssue leida : leidas.values()) {
+            JiraIssueActual actual = actuales.get(leida.getJiraKey());
+            if (actual == null) {
+                nuevas.add(leida);
+                cambiaJerarquia.add(leida.getJiraKey());
+            } else if (haCambiado(actual, leida)) {
+                leida.setId(actual.getId());
+                modificadas.add(leida);
+                if (!Objects.equals(actual.getParentKey(), leida.getParentKey())
+                        || !Objects.equals(actual.getSquadId(), leida.getSquad().getId())) {
+                    cambiaJerarquia.add(leida.getJiraKey());
                 }
-
-            } catch (Exception e) {
-                String msg = "Error procesando issue: " + e.getMessage();
-                log.error(msg, e);
-                status.addError(msg);
+            } else {
+                sinCambios++;
             }
         }
+
+        jiraIssueBatchRepository.insertar(nuevas);
+        jiraIssueBatchRepository.actualizar(modificadas);
+        jiraJerarquiaService.actualizar(cambiaJerarquia);
+
+        status.setIssuesImportadas(status.getIssuesImportadas() + nuevas.size());
+        status.setIssuesActualizadas(status.getIssuesActualizadas() + modificadas.size());
+        status.setIssuesSinCambios(status.getIssuesSinCambios() + sinCambios);
+        log.debug("Página config {}: {} importadas, {} actualizadas, {} sin cambios",
+                config.getId(), nuevas.size(), modificadas.size(), sinCambios);
     }
 
-    @SuppressWarnings("unchecked")
-    private String extraerNombre(Map<String, Object> fields, String campo) {
-        Object obj = fields.get(campo);
-        if (obj instanceof Map) {
-            return (String) ((Map<String, Object>) obj).get("name");
+    /**
+     * Convierte una issue de la búsqueda en una {@link JiraIssue} sin persistir, con el
+     * subtipo ya detectado. Valida aquí las restricciones de la tabla para que una issue
+     * inválida no haga fallar el lote completo al escribir.
+     *
+     * @return la issue leída, o null si no trae clave o campos
+     * @throws IllegalArgumentException si algún campo excede la longitud de su columna
+     */
+    private JiraIssue leerIssue(IssueJira issue, JiraConfig config, Sprint sprint) {
+        String jiraKey = issue.jiraKey();
+        if (jiraKey == null) {
+            log.warn("Issue sin clave Jira, se omite");
+            return null;
+        }
+        if (issue.titulo() == null && issue.tipo() == null && issue.estado() == null) {
+            log.warn("Issue {} sin campos, se omite", jiraKey);
+            return null;
+        }
+        if (config.getSquad() == null) {
+            throw new IllegalArgumentException("la configuración " + config.getId() + " no tiene squad");
         }
-        return null;
-@Transactional(readOnly = true)
-public class JiraImportService {
 
-    private static final String SUBTIPO_OTROS = "OTROS";
+        JiraIssue jiraIssue = JiraIssue.builder()
+                .jiraKey(comprobarLongitud(jiraKey, 50, "clave"))
+                .titulo(comprobarLongitud(issue.titulo() != null ? issue.titulo() : jiraKey, 500, "título"))
+                .tipo(comprobarLongitud(issue.tipo(), 50, "tipo"))
+                .estado(comprobarLongitud(issue.estado(), 100, "estado"))
+                .parentKey(comprobarLongitud(issue.parentKey(), 50, "clave del padre"))
+                .config(config)
+                .squad(config.getSquad())
+                .sprint(sprint)
+                .build();
+        processIssue(jiraIssue);
+        return jiraIssue;
+    }
 
-    private final JiraIssueTypeConfigRepository jiraIssueTypeConfigRepository;
+    private static String comprobarLongitud(String valor, int maximo, String campo) {
+        if (valor != null && valor.length() > maximo) {
+            throw new IllegalArgumentException(
+                    "el campo " + campo + " supera los " + maximo + " caracteres");
+        }
+        return valor;
+    }
+
+    /**
+     * Indica si alguno de los campos que escribe la sincronización difiere del valor guardado.
+     */
+    static boolean haCambiado(JiraIssueActual actual, JiraIssue leida) {
+        return !Objects.equals(actual.getTitulo(), leida.getTitulo())
+                || !Objects.equals(actual.getTipo(), leida.getTipo())
+                || !Objects.equals(actual.getEstado(), leida.getEstado())
+                || !Objects.equals(actual.getSquadId(), leida.getSquad().getId())
+                || !Objects.equals(actual.getSprintId(), leida.getSprint() != null ? leida.getSprint().getId() : null)
+                || !Objects.equals(actual.getParentKey(), leida.getParentKey())
+                || !Objects.equals(actual.getSubtipoJira(), leida.getSubtipoJira());
+    }
 
     /**
      * Procesa un issue importado desde Jira.
-     * Si el issue es una sub-task (parentKey != null), detecta su subtipo
-     * y lo asigna al campo {@code subtipoJira}.
+     * Si el issue es una sub-task (parentKey != null), detecta su subtipo con el
+     * clasificador cacheado del squad y lo asigna al campo {@code subtipoJira}.
      * Issues que no son sub-tasks quedan con {@code subtipoJira = null}.
      *
      * @param issue issue a procesar (se modifica en sitio)
      */
-    @Transactional
     public void processIssue(JiraIssue issue) {
         if (issue.getParentKey() == null) {
-            log.debug("Issue {} no es sub-task, subtipoJira queda null", issue.getIssueKey());
+            log.debug("Issue {} no es sub-task, subtipoJira queda null", issue.getJiraKey());
             issue.setSubtipoJira(null);
             return;
         }
 
-        Long squadId = issue.getSquad().getId();
-        String tipoJira = issue.getTipoJira();
-
-        List<JiraIssueTypeConfig> configs =
-                jiraIssueTypeConfigRepository.findBySquadIdAndTipoJiraAndActivaTrue(squadId, tipoJira);
-
-        String subtipo = detectarSubtipo(issue.getSummary(), configs);
+        String subtipo = clasificadorSubtiposCache.obtener(issue.getSquad().getId())
+                .clasificar(issue.getTipo(), issue.getTitulo());
         issue.setSubtipoJira(subtipo);
-        log.debug("Issue {} (sub-task) → subtipoJira={}", issue.getIssueKey(), subtipo);
+        log.debug("Issue {} (sub-task) → subtipoJira={}", issue.getJiraKey(), subtipo);
     }
 
     /**
      * Detecta el sub-tipo kaos de una sub-task comparando su summary
-     * con los patrones de las configuraciones activas del squad.
+     * con los patrones de las configuraciones indicadas, en orden.
      * El primer patrón que encaje (regex evaluado sobre el summary completo,
      * con bandera {@code CASE_INSENSITIVE}) determina el sub-tipo.
-     * Si ninguno encaja devuelve {@value #SUBTIPO_OTROS}.
+     * Si ninguno encaja devuelve {@value ClasificadorSubtipos#SUBTIPO_OTROS}.
+     * Compila los patrones en cada llamada: la importación usa el clasificador cacheado.
      *
      * @param summary resumen/título del issue
      * @param configs configuraciones activas para el tipo de issue
      * @return sub-tipo kaos detectado
      */
     String detectarSubtipo(String summary, List<JiraIssueTypeConfig> configs) {
-        if (summary == null || configs == null) {
-            return SUBTIPO_OTROS;
-        }
-        for (JiraIssueTypeConfig cfg : configs) {
-            if (cfg.getPatronNombre() != null
-                    && Pattern.compile(cfg.getPatronNombre(), Pattern.CASE_INSENSITIVE)
-                              .matcher(summary)
-                              .matches()) {
-                return cfg.getSubtipoKaos();
-            }
+        if (configs == null) {
+            return ClasificadorSubtipos.SUBTIPO_OTROS;
         }
-        return SUBTIPO_OTROS;
+        return ClasificadorSubtipos.Reglas.compilar(configs).clasificar(summary);
     }
 }
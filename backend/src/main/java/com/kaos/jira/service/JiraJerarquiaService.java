@@ -0,0 +1,157 @@
+package com.kaos.jira.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.kaos.jira.dto.IssueHuerfanaResponse;
+import com.kaos.jira.dto.RollupJiraResponse;
+import com.kaos.jira.repository.JiraIssueRepository;
+import com.kaos.jira.repository.JiraJerarquiaRepository;
+import com.kaos.jira.repository.JiraJerarquiaRepository.FilaAgregado;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Jerarquía de issues Jira (épica → historia → sub-task, según {@code parentKey}).
+ * <p>
+ * Mantiene la tabla de cierre {@code jira_issue_jerarquia} ({@link JiraJerarquiaRepository})
+ * a medida que se importan o eliminan issues: solo se rehacen los árboles en los que ha
+ * cambiado algo. Los agregados por padre (hijos, descendientes por estado y subtipo,
+ * profundidad) y la detección de huérfanas se resuelven con una consulta cada uno.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class JiraJerarquiaService {
+
+    private final JiraJerarquiaRepository jiraJerarquiaRepository;
+    private final JiraIssueRepository jiraIssueRepository;
+
+    /**
+     * Rehace los árboles que contenían o contienen alguna de las issues indicadas. Se llama
+     * después de escribir issues nuevas o cuyo padre o squad ha cambiado.
+     *
+     * @param claves claves de las issues con cambios en la jerarquía
+     */
+    @Transactional
+    public void actualizar(Collection<String> claves) {
+        if (claves.isEmpty()) {
+            return;
+        }
+        Set<String> afectadas = new LinkedHashSet<>(jiraJerarquiaRepository.miembros(claves));
+        afectadas.addAll(claves);
+        rehacer(afectadas);
+    }
+
+    /**
+     * Elimina issues y rehace los árboles en los que estaban; sus hijos pasan a ser raíces
+     * (huérfanas) hasta que el padre vuelva a importarse.
+     *
+     * @param claves claves de las issues a eliminar
+     * @return número de issues eliminadas
+     */
+    @Transactional
+    public int eliminarIssues(Collection<String> claves) {
+        if (claves.isEmpty()) {
+            return 0;
+        }
+        // Los árboles se leen antes de borrar: el borrado de las issues arrastra sus registros
+        Set<String> afectadas = new LinkedHashSet<>(jiraJerarquiaRepository.miembros(claves));
+        int borradas = jiraIssueRepository.eliminarPorClaves(claves);
+        afectadas.removeAll(claves);
+        rehacer(afectadas);
+        return borradas;
+    }
+
+    private void rehacer(Set<String> afectadas) {
+        if (afectadas.isEmpty()) {
+            return;
+        }
+        List<String> nodos = jiraJerarquiaRepository.nodos(afectadas);
+        Set<String> borrar = new LinkedHashSet<>(afectadas);
+        borrar.addAll(nodos);
+        jiraJerarquiaRepository.eliminar(borrar);
+        jiraJerarquiaRepository.insertar(nodos);
+        log.debug("Jerarquía Jira rehecha: {} issues afectadas, {} en los árboles actuales",
+                afectadas.size(), nodos.size());
+    }
+
+    /**
+     * Agregados de todas las issues con descendientes de un squad, ordenados por clave.
+     *
+     * @param squadId ID del squad
+     * @return un agregado por padre
+     */
+    public List<RollupJiraResponse> rollupSquad(Long squadId) {
+        return agrupar(jiraJerarquiaRepository.agregadosSquad(squadId));
+    }
+
+    /**
+     * Agregado de los descendientes de una issue; todo a cero si no tiene hijos.
+     *
+     * @param jiraKey clave de la issue padre
+     * @return agregado de la issue
+     * @throws EntityNotFoundException si la issue no está importada
+     */
+    public RollupJiraResponse rollupIssue(String jiraKey) {
+        List<RollupJiraResponse> rollup = agrupar(jiraJerarquiaRepository.agregadosIssue(jiraKey));
+        if (!rollup.isEmpty()) {
+            return rollup.get(0);
+        }
+        if (jiraIssueRepository.findByJiraKey(jiraKey).isEmpty()) {
+            throw new EntityNotFoundException("Issue Jira no encontrada: " + jiraKey);
+        }
+        return new RollupJiraResponse(jiraKey, 0, 0, 0, Map.of(), Map.of());
+    }
+
+    /**
+     * Issues del squad cuyo padre no está importado.
+     *
+     * @param squadId ID del squad
+     * @return huérfanas ordenadas por clave
+     */
+    public List<IssueHuerfanaResponse> huerfanas(Long squadId) {
+        return jiraJerarquiaRepository.huerfanas(squadId);
+    }
+
+    /**
+     * Junta las filas por (padre, estado, subtipo) en un agregado por padre, en el orden de llegada.
+     */
+    static List<RollupJiraResponse> agrupar(List<FilaAgregado> filas) {
+        Map<String, List<FilaAgregado>> porPadre = new LinkedHashMap<>();
+        for (FilaAgregado fila : filas) {
+            porPadre.computeIfAbsent(fila.clave(), k -> new ArrayList<>()).add(fila);
+        }
+        List<RollupJiraResponse> resultado = new ArrayList<>(porPadre.size());
+        porPadre.forEach((clave, grupo) -> {
+            long hijos = 0;
+            long descendientes = 0;
+            int profundidad = 0;
+            Map<String, Long> porEstado = new TreeMap<>();
+            Map<String, Long> porSubtipo = new TreeMap<>();
+            for (FilaAgregado fila : grupo) {
+                hijos += fila.hijos();
+                descendientes += fila.descendientes();
+                profundidad = Math.max(profundidad, fila.profundidad());
+                if (fila.estado() != null) {
+                    porEstado.merge(fila.estado(), fila.descendientes(), Long::sum);
+                }
+                if (fila.subtipo() != null) {
+                    porSubtipo.merge(fila.subtipo(), fila.descendientes(), Long::sum);
+                }
+            }
+            resultado.add(new RollupJiraResponse(clave, hijos, descendientes, profundidad, porEstado, porSubtipo));
+        });
+        return resultado;
+    }
+}
@@ -0,0 +1,246 @@
+package com.kaos.jira.service;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.kaos.jira.entity.JiraConfig;
+import com.kaos.jira.entity.JiraSyncEjecucion;
+import com.kaos.jira.entity.ResultadoSincronizacion;
+import com.kaos.jira.repository.JiraConfigRepository;
+import com.kaos.jira.repository.JiraSyncEjecucionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sincronización programada de todos los proyectos Jira activos.
+ * <p>
+ * Cada ronda lee las {@link JiraConfig} activas, las agrupa por proyecto (las que no tienen
+ * {@code projectKey} se omiten con un aviso) y lanza un hilo
+ * virtual por proyecto que ejecuta {@link JiraSyncService#sincronizarIssues(JiraConfig)}
+ * para cada una de sus configuraciones en serie (comparten {@code JiraSyncStatus}). Los
+ * proyectos corren en paralelo con dos límites: {@code kaos.jira.sync.max-por-host}
+ * proyectos a la vez contra la misma instancia Jira y {@code kaos.jira.sync.max-concurrentes}
+ * en total. Cada proyecto sincronizando mantiene una transacción y una conexión a BD, así que
+ * el límite global no debe superar el pool de conexiones; y como cada búsqueda pagina con
+ * {@code kaos.jira.busqueda.paralelismo} peticiones, un host recibe como mucho
+ * {@code max-por-host × paralelismo} peticiones simultáneas.
+ * </p>
+ * <p>
+ * Los arranques se escalonan {@code kaos.jira.sync.escalonado-ms} entre proyectos para no
+ * lanzar todas las primeras peticiones a la vez. La ronda no espera a los proyectos lentos:
+ * si un proyecto sigue en curso cuando llega la siguiente ronda, se omite. La duración y el
+ * resultado de cada ejecución se guardan en {@link JiraSyncEjecucion}, y la causa de cada
+ * config fallida también en su {@code JiraSyncStatus}.
+ * </p>
+ */
+@Slf4j
+@Service
+public class JiraSyncOrquestador {
+
+    private static final int MAX_MENSAJE_ERROR = 1000;
+    private static final String HOST_DESCONOCIDO = "desconocido";
+
+    private final JiraConfigRepository jiraConfigRepository;
+    private final JiraSyncService jiraSyncService;
+    private final JiraSyncEjecucionRepository ejecucionRepository;
+    private final boolean habilitada;
+    private final int maxPorHost;
+    private final long escalonadoMs;
+    private final int retencionDias;
+
+    private final Semaphore global;
+    private final Map<String, Semaphore> porHost = new ConcurrentHashMap<>();
+    private final Set<String> enCurso = ConcurrentHashMap.newKeySet();
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public JiraSyncOrquestador(
+            JiraConfigRepository jiraConfigRepository,
+            JiraSyncService jiraSyncService,
+            JiraSyncEjecucionRepository ejecucionRepository,
+            @Value("${kaos.jira.sync.habilitada:true}") boolean habilitada,
+            @Value("${kaos.jira.sync.max-concurrentes:8}") int maxConcurrentes,
+            @Value("${kaos.jira.sync.max-por-host:4}") int maxPorHost,
+            @Value("${kaos.jira.sync.escalonado-ms:250}") long escalonadoMs,
+            @Value("${kaos.jira.sync.retencion-dias:30}") int retencionDias) {
+        if (maxConcurrentes < 1 || maxPorHost < 1) {
+            throw new IllegalArgumentException("Los límites de concurrencia deben ser mayores que 0");
+        }
+        this.jiraConfigRepository = jiraConfigRepository;
+        this.jiraSyncService = jiraSyncService;
+        this.ejecucionRepository = ejecucionRepository;
+        this.habilitada = habilitada;
+        this.global = new Semaphore(maxConcurrentes);
+        this.maxPorHost = maxPorHost;
+        this.escalonadoMs = escalonadoMs;
+        this.retencionDias = retencionDias;
+    }
+
+    /**
+     * Lanza una ronda cada {@code kaos.jira.sync.intervalo} (por defecto 15 minutos) desde
+     * el final de la anterior; como la ronda no espera a los proyectos, el intervalo es
+     * también la cadencia efectiva.
+     */
+    @Scheduled(fixedDelayString = "${kaos.jira.sync.intervalo:PT15M}",
+               initialDelayString = "${kaos.jira.sync.retardo-inicial:PT2M}")
+    public void sincronizacionProgramada() {
+        if (!habilitada) {
+            return;
+        }
+        try {
+            ejecutarRonda();
+            if (retencionDias > 0) {
+                ejecucionRepository.eliminarAnterioresA(LocalDateTime.now().minusDays(retencionDias));
+            }
+        } catch (Exception e) {
+            log.error("Error lanzando la sincronización Jira programada: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lanza la sincronización de todos los proyectos activos que no estén ya en curso.
+     *
+     * @return futuro que se completa cuando terminan todos los proyectos lanzados en esta ronda
+     */
+    public CompletableFuture<Void> ejecutarRonda() {
+        Map<String, List<JiraConfig>> porProyecto = new LinkedHashMap<>();
+        for (JiraConfig config : jiraConfigRepository.findByActivoTrue()) {
+            if (config.getProjectKey() == null || config.getProjectKey().isBlank()) {
+                log.warn("Config Jira {} sin project key: se omite en la sincronización programada", config.getId());
+                continue;
+            }
+            porProyecto.computeIfAbsent(config.getProjectKey(), k -> new ArrayList<>()).add(config);
+        }
+
+        List<CompletableFuture<Void>> lanzados = new ArrayList<>();
+        int omitidos = 0;
+        for (Map.Entry<String, List<JiraConfig>> proyecto : porProyecto.entrySet()) {
+            String projectKey = proyecto.getKey();
+            String host = host(proyecto.getValue().get(0));
+            if (!enCurso.add(projectKey)) {
+                log.warn("Sincronización Jira de {} omitida: la ejecución anterior sigue en curso", projectKey);
+                registrar(projectKey, host, LocalDateTime.now(), 0, ResultadoSincronizacion.OMITIDA, null);
+                omitidos++;
+                continue;
+            }
+            long retardoMs = escalonadoMs * lanzados.size();
+            lanzados.add(CompletableFuture.runAsync(
+                    () -> sincronizarProyecto(projectKey, host, proyecto.getValue(), retardoMs), hilos));
+        }
+
+        log.info("Ronda de sincronización Jira: {} proyectos lanzados, {} omitidos", lanzados.size(), omitidos);
+        return CompletableFuture.allOf(lanzados.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Proyectos con una ejecución en curso.
+     */
+    public Set<String> proyectosEnCurso() {
+        return Set.copyOf(enCurso);
+    }
+
+    private void sincronizarProyecto(String projectKey, String host, List<JiraConfig> configs, long retardoMs) {
+        try {
+            if (retardoMs > 0) {
+                Thread.sleep(retardoMs);
+            }
+            // Siempre host antes que global: nunca se ocupa una plaza global esperando al host
+            Semaphore permisosHost = porHost.computeIfAbsent(host, h -> new Semaphore(maxPorHost));
+            permisosHost.acquire();
+            try {
+                global.acquire();
+                try {
+                    ejecutar(projectKey, host, configs);
+                } finally {
+                    global.release();
+                }
+            } finally {
+                permisosHost.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Sincronización Jira de {} interrumpida antes de empezar", projectKey);
+        } finally {
+            enCurso.remove(projectKey);
+        }
+    }
+
+    private void ejecutar(String projectKey, String host, List<JiraConfig> configs) {
+        LocalDateTime inicio = LocalDateTime.now();
+        long t0 = System.nanoTime();
+        String error = null;
+        for (JiraConfig config : configs) {
+            try {
+                jiraSyncService.sincronizarIssues(config);
+            } catch (Exception e) {
+                log.error("Error sincronizando config {} del proyecto {}: {}",
+                        config.getId(), projectKey, e.getMessage(), e);
+                if (error == null) {
+                    error = "Config " + config.getId() + ": " + e.getMessage();
+                }
+                registrarFallo(config, e);
+            }
+        }
+        long duracionMs = (System.nanoTime() - t0) / 1_000_000;
+        ResultadoSincronizacion resultado =
+                error == null ? ResultadoSincronizacion.CORRECTA : ResultadoSincronizacion.FALLIDA;
+        log.info("Sincronización Jira de {} {} en {} ms", projectKey, resultado, duracionMs);
+        registrar(projectKey, host, inicio, duracionMs, resultado, error);
+    }
+
+    private void registrar(String projectKey, String host, LocalDateTime inicio, long duracionMs,
+                           ResultadoSincronizacion resultado, String error) {
+        try {
+            ejecucionRepository.save(JiraSyncEjecucion.builder()
+                    .projectKey(projectKey)
+                    .host(host)
+                    .inicio(inicio)
+                    .duracionMs(duracionMs)
+                    .resultado(resultado)
+                    .mensajeError(error != null && error.length() > MAX_MENSAJE_ERROR
+                            ? error.substring(0, MAX_MENSAJE_ERROR) : error)
+                    .build());
+        } catch (Exception e) {
+            log.error("No se pudo registrar la ejecución de {}: {}", projectKey, e.getMessage());
+        }
+    }
+
+    private void registrarFallo(JiraConfig config, Exception causa) {
+        try {
+            jiraSyncService.registrarFallo(config, "Config " + config.getId() + ": " + causa.getMessage());
+        } catch (Exception e) {
+            log.error("No se pudo registrar el fallo de {}: {}", config.getProjectKey(), e.getMessage());
+        }
+    }
+
+    static String host(JiraConfig config) {
+        if (config.getJiraUrl() == null) {
+            return HOST_DESCONOCIDO;
+        }
+        try {
+            String host = URI.create(config.getJiraUrl()).getHost();
+            return host != null ? host.toLowerCase() : HOST_DESCONOCIDO;
+        } catch (IllegalArgumentException e) {
+            return HOST_DESCONOCIDO;
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        // Las transacciones en curso se deshacen; ultimaSync no avanza y la siguiente ronda repite
+        hilos.shutdownNow();
+    }
+}
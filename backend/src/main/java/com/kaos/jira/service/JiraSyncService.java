@@ -1,44 +1,59 @@
 package com.kaos.jira.service;
 
-import java.util.Base64;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpHeaders;
-import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
-import com.kaos.jira.dto.JiraSyncStatus;
-import com.kaos.jira.entity.JiraConfig;
-import com.kaos.planificacion.entity.Sprint;
-import com.kaos.planificacion.entity.SprintEstado;
-import com.kaos.planificacion.repository.SprintRepository;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.kaos.jira.dto.IssueJira;
 import com.kaos.jira.entity.JiraConfig;
+import com.kaos.jira.entity.JiraSyncMarca;
 import com.kaos.jira.entity.JiraSyncStatus;
 import com.kaos.jira.entity.TipoSincronizacion;
+import com.kaos.jira.repository.JiraSyncMarcaRepository;
 import com.kaos.jira.repository.JiraSyncStatusRepository;
+import com.kaos.planificacion.entity.Sprint;
+import com.kaos.planificacion.entity.SprintEstado;
+import com.kaos.planificacion.repository.SprintRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Servicio de sincronización con Jira.
- * Construye las JQL filtradas por proyecto y sincroniza issues
- * vinculándolas al sprint KAOS activo del squad.
- * Servicio de sincronización de issues Jira con soporte de carga incremental.
+ * Servicio de sincronización de issues Jira.
+ * <p>
+ * Construye las JQL filtradas por proyecto, recorre todas las páginas de la búsqueda
+ * (ver {@link BusquedaPaginadaJira}) y entrega cada página a {@link JiraImportService}
+ * según llega, vinculando las issues al sprint KAOS activo del squad.
+ * </p>
+ * <p>
+ * {@link #sincronizarIssues(JiraConfig)} es la sincronización incremental. Cada config y
+ * tipo de consulta lleva su propia marca de agua ({@link JiraSyncMarca}): la mayor fecha
+ * {@code updated} de Jira hasta la que todo está importado. La siguiente añade
+ * {@code AND updated >= "<marca - solape>"} al JQL, expresada en la zona horaria de Jira
+ * ({@code kaos.jira.sync.zona-jira}). El solape ({@code kaos.jira.sync.solape}) recupera las
+ * issues modificadas mientras se recorrían las páginas; las que vuelven a llegar sin cambios
+ * las descarta {@link JiraImportService} sin escribir. Sin marca se usa
+ * {@code jira_sync_status.ultima_sync} del proyecto y, si tampoco hay, se descarga todo.
+ * </p>
+ * <p>
+ * Si falla la API la marca no se mueve y el siguiente intento reprocesa desde la anterior;
+ * la causa queda en {@code jira_sync_status.ultimo_error}
+ * (ver {@link #registrarFallo(JiraConfig, String)}). Si solo fallan algunas issues, la marca
+ * se coloca justo antes de la primera fallida: el siguiente intento las reintenta sin volver
+ * a recorrer lo anterior, y la marca sigue avanzando en cuanto se corrigen en Jira.
+ * </p>
  * <p>
- * En la primera sincronización (sin {@code ultimaSync}) descarga todas las issues del sprint.
- * En sincronizaciones posteriores añade {@code AND updated >= "<ultimaSync>"} al JQL,
- * reduciendo el número de issues a procesar y el consumo de cuota de la API.
+ * Las peticiones a Jira usan los clientes de {@link ClienteHttpJira} (conexiones
+ * reutilizadas, timeouts, reintentos y cortocircuito por host).
  * </p>
  * <p>
- * El campo {@code jira_sync_status.ultima_sync} se actualiza únicamente cuando
- * la sincronización finaliza correctamente; si falla, el siguiente intento reprocessa
- * todas las issues desde la última fecha registrada.
+ * Entre sincronizaciones los cambios llegan por webhook ({@link JiraWebhookService}), que
+ * los importa con {@link #aplicarIssues(JiraConfig, List)}.
  * </p>
  */
 @Slf4j
@@ -52,11 +67,45 @@ public class JiraSyncService {
     private static final String JQL_CORRECTIVO_TEMPLATE =
             "project = %s AND issuetype = Bug AND sprint in openSprints() ORDER BY priority DESC, created ASC";
 
-    private static final int JIRA_MAX_RESULTS = 100;
+    private static final DateTimeFormatter JQL_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /** Máximo de issues por página que admite Jira Cloud. */
+    static final int JIRA_MAX_RESULTS = 100;
+
+    /** Longitud de {@code jira_sync_status.ultimo_error}. */
+    private static final int MAX_ERROR = 1000;
+
+    /** Distancia de la marca a la primera issue fallida, para que el {@code updated >=} la incluya. */
+    private static final Duration ANTES_DE_FALLIDA = Duration.ofMillis(1);
+
+    /** Campos que lee {@link JiraImportService}; el resto no se descarga. */
+    static final String CAMPOS_IMPORTACION = "summary,issuetype,status,parent,updated";
 
     private final JiraImportService jiraImportService;
     private final SprintRepository sprintRepository;
-    private final RestClient.Builder restClientBuilder;
+    private final ClienteHttpJira clienteHttpJira;
+    private final JiraSyncStatusRepository jiraSyncStatusRepository;
+    private final JiraSyncMarcaRepository jiraSyncMarcaRepository;
+
+    /** Peticiones de página simultáneas por búsqueda. */
+    @Value("${kaos.jira.busqueda.paralelismo:4}")
+    private int paralelismoBusqueda = 4;
+
+    /** Id del campo de sprint en la instancia Jira (en Jira Cloud suele ser customfield_10020). */
+    @Value("${kaos.jira.busqueda.campo-sprint:customfield_10020}")
+    private String campoSprint = "customfield_10020";
+
+    /**
+     * Margen que se resta a la marca de agua al construir el JQL. Debe superar lo que dura
+     * una sincronización, para recuperar las issues modificadas mientras se recorría.
+     */
+    @Value("${kaos.jira.sync.solape:PT10M}")
+    private Duration solape = Duration.ofMinutes(10);
+
+    /** Zona horaria del usuario de la API en Jira, con la que Jira lee las fechas del JQL; vacía = la del servidor. */
+    @Value("${kaos.jira.sync.zona-jira:}")
+    private String zonaJira = "";
 
     /**
      * Construye la JQL para issues evolutivas del squad.
@@ -84,94 +133,60 @@ public class JiraSyncService {
      * Sincroniza issues evolutivas y correctivas desde Jira para un squad.
      * Resuelve el sprint KAOS activo del squad y lo vincula a las issues importadas.
      * Si no existe sprint activo, las issues se importan con sprint_id = null.
+     * Los fallos de la API se registran como errores en {@code status}.
      *
      * @param config Configuración Jira del squad
      * @param status Objeto de estado para acumular resultados y errores
      */
-    public void sincronizarIssues(JiraConfig config, JiraSyncStatus status) {
+    public void sincronizarIssues(JiraConfig config, com.kaos.jira.dto.JiraSyncStatus status) {
         log.info("Iniciando sincronización Jira para squad {} (projectKey={})",
                 config.getSquad().getId(), config.getProjectKey());
 
-        Optional<Sprint> sprintActivo = sprintRepository.findFirstBySquadIdAndEstado(
-                config.getSquad().getId(), SprintEstado.ACTIVO);
-        Sprint sprint = sprintActivo.orElse(null);
+        Sprint sprint = buscarSprintActivo(config);
 
-        if (sprint != null) {
-            log.debug("Sprint activo encontrado: id={}", sprint.getId());
-        } else {
-            log.debug("No hay sprint activo para squad {}, sprint_id será null",
-                    config.getSquad().getId());
+        for (String jql : List.of(construirJqlEvolutivo(config), construirJqlCorrectivo(config))) {
+            try {
+                recorrerIssues(config, jql,
+                        pagina -> jiraImportService.processIssues(pagina, config, sprint, status));
+            } catch (Exception e) {
+                String msg = "Error al consultar Jira API para config " + config.getId() + ": " + e.getMessage();
+                log.error(msg);
+                status.addError(msg);
+            }
         }
 
-        List<Map<String, Object>> issuesEvolutivo = buscarIssues(config, construirJqlEvolutivo(config));
-        jiraImportService.processIssues(issuesEvolutivo, config, sprint, status);
-
-        List<Map<String, Object>> issuesCorrectivo = buscarIssues(config, construirJqlCorrectivo(config));
-        jiraImportService.processIssues(issuesCorrectivo, config, sprint, status);
-
-        log.info("Sincronización Jira completada: {} importadas, {} actualizadas, {} errores",
-                status.getIssuesImportadas(), status.getIssuesActualizadas(), status.getErrores().size());
+        log.info("Sincronización Jira completada: {} importadas, {} actualizadas, {} sin cambios, {} errores",
+                status.getIssuesImportadas(), status.getIssuesActualizadas(), status.getIssuesSinCambios(),
+                status.getErrores().size());
     }
 
     /**
-     * Realiza la búsqueda de issues en la API REST de Jira usando JQL.
+     * Importa issues recibidas fuera de la búsqueda (webhooks) con la misma lógica que la
+     * sincronización, vinculadas al sprint KAOS activo del squad.
      *
-     * @param config Configuración con URL y credenciales
-     * @param jql    Expresión JQL de búsqueda
-     * @return Lista de issues como mapas de campos
+     * @param config Configuración Jira a la que pertenecen las issues
+     * @param issues Issues a importar
+     * @return resultado de la importación
      */
-    @SuppressWarnings("unchecked")
-    List<Map<String, Object>> buscarIssues(JiraConfig config, String jql) {
-        try {
-            RestClient client = restClientBuilder
-                    .baseUrl(config.getJiraUrl())
-                    .defaultHeader(HttpHeaders.AUTHORIZATION, basicAuth(config))
-                    .defaultHeader(HttpHeaders.ACCEPT, "application/json")
-                    .build();
-
-            Map<String, Object> respuesta = client.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/rest/api/2/search")
-                            .queryParam("jql", jql)
-                            .queryParam("maxResults", JIRA_MAX_RESULTS)
-                            .build())
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<Map<String, Object>>() {});
-
-            if (respuesta == null) {
-                return Collections.emptyList();
-            }
-
-            Object issues = respuesta.get("issues");
-            if (issues instanceof List<?> lista) {
-                return (List<Map<String, Object>>) lista;
-            }
-            return Collections.emptyList();
-
-        } catch (Exception e) {
-            log.error("Error al consultar Jira API para config {}: {}", config.getId(), e.getMessage());
-            return Collections.emptyList();
-        }
+    public com.kaos.jira.dto.JiraSyncStatus aplicarIssues(JiraConfig config, List<IssueJira> issues) {
+        com.kaos.jira.dto.JiraSyncStatus resultado = new com.kaos.jira.dto.JiraSyncStatus();
+        jiraImportService.processIssues(issues, config, buscarSprintActivo(config), resultado);
+        return resultado;
     }
 
-    private String basicAuth(JiraConfig config) {
-        String credentials = config.getUsuarioEmail() + ":" + config.getApiToken();
-        return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes());
-    private static final DateTimeFormatter JQL_DATE_FORMAT =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-    private final JiraSyncStatusRepository jiraSyncStatusRepository;
-
     /**
      * Sincroniza las issues de un proyecto Jira de forma incremental cuando es posible.
      * <p>
-     * Flujo:
+     * Flujo, por cada tipo de consulta de la config (ambos si el tipo es null):
      * <ol>
-     *   <li>Lee {@code ultimaSync} de {@link JiraSyncStatus} para el proyecto.</li>
-     *   <li>Construye el JQL correspondiente (full o incremental) según el tipo de config.</li>
+     *   <li>Lee la {@link JiraSyncMarca} de la config y el tipo; si no hay, {@code ultimaSync}
+     *       de {@link JiraSyncStatus} para el proyecto.</li>
+     *   <li>Construye el JQL correspondiente (full o incremental, con solape).</li>
      *   <li>Ejecuta la sincronización.</li>
-     *   <li>Actualiza {@code ultimaSync} solo si la sincronización termina sin errores.</li>
+     *   <li>Avanza la marca a la mayor fecha {@code updated} vista o, si alguna issue falló,
+     *       a justo antes de la primera fallida. La marca se crea aunque haya fallos.</li>
      * </ol>
+     * Al final actualiza {@code ultimaSync} del proyecto, que queda como dato informativo.
      * </p>
      *
      * @param config configuración del proyecto Jira a sincronizar
@@ -186,27 +201,92 @@ public class JiraSyncService {
 
         LocalDateTime lastSync = (status != null) ? status.getUltimaSync() : null;
 
-        String jql = config.getTipo() == TipoSincronizacion.EVOLUTIVO
-                ? construirJqlEvolutivo(config, lastSync)
-                : construirJqlCorrectivo(config, lastSync);
-
-        String modo = (lastSync != null) ? "[INCREMENTAL]" : "[FULL]";
-        log.info("{} Sincronizando proyecto={} tipo={} jql={}",
-                modo, config.getProjectKey(), config.getTipo(), jql);
-
-        ejecutarSincronizacion(jql, config);
+        for (TipoSincronizacion tipo : TipoSincronizacion.values()) {
+            if (config.getTipo() != null && config.getTipo() != tipo) {
+                continue;
+            }
+            JiraSyncMarca marca = jiraSyncMarcaRepository
+                    .findByConfigIdAndTipo(config.getId(), tipo)
+                    .orElse(null);
+            LocalDateTime desde = desde(marca, lastSync);
+            String jql = (tipo == TipoSincronizacion.EVOLUTIVO)
+                    ? construirJqlEvolutivo(config, desde)
+                    : construirJqlCorrectivo(config, desde);
+
+            String modo = (desde != null) ? "[INCREMENTAL]" : "[FULL]";
+            log.info("{} Sincronizando proyecto={} config={} tipo={} jql={}",
+                    modo, config.getProjectKey(), config.getId(), tipo, jql);
+            OffsetDateTime vista = ejecutarSincronizacion(jql, config);
+            avanzarMarca(config, tipo, marca, vista);
+        }
 
-        // Actualiza ultima_sync solo si la sync completó sin errores
         if (status == null) {
             status = JiraSyncStatus.builder()
                     .projectKey(config.getProjectKey())
                     .build();
         }
         status.setUltimaSync(ahora);
+        status.setUltimoError(null);
+        status.setFallosConsecutivos(0);
         jiraSyncStatusRepository.save(status);
 
-        log.info("{} Sincronización completada proyecto={} ultimaSync={}",
-                modo, config.getProjectKey(), ahora);
+        log.info("Sincronización completada proyecto={} config={} ultimaSync={}",
+                config.getProjectKey(), config.getId(), ahora);
+    }
+
+    /**
+     * Fecha desde la que pedir issues a Jira, en la zona de Jira: la marca menos el solape o,
+     * sin marca, la {@code ultimaSync} del proyecto tal cual (tomada antes de su sincronización).
+     *
+     * @return fecha para {@code updated >=}, o {@code null} para carga completa
+     */
+    LocalDateTime desde(JiraSyncMarca marca, LocalDateTime ultimaSyncProyecto) {
+        if (marca == null) {
+            return ultimaSyncProyecto;
+        }
+        ZoneId zona = (zonaJira == null || zonaJira.isBlank()) ? ZoneId.systemDefault() : ZoneId.of(zonaJira);
+        return marca.getActualizadaHasta().minus(solape).atZoneSameInstant(zona).toLocalDateTime();
+    }
+
+    private void avanzarMarca(JiraConfig config, TipoSincronizacion tipo, JiraSyncMarca marca, OffsetDateTime vista) {
+        if (vista == null) {
+            return;
+        }
+        if (marca == null) {
+            marca = JiraSyncMarca.builder()
+                    .config(config)
+                    .tipo(tipo)
+                    .actualizadaHasta(vista)
+                    .build();
+        } else if (vista.isAfter(marca.getActualizadaHasta())) {
+            marca.setActualizadaHasta(vista);
+        } else {
+            return;
+        }
+        jiraSyncMarcaRepository.save(marca);
+        log.debug("Marca de agua config={} tipo={} -> {}", config.getId(), tipo, vista);
+    }
+
+    /**
+     * Registra en {@link JiraSyncStatus} que la sincronización del proyecto ha fallado, sin
+     * tocar {@code ultimaSync}. Se llama desde fuera de {@link #sincronizarIssues(JiraConfig)}
+     * porque la transacción de esta se deshace al fallar.
+     *
+     * @param config configuración cuya sincronización ha fallado
+     * @param error  causa del fallo
+     */
+    @Transactional
+    public void registrarFallo(JiraConfig config, String error) {
+        JiraSyncStatus status = jiraSyncStatusRepository
+                .findByProjectKey(config.getProjectKey())
+                .orElseGet(() -> JiraSyncStatus.builder()
+                        .projectKey(config.getProjectKey())
+                        .build());
+        status.setUltimoFallo(LocalDateTime.now());
+        status.setUltimoError(error != null && error.length() > MAX_ERROR
+                ? error.substring(0, MAX_ERROR) : error);
+        status.setFallosConsecutivos(status.getFallosConsecutivos() + 1);
+        jiraSyncStatusRepository.save(status);
     }
 
     /**
@@ -259,16 +339,108 @@ public class JiraSyncService {
     }
 
     /**
-     * Ejecuta la sincronización real con la API de Jira usando el JQL proporcionado.
-     * <p>
-     * Punto de extensión: sobreescribir o inyectar un cliente Jira para la implementación real.
-     * </p>
+     * Descarga todas las páginas del JQL y las importa vinculadas al sprint activo.
+     * Los errores de la API se propagan para que la marca de agua no avance.
      *
      * @param jql    query JQL construida
      * @param config configuración del proyecto
+     * @return nueva marca de agua: la mayor {@code updated} de las issues recibidas o, si
+     *         alguna no se pudo importar, justo antes de la menor {@code updated} de las
+     *         fallidas; {@code null} si no llegó ninguna issue con fecha
      */
-    protected void ejecutarSincronizacion(String jql, JiraConfig config) {
+    protected OffsetDateTime ejecutarSincronizacion(String jql, JiraConfig config) {
         log.debug("Ejecutando sync con JQL: {}", jql);
-        // Implementación real: llamada a la API de Jira y persistencia de issues
+        Sprint sprint = buscarSprintActivo(config);
+        com.kaos.jira.dto.JiraSyncStatus resultado = new com.kaos.jira.dto.JiraSyncStatus();
+        FechasVistas fechas = new FechasVistas();
+
+        int total = recorrerIssues(config, jql, pagina -> {
+            jiraImportService.processIssues(pagina, config, sprint, resultado);
+            for (IssueJira issue : pagina) {
+                fechas.anotar(issue.actualizada(), resultado.getClavesConError().contains(issue.jiraKey()));
+            }
+        });
+
+        log.debug("JQL completada: {} issues, {} importadas, {} actualizadas, {} sin cambios, {} errores",
+                total, resultado.getIssuesImportadas(), resultado.getIssuesActualizadas(),
+                resultado.getIssuesSinCambios(), resultado.getErrores().size());
+        if (!resultado.getErrores().isEmpty()) {
+            OffsetDateTime marca = fechas.antesDeLaPrimeraFallida();
+            log.warn("{} issues no se importaron; la marca de agua queda en {} para reintentarlas (config={})",
+                    resultado.getErrores().size(), marca, config.getId());
+            return marca;
+        }
+        return fechas.mayor;
+    }
+
+    /**
+     * Fechas {@code updated} de las issues recibidas en una consulta: la mayor, la menor y la
+     * menor de las que no se pudieron importar.
+     */
+    private static final class FechasVistas {
+
+        private OffsetDateTime mayor;
+        private OffsetDateTime menor;
+        private OffsetDateTime menorFallida;
+        private boolean fallidaSinFecha;
+
+        void anotar(OffsetDateTime actualizada, boolean fallida) {
+            if (actualizada == null) {
+                fallidaSinFecha |= fallida;
+                return;
+            }
+            if (mayor == null || actualizada.isAfter(mayor)) {
+                mayor = actualizada;
+            }
+            if (menor == null || actualizada.isBefore(menor)) {
+                menor = actualizada;
+            }
+            if (fallida && (menorFallida == null || actualizada.isBefore(menorFallida))) {
+                menorFallida = actualizada;
+            }
+        }
+
+        /**
+         * Marca que vuelve a incluir las issues fallidas. Si alguna no trae fecha o el error no
+         * se puede asociar a una issue, se toma la menor fecha recibida.
+         */
+        OffsetDateTime antesDeLaPrimeraFallida() {
+            OffsetDateTime limite = (menorFallida != null && !fallidaSinFecha) ? menorFallida : menor;
+            return limite != null ? limite.minus(ANTES_DE_FALLIDA) : null;
+        }
+    }
+
+    /**
+     * Recorre todas las páginas de la búsqueda JQL en la API REST de Jira, pidiendo solo
+     * {@link #CAMPOS_IMPORTACION} y el campo de sprint. Cada página se entrega al consumidor
+     * según llega, en el hilo llamante, ya convertida a {@link IssueJira}.
+     *
+     * @param config    Configuración con URL y credenciales
+     * @param jql       Expresión JQL de búsqueda
+     * @param porPagina Receptor de cada página de issues
+     * @return Número total de issues recibidas
+     * @throws IllegalStateException si falla alguna petición
+     */
+    int recorrerIssues(JiraConfig config, String jql, Consumer<List<IssueJira>> porPagina) {
+        String campos = campoSprint != null && !campoSprint.isBlank()
+                ? CAMPOS_IMPORTACION + "," + campoSprint
+                : CAMPOS_IMPORTACION;
+        LectorBusquedaJira lector = new LectorBusquedaJira(campoSprint);
+        return new BusquedaPaginadaJira(clienteHttpJira.cliente(config), lector, JIRA_MAX_RESULTS, paralelismoBusqueda)
+                .recorrer(jql, campos, porPagina);
+    }
+
+    private Sprint buscarSprintActivo(JiraConfig config) {
+        if (config.getSquad() == null) {
+            return null;
+        }
+        Sprint sprint = sprintRepository.findFirstBySquadIdAndEstado(
+                config.getSquad().getId(), SprintEstado.ACTIVO).orElse(null);
+        if (sprint != null) {
+            log.debug("Sprint activo encontrado: id={}", sprint.getId());
+        } else {
+            log.debug("No hay sprint activo para squad {}, sprint_id será null", config.getSquad().getId());
+        }
+        return sprint;
     }
 }
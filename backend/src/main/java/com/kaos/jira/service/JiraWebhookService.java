@@ -0,0 +1,262 @@
+package com.kaos.jira.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.kaos.jira.dto.IssueJira;
+import com.kaos.jira.dto.JiraSyncStatus;
+import com.kaos.jira.entity.JiraConfig;
+import com.kaos.jira.entity.TipoSincronizacion;
+import com.kaos.jira.repository.JiraConfigRepository;
+import com.kaos.jira.service.ColaWebhookJira.Pendiente;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ingesta de webhooks de issues de Jira (creada, modificada, eliminada).
+ * <p>
+ * La recepción solo valida la firma, lee el evento y lo deja en una {@link ColaWebhookJira},
+ * que agrupa los eventos repetidos de la misma issue durante {@code kaos.jira.webhook.ventana}.
+ * Una tarea programada drena la cola en lotes de {@code kaos.jira.webhook.tamano-lote}:
+ * las altas y modificaciones se importan con {@link JiraSyncService#aplicarIssues} (misma
+ * lógica que la sincronización por JQL) y los borrados se eliminan con una sola sentencia,
+ * rehaciendo después la jerarquía afectada ({@link JiraJerarquiaService#eliminarIssues}).
+ * </p>
+ * <p>
+ * Cada issue se asigna a la {@link JiraConfig} activa de su proyecto (prefijo de la clave);
+ * bugs e incidencias prefieren la de tipo CORRECTIVO. El alcance lo decide el filtro JQL
+ * del webhook en Jira. La cola es en memoria: lo que se pierda (reinicio, cola llena,
+ * error al aplicar) lo recupera la sincronización programada, que pasa a ser una
+ * reconciliación de baja frecuencia.
+ * </p>
+ */
+@Slf4j
+@Service
+public class JiraWebhookService {
+
+    static final String EVENTO_CREADA = "jira:issue_created";
+    static final String EVENTO_MODIFICADA = "jira:issue_updated";
+    static final String EVENTO_ELIMINADA = "jira:issue_deleted";
+
+    private static final String ALGORITMO_FIRMA = "HmacSHA256";
+    private static final String PREFIJO_FIRMA = "sha256=";
+    private static final Set<String> TIPOS_CORRECTIVO = Set.of("Bug", "Incident");
+
+    private final JiraConfigRepository jiraConfigRepository;
+    private final JiraSyncService jiraSyncService;
+    private final JiraJerarquiaService jiraJerarquiaService;
+    private final LectorBusquedaJira lector;
+    private final ColaWebhookJira cola;
+    private final String secreto;
+    private final int tamanoLote;
+
+    @Autowired
+    public JiraWebhookService(
+            JiraConfigRepository jiraConfigRepository,
+            JiraSyncService jiraSyncService,
+            JiraJerarquiaService jiraJerarquiaService,
+            @Value("${kaos.jira.webhook.secreto:}") String secreto,
+            @Value("${kaos.jira.webhook.ventana:PT5S}") Duration ventana,
+            @Value("${kaos.jira.webhook.capacidad:10000}") int capacidad,
+            @Value("${kaos.jira.webhook.tamano-lote:500}") int tamanoLote,
+            @Value("${kaos.jira.busqueda.campo-sprint:customfield_10020}") String campoSprint) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote de webhooks debe ser mayor que 0");
+        }
+        this.jiraConfigRepository = jiraConfigRepository;
+        this.jiraSyncService = jiraSyncService;
+        this.jiraJerarquiaService = jiraJerarquiaService;
+        this.lector = new LectorBusquedaJira(campoSprint);
+        this.cola = new ColaWebhookJira(ventana.toNanos(), capacidad);
+        this.secreto = secreto;
+        this.tamanoLote = tamanoLote;
+        if (!habilitado()) {
+            log.info("Webhook de Jira deshabilitado: kaos.jira.webhook.secreto no está configurado");
+        }
+    }
+
+    /**
+     * El webhook solo se atiende con un secreto configurado: sin él cualquiera podría
+     * encolar cambios, incluidos borrados de issues.
+     */
+    public boolean habilitado() {
+        return secreto != null && !secreto.isBlank();
+    }
+
+    /**
+     * Comprueba la firma {@code X-Hub-Signature: sha256=<hex>} (HMAC-SHA256 del cuerpo con
+     * el secreto del webhook). Sin secreto configurado ninguna firma es válida.
+     */
+    public boolean firmaValida(byte[] cuerpo, String firma) {
+        if (!habilitado()) {
+            return false;
+        }
+        if (firma == null || !firma.startsWith(PREFIJO_FIRMA)) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO_FIRMA);
+            mac.init(new SecretKeySpec(secreto.getBytes(StandardCharsets.UTF_8), ALGORITMO_FIRMA));
+            byte[] esperada = mac.doFinal(cuerpo);
+            byte[] recibida = HexFormat.of().parseHex(firma.substring(PREFIJO_FIRMA.length()));
+            return MessageDigest.isEqual(esperada, recibida);
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se puede verificar la firma del webhook: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lee un webhook y encola su cambio. Los eventos que no son de alta, modificación o
+     * borrado de issue se ignoran.
+     *
+     * @return false si la cola está llena y el evento no se ha encolado
+     * @throws IllegalArgumentException si el cuerpo no es un webhook de issue válido
+     */
+    public boolean recibir(byte[] cuerpo) {
+        LectorBusquedaJira.Evento evento;
+        try {
+            evento = lector.leerEvento(new ByteArrayInputStream(cuerpo));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Webhook de Jira mal formado: " + e.getMessage(), e);
+        }
+
+        String tipo = evento.tipo();
+        if (!EVENTO_CREADA.equals(tipo) && !EVENTO_MODIFICADA.equals(tipo) && !EVENTO_ELIMINADA.equals(tipo)) {
+            log.debug("Webhook Jira {} ignorado", tipo);
+            return true;
+        }
+        if (evento.issue() == null || evento.issue().jiraKey() == null) {
+            throw new IllegalArgumentException("Webhook de Jira " + tipo + " sin clave de issue");
+        }
+
+        Pendiente pendiente = EVENTO_ELIMINADA.equals(tipo)
+                ? Pendiente.eliminada(evento.issue().jiraKey())
+                : Pendiente.modificada(evento.issue());
+        boolean encolado = cola.encolar(pendiente, System.nanoTime());
+        if (!encolado) {
+            log.warn("Cola de webhooks Jira llena ({} pendientes): se descarta {} de {}",
+                    cola.tamanio(), tipo, pendiente.jiraKey());
+        }
+        return encolado;
+    }
+
+    /**
+     * Aplica los cambios cuya ventana de agrupación ha vencido, lote a lote hasta vaciar
+     * los que están listos.
+     */
+    @Scheduled(fixedDelayString = "${kaos.jira.webhook.intervalo-drenado:PT1S}")
+    public void drenar() {
+        List<Pendiente> lote;
+        while (!(lote = cola.extraerListos(System.nanoTime(), tamanoLote)).isEmpty()) {
+            try {
+                aplicar(lote);
+            } catch (Exception e) {
+                log.error("Error aplicando {} cambios de webhooks Jira: {}", lote.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Claves distintas pendientes de aplicar.
+     */
+    public int pendientes() {
+        return cola.tamanio();
+    }
+
+    private void aplicar(List<Pendiente> lote) {
+        List<String> eliminadas = new ArrayList<>();
+        List<IssueJira> modificadas = new ArrayList<>();
+        for (Pendiente pendiente : lote) {
+            if (pendiente.eliminada()) {
+                eliminadas.add(pendiente.jiraKey());
+            } else {
+                modificadas.add(pendiente.issue());
+            }
+        }
+
+        int borradas = eliminadas.isEmpty() ? 0 : jiraJerarquiaService.eliminarIssues(eliminadas);
+
+        int sinConfig = 0;
+        int errores = 0;
+        JiraSyncStatus total = new JiraSyncStatus();
+        if (!modificadas.isEmpty()) {
+            Map<String, List<JiraConfig>> configsPorProyecto = new LinkedHashMap<>();
+            for (JiraConfig config : jiraConfigRepository.findByActivoTrue()) {
+                configsPorProyecto.computeIfAbsent(config.getProjectKey(), k -> new ArrayList<>()).add(config);
+            }
+
+            Map<JiraConfig, List<IssueJira>> porConfig = new LinkedHashMap<>();
+            for (IssueJira issue : modificadas) {
+                JiraConfig config = elegirConfig(configsPorProyecto.get(proyecto(issue.jiraKey())), issue.tipo());
+                if (config == null) {
+                    sinConfig++;
+                } else {
+                    porConfig.computeIfAbsent(config, c -> new ArrayList<>()).add(issue);
+                }
+            }
+
+            for (Map.Entry<JiraConfig, List<IssueJira>> grupo : porConfig.entrySet()) {
+                try {
+                    JiraSyncStatus resultado = jiraSyncService.aplicarIssues(grupo.getKey(), grupo.getValue());
+                    total.setIssuesImportadas(total.getIssuesImportadas() + resultado.getIssuesImportadas());
+                    total.setIssuesActualizadas(total.getIssuesActualizadas() + resultado.getIssuesActualizadas());
+                    total.setIssuesSinCambios(total.getIssuesSinCambios() + resultado.getIssuesSinCambios());
+                    errores += resultado.getErrores().size();
+                } catch (Exception e) {
+                    errores += grupo.getValue().size();
+                    log.error("Error aplicando {} issues de webhook en config {}: {}",
+                            grupo.getValue().size(), grupo.getKey().getId(), e.getMessage(), e);
+                }
+            }
+        }
+
+        log.info("Webhooks Jira aplicados: {} importadas, {} actualizadas, {} sin cambios, {} eliminadas, "
+                        + "{} sin config activa, {} errores ({} pendientes, {} agrupados desde el arranque)",
+                total.getIssuesImportadas(), total.getIssuesActualizadas(), total.getIssuesSinCambios(),
+                borradas, sinConfig, errores, cola.tamanio(), cola.agrupados());
+    }
+
+    /** Clave de proyecto de una clave de issue ({@code RED-123} → {@code RED}). */
+    static String proyecto(String jiraKey) {
+        int guion = jiraKey.lastIndexOf('-');
+        return guion > 0 ? jiraKey.substring(0, guion) : jiraKey;
+    }
+
+    /**
+     * Config del proyecto que corresponde a una issue: bugs e incidencias van a la de tipo
+     * CORRECTIVO y el resto a la EVOLUTIVO; una config sin tipo cubre ambos. Si no hay
+     * ninguna del tipo preferido se usa la primera.
+     *
+     * @return la config elegida, o null si el proyecto no tiene configs activas
+     */
+    static JiraConfig elegirConfig(List<JiraConfig> configs, String tipoIssue) {
+        if (configs == null || configs.isEmpty()) {
+            return null;
+        }
+        TipoSincronizacion preferido = tipoIssue != null && TIPOS_CORRECTIVO.contains(tipoIssue)
+                ? TipoSincronizacion.CORRECTIVO
+                : TipoSincronizacion.EVOLUTIVO;
+        for (JiraConfig config : configs) {
+            if (config.getTipo() == preferido || config.getTipo() == null) {
+                return config;
+            }
+        }
+        return configs.get(0);
+    }
+}
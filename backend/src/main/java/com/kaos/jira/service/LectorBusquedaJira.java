@@ -0,0 +1,304 @@
+package com.kaos.jira.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.kaos.jira.dto.IssueJira;
+
+/**
+ * Lee en streaming la respuesta de {@code /rest/api/2/search}.
+ * <p>
+ * Recorre el JSON token a token con el {@link JsonParser} de Jackson y construye una
+ * {@link IssueJira} por issue con solo los campos de importación; el resto (URLs de
+ * iconos, {@code statusCategory}, {@code self}, campos no pedidos...) se salta sin
+ * materializarlo. Es tolerante: un valor con un tipo inesperado se lee como texto o
+ * se ignora, y la validación queda para el importador. Los webhooks de issue se leen con
+ * el mismo código ({@link #leerEvento(InputStream)}).
+ * </p>
+ * Sin estado: una instancia se comparte entre hilos.
+ */
+final class LectorBusquedaJira {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /** Formato de fechas de Jira ({@code 2024-05-02T10:15:30.123+0200}); admite también ISO-8601. */
+    private static final DateTimeFormatter FECHA_JIRA = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            .optionalStart().appendOffset("+HHMM", "Z").optionalEnd()
+            .optionalStart().appendOffset("+HH:MM", "Z").optionalEnd()
+            .toFormatter();
+
+    private final String campoSprint;
+
+    /**
+     * @param campoSprint id del campo de sprint en la instancia (ej: {@code customfield_10020}),
+     *                    o null si no se importa
+     */
+    LectorBusquedaJira(String campoSprint) {
+        this.campoSprint = campoSprint;
+    }
+
+    /**
+     * Página de resultados de la búsqueda.
+     *
+     * @param total      total de issues de la búsqueda
+     * @param maxResults tamaño de página aplicado por Jira (0 si no viene)
+     * @param issues     issues de la página, en orden
+     */
+    record Pagina(int total, int maxResults, List<IssueJira> issues) {
+    }
+
+    /**
+     * Lee una respuesta completa y cierra el stream.
+     *
+     * @throws IOException si el JSON está mal formado o falla la lectura
+     */
+    Pagina leer(InputStream cuerpo) throws IOException {
+        int total = -1;
+        int maxResults = 0;
+        List<IssueJira> issues = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(cuerpo)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("La respuesta de búsqueda de Jira no es un objeto JSON");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                switch (campo) {
+                    case "total" -> total = parser.getValueAsInt(-1);
+                    case "maxResults" -> maxResults = parser.getValueAsInt(0);
+                    case "issues" -> {
+                        if (valor == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                issues.add(leerIssue(parser));
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return new Pagina(total >= 0 ? total : issues.size(), maxResults, issues);
+    }
+
+    /**
+     * Evento de webhook de Jira.
+     *
+     * @param tipo  valor de {@code webhookEvent} (ej: {@code jira:issue_updated}), o null
+     * @param issue issue del evento, o null si no viene
+     */
+    record Evento(String tipo, IssueJira issue) {
+    }
+
+    /**
+     * Lee el cuerpo de un webhook de issue ({@code {"webhookEvent": ..., "issue": {...}}}),
+     * cuya issue tiene la misma forma que en la búsqueda, y cierra el stream.
+     *
+     * @throws IOException si el JSON está mal formado o falla la lectura
+     */
+    Evento leerEvento(InputStream cuerpo) throws IOException {
+        String tipo = null;
+        IssueJira issue = null;
+        try (JsonParser parser = JSON.createParser(cuerpo)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("El webhook de Jira no es un objeto JSON");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                if ("webhookEvent".equals(campo)) {
+                    tipo = texto(parser);
+                } else if ("issue".equals(campo) && valor == JsonToken.START_OBJECT) {
+                    issue = leerIssue(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new Evento(tipo, issue);
+    }
+
+    /** Lee una issue; el parser está en su START_OBJECT y queda en su END_OBJECT. */
+    private IssueJira leerIssue(JsonParser parser) throws IOException {
+        String clave = null;
+        String titulo = null;
+        String tipo = null;
+        String estado = null;
+        String padre = null;
+        String sprint = null;
+        OffsetDateTime actualizada = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if ("key".equals(campo)) {
+                clave = texto(parser);
+            } else if ("fields".equals(campo) && valor == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String nombre = parser.currentName();
+                    parser.nextToken();
+                    switch (nombre) {
+                        case "summary" -> titulo = texto(parser);
+                        case "issuetype" -> tipo = propiedad(parser, "name");
+                        case "status" -> estado = propiedad(parser, "name");
+                        case "parent" -> padre = propiedad(parser, "key");
+                        case "updated" -> actualizada = fecha(texto(parser));
+                        default -> {
+                            if (nombre.equals(campoSprint)) {
+                                sprint = sprint(parser);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new IssueJira(clave, titulo, tipo, estado, padre, sprint, actualizada);
+    }
+
+    /** Valor escalar como texto; null para null, objetos y arrays (que se saltan). */
+    private static String texto(JsonParser parser) throws IOException {
+        if (parser.currentToken().isScalarValue()) {
+            return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    /** Propiedad escalar de un objeto anidado ({@code issuetype.name}, {@code parent.key}...). */
+    private static String propiedad(JsonParser parser, String propiedad) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return texto(parser);
+        }
+        String resultado = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            parser.nextToken();
+            if (propiedad.equals(campo)) {
+                resultado = texto(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Nombre del sprint. Jira Cloud envía un array de objetos {@code {name, state}}; se
+     * prefiere el de {@code state = active} y si no el último. Un objeto o texto suelto
+     * también se admite.
+     */
+    private static String sprint(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return sprintDeObjeto(parser)[0];
+        }
+        if (token != JsonToken.START_ARRAY) {
+            return texto(parser);
+        }
+        String ultimo = null;
+        String activo = null;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                String[] nombreEstado = sprintDeObjeto(parser);
+                ultimo = nombreEstado[0];
+                if ("active".equalsIgnoreCase(nombreEstado[1])) {
+                    activo = nombreEstado[0];
+                }
+            } else {
+                ultimo = texto(parser);
+            }
+        }
+        return activo != null ? activo : ultimo;
+    }
+
+    private static String[] sprintDeObjeto(JsonParser parser) throws IOException {
+        String nombre = null;
+        String estado = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            parser.nextToken();
+            switch (campo) {
+                case "name" -> nombre = texto(parser);
+                case "state" -> estado = texto(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new String[] {nombre, estado};
+    }
+
+    private static OffsetDateTime fecha(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        OffsetDateTime directa = fechaFormatoJira(valor);
+        if (directa != null) {
+            return directa;
+        }
+        try {
+            return OffsetDateTime.parse(valor, FECHA_JIRA);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lectura directa del formato que devuelve Jira siempre ({@code 2026-03-02T10:15:30.123+0200}).
+     * {@link DateTimeFormatter} asigna varias veces más memoria que el resto del issue; cualquier
+     * otra forma devuelve null y pasa por {@link #FECHA_JIRA}.
+     */
+    private static OffsetDateTime fechaFormatoJira(String v) {
+        if (v.length() != 28 || v.charAt(4) != '-' || v.charAt(7) != '-' || v.charAt(10) != 'T'
+                || v.charAt(13) != ':' || v.charAt(16) != ':' || v.charAt(19) != '.'
+                || (v.charAt(23) != '+' && v.charAt(23) != '-')) {
+            return null;
+        }
+        int anio = digitos(v, 0, 4);
+        int mes = digitos(v, 5, 7);
+        int dia = digitos(v, 8, 10);
+        int hora = digitos(v, 11, 13);
+        int minuto = digitos(v, 14, 16);
+        int segundo = digitos(v, 17, 19);
+        int milis = digitos(v, 20, 23);
+        int offHoras = digitos(v, 24, 26);
+        int offMinutos = digitos(v, 26, 28);
+        if ((anio | mes | dia | hora | minuto | segundo | milis | offHoras | offMinutos) < 0) {
+            return null;
+        }
+        try {
+            int signo = v.charAt(23) == '-' ? -1 : 1;
+            return OffsetDateTime.of(anio, mes, dia, hora, minuto, segundo, milis * 1_000_000,
+                    ZoneOffset.ofHoursMinutes(signo * offHoras, signo * offMinutos));
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /** Entero de los dígitos {@code [desde, hasta)}; -1 si alguno no es un dígito. */
+    private static int digitos(String v, int desde, int hasta) {
+        int valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = v.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
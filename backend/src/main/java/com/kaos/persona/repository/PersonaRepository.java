@@ -53,9 +53,16 @@ public interface PersonaRepository extends JpaRepository<Persona, Long>, JpaSpec
             Pageable pageable
     );
 
+    /** Ciudad de la persona (calendario laboral), sin cargar la entidad. */
+    @Query("SELECT p.ciudad FROM Persona p WHERE p.id = :id")
+    java.util.Optional<String> findCiudadById(@Param("id") Long id);
+
     /** Búsqueda exacta por nombre, sin distinción de mayúsculas. */
     java.util.Optional<Persona> findByNombreIgnoreCase(String nombre);
 
     /** Búsqueda parcial por nombre, sin distinción de mayúsculas. */
     java.util.List<Persona> findByNombreContainingIgnoreCase(String nombre);
+
+    /** Personas activas (índice de nombres para importaciones). */
+    java.util.List<Persona> findByActivoTrue();
 }
@@ -2,11 +2,13 @@ package com.kaos.persona.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.horario.entity.PerfilHorario;
 import com.kaos.horario.repository.PerfilHorarioRepository;
 import com.kaos.persona.dto.PersonaRequest;
@@ -29,6 +31,7 @@ public class PersonaService {
     private final PersonaRepository repository;
     private final PersonaMapper mapper;
     private final PerfilHorarioRepository perfilHorarioRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Lista personas con paginación y filtros opcionales.
@@ -105,6 +108,8 @@ public class PersonaService {
         mapper.updateEntity(request, entity);
         entity.setPerfilHorario(perfilHorario);
         Persona saved = repository.save(entity);
+        // Ciudad y perfil horario determinan festivos y horas teóricas
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.dePersona(id));
         return mapper.toResponse(saved);
     }
 
@@ -122,6 +127,7 @@ public class PersonaService {
 
         entity.setActivo(false);
         Persona saved = repository.save(entity);
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.dePersona(id));
         log.info("Persona desactivada: {}", saved.getNombre());
         return mapper.toResponse(saved);
     }
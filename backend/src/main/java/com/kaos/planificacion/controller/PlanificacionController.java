@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.kaos.planificacion.dto.DashboardSprintResponse;
 import com.kaos.planificacion.dto.TimelineSprintResponse;
 import com.kaos.planificacion.service.PlanificacionService;
@@ -55,14 +56,15 @@ public class PlanificacionController {
     }
 
     /**
-     * Exporta la timeline del sprint a Excel.
+     * Exporta la timeline del sprint a Excel, escrita en streaming sobre la respuesta.
      * GET /api/v1/planificacion/{sprintId}/timeline/export
      */
     @GetMapping("/{sprintId}/timeline/export")
     @Operation(summary = "Exporta la timeline a Excel")
-    public ResponseEntity<byte[]> exportarTimeline(@PathVariable Long sprintId) {
+    public ResponseEntity<StreamingResponseBody> exportarTimeline(@PathVariable Long sprintId) {
         log.debug("GET /api/v1/planificacion/{}/timeline/export", sprintId);
-        byte[] file = planificacionService.exportarTimelineExcel(sprintId);
+        TimelineSprintResponse timeline = planificacionService.obtenerTimeline(sprintId);
+        StreamingResponseBody file = out -> planificacionService.exportarTimelineExcel(timeline, out);
         String filename = "timeline-sprint-" + sprintId + ".xlsx";
 
         return ResponseEntity.ok()
@@ -0,0 +1,23 @@
+package com.kaos.planificacion.dto;
+
+import java.math.BigDecimal;
+import com.kaos.planificacion.entity.EstadoTarea;
+
+/**
+ * Proyección con el agregado de tareas de un sprint para un estado.
+ * Cada fila incluye también los bloqueos activos del sprint (mismo valor en todas las filas),
+ * de modo que el dashboard se resuelve con una sola consulta.
+ */
+public interface ResumenEstadoTareas {
+
+    EstadoTarea getEstado();
+
+    /** Número de tareas en el estado. */
+    Long getTareas();
+
+    /** Suma de estimaciones (horas) de las tareas en el estado. */
+    BigDecimal getHoras();
+
+    /** Bloqueos ABIERTO / EN_GESTION que afectan a alguna tarea del sprint. */
+    Long getBloqueosActivos();
+}
@@ -1,7 +1,6 @@
 package com.kaos.planificacion.dto;
 
 import java.math.BigDecimal;
-import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -34,8 +33,7 @@ public record TareaRequest(
 
         Long personaId,
 
-        @Min(value = 1, message = "El día asignado debe ser entre 1 y 10")
-        @Max(value = 10, message = "El día asignado debe ser entre 1 y 10")
+        @Min(value = 1, message = "El día asignado debe ser mayor o igual a 1")
         Integer diaAsignado,
 
         String referenciaJira,
@@ -34,6 +34,7 @@ public record TimelineSprintResponse(
     @Builder
     public record DiaConTareas(
             Integer dia,
+            LocalDate fecha,
             Double horasDisponibles,
             List<TareaEnLinea> tareas
     ) {
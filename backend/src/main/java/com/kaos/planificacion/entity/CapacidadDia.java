@@ -0,0 +1,61 @@
+package com.kaos.planificacion.entity;
+
+import java.math.BigDecimal;
+import org.hibernate.annotations.Comment;
+import com.kaos.common.model.BaseEntity;
+import com.kaos.persona.entity.Persona;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * CapacidadDia: horas ya comprometidas por una persona en un día de un sprint.
+ * Libro de asignaciones que se actualiza en cada alta, cambio, reasignación, cierre o
+ * borrado de tarea. La columna {@code version} aplica bloqueo optimista: dos planificadores
+ * que reservan el mismo hueco a la vez no pueden sobreasignarlo.
+ */
+@Entity
+@Table(name = "capacidad_dia", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"sprint_id", "persona_id", "dia"}, name = "uk_capacidad_dia_sprint_persona_dia")
+})
+@Comment("Horas asignadas por persona y día de sprint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class CapacidadDia extends BaseEntity {
+
+    @Comment("Sprint del hueco de capacidad")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sprint_id", nullable = false)
+    private Sprint sprint;
+
+    @Comment("Persona del hueco de capacidad")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "persona_id", nullable = false)
+    private Persona persona;
+
+    @Comment("Día del sprint (1-based)")
+    @Column(name = "dia", nullable = false)
+    private Integer dia;
+
+    @Comment("Suma de estimaciones de tareas no completadas asignadas al día")
+    @Column(name = "horas_asignadas", columnDefinition = "DECIMAL(10,2)", nullable = false)
+    private BigDecimal horasAsignadas;
+
+    @Comment("Versión para bloqueo optimista")
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
@@ -0,0 +1,18 @@
+package com.kaos.planificacion.repository;
+
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import com.kaos.planificacion.entity.CapacidadDia;
+
+/**
+ * Repositorio JPA para {@link CapacidadDia}.
+ */
+@Repository
+public interface CapacidadDiaRepository extends JpaRepository<CapacidadDia, Long> {
+
+    /**
+     * Busca el hueco de capacidad de una persona en un día del sprint (índice único).
+     */
+    Optional<CapacidadDia> findBySprintIdAndPersonaIdAndDia(Long sprintId, Long personaId, Integer dia);
+}
@@ -1,5 +1,6 @@
 package com.kaos.planificacion.repository;
 
+import com.kaos.planificacion.dto.ResumenEstadoTareas;
 import com.kaos.planificacion.entity.Tarea;
 import com.kaos.planificacion.entity.EstadoTarea;
 import org.springframework.data.domain.Page;
@@ -22,6 +23,17 @@ public interface TareaRepository extends JpaRepository<Tarea, Long> {
      */
     Page<Tarea> findBySprintId(Long sprintId, Pageable pageable);
 
+    /**
+     * Tareas asignadas (persona + día) de un sprint con persona y bloqueadores cargados
+     * en la misma consulta, para construir la timeline sin cargas perezosas por tarea.
+     */
+    @Query("SELECT DISTINCT t FROM Tarea t " +
+           "JOIN FETCH t.persona " +
+           "LEFT JOIN FETCH t.bloqueadores " +
+           "WHERE t.sprint.id = :sprintId " +
+           "AND t.diaAsignado IS NOT NULL")
+    List<Tarea> findAsignadasConBloqueadores(Long sprintId);
+
     /**
      * Lista tareas de un sprint con filtro de persona.
      */
@@ -97,4 +109,17 @@ public interface TareaRepository extends JpaRepository<Tarea, Long> {
      * Cuenta tareas de un sprint con estado específico.
      */
     Long countBySprintIdAndEstado(Long sprintId, EstadoTarea estado);
+
+    /**
+     * Agregado del dashboard en una sola consulta: número de tareas y horas estimadas por estado,
+     * más los bloqueos activos ligados a tareas del sprint (subconsulta escalar).
+     * Un sprint sin tareas devuelve una lista vacía.
+     */
+    @Query("SELECT t.estado AS estado, COUNT(t) AS tareas, SUM(t.estimacion) AS horas, " +
+           "(SELECT COUNT(DISTINCT b.id) FROM Tarea t2 JOIN t2.bloqueadores b " +
+           " WHERE t2.sprint.id = :sprintId AND b.estado IN ('ABIERTO', 'EN_GESTION')) AS bloqueosActivos " +
+           "FROM Tarea t " +
+           "WHERE t.sprint.id = :sprintId " +
+           "GROUP BY t.estado")
+    List<ResumenEstadoTareas> resumirPorEstado(Long sprintId);
 }
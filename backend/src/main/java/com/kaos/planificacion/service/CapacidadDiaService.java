@@ -0,0 +1,160 @@
+package com.kaos.planificacion.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.kaos.calendario.service.CapacidadService;
+import com.kaos.persona.repository.PersonaRepository;
+import com.kaos.planificacion.entity.CapacidadDia;
+import com.kaos.planificacion.entity.Sprint;
+import com.kaos.planificacion.exception.CapacidadInsuficienteException;
+import com.kaos.planificacion.repository.CapacidadDiaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Libro de capacidad por (sprint, persona, día).
+ * <p>
+ * Guarda las horas ya asignadas de cada hueco; las horas teóricas del día salen del
+ * calendario laboral cacheado en {@link CapacidadService}. Validar una asignación es
+ * una consulta por clave única más una consulta O(1) al calendario, sin recalcular la
+ * capacidad del squad.
+ * </p>
+ * <p>
+ * Cada reserva se escribe con {@code saveAndFlush}: si otro planificador ha modificado
+ * el mismo hueco (versión distinta) o lo ha creado a la vez (clave única), se lanza
+ * {@link ConcurrencyFailureException} y la transacción completa se deshace.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CapacidadDiaService {
+
+    private final CapacidadDiaRepository repository;
+    private final PersonaRepository personaRepository;
+    private final CapacidadService capacidadService;
+
+    /**
+     * Horas que quedan libres para una persona en un día del sprint.
+     *
+     * @param sprint    Sprint
+     * @param personaId ID de la persona
+     * @param dia       Día del sprint (1-based)
+     * @return horas teóricas del día menos horas ya asignadas (puede ser negativo si se redujo la capacidad)
+     */
+    public double horasRestantes(Sprint sprint, Long personaId, Integer dia) {
+        double asignadas = repository.findBySprintIdAndPersonaIdAndDia(sprint.getId(), personaId, dia)
+                .map(c -> c.getHorasAsignadas().doubleValue())
+                .orElse(0.0);
+        return horasDisponibles(sprint, personaId, dia) - asignadas;
+    }
+
+    /**
+     * Reserva horas en el hueco de una persona y día.
+     *
+     * @throws CapacidadInsuficienteException si las horas superan las restantes
+     * @throws ConcurrencyFailureException    si otro planificador modificó el hueco a la vez
+     */
+    @Transactional
+    public void reservar(Sprint sprint, Long personaId, Integer dia, BigDecimal horas) {
+        CapacidadDia hueco = repository.findBySprintIdAndPersonaIdAndDia(sprint.getId(), personaId, dia)
+                .orElseGet(() -> CapacidadDia.builder()
+                        .sprint(sprint)
+                        .persona(personaRepository.getReferenceById(personaId))
+                        .dia(dia)
+                        .horasAsignadas(BigDecimal.ZERO)
+                        .build());
+
+        double restantes = horasDisponibles(sprint, personaId, dia) - hueco.getHorasAsignadas().doubleValue();
+        if (horas.doubleValue() > restantes) {
+            throw new CapacidadInsuficienteException(
+                    "Capacidad insuficiente para asignar " + horas + " horas a la persona " + personaId +
+                            " en el día " + dia + ". Disponibles: " + restantes,
+                    personaId,
+                    dia,
+                    restantes,
+                    horas.doubleValue());
+        }
+
+        hueco.setHorasAsignadas(hueco.getHorasAsignadas().add(horas));
+        guardar(hueco);
+
+        log.debug("Reservadas {}h para persona {} día {} del sprint {} - Restantes: {}",
+                horas, personaId, dia, sprint.getId(), restantes - horas.doubleValue());
+    }
+
+    /**
+     * Libera horas del hueco de una persona y día. No hace nada si el hueco no existe.
+     */
+    @Transactional
+    public void liberar(Sprint sprint, Long personaId, Integer dia, BigDecimal horas) {
+        repository.findBySprintIdAndPersonaIdAndDia(sprint.getId(), personaId, dia).ifPresent(hueco -> {
+            BigDecimal restante = hueco.getHorasAsignadas().subtract(horas);
+            hueco.setHorasAsignadas(restante.signum() < 0 ? BigDecimal.ZERO : restante);
+            guardar(hueco);
+        });
+    }
+
+    /**
+     * Traslada la asignación de una tarea: libera el hueco anterior y reserva el nuevo.
+     * Si el hueco no cambia solo se aplica la diferencia de estimación.
+     * Cualquier lado puede ser null (tarea sin asignar).
+     *
+     * @throws CapacidadInsuficienteException si el hueco nuevo no admite la estimación
+     */
+    @Transactional
+    public void reasignar(
+            Sprint sprint,
+            Long personaAnterior, Integer diaAnterior, BigDecimal estimacionAnterior,
+            Long personaNueva, Integer diaNuevo, BigDecimal estimacionNueva) {
+
+        boolean asignadaAntes = personaAnterior != null && diaAnterior != null;
+        boolean asignadaDespues = personaNueva != null && diaNuevo != null;
+        BigDecimal anterior = estimacionAnterior != null ? estimacionAnterior : BigDecimal.ZERO;
+
+        if (asignadaAntes && asignadaDespues
+                && personaAnterior.equals(personaNueva) && Objects.equals(diaAnterior, diaNuevo)) {
+            BigDecimal diferencia = estimacionNueva.subtract(anterior);
+            if (diferencia.signum() > 0) {
+                reservar(sprint, personaNueva, diaNuevo, diferencia);
+            } else if (diferencia.signum() < 0) {
+                liberar(sprint, personaNueva, diaNuevo, diferencia.negate());
+            }
+            return;
+        }
+
+        if (asignadaAntes) {
+            liberar(sprint, personaAnterior, diaAnterior, anterior);
+        }
+        if (asignadaDespues) {
+            reservar(sprint, personaNueva, diaNuevo, estimacionNueva);
+        }
+    }
+
+    /**
+     * Horas teóricas de la persona en el día del sprint (0 si es festivo o está ausente).
+     *
+     * @throws IllegalArgumentException si el día no cae dentro del sprint
+     */
+    private double horasDisponibles(Sprint sprint, Long personaId, Integer dia) {
+        LocalDate fecha = DiasSprint.fecha(sprint, dia);
+        return capacidadService.calcularHorasDisponibles(sprint.getSquad().getId(), personaId, fecha);
+    }
+
+    private void guardar(CapacidadDia hueco) {
+        try {
+            repository.saveAndFlush(hueco);
+        } catch (DataIntegrityViolationException e) {
+            // Otro planificador ha creado el mismo hueco en paralelo
+            throw new ConcurrencyFailureException(
+                    "La capacidad de la persona " + hueco.getPersona().getId() + " en el día " + hueco.getDia()
+                            + " ha sido modificada por otro usuario. Reintente la operación.", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.kaos.planificacion.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import com.kaos.planificacion.entity.Sprint;
+
+/**
+ * Correspondencia entre el día de sprint ({@code Tarea.diaAsignado}) y la fecha real.
+ * <p>
+ * Los días del sprint cuentan solo lunes a viernes: el día 1 es el primer laborable a
+ * partir de {@code fechaInicio}, el 6 el lunes de la segunda semana, etc. Los festivos y
+ * ausencias no desplazan la numeración; aparecen como días con 0 horas disponibles.
+ * </p>
+ */
+final class DiasSprint {
+
+    private static final int DIAS_SEMANA_LABORAL = 5;
+
+    private DiasSprint() {
+    }
+
+    /**
+     * Fechas laborables (lunes a viernes) del rango, en orden. El índice {@code i} de la lista
+     * corresponde al día de sprint {@code i + 1}.
+     */
+    static List<LocalDate> fechasLaborables(LocalDate inicio, LocalDate fin) {
+        List<LocalDate> fechas = new ArrayList<>();
+        for (LocalDate fecha = primerLaborable(inicio); !fecha.isAfter(fin); fecha = fecha.plusDays(1)) {
+            if (!esFinDeSemana(fecha)) {
+                fechas.add(fecha);
+            }
+        }
+        return fechas;
+    }
+
+    /**
+     * Fecha del día de sprint indicado, calculada en O(1).
+     *
+     * @param sprint Sprint
+     * @param dia    Día del sprint (1-based, solo laborables)
+     * @throws IllegalArgumentException si el día no cae dentro del sprint
+     */
+    static LocalDate fecha(Sprint sprint, int dia) {
+        if (dia < 1) {
+            throw new IllegalArgumentException("El día asignado debe ser mayor o igual a 1");
+        }
+        LocalDate primero = primerLaborable(sprint.getFechaInicio());
+        int desplazamiento = primero.getDayOfWeek().getValue() - 1 + (dia - 1);
+        LocalDate fecha = primero
+                .minusDays(primero.getDayOfWeek().getValue() - 1L)
+                .plusWeeks(desplazamiento / DIAS_SEMANA_LABORAL)
+                .plusDays(desplazamiento % DIAS_SEMANA_LABORAL);
+
+        if (sprint.getFechaFin() != null && fecha.isAfter(sprint.getFechaFin())) {
+            throw new IllegalArgumentException("El día asignado " + dia + " está fuera del sprint "
+                    + sprint.getId() + " (" + sprint.getFechaInicio() + " - " + sprint.getFechaFin() + ")");
+        }
+        return fecha;
+    }
+
+    private static LocalDate primerLaborable(LocalDate fecha) {
+        return switch (fecha.getDayOfWeek()) {
+            case SATURDAY -> fecha.plusDays(2);
+            case SUNDAY -> fecha.plusDays(1);
+            default -> fecha;
+        };
+    }
+
+    private static boolean esFinDeSemana(LocalDate fecha) {
+        return fecha.getDayOfWeek() == DayOfWeek.SATURDAY || fecha.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+}
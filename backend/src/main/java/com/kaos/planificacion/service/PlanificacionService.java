@@ -1,30 +1,29 @@
 package com.kaos.planificacion.service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.kaos.calendario.dto.CapacidadDiaResponse;
 import com.kaos.calendario.dto.CapacidadPersonaResponse;
 import com.kaos.calendario.dto.CapacidadSquadResponse;
 import com.kaos.calendario.service.CapacidadService;
+import com.kaos.common.excel.ExcelStreamWriter;
 import com.kaos.planificacion.dto.DashboardSprintResponse;
+import com.kaos.planificacion.dto.ResumenEstadoTareas;
 import com.kaos.planificacion.dto.TimelineSprintResponse;
 import com.kaos.planificacion.entity.EstadoTarea;
 import com.kaos.planificacion.entity.Sprint;
-import com.kaos.planificacion.repository.BloqueoRepository;
+import com.kaos.planificacion.entity.Tarea;
 import com.kaos.planificacion.repository.SprintRepository;
 import com.kaos.planificacion.repository.TareaRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -43,7 +42,6 @@ public class PlanificacionService {
 
     private final SprintRepository sprintRepository;
     private final TareaRepository tareaRepository;
-    private final BloqueoRepository bloqueoRepository;
     private final CapacidadService capacidadService;
 
     /**
@@ -64,31 +62,32 @@ public class PlanificacionService {
         Sprint sprint = sprintRepository.findById(sprintId)
                 .orElseThrow(() -> new EntityNotFoundException("Sprint no encontrado con id: " + sprintId));
 
-        // Contar tareas por estado
-        Long tareasTotal = tareaRepository.countBySprintId(sprintId);
-        Long tareasPendientes = tareaRepository.countBySprintIdAndEstado(sprintId, EstadoTarea.PENDIENTE);
-        Long tareasEnProgreso = tareaRepository.countBySprintIdAndEstado(sprintId, EstadoTarea.EN_PROGRESO);
-        Long tareasCompletadas = tareaRepository.countBySprintIdAndEstado(sprintId, EstadoTarea.COMPLETADA);
-        Long tareasBloqueadas = tareaRepository.countBySprintIdAndEstado(sprintId, EstadoTarea.BLOQUEADO);
+        // Una consulta agrupada: tareas y horas por estado + bloqueos activos del sprint
+        Map<EstadoTarea, Long> tareasPorEstado = new EnumMap<>(EstadoTarea.class);
+        long tareasTotal = 0;
+        double horasAsignadas = 0.0;
+        long bloqueosActivos = 0;
+        for (ResumenEstadoTareas resumen : tareaRepository.resumirPorEstado(sprintId)) {
+            tareasPorEstado.put(resumen.getEstado(), resumen.getTareas());
+            tareasTotal += resumen.getTareas();
+            horasAsignadas += resumen.getHoras() != null ? resumen.getHoras().doubleValue() : 0.0;
+            bloqueosActivos = resumen.getBloqueosActivos();
+        }
+        long tareasPendientes = tareasPorEstado.getOrDefault(EstadoTarea.PENDIENTE, 0L);
+        long tareasEnProgreso = tareasPorEstado.getOrDefault(EstadoTarea.EN_PROGRESO, 0L);
+        long tareasCompletadas = tareasPorEstado.getOrDefault(EstadoTarea.COMPLETADA, 0L);
+        long tareasBloqueadas = tareasPorEstado.getOrDefault(EstadoTarea.BLOQUEADO, 0L);
 
-        // Calcular capacidad
+        // Calcular progreso
         double progresoEsperado = 50.0; // Media esperada en mitad de sprint
-        double progresoReal = (tareasCompletadas.doubleValue() / tareasTotal) * 100.0;
-
-        // Contar bloqueos activos
-        Long bloqueosActivos = bloqueoRepository.countByEstadoAbiertosOEnGestion();
+        double progresoReal = tareasTotal > 0 ? (tareasCompletadas * 100.0) / tareasTotal : 0.0;
 
-        // Calcular ocupación de capacidad
-        CapacidadSquadResponse capacidadSquad = capacidadService.calcularCapacidad(
+        // Calcular ocupación de capacidad (capacidad cacheada, sin detalle por día)
+        double horasTotales = capacidadService.calcularHorasTotales(
                 sprint.getSquad().getId(),
                 sprint.getFechaInicio(),
                 sprint.getFechaFin());
-
-        double horasTotales = capacidadSquad.horasTotales();
-        double horasAsignadas = tareaRepository.sumEstimacionPorSprint(sprintId) != null 
-            ? tareaRepository.sumEstimacionPorSprint(sprintId).doubleValue() 
-            : 0.0;
-        double ocupacionPorcentaje = (horasAsignadas / horasTotales) * 100.0;
+        double ocupacionPorcentaje = horasTotales > 0 ? (horasAsignadas / horasTotales) * 100.0 : 0.0;
 
         // Generar alertas
         List<String> alertas = new ArrayList<>();
@@ -101,7 +100,7 @@ public class PlanificacionService {
         if (tareasBloqueadas > 0) {
             alertas.add("ALERTA: " + tareasBloqueadas + " tarea(s) bloqueada(s)");
         }
-        if (progresoReal < progresoEsperado * 0.7) {
+        if (tareasTotal > 0 && progresoReal < progresoEsperado * 0.7) {
             alertas.add("ALERTA: Progreso por debajo de lo esperado");
         }
 
@@ -129,7 +128,12 @@ public class PlanificacionService {
 
     /**
      * Obtiene la timeline (grid) de un sprint.
-     * Matriz [personas] x [días 1-10] con tareas asignadas.
+     * Matriz [personas] x [días laborables del sprint] con tareas asignadas.
+     * <p>
+     * Los días se numeran de lunes a viernes entre {@code fechaInicio} y {@code fechaFin}
+     * (ver {@link DiasSprint}), por lo que admite sprints de cualquier duración. La matriz se
+     * construye en una pasada sobre tareas y otra sobre capacidad, con índices por persona y día.
+     * </p>
      *
      * @param sprintId ID del sprint
      * @return TimelineSprintResponse con grid de asignaciones
@@ -147,74 +151,62 @@ public class PlanificacionService {
                 sprint.getFechaInicio(),
                 sprint.getFechaFin());
 
-        // Construir matriz: para cada persona, para cada día (1-10), listar tareas
-        Map<Long, Map<Integer, List<TimelineSprintResponse.TareaEnLinea>>> timeline = new HashMap<>();
+        List<LocalDate> fechas = DiasSprint.fechasLaborables(sprint.getFechaInicio(), sprint.getFechaFin());
+        int numDias = fechas.size();
 
-        // Inicializar estructura
-        for (CapacidadPersonaResponse persona : capacidad.personas()) {
-            Map<Integer, List<TimelineSprintResponse.TareaEnLinea>> diasPersona = new HashMap<>();
-            for (int dia = 1; dia <= 10; dia++) {
-                diasPersona.put(dia, new ArrayList<>());
+        // Índice persona → [día - 1] → tareas, en una pasada sobre las tareas asignadas
+        Map<Long, List<List<TimelineSprintResponse.TareaEnLinea>>> tareasPorPersona = new HashMap<>();
+        for (Tarea tarea : tareaRepository.findAsignadasConBloqueadores(sprintId)) {
+            int dia = tarea.getDiaAsignado();
+            if (dia < 1 || dia > numDias) {
+                log.warn("Tarea {} con día {} fuera del sprint {} ({} días)", tarea.getId(), dia, sprintId, numDias);
+                continue;
             }
-            timeline.put(persona.personaId(), diasPersona);
+            tareasPorPersona
+                    .computeIfAbsent(tarea.getPersona().getId(), id -> listasVacias(numDias))
+                    .get(dia - 1)
+                    .add(TimelineSprintResponse.TareaEnLinea.builder()
+                            .tareaId(tarea.getId())
+                            .titulo(tarea.getTitulo())
+                            .estimacion(tarea.getEstimacion().doubleValue())
+                            .estado(tarea.getEstado().toString())
+                            .prioridad(tarea.getPrioridad().toString())
+                            .bloqueada(tarea.getBloqueadores() != null && !tarea.getBloqueadores().isEmpty())
+                            .build());
         }
 
-        // Llenar con tareas asignadas
-        var tareasPage = tareaRepository.findBySprintId(sprintId, org.springframework.data.domain.Pageable.unpaged());
-        for (var tarea : tareasPage.getContent()) {
-            if (tarea.getPersona() != null && tarea.getDiaAsignado() != null) {
-                TimelineSprintResponse.TareaEnLinea tareaEnLinea = TimelineSprintResponse.TareaEnLinea.builder()
-                        .tareaId(tarea.getId())
-                        .titulo(tarea.getTitulo())
-                        .estimacion(tarea.getEstimacion().doubleValue())
-                        .estado(tarea.getEstado().toString())
-                        .prioridad(tarea.getPrioridad().toString())
-                        .bloqueada(tarea.getBloqueadores() != null && !tarea.getBloqueadores().isEmpty())
-                        .build();
-
-                timeline.get(tarea.getPersona().getId())
-                        .get(tarea.getDiaAsignado())
-                        .add(tareaEnLinea);
+        // Los detalles de capacidad son consecutivos desde fechaInicio: acceso por desplazamiento en días
+        List<TimelineSprintResponse.PersonaEnLinea> personasEnLinea = new ArrayList<>(capacidad.personas().size());
+        for (CapacidadPersonaResponse persona : capacidad.personas()) {
+            List<List<TimelineSprintResponse.TareaEnLinea>> tareasDias = tareasPorPersona.remove(persona.personaId());
+            List<CapacidadDiaResponse> detalles = persona.detalles();
+
+            List<TimelineSprintResponse.DiaConTareas> dias = new ArrayList<>(numDias);
+            for (int i = 0; i < numDias; i++) {
+                LocalDate fecha = fechas.get(i);
+                int offset = (int) ChronoUnit.DAYS.between(sprint.getFechaInicio(), fecha);
+                CapacidadDiaResponse capacidadDia = detalles != null && offset < detalles.size()
+                        ? detalles.get(offset)
+                        : null;
+
+                dias.add(TimelineSprintResponse.DiaConTareas.builder()
+                        .dia(i + 1)
+                        .fecha(fecha)
+                        .horasDisponibles(capacidadDia != null ? capacidadDia.horasDisponibles() : 0.0)
+                        .tareas(tareasDias != null ? tareasDias.get(i) : new ArrayList<>())
+                        .build());
             }
-        }
-
-        // Construir lista de personas con su grid de días
-        List<TimelineSprintResponse.PersonaEnLinea> personasEnLinea = timeline.entrySet().stream()
-                .map(entry -> {
-                    Long personaId = entry.getKey();
-                    Map<Integer, List<TimelineSprintResponse.TareaEnLinea>> diasMap = entry.getValue();
-
-                    // Buscar nombre de persona desde capacidad
-                    String personaNombre = capacidad.personas().stream()
-                            .filter(cp -> cp.personaId().equals(personaId))
-                            .map(CapacidadPersonaResponse::personaNombre)
-                            .findFirst()
-                            .orElse("Persona " + personaId);
 
-                    // Construir grid de días
-                    List<TimelineSprintResponse.DiaConTareas> dias = new ArrayList<>();
-                    for (int dia = 1; dia <= 10; dia++) {
-                        CapacidadDiaResponse capacidadDia = capacidad.personas().stream()
-                                .filter(cp -> cp.personaId().equals(personaId))
-                                .flatMap(cp -> cp.detalles().stream())
-                                .skip(dia - 1)
-                                .findFirst()
-                                .orElse(null);
-
-                        dias.add(TimelineSprintResponse.DiaConTareas.builder()
-                                .dia(dia)
-                                .horasDisponibles(capacidadDia != null ? capacidadDia.horasDisponibles() : 0.0)
-                                .tareas(diasMap.getOrDefault(dia, new ArrayList<>()))
-                                .build());
-                    }
+            personasEnLinea.add(TimelineSprintResponse.PersonaEnLinea.builder()
+                    .personaId(persona.personaId())
+                    .personaNombre(persona.personaNombre())
+                    .dias(dias)
+                    .build());
+        }
 
-                    return TimelineSprintResponse.PersonaEnLinea.builder()
-                            .personaId(personaId)
-                            .personaNombre(personaNombre)
-                            .dias(dias)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        if (!tareasPorPersona.isEmpty()) {
+            log.warn("Sprint {}: tareas asignadas a personas fuera del squad {}", sprintId, tareasPorPersona.keySet());
+        }
 
         return TimelineSprintResponse.builder()
                 .sprintId(sprintId)
@@ -225,30 +217,30 @@ public class PlanificacionService {
                 .build();
     }
 
+    private static List<List<TimelineSprintResponse.TareaEnLinea>> listasVacias(int numDias) {
+        List<List<TimelineSprintResponse.TareaEnLinea>> listas = new ArrayList<>(numDias);
+        for (int i = 0; i < numDias; i++) {
+            listas.add(new ArrayList<>());
+        }
+        return listas;
+    }
+
     /**
-     * Exporta la timeline de un sprint a Excel.
+     * Exporta la timeline de un sprint a Excel escribiendo directamente en el stream.
      * Columnas: Persona, DiaSemana, Fecha, Tarea.
+     * <p>
+     * La timeline se obtiene antes (con {@link #obtenerTimeline(Long)}) para que los errores
+     * de negocio se resuelvan antes de empezar a escribir la respuesta.
+     * </p>
      *
-     * @param sprintId ID del sprint
-     * @return bytes del archivo .xlsx
+     * @param timeline Timeline del sprint
+     * @param out      Stream de salida (no se cierra)
+     * @throws IOException si falla la escritura
      */
-    public byte[] exportarTimelineExcel(Long sprintId) {
-        TimelineSprintResponse timeline = obtenerTimeline(sprintId);
-
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Timeline");
-            int rowIdx = 0;
-
-            Row header = sheet.createRow(rowIdx++);
-            header.createCell(0).setCellValue("Persona");
-            header.createCell(1).setCellValue("DiaSemana");
-            header.createCell(2).setCellValue("Fecha");
-            header.createCell(3).setCellValue("Tarea");
-
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ISO_LOCAL_DATE;
+    public void exportarTimelineExcel(TimelineSprintResponse timeline, OutputStream out) throws IOException {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ISO_LOCAL_DATE;
 
+        try (ExcelStreamWriter excel = new ExcelStreamWriter("Timeline", "Persona", "DiaSemana", "Fecha", "Tarea")) {
             for (TimelineSprintResponse.PersonaEnLinea persona : timeline.personas()) {
                 if (persona.dias() == null) {
                     continue;
@@ -259,27 +251,17 @@ public class PlanificacionService {
                         continue;
                     }
 
-                    LocalDate fecha = timeline.fechaInicio().plusDays(dia.dia() - 1L);
-                    String diaSemana = mapDayOfWeek(fecha.getDayOfWeek());
+                    String diaSemana = mapDayOfWeek(dia.fecha().getDayOfWeek());
+                    String fecha = dia.fecha().format(dateFormatter);
 
                     for (TimelineSprintResponse.TareaEnLinea tarea : dia.tareas()) {
-                        Row row = sheet.createRow(rowIdx++);
-                        row.createCell(0).setCellValue(persona.personaNombre());
-                        row.createCell(1).setCellValue(diaSemana);
-                        row.createCell(2).setCellValue(fecha.format(dateFormatter));
-                        row.createCell(3).setCellValue(tarea.titulo());
+                        excel.fila(persona.personaNombre(), diaSemana, fecha, tarea.titulo());
                     }
                 }
             }
 
-            for (int i = 0; i < 4; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            workbook.write(out);
-            return out.toByteArray();
-        } catch (IOException ex) {
-            throw new IllegalStateException("Error generando Excel de timeline", ex);
+            excel.escribir(out);
+            log.debug("Timeline del sprint {} exportada: {} filas", timeline.sprintId(), excel.filas() - 1);
         }
     }
 
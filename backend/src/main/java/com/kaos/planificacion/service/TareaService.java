@@ -1,14 +1,9 @@
 package com.kaos.planificacion.service;
 
-import java.math.BigDecimal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import com.kaos.calendario.dto.CapacidadDiaResponse;
-import com.kaos.calendario.dto.CapacidadPersonaResponse;
-import com.kaos.calendario.dto.CapacidadSquadResponse;
-import com.kaos.calendario.service.CapacidadService;
 import com.kaos.persona.repository.PersonaRepository;
 import com.kaos.planificacion.dto.TareaRequest;
 import com.kaos.planificacion.dto.TareaResponse;
@@ -29,6 +24,7 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Servicio de negocio para gestión de {@link Tarea}.
  * Valida capacidad disponible, transiciones de estado y restricciones de sprint.
+ * Las horas comprometidas por persona y día se mantienen en {@link CapacidadDiaService}.
  */
 @Slf4j
 @Service
@@ -40,7 +36,7 @@ public class TareaService {
     private final SprintRepository sprintRepository;
     private final PersonaRepository personaRepository;
     private final TareaMapper tareaMapper;
-    private final CapacidadService capacidadService;
+    private final CapacidadDiaService capacidadDiaService;
 
     /**
      * Lista tareas con filtros opcionales.
@@ -137,8 +133,8 @@ public class TareaService {
                 throw new EntityNotFoundException("Persona no encontrada con id: " + request.personaId());
             }
 
-            // Validar capacidad disponible
-            validarCapacidadDisponible(sprint, request.personaId(), request.diaAsignado(), request.estimacion());
+            // Reservar capacidad en el libro (valida horas restantes)
+            capacidadDiaService.reservar(sprint, request.personaId(), request.diaAsignado(), request.estimacion());
         }
 
         Tarea saved = tareaRepository.save(tarea);
@@ -149,7 +145,7 @@ public class TareaService {
 
     /**
      * Actualiza una tarea existente.
-     * Si cambia la asignación (personaId + diaAsignado), valida capacidad disponible.
+     * Traslada la reserva de capacidad si cambia la asignación (personaId + diaAsignado) o la estimación.
      *
      * @param id      ID de la tarea
      * @param request TareaRequest con datos actualizados
@@ -177,31 +173,27 @@ public class TareaService {
             throw new IllegalStateException("No se puede editar tareas de un sprint cerrado");
         }
 
-        // Si cambia la asignación, validar capacidad
-        boolean cambioAsignacion = !request.personaId().equals(tarea.getPersona() == null ? null : tarea.getPersona().getId()) ||
-                !request.diaAsignado().equals(tarea.getDiaAsignado());
-
-        if (cambioAsignacion && request.personaId() != null && request.diaAsignado() != null) {
-            if (!personaRepository.existsById(request.personaId())) {
-                throw new EntityNotFoundException("Persona no encontrada con id: " + request.personaId());
-            }
-
-            // Validar capacidad (considerando la asignación anterior)
-            BigDecimal estimacionAnterior = tarea.getEstimacion();
-            validarCapacidadDisponibleParaActualizacion(
-                    sprint,
-                    tarea.getPersona() == null ? null : tarea.getPersona().getId(),
-                    request.personaId(),
-                    request.diaAsignado(),
-                    request.estimacion(),
-                    estimacionAnterior);
-        }
-
         // Validar estimación
         if (request.estimacion() == null || request.estimacion().doubleValue() <= 0) {
             throw new IllegalArgumentException("La estimación debe ser mayor a 0");
         }
 
+        Long personaAnterior = tarea.getPersona() == null ? null : tarea.getPersona().getId();
+        if (request.personaId() != null && !request.personaId().equals(personaAnterior)
+                && !personaRepository.existsById(request.personaId())) {
+            throw new EntityNotFoundException("Persona no encontrada con id: " + request.personaId());
+        }
+
+        // Trasladar la reserva de capacidad (considerando la asignación anterior)
+        capacidadDiaService.reasignar(
+                sprint,
+                personaAnterior,
+                tarea.getDiaAsignado(),
+                tarea.getEstimacion(),
+                request.personaId(),
+                request.diaAsignado(),
+                request.estimacion());
+
         // Actualizar
         tareaMapper.updateEntity(request, tarea);
 
@@ -254,6 +246,11 @@ public class TareaService {
                     "Transición inválida de " + estadoActual + " a " + nuevoEstado);
         }
 
+        // Una tarea completada deja de consumir capacidad del día
+        if (nuevoEstado == EstadoTarea.COMPLETADA) {
+            liberarCapacidad(tarea);
+        }
+
         tarea.setEstado(nuevoEstado);
         Tarea saved = tareaRepository.save(tarea);
 
@@ -279,79 +276,18 @@ public class TareaService {
             throw new TareaNoEnPendienteException(id, tarea.getEstado().toString());
         }
 
+        liberarCapacidad(tarea);
         tareaRepository.deleteById(id);
         log.info("Tarea {} eliminada", id);
     }
 
     /**
-     * Valida que hay capacidad disponible para asignar una tarea a una persona en un día específico.
-     * Lanza excepción si no hay capacidad suficiente.
-     *
-     * @param sprint      Sprint de la tarea
-     * @param personaId   ID de la persona
-     * @param dia         Día del sprint (1-10)
-     * @param estimacion  Estimación en horas
-     * @throws CapacidadInsuficienteException si no hay capacidad
+     * Libera en el libro de capacidad las horas de una tarea asignada.
      */
-    private void validarCapacidadDisponible(Sprint sprint, Long personaId, Integer dia, BigDecimal estimacion) {
-        CapacidadSquadResponse capacidad = capacidadService.calcularCapacidad(
-                sprint.getSquad().getId(),
-                sprint.getFechaInicio(),
-                sprint.getFechaFin());
-
-        // Buscar capacidad de la persona para el día especificado
-        CapacidadPersonaResponse capacidadPersona = capacidad.personas().stream()
-                .filter(cp -> cp.personaId().equals(personaId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Persona no pertenece al squad del sprint"));
-
-        // Obtener capacidad del día (index: día-1, porque días son 1-10)
-        CapacidadDiaResponse capacidadDia = capacidadPersona.detalles().get(dia - 1);
-        Double horasDisponibles = capacidadDia.horasDisponibles();
-
-        if (estimacion.doubleValue() > horasDisponibles) {
-            throw new CapacidadInsuficienteException(
-                    "Capacidad insuficiente para asignar " + estimacion + " horas a la persona " + personaId +
-                            " en el día " + dia + ". Disponibles: " + horasDisponibles,
-                    personaId,
-                    dia,
-                    horasDisponibles,
-                    estimacion.doubleValue());
-        }
-
-        log.debug("Validación de capacidad exitosa para persona {} día {} - Disponibles: {}, Requeridas: {}",
-                personaId, dia, horasDisponibles, estimacion);
-    }
-
-    /**
-     * Valida capacidad disponible para actualizar una asignación existente.
-     * Considera la liberación de horas de la asignación anterior.
-     *
-     * @param sprint                Sprint
-     * @param personaIdAnterior     ID de persona anterior (null si no estaba asignada)
-     * @param personaIdNueva        ID de nueva persona
-     * @param diaNuevo              Día nuevo
-     * @param estimacionNueva       Estimación nueva
-     * @param estimacionAnterior    Estimación anterior
-     */
-    private void validarCapacidadDisponibleParaActualizacion(
-            Sprint sprint,
-            Long personaIdAnterior,
-            Long personaIdNueva,
-            Integer diaNuevo,
-            BigDecimal estimacionNueva,
-            BigDecimal estimacionAnterior) {
-
-        // Si es la misma persona y el mismo día, solo validar la diferencia
-        if (personaIdAnterior != null && personaIdAnterior.equals(personaIdNueva) && diaNuevo != null) {
-            BigDecimal diferencia = estimacionNueva.subtract(estimacionAnterior);
-            if (diferencia.doubleValue() > 0) {
-                // Solo validar si aumenta la estimación
-                validarCapacidadDisponible(sprint, personaIdNueva, diaNuevo, diferencia);
-            }
-        } else {
-            // Total cambio de asignación, validar completamente
-            validarCapacidadDisponible(sprint, personaIdNueva, diaNuevo, estimacionNueva);
+    private void liberarCapacidad(Tarea tarea) {
+        if (tarea.getPersona() != null && tarea.getDiaAsignado() != null && tarea.getEstimacion() != null) {
+            capacidadDiaService.liberar(
+                    tarea.getSprint(), tarea.getPersona().getId(), tarea.getDiaAsignado(), tarea.getEstimacion());
         }
     }
 }
@@ -1,7 +1,11 @@
 package com.kaos.squad.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Comment;
+import com.kaos.common.cache.CacheReferencias;
 import com.kaos.common.model.BaseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -19,6 +23,8 @@ import lombok.experimental.SuperBuilder;
  * Cada squad tiene un nombre, estado, y referencias a boards de Jira.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheReferencias.REGION_SQUAD)
 @Table(name = "squad")
 @Comment("Equipos de desarrollo (squads)")
 @Getter
@@ -1,17 +1,26 @@
 package com.kaos.squad.repository;
 
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import com.kaos.squad.entity.EstadoSquad;
 import com.kaos.squad.entity.Squad;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositorio JPA para {@link Squad}.
+ * Los listados usan la caché de consultas de Hibernate (ver {@code CacheReferencias}).
  */
 @Repository
 public interface SquadRepository extends JpaRepository<Squad, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Squad> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Squad> findByEstado(EstadoSquad estado);
 
     boolean existsByNombre(String nombre);
@@ -1,11 +1,13 @@
 package com.kaos.squad.service;
 
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.squad.dto.SquadRequest;
 import com.kaos.squad.dto.SquadResponse;
 import com.kaos.squad.entity.EstadoSquad;
@@ -24,6 +26,7 @@ public class SquadService {
 
     private final SquadRepository repository;
     private final SquadMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Lista squads, opcionalmente filtrados por estado.
@@ -77,6 +80,7 @@ public class SquadService {
         validarNombreUnico(request.nombre(), id);
         mapper.updateEntity(request, entity);
         Squad saved = repository.save(entity);
+        eventPublisher.publishEvent(CapacidadInvalidadaEvent.deSquad(id));
         return mapper.toResponse(saved);
     }
 
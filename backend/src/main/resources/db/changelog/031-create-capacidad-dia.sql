@@ -0,0 +1,43 @@
+--liquibase formatted sql
+
+--changeset kaos:031 labels:planificacion
+--comment: Crear libro de capacidad por sprint, persona y día con bloqueo optimista
+
+CREATE TABLE capacidad_dia (
+    id                  BIGSERIAL       PRIMARY KEY,
+    sprint_id           BIGINT          NOT NULL,
+    persona_id          BIGINT          NOT NULL,
+    dia                 INTEGER         NOT NULL,
+    horas_asignadas     DECIMAL(10,2)   NOT NULL DEFAULT 0,
+    version             BIGINT          NOT NULL DEFAULT 0,
+    created_at          TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at          TIMESTAMP,
+    created_by          VARCHAR(100),
+    CONSTRAINT fk_capacidad_dia_sprint FOREIGN KEY (sprint_id) REFERENCES sprint(id) ON DELETE CASCADE,
+    CONSTRAINT fk_capacidad_dia_persona FOREIGN KEY (persona_id) REFERENCES persona(id) ON DELETE CASCADE,
+    CONSTRAINT uk_capacidad_dia_sprint_persona_dia UNIQUE (sprint_id, persona_id, dia),
+    CONSTRAINT chk_capacidad_dia_dia CHECK (dia >= 1),
+    CONSTRAINT chk_capacidad_dia_horas CHECK (horas_asignadas >= 0)
+);
+
+-- Carga inicial desde las tareas ya asignadas (las completadas no consumen capacidad)
+INSERT INTO capacidad_dia (sprint_id, persona_id, dia, horas_asignadas)
+SELECT sprint_id, persona_id, dia_asignado, SUM(estimacion)
+FROM tarea
+WHERE persona_id IS NOT NULL
+  AND dia_asignado IS NOT NULL
+  AND estado != 'COMPLETADA'
+GROUP BY sprint_id, persona_id, dia_asignado;
+
+COMMENT ON TABLE capacidad_dia IS 'Horas asignadas por persona y día de sprint';
+COMMENT ON COLUMN capacidad_dia.id IS 'Identificador único autogenerado';
+COMMENT ON COLUMN capacidad_dia.sprint_id IS 'Sprint del hueco de capacidad';
+COMMENT ON COLUMN capacidad_dia.persona_id IS 'Persona del hueco de capacidad';
+COMMENT ON COLUMN capacidad_dia.dia IS 'Día del sprint (1-based)';
+COMMENT ON COLUMN capacidad_dia.horas_asignadas IS 'Suma de estimaciones de tareas no completadas asignadas al día';
+COMMENT ON COLUMN capacidad_dia.version IS 'Versión para bloqueo optimista';
+COMMENT ON COLUMN capacidad_dia.created_at IS 'Fecha de creación';
+COMMENT ON COLUMN capacidad_dia.updated_at IS 'Fecha de última modificación';
+COMMENT ON COLUMN capacidad_dia.created_by IS 'Usuario que creó el registro';
+
+--rollback DROP TABLE IF EXISTS capacidad_dia CASCADE;
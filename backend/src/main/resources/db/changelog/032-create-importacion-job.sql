@@ -0,0 +1,49 @@
+--liquibase formatted sql
+
+--changeset kaos:032 labels:importacion
+--comment: Crear tabla de jobs de importación asíncrona por bloques
+
+CREATE TABLE importacion_job (
+    id                  BIGSERIAL       PRIMARY KEY,
+    tipo                VARCHAR(30)     NOT NULL,
+    estado              VARCHAR(20)     NOT NULL,
+    nombre_fichero      VARCHAR(255),
+    ruta_fichero        VARCHAR(500)    NOT NULL,
+    parametros          TEXT,
+    total_filas         INTEGER,
+    filas_procesadas    INTEGER         NOT NULL DEFAULT 0,
+    filas_iniciales     INTEGER         NOT NULL DEFAULT 0,
+    errores             INTEGER         NOT NULL DEFAULT 0,
+    resultado           TEXT,
+    mensaje_error       VARCHAR(1000),
+    iniciado_en         TIMESTAMP,
+    finalizado_en       TIMESTAMP,
+    created_at          TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at          TIMESTAMP,
+    created_by          VARCHAR(100),
+    CONSTRAINT chk_importacion_job_tipo CHECK (tipo IN ('VACACIONES_EXCEL', 'FESTIVOS_CSV')),
+    CONSTRAINT chk_importacion_job_estado CHECK (estado IN ('PENDIENTE', 'EN_CURSO', 'COMPLETADA', 'FALLIDA'))
+);
+
+CREATE INDEX idx_importacion_job_estado ON importacion_job(estado);
+
+COMMENT ON TABLE importacion_job IS 'Importaciones de ficheros en segundo plano';
+COMMENT ON COLUMN importacion_job.id IS 'Identificador único autogenerado';
+COMMENT ON COLUMN importacion_job.tipo IS 'Tipo de importación';
+COMMENT ON COLUMN importacion_job.estado IS 'Estado del job';
+COMMENT ON COLUMN importacion_job.nombre_fichero IS 'Nombre original del fichero subido';
+COMMENT ON COLUMN importacion_job.ruta_fichero IS 'Copia local del fichero, conservada hasta completar la importación';
+COMMENT ON COLUMN importacion_job.parametros IS 'Parámetros de la importación en JSON';
+COMMENT ON COLUMN importacion_job.total_filas IS 'Filas a procesar, si se conocen';
+COMMENT ON COLUMN importacion_job.filas_procesadas IS 'Filas confirmadas en BD (punto de reanudación)';
+COMMENT ON COLUMN importacion_job.filas_iniciales IS 'Filas ya confirmadas al iniciar la ejecución actual, para calcular el ritmo';
+COMMENT ON COLUMN importacion_job.errores IS 'Errores de fila acumulados';
+COMMENT ON COLUMN importacion_job.resultado IS 'Resultado acumulado en JSON (mismo formato que la respuesta síncrona)';
+COMMENT ON COLUMN importacion_job.mensaje_error IS 'Causa del fallo si el job está FALLIDA';
+COMMENT ON COLUMN importacion_job.iniciado_en IS 'Inicio de la ejecución actual';
+COMMENT ON COLUMN importacion_job.finalizado_en IS 'Fin de la última ejecución';
+COMMENT ON COLUMN importacion_job.created_at IS 'Fecha de creación';
+COMMENT ON COLUMN importacion_job.updated_at IS 'Fecha de última modificación';
+COMMENT ON COLUMN importacion_job.created_by IS 'Usuario que creó el registro';
+
+--rollback DROP TABLE IF EXISTS importacion_job CASCADE;
@@ -0,0 +1,47 @@
+--liquibase formatted sql
+
+--changeset kaos:033 labels:jira
+--comment: Unificar jira_config y jira_issue: tipo/activo por configuración y squad/categoría/padre por issue
+
+ALTER TABLE jira_config ALTER COLUMN project_key TYPE VARCHAR(50);
+ALTER TABLE jira_config ADD COLUMN tipo VARCHAR(20);
+ALTER TABLE jira_config ADD COLUMN activo BOOLEAN NOT NULL DEFAULT TRUE;
+ALTER TABLE jira_config ADD CONSTRAINT uq_jira_config_project_tipo UNIQUE (project_key, tipo);
+ALTER TABLE jira_config ADD CONSTRAINT chk_jira_config_tipo CHECK (tipo IN ('EVOLUTIVO', 'CORRECTIVO'));
+
+CREATE INDEX idx_jira_config_activo ON jira_config(activo);
+
+ALTER TABLE jira_issue ALTER COLUMN estado TYPE VARCHAR(100);
+ALTER TABLE jira_issue ADD COLUMN squad_id BIGINT;
+ALTER TABLE jira_issue ADD COLUMN categoria VARCHAR(30);
+ALTER TABLE jira_issue ADD COLUMN parent_key VARCHAR(50);
+
+UPDATE jira_issue i SET squad_id = c.squad_id FROM jira_config c WHERE i.config_id = c.id;
+
+ALTER TABLE jira_issue ALTER COLUMN squad_id SET NOT NULL;
+ALTER TABLE jira_issue ADD CONSTRAINT fk_jira_issue_squad FOREIGN KEY (squad_id) REFERENCES squad(id) ON DELETE CASCADE;
+
+CREATE INDEX idx_jira_issue_squad  ON jira_issue(squad_id);
+CREATE INDEX idx_jira_issue_parent ON jira_issue(parent_key);
+CREATE INDEX idx_jira_issue_estado ON jira_issue(estado);
+
+COMMENT ON TABLE jira_config IS 'Configuración de integración Jira por squad y proyecto';
+COMMENT ON COLUMN jira_config.project_key IS 'Clave del proyecto Jira (ej: RED, BACK)';
+COMMENT ON COLUMN jira_config.tipo IS 'Tipo de sincronización: EVOLUTIVO, CORRECTIVO o NULL para ambos';
+COMMENT ON COLUMN jira_config.activo IS 'Indica si esta configuración está activa';
+COMMENT ON COLUMN jira_issue.squad_id IS 'Squad al que pertenece el issue';
+COMMENT ON COLUMN jira_issue.categoria IS 'Categoría kaos: CORRECTIVO o EVOLUTIVO';
+COMMENT ON COLUMN jira_issue.parent_key IS 'Clave del issue padre (null si no es sub-task)';
+
+--rollback DROP INDEX IF EXISTS idx_jira_issue_estado;
+--rollback DROP INDEX IF EXISTS idx_jira_issue_parent;
+--rollback DROP INDEX IF EXISTS idx_jira_issue_squad;
+--rollback ALTER TABLE jira_issue DROP CONSTRAINT IF EXISTS fk_jira_issue_squad;
+--rollback ALTER TABLE jira_issue DROP COLUMN IF EXISTS parent_key;
+--rollback ALTER TABLE jira_issue DROP COLUMN IF EXISTS categoria;
+--rollback ALTER TABLE jira_issue DROP COLUMN IF EXISTS squad_id;
+--rollback DROP INDEX IF EXISTS idx_jira_config_activo;
+--rollback ALTER TABLE jira_config DROP CONSTRAINT IF EXISTS chk_jira_config_tipo;
+--rollback ALTER TABLE jira_config DROP CONSTRAINT IF EXISTS uq_jira_config_project_tipo;
+--rollback ALTER TABLE jira_config DROP COLUMN IF EXISTS activo;
+--rollback ALTER TABLE jira_config DROP COLUMN IF EXISTS tipo;
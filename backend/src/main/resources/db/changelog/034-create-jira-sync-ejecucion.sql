@@ -0,0 +1,34 @@
+--liquibase formatted sql
+
+--changeset kaos:034 labels:jira
+--comment: Crear tabla jira_sync_ejecucion con la duración y el resultado de cada sincronización programada
+
+CREATE TABLE jira_sync_ejecucion (
+    id              BIGSERIAL       PRIMARY KEY,
+    project_key     VARCHAR(50)     NOT NULL,
+    host            VARCHAR(255),
+    inicio          TIMESTAMP       NOT NULL,
+    duracion_ms     BIGINT          NOT NULL,
+    resultado       VARCHAR(20)     NOT NULL,
+    mensaje_error   VARCHAR(1000),
+    created_at      TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at      TIMESTAMP,
+    created_by      VARCHAR(100),
+    CONSTRAINT chk_jira_sync_ejecucion_resultado CHECK (resultado IN ('CORRECTA', 'FALLIDA', 'OMITIDA'))
+);
+
+CREATE INDEX idx_jira_sync_ejecucion_project_inicio ON jira_sync_ejecucion(project_key, inicio);
+
+COMMENT ON TABLE jira_sync_ejecucion IS 'Historial de ejecuciones de la sincronización programada por proyecto Jira';
+COMMENT ON COLUMN jira_sync_ejecucion.id IS 'Identificador único autogenerado';
+COMMENT ON COLUMN jira_sync_ejecucion.project_key IS 'Clave del proyecto Jira (ej: BACK, FRONT)';
+COMMENT ON COLUMN jira_sync_ejecucion.host IS 'Host de la instancia Jira';
+COMMENT ON COLUMN jira_sync_ejecucion.inicio IS 'Inicio de la ejecución (tras obtener plaza de concurrencia)';
+COMMENT ON COLUMN jira_sync_ejecucion.duracion_ms IS 'Duración de la ejecución en milisegundos';
+COMMENT ON COLUMN jira_sync_ejecucion.resultado IS 'Resultado: CORRECTA, FALLIDA u OMITIDA';
+COMMENT ON COLUMN jira_sync_ejecucion.mensaje_error IS 'Causa del fallo si el resultado es FALLIDA';
+COMMENT ON COLUMN jira_sync_ejecucion.created_at IS 'Fecha de creación del registro';
+COMMENT ON COLUMN jira_sync_ejecucion.updated_at IS 'Fecha de última modificación';
+COMMENT ON COLUMN jira_sync_ejecucion.created_by IS 'Usuario que creó el registro';
+
+--rollback DROP TABLE IF EXISTS jira_sync_ejecucion;
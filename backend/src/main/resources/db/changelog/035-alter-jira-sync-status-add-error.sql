@@ -0,0 +1,16 @@
+--liquibase formatted sql
+
+--changeset kaos:035 labels:jira
+--comment: Registrar en jira_sync_status el último fallo de sincronización de cada proyecto
+
+ALTER TABLE jira_sync_status ADD COLUMN ultimo_fallo TIMESTAMP;
+ALTER TABLE jira_sync_status ADD COLUMN ultimo_error VARCHAR(1000);
+ALTER TABLE jira_sync_status ADD COLUMN fallos_consecutivos INTEGER NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN jira_sync_status.ultimo_fallo IS 'Fecha y hora del último intento fallido de sincronización';
+COMMENT ON COLUMN jira_sync_status.ultimo_error IS 'Causa del último fallo; se limpia tras una sincronización correcta';
+COMMENT ON COLUMN jira_sync_status.fallos_consecutivos IS 'Sincronizaciones fallidas seguidas desde la última correcta';
+
+--rollback ALTER TABLE jira_sync_status DROP COLUMN IF EXISTS fallos_consecutivos;
+--rollback ALTER TABLE jira_sync_status DROP COLUMN IF EXISTS ultimo_error;
+--rollback ALTER TABLE jira_sync_status DROP COLUMN IF EXISTS ultimo_fallo;
@@ -0,0 +1,28 @@
+--liquibase formatted sql
+
+--changeset kaos:036 labels:jira
+--comment: Crear tabla jira_sync_marca con la marca de agua incremental de cada config Jira y tipo de consulta
+
+CREATE TABLE jira_sync_marca (
+    id                  BIGSERIAL                   PRIMARY KEY,
+    config_id           BIGINT                      NOT NULL,
+    tipo                VARCHAR(20)                 NOT NULL,
+    actualizada_hasta   TIMESTAMP WITH TIME ZONE    NOT NULL,
+    created_at          TIMESTAMP                   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at          TIMESTAMP,
+    created_by          VARCHAR(100),
+    CONSTRAINT fk_jira_sync_marca_config FOREIGN KEY (config_id) REFERENCES jira_config(id) ON DELETE CASCADE,
+    CONSTRAINT uq_jira_sync_marca_config_tipo UNIQUE (config_id, tipo),
+    CONSTRAINT chk_jira_sync_marca_tipo CHECK (tipo IN ('EVOLUTIVO', 'CORRECTIVO'))
+);
+
+COMMENT ON TABLE jira_sync_marca IS 'Marca de agua de la sincronización incremental por config Jira y tipo de consulta';
+COMMENT ON COLUMN jira_sync_marca.id IS 'Identificador único autogenerado';
+COMMENT ON COLUMN jira_sync_marca.config_id IS 'Configuración Jira sincronizada';
+COMMENT ON COLUMN jira_sync_marca.tipo IS 'Consulta sincronizada: EVOLUTIVO o CORRECTIVO';
+COMMENT ON COLUMN jira_sync_marca.actualizada_hasta IS 'Fecha updated de Jira hasta la que todo está importado';
+COMMENT ON COLUMN jira_sync_marca.created_at IS 'Fecha de creación del registro';
+COMMENT ON COLUMN jira_sync_marca.updated_at IS 'Fecha de última modificación';
+COMMENT ON COLUMN jira_sync_marca.created_by IS 'Usuario que creó el registro';
+
+--rollback DROP TABLE IF EXISTS jira_sync_marca;
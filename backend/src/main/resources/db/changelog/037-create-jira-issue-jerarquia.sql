@@ -0,0 +1,40 @@
+--liquibase formatted sql
+
+--changeset kaos:037 labels:jira
+--comment: Crear tabla de cierre jira_issue_jerarquia (ancestro, descendiente, profundidad) y rellenarla con las issues existentes
+
+CREATE TABLE jira_issue_jerarquia (
+    ancestro_key        VARCHAR(50)     NOT NULL,
+    descendiente_key    VARCHAR(50)     NOT NULL,
+    profundidad         INTEGER         NOT NULL,
+    squad_id            BIGINT          NOT NULL,
+    CONSTRAINT pk_jira_issue_jerarquia PRIMARY KEY (ancestro_key, descendiente_key),
+    CONSTRAINT fk_jira_issue_jerarquia_ancestro FOREIGN KEY (ancestro_key) REFERENCES jira_issue(jira_key) ON DELETE CASCADE,
+    CONSTRAINT fk_jira_issue_jerarquia_descendiente FOREIGN KEY (descendiente_key) REFERENCES jira_issue(jira_key) ON DELETE CASCADE,
+    CONSTRAINT chk_jira_issue_jerarquia_profundidad CHECK (profundidad >= 0)
+);
+
+CREATE INDEX idx_jira_issue_jerarquia_descendiente ON jira_issue_jerarquia(descendiente_key);
+CREATE INDEX idx_jira_issue_jerarquia_squad_ancestro ON jira_issue_jerarquia(squad_id, ancestro_key);
+
+COMMENT ON TABLE jira_issue_jerarquia IS 'Tabla de cierre de la jerarquía de issues Jira (parent_key): un registro por cada par ancestro-descendiente, incluida cada issue consigo misma';
+COMMENT ON COLUMN jira_issue_jerarquia.ancestro_key IS 'Clave de la issue ancestro (épica, historia...)';
+COMMENT ON COLUMN jira_issue_jerarquia.descendiente_key IS 'Clave de la issue descendiente';
+COMMENT ON COLUMN jira_issue_jerarquia.profundidad IS 'Niveles entre ancestro y descendiente: 0 la propia issue, 1 hijo directo';
+COMMENT ON COLUMN jira_issue_jerarquia.squad_id IS 'Squad de la issue ancestro, para los agregados por squad';
+
+WITH RECURSIVE caminos(ancestro, descendiente, profundidad, squad_id) AS (
+    SELECT i.jira_key, i.jira_key, 0, i.squad_id
+    FROM jira_issue i
+    UNION ALL
+    SELECT p.jira_key, c.descendiente, c.profundidad + 1, p.squad_id
+    FROM caminos c
+    JOIN jira_issue h ON h.jira_key = c.ancestro
+    JOIN jira_issue p ON p.jira_key = h.parent_key
+    WHERE c.profundidad < 10
+)
+INSERT INTO jira_issue_jerarquia (ancestro_key, descendiente_key, profundidad, squad_id)
+SELECT ancestro, descendiente, profundidad, squad_id FROM caminos
+ON CONFLICT DO NOTHING;
+
+--rollback DROP TABLE IF EXISTS jira_issue_jerarquia;
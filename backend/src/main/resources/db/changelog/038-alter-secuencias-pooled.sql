@@ -0,0 +1,100 @@
+--liquibase formatted sql
+
+--changeset kaos:038 labels:common
+--comment: Secuencias de id con INCREMENT BY 50 para el optimizador pooled de Hibernate (INSERT en lotes JDBC)
+
+-- Cada tabla conserva su secuencia BIGSERIAL (<tabla>_id_seq) y su DEFAULT nextval.
+-- Hibernate reserva con cada nextval el bloque de 50 ids que termina en el valor devuelto;
+-- el setval deja el siguiente nextval en MAX(id) + 100, así que el primer bloque empieza
+-- por encima de los ids existentes, que no cambian.
+
+ALTER SEQUENCE perfil_horario_id_seq INCREMENT BY 50;
+SELECT setval('perfil_horario_id_seq', COALESCE(MAX(id), 0) + 50) FROM perfil_horario;
+
+ALTER SEQUENCE squad_id_seq INCREMENT BY 50;
+SELECT setval('squad_id_seq', COALESCE(MAX(id), 0) + 50) FROM squad;
+
+ALTER SEQUENCE persona_id_seq INCREMENT BY 50;
+SELECT setval('persona_id_seq', COALESCE(MAX(id), 0) + 50) FROM persona;
+
+ALTER SEQUENCE squad_member_id_seq INCREMENT BY 50;
+SELECT setval('squad_member_id_seq', COALESCE(MAX(id), 0) + 50) FROM squad_member;
+
+ALTER SEQUENCE festivo_id_seq INCREMENT BY 50;
+SELECT setval('festivo_id_seq', COALESCE(MAX(id), 0) + 50) FROM festivo;
+
+ALTER SEQUENCE vacacion_id_seq INCREMENT BY 50;
+SELECT setval('vacacion_id_seq', COALESCE(MAX(id), 0) + 50) FROM vacacion;
+
+ALTER SEQUENCE ausencia_id_seq INCREMENT BY 50;
+SELECT setval('ausencia_id_seq', COALESCE(MAX(id), 0) + 50) FROM ausencia;
+
+ALTER SEQUENCE sprint_id_seq INCREMENT BY 50;
+SELECT setval('sprint_id_seq', COALESCE(MAX(id), 0) + 50) FROM sprint;
+
+ALTER SEQUENCE tarea_id_seq INCREMENT BY 50;
+SELECT setval('tarea_id_seq', COALESCE(MAX(id), 0) + 50) FROM tarea;
+
+ALTER SEQUENCE bloqueo_id_seq INCREMENT BY 50;
+SELECT setval('bloqueo_id_seq', COALESCE(MAX(id), 0) + 50) FROM bloqueo;
+
+ALTER SEQUENCE jira_config_id_seq INCREMENT BY 50;
+SELECT setval('jira_config_id_seq', COALESCE(MAX(id), 0) + 50) FROM jira_config;
+
+ALTER SEQUENCE jira_issue_id_seq INCREMENT BY 50;
+SELECT setval('jira_issue_id_seq', COALESCE(MAX(id), 0) + 50) FROM jira_issue;
+
+ALTER SEQUENCE jira_sync_status_id_seq INCREMENT BY 50;
+SELECT setval('jira_sync_status_id_seq', COALESCE(MAX(id), 0) + 50) FROM jira_sync_status;
+
+ALTER SEQUENCE jira_issue_type_config_id_seq INCREMENT BY 50;
+SELECT setval('jira_issue_type_config_id_seq', COALESCE(MAX(id), 0) + 50) FROM jira_issue_type_config;
+
+ALTER SEQUENCE jira_sync_ejecucion_id_seq INCREMENT BY 50;
+SELECT setval('jira_sync_ejecucion_id_seq', COALESCE(MAX(id), 0) + 50) FROM jira_sync_ejecucion;
+
+ALTER SEQUENCE jira_sync_marca_id_seq INCREMENT BY 50;
+SELECT setval('jira_sync_marca_id_seq', COALESCE(MAX(id), 0) + 50) FROM jira_sync_marca;
+
+ALTER SEQUENCE capacidad_dia_id_seq INCREMENT BY 50;
+SELECT setval('capacidad_dia_id_seq', COALESCE(MAX(id), 0) + 50) FROM capacidad_dia;
+
+ALTER SEQUENCE importacion_job_id_seq INCREMENT BY 50;
+SELECT setval('importacion_job_id_seq', COALESCE(MAX(id), 0) + 50) FROM importacion_job;
+
+--rollback ALTER SEQUENCE perfil_horario_id_seq INCREMENT BY 1;
+--rollback SELECT setval('perfil_horario_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM perfil_horario;
+--rollback ALTER SEQUENCE squad_id_seq INCREMENT BY 1;
+--rollback SELECT setval('squad_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM squad;
+--rollback ALTER SEQUENCE persona_id_seq INCREMENT BY 1;
+--rollback SELECT setval('persona_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM persona;
+--rollback ALTER SEQUENCE squad_member_id_seq INCREMENT BY 1;
+--rollback SELECT setval('squad_member_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM squad_member;
+--rollback ALTER SEQUENCE festivo_id_seq INCREMENT BY 1;
+--rollback SELECT setval('festivo_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM festivo;
+--rollback ALTER SEQUENCE vacacion_id_seq INCREMENT BY 1;
+--rollback SELECT setval('vacacion_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM vacacion;
+--rollback ALTER SEQUENCE ausencia_id_seq INCREMENT BY 1;
+--rollback SELECT setval('ausencia_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM ausencia;
+--rollback ALTER SEQUENCE sprint_id_seq INCREMENT BY 1;
+--rollback SELECT setval('sprint_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM sprint;
+--rollback ALTER SEQUENCE tarea_id_seq INCREMENT BY 1;
+--rollback SELECT setval('tarea_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM tarea;
+--rollback ALTER SEQUENCE bloqueo_id_seq INCREMENT BY 1;
+--rollback SELECT setval('bloqueo_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM bloqueo;
+--rollback ALTER SEQUENCE jira_config_id_seq INCREMENT BY 1;
+--rollback SELECT setval('jira_config_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM jira_config;
+--rollback ALTER SEQUENCE jira_issue_id_seq INCREMENT BY 1;
+--rollback SELECT setval('jira_issue_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM jira_issue;
+--rollback ALTER SEQUENCE jira_sync_status_id_seq INCREMENT BY 1;
+--rollback SELECT setval('jira_sync_status_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM jira_sync_status;
+--rollback ALTER SEQUENCE jira_issue_type_config_id_seq INCREMENT BY 1;
+--rollback SELECT setval('jira_issue_type_config_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM jira_issue_type_config;
+--rollback ALTER SEQUENCE jira_sync_ejecucion_id_seq INCREMENT BY 1;
+--rollback SELECT setval('jira_sync_ejecucion_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM jira_sync_ejecucion;
+--rollback ALTER SEQUENCE jira_sync_marca_id_seq INCREMENT BY 1;
+--rollback SELECT setval('jira_sync_marca_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM jira_sync_marca;
+--rollback ALTER SEQUENCE capacidad_dia_id_seq INCREMENT BY 1;
+--rollback SELECT setval('capacidad_dia_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM capacidad_dia;
+--rollback ALTER SEQUENCE importacion_job_id_seq INCREMENT BY 1;
+--rollback SELECT setval('importacion_job_id_seq', COALESCE(MAX(id), 0) + 1, false) FROM importacion_job;
@@ -0,0 +1,26 @@
+--liquibase formatted sql
+
+--changeset kaos:039 labels:calendario
+--preconditions onFail:HALT onError:HALT
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM vacacion a JOIN vacacion b ON a.persona_id = b.persona_id AND a.id < b.id AND daterange(a.fecha_inicio, a.fecha_fin, '[]') && daterange(b.fecha_inicio, b.fecha_fin, '[]')
+--precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM ausencia a JOIN ausencia b ON a.persona_id = b.persona_id AND a.id < b.id AND daterange(a.fecha_inicio, a.fecha_fin, '[]') && daterange(b.fecha_inicio, b.fecha_fin, '[]')
+--comment: Impedir en BD vacaciones o ausencias solapadas de una misma persona (restricciones de exclusión sobre daterange con índice GiST)
+
+-- Si la precondición falla hay solapamientos previos: localizarlos con la misma consulta
+-- (SELECT a.id, b.id ...) y corregirlos antes de aplicar este changeset.
+
+-- Igualdad de persona_id (BIGINT) dentro de un índice GiST
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Rangos cerrados [fecha_inicio, fecha_fin]; en ausencia, fecha_fin NULL = sin límite superior
+ALTER TABLE vacacion ADD CONSTRAINT excl_vacacion_persona_solape
+    EXCLUDE USING gist (persona_id WITH =, daterange(fecha_inicio, fecha_fin, '[]') WITH &&);
+
+ALTER TABLE ausencia ADD CONSTRAINT excl_ausencia_persona_solape
+    EXCLUDE USING gist (persona_id WITH =, daterange(fecha_inicio, fecha_fin, '[]') WITH &&);
+
+COMMENT ON CONSTRAINT excl_vacacion_persona_solape ON vacacion IS 'Una persona no puede tener dos vacaciones con días en común; su índice GiST sirve las búsquedas por persona y rango';
+COMMENT ON CONSTRAINT excl_ausencia_persona_solape ON ausencia IS 'Una persona no puede tener dos ausencias con días en común; su índice GiST sirve las búsquedas por persona y rango';
+
+--rollback ALTER TABLE ausencia DROP CONSTRAINT IF EXISTS excl_ausencia_persona_solape;
+--rollback ALTER TABLE vacacion DROP CONSTRAINT IF EXISTS excl_vacacion_persona_solape;
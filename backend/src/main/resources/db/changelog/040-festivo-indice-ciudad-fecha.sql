@@ -0,0 +1,16 @@
+--liquibase formatted sql
+
+--changeset kaos:040 labels:calendario
+--comment: Índice compuesto (ciudad, fecha) para el calendario de festivos por ciudad y rango de fechas
+
+-- Cubre las consultas "festivos de estas ciudades entre dos fechas": igualdad/IN sobre ciudad
+-- y rango sobre fecha. Solo leen ciudad y fecha, que están en el índice (index-only scan).
+CREATE INDEX idx_festivo_ciudad_fecha ON festivo(ciudad, fecha);
+
+COMMENT ON INDEX idx_festivo_ciudad_fecha IS 'Festivos de una o varias ciudades en un rango de fechas';
+
+-- idx_festivo_ciudad es prefijo del nuevo índice y queda redundante
+DROP INDEX IF EXISTS idx_festivo_ciudad;
+
+--rollback CREATE INDEX idx_festivo_ciudad ON festivo(ciudad);
+--rollback DROP INDEX IF EXISTS idx_festivo_ciudad_fecha;
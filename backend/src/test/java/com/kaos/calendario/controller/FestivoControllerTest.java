@@ -2,6 +2,7 @@ package com.kaos.calendario.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
@@ -27,12 +28,14 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.kaos.calendario.dto.FestivoCsvError;
-import com.kaos.calendario.dto.FestivoCsvUploadResponse;
 import com.kaos.calendario.dto.FestivoRequest;
 import com.kaos.calendario.dto.FestivoResponse;
 import com.kaos.calendario.entity.TipoFestivo;
 import com.kaos.calendario.service.FestivoService;
+import com.kaos.importacion.dto.ImportacionJobResponse;
+import com.kaos.importacion.entity.EstadoImportacion;
+import com.kaos.importacion.entity.TipoImportacion;
+import com.kaos.importacion.service.ImportacionJobService;
 import jakarta.persistence.EntityNotFoundException;
 
 /**
@@ -53,6 +56,9 @@ class FestivoControllerTest {
     @MockBean
     private FestivoService service;
 
+    @MockBean
+    private ImportacionJobService importacionJobService;
+
     private FestivoResponse createMockResponse(Long id, LocalDate fecha, String descripcion, TipoFestivo tipo, String ciudad) {
         return new FestivoResponse(
                 id,
@@ -369,8 +375,8 @@ class FestivoControllerTest {
     class CargaMasivaTests {
 
         @Test
-        @DisplayName("POST CSV válido retorna 200 con resumen")
-        void cargarCsv_archivoValido_retorna200() throws Exception {
+        @DisplayName("POST CSV válido encola la carga y retorna 202 con el job")
+        void cargarCsv_archivoValido_retorna202() throws Exception {
             // given
             String csvContent = """
                     2026-01-01,Año Nuevo,NACIONAL,juan.perez@kaos.com
@@ -385,50 +391,41 @@ class FestivoControllerTest {
                     csvContent.getBytes()
             );
 
-            FestivoCsvUploadResponse response = new FestivoCsvUploadResponse(3, 3, 0, List.of());
-            when(service.cargarCsv(any())).thenReturn(response);
+            ImportacionJobResponse response = new ImportacionJobResponse(
+                    5L, TipoImportacion.FESTIVOS_CSV, EstadoImportacion.PENDIENTE, "festivos.csv",
+                    null, 0, null, null, null, 0, null, null, null, null
+            );
+            when(importacionJobService.crear(eq(TipoImportacion.FESTIVOS_CSV), any(), isNull())).thenReturn(response);
 
             // when & then
             mockMvc.perform(multipart("/api/v1/festivos/carga-masiva")
                             .file(file))
-                    .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.totalProcesados").value(3))
-                    .andExpect(jsonPath("$.exitosos").value(3))
-                    .andExpect(jsonPath("$.errores").value(0));
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.id").value(5))
+                    .andExpect(jsonPath("$.tipo").value("FESTIVOS_CSV"))
+                    .andExpect(jsonPath("$.estado").value("PENDIENTE"))
+                    .andExpect(jsonPath("$.filasProcesadas").value(0));
 
-            verify(service).cargarCsv(any());
+            verify(importacionJobService).crear(eq(TipoImportacion.FESTIVOS_CSV), any(), isNull());
         }
 
         @Test
-        @DisplayName("POST CSV con errores retorna 200 con resumen de errores")
-        void cargarCsv_archivoConErrores_retorna200ConErrores() throws Exception {
+        @DisplayName("POST CSV con la cola llena retorna 409")
+        void cargarCsv_colaLlena_retorna409() throws Exception {
             // given
-            String csvContent = """
-                    2026-01-01,Año Nuevo,NACIONAL,juan.perez@kaos.com
-                    2026-05-01,Día del Trabajo,NACIONAL,noexiste@kaos.com
-                    """;
-
             MockMultipartFile file = new MockMultipartFile(
                     "file",
                     "festivos.csv",
                     "text/csv",
-                    csvContent.getBytes()
-            );
-
-            FestivoCsvUploadResponse response = new FestivoCsvUploadResponse(
-                    2, 1, 1,
-                    List.of(new FestivoCsvError(2, "Persona no encontrada: noexiste@kaos.com"))
+                    "2026-01-01,Año Nuevo,NACIONAL,juan.perez@kaos.com".getBytes()
             );
-            when(service.cargarCsv(any())).thenReturn(response);
+            when(importacionJobService.crear(eq(TipoImportacion.FESTIVOS_CSV), any(), isNull()))
+                    .thenThrow(new IllegalStateException("Cola de importaciones llena, inténtalo más tarde"));
 
             // when & then
             mockMvc.perform(multipart("/api/v1/festivos/carga-masiva")
                             .file(file))
-                    .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.totalProcesados").value(2))
-                    .andExpect(jsonPath("$.exitosos").value(1))
-                    .andExpect(jsonPath("$.errores").value(1))
-                    .andExpect(jsonPath("$.mensajesError[0]").value("Línea 2: Persona no encontrada: noexiste@kaos.com"));
+                    .andExpect(status().isConflict());
         }
 
         @Test
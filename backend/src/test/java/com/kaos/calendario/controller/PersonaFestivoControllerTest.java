@@ -21,7 +21,6 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.kaos.calendario.dto.FestivoResponse;
 import com.kaos.calendario.entity.TipoFestivo;
 import com.kaos.calendario.service.FestivoService;
-import com.kaos.persona.entity.Persona;
 import com.kaos.persona.repository.PersonaRepository;
 
 /**
@@ -48,15 +47,6 @@ class PersonaFestivoControllerTest {
                 LocalDateTime.now(), LocalDateTime.now());
     }
 
-    private Persona createMockPersona(Long id, String nombre, String email, String ciudad) {
-        Persona persona = new Persona();
-        persona.setId(id);
-        persona.setNombre(nombre);
-        persona.setEmail(email);
-        persona.setCiudad(ciudad);
-        return persona;
-    }
-
     // ══════════════════════════════════════════════════════════
     // GET /api/v1/personas/{personaId}/festivos - Listar festivos por ciudad
     // ══════════════════════════════════════════════════════════
@@ -70,13 +60,13 @@ class PersonaFestivoControllerTest {
         void listar_sinFiltros_retorna200() throws Exception {
             // given
             Long personaId = 1L;
-            Persona persona = createMockPersona(personaId, "Juan Pérez", "juan@email.com", "Zaragoza");
+            String ciudad = "Zaragoza";
             FestivoResponse f1 = createMockResponse(1L, LocalDate.of(2024, 12, 25), "Navidad",
                     TipoFestivo.NACIONAL, "Zaragoza");
             FestivoResponse f2 = createMockResponse(2L, LocalDate.of(2024, 1, 1), "Año Nuevo",
                     TipoFestivo.NACIONAL, "Zaragoza");
 
-            when(personaRepository.findById(personaId)).thenReturn(Optional.of(persona));
+            when(personaRepository.findCiudadById(personaId)).thenReturn(Optional.of(ciudad));
             when(service.listarPorCiudad("Zaragoza", null, null)).thenReturn(List.of(f1, f2));
 
             // when & then
@@ -87,7 +77,7 @@ class PersonaFestivoControllerTest {
                     .andExpect(jsonPath("$[0].descripcion").value("Navidad"))
                     .andExpect(jsonPath("$[1].descripcion").value("Año Nuevo"));
 
-            verify(personaRepository).findById(eq(personaId));
+            verify(personaRepository).findCiudadById(eq(personaId));
             verify(service).listarPorCiudad(eq("Zaragoza"), eq(null), eq(null));
         }
 
@@ -97,11 +87,11 @@ class PersonaFestivoControllerTest {
             // given
             Long personaId = 1L;
             LocalDate fechaInicio = LocalDate.of(2024, 7, 1);
-            Persona persona = createMockPersona(personaId, "Juan Pérez", "juan@email.com", "Valencia");
+            String ciudad = "Valencia";
             FestivoResponse f1 = createMockResponse(1L, LocalDate.of(2024, 12, 25), "Navidad",
                     TipoFestivo.NACIONAL, "Valencia");
 
-            when(personaRepository.findById(personaId)).thenReturn(Optional.of(persona));
+            when(personaRepository.findCiudadById(personaId)).thenReturn(Optional.of(ciudad));
             when(service.listarPorCiudad("Valencia", fechaInicio, null)).thenReturn(List.of(f1));
 
             // when & then
@@ -111,7 +101,7 @@ class PersonaFestivoControllerTest {
                     .andExpect(jsonPath("$.length()").value(1))
                     .andExpect(jsonPath("$[0].descripcion").value("Navidad"));
 
-            verify(personaRepository).findById(eq(personaId));
+            verify(personaRepository).findCiudadById(eq(personaId));
             verify(service).listarPorCiudad(eq("Valencia"), eq(fechaInicio), eq(null));
         }
 
@@ -121,11 +111,11 @@ class PersonaFestivoControllerTest {
             // given
             Long personaId = 1L;
             LocalDate fechaFin = LocalDate.of(2024, 12, 31);
-            Persona persona = createMockPersona(personaId, "Juan Pérez", "juan@email.com", "Temuco");
+            String ciudad = "Temuco";
             FestivoResponse f1 = createMockResponse(1L, LocalDate.of(2024, 12, 25), "Navidad",
                     TipoFestivo.NACIONAL, "Temuco");
 
-            when(personaRepository.findById(personaId)).thenReturn(Optional.of(persona));
+            when(personaRepository.findCiudadById(personaId)).thenReturn(Optional.of(ciudad));
             when(service.listarPorCiudad("Temuco", null, fechaFin)).thenReturn(List.of(f1));
 
             // when & then
@@ -135,7 +125,7 @@ class PersonaFestivoControllerTest {
                     .andExpect(jsonPath("$.length()").value(1))
                     .andExpect(jsonPath("$[0].descripcion").value("Navidad"));
 
-            verify(personaRepository).findById(eq(personaId));
+            verify(personaRepository).findCiudadById(eq(personaId));
             verify(service).listarPorCiudad(eq("Temuco"), eq(null), eq(fechaFin));
         }
 
@@ -146,11 +136,11 @@ class PersonaFestivoControllerTest {
             Long personaId = 1L;
             LocalDate fechaInicio = LocalDate.of(2024, 1, 1);
             LocalDate fechaFin = LocalDate.of(2024, 12, 31);
-            Persona persona = createMockPersona(personaId, "Juan Pérez", "juan@email.com", "Zaragoza");
+            String ciudad = "Zaragoza";
             FestivoResponse f1 = createMockResponse(1L, LocalDate.of(2024, 12, 25), "Navidad",
                     TipoFestivo.NACIONAL, "Zaragoza");
 
-            when(personaRepository.findById(personaId)).thenReturn(Optional.of(persona));
+            when(personaRepository.findCiudadById(personaId)).thenReturn(Optional.of(ciudad));
             when(service.listarPorCiudad("Zaragoza", fechaInicio, fechaFin)).thenReturn(List.of(f1));
 
             // when & then
@@ -161,7 +151,7 @@ class PersonaFestivoControllerTest {
                     .andExpect(jsonPath("$.length()").value(1))
                     .andExpect(jsonPath("$[0].descripcion").value("Navidad"));
 
-            verify(personaRepository).findById(eq(personaId));
+            verify(personaRepository).findCiudadById(eq(personaId));
             verify(service).listarPorCiudad(eq("Zaragoza"), eq(fechaInicio), eq(fechaFin));
         }
 
@@ -170,9 +160,9 @@ class PersonaFestivoControllerTest {
         void listar_sinFestivos_retornaListaVacia() throws Exception {
             // given
             Long personaId = 1L;
-            Persona persona = createMockPersona(personaId, "Juan Pérez", "juan@email.com", "Zaragoza");
+            String ciudad = "Zaragoza";
 
-            when(personaRepository.findById(personaId)).thenReturn(Optional.of(persona));
+            when(personaRepository.findCiudadById(personaId)).thenReturn(Optional.of(ciudad));
             when(service.listarPorCiudad("Zaragoza", null, null)).thenReturn(List.of());
 
             // when & then
@@ -181,7 +171,7 @@ class PersonaFestivoControllerTest {
                     .andExpect(jsonPath("$").isArray())
                     .andExpect(jsonPath("$.length()").value(0));
 
-            verify(personaRepository).findById(eq(personaId));
+            verify(personaRepository).findCiudadById(eq(personaId));
             verify(service).listarPorCiudad(eq("Zaragoza"), eq(null), eq(null));
         }
 
@@ -190,13 +180,13 @@ class PersonaFestivoControllerTest {
         void listar_personaInexistente_retorna404() throws Exception {
             // given
             Long personaId = 999L;
-            when(personaRepository.findById(personaId)).thenReturn(Optional.empty());
+            when(personaRepository.findCiudadById(personaId)).thenReturn(Optional.empty());
 
             // when & then
             mockMvc.perform(get("/api/v1/personas/{personaId}/festivos", personaId))
                     .andExpect(status().isNotFound());
 
-            verify(personaRepository).findById(eq(personaId));
+            verify(personaRepository).findCiudadById(eq(personaId));
         }
     }
 }
\ No newline at end of file
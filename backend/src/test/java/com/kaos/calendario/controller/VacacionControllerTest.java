@@ -1,5 +1,6 @@
 package com.kaos.calendario.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -16,9 +17,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -26,12 +29,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaos.calendario.dto.ParametrosImportacionExcel;
 import com.kaos.calendario.dto.VacacionRequest;
 import com.kaos.calendario.dto.VacacionResponse;
 import com.kaos.calendario.entity.EstadoVacacion;
 import com.kaos.calendario.entity.TipoVacacion;
 import com.kaos.calendario.service.ExcelImportService;
 import com.kaos.calendario.service.VacacionService;
+import com.kaos.importacion.dto.ImportacionJobResponse;
+import com.kaos.importacion.entity.EstadoImportacion;
+import com.kaos.importacion.entity.TipoImportacion;
+import com.kaos.importacion.service.ImportacionJobService;
 
 /**
  * Tests de integración para {@link VacacionController}.
@@ -54,6 +62,9 @@ class VacacionControllerTest {
     @MockBean
     private ExcelImportService excelImportService;
 
+    @MockBean
+    private ImportacionJobService importacionJobService;
+
     private VacacionResponse createMockResponse(Long id, Long personaId, LocalDate inicio, LocalDate fin, Integer dias) {
         return new VacacionResponse(
                 id,
@@ -412,7 +423,8 @@ class VacacionControllerTest {
                     2,
                     List.of(
                             new com.kaos.calendario.dto.ExcelAnalysisResponse.PersonaMatch(
-                                    "Alberto Rodriguez González", 1L, "Alberto Rodriguez González"
+                                    "Alberto Rodriguez González", 1L, "Alberto Rodriguez González",
+                                    "EXACTA", 1.0
                             )
                     ),
                     List.of("Persona Desconocida")
@@ -447,16 +459,12 @@ class VacacionControllerTest {
         }
 
         @Test
-        @DisplayName("POST /importar-excel — importación sin mappings")
+        @DisplayName("POST /importar-excel — sin mappings encola la importación y retorna 202")
         void importarExcel_sinMappings() throws Exception {
             // given
             byte[] excelContent = "fichero-mock".getBytes();
-            var importResponse = new com.kaos.calendario.dto.ExcelImportResponse(
-                    1, 2, 0, List.of(), List.of()
-            );
-
-            when(excelImportService.importarExcel(any(), eq(2026), any()))
-                    .thenReturn(importResponse);
+            when(importacionJobService.crear(eq(TipoImportacion.VACACIONES_EXCEL), any(), any()))
+                    .thenReturn(createJobResponse(7L));
 
             // when & then
             mockMvc.perform(multipart("/api/v1/vacaciones/importar-excel")
@@ -464,23 +472,24 @@ class VacacionControllerTest {
                             "file", "datos.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", excelContent
                     ))
                     .param("año", "2026"))
-                    .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.personasProcesadas").value(1))
-                    .andExpect(jsonPath("$.vacacionesCreadas").value(2));
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.id").value(7))
+                    .andExpect(jsonPath("$.tipo").value("VACACIONES_EXCEL"))
+                    .andExpect(jsonPath("$.estado").value("PENDIENTE"));
+
+            ArgumentCaptor<Object> parametros = ArgumentCaptor.forClass(Object.class);
+            verify(importacionJobService).crear(eq(TipoImportacion.VACACIONES_EXCEL), any(), parametros.capture());
+            assertThat(parametros.getValue()).isEqualTo(new ParametrosImportacionExcel(2026, Map.of()));
         }
 
         @Test
-        @DisplayName("POST /importar-excel — con mappings JSON")
+        @DisplayName("POST /importar-excel — con mappings JSON los pasa como parámetros del job")
         void importarExcel_conMappingsJSON() throws Exception {
             // given
             byte[] excelContent = "fichero-mock".getBytes();
             String mappingsJson = "{\"Alberto Rodriguez González\": 1}";
-            var importResponse = new com.kaos.calendario.dto.ExcelImportResponse(
-                    1, 3, 1, List.of(), List.of()
-            );
-
-            when(excelImportService.importarExcel(any(), eq(2026), any()))
-                    .thenReturn(importResponse);
+            when(importacionJobService.crear(eq(TipoImportacion.VACACIONES_EXCEL), any(), any()))
+                    .thenReturn(createJobResponse(8L));
 
             // when & then
             mockMvc.perform(multipart("/api/v1/vacaciones/importar-excel")
@@ -489,10 +498,13 @@ class VacacionControllerTest {
                     ))
                     .param("año", "2026")
                     .param("mappingsJson", mappingsJson))
-                    .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.personasProcesadas").value(1))
-                    .andExpect(jsonPath("$.vacacionesCreadas").value(3))
-                    .andExpect(jsonPath("$.ausenciasCreadas").value(1));
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.id").value(8));
+
+            ArgumentCaptor<Object> parametros = ArgumentCaptor.forClass(Object.class);
+            verify(importacionJobService).crear(eq(TipoImportacion.VACACIONES_EXCEL), any(), parametros.capture());
+            assertThat(parametros.getValue()).isEqualTo(
+                    new ParametrosImportacionExcel(2026, Map.of("Alberto Rodriguez González", 1L)));
         }
 
         @Test
@@ -509,26 +521,26 @@ class VacacionControllerTest {
         }
 
         @Test
-        @DisplayName("POST /importar-excel — personas no encontradas en response")
-        void importarExcel_personasNoEncontradas() throws Exception {
+        @DisplayName("POST /importar-excel — cola llena retorna 409")
+        void importarExcel_colaLlena() throws Exception {
             // given
-            byte[] excelContent = "fichero-mock".getBytes();
-            var importResponse = new com.kaos.calendario.dto.ExcelImportResponse(
-                    2, 3, 1, List.of("Persona Desconocida"), List.of()
-            );
-
-            when(excelImportService.importarExcel(any(), eq(2026), any()))
-                    .thenReturn(importResponse);
+            when(importacionJobService.crear(eq(TipoImportacion.VACACIONES_EXCEL), any(), any()))
+                    .thenThrow(new IllegalStateException("Cola de importaciones llena, inténtalo más tarde"));
 
             // when & then
             mockMvc.perform(multipart("/api/v1/vacaciones/importar-excel")
                     .file(new org.springframework.mock.web.MockMultipartFile(
-                            "file", "datos.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", excelContent
+                            "file", "datos.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "mock".getBytes()
                     ))
                     .param("año", "2026"))
-                    .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.personasNoEncontradas.length()").value(1))
-                    .andExpect(jsonPath("$.personasNoEncontradas[0]").value("Persona Desconocida"));
+                    .andExpect(status().isConflict());
+        }
+
+        private ImportacionJobResponse createJobResponse(Long id) {
+            return new ImportacionJobResponse(
+                    id, TipoImportacion.VACACIONES_EXCEL, EstadoImportacion.PENDIENTE, "datos.xlsx",
+                    null, 0, null, null, null, 0, null, null, null, null
+            );
         }
     }
 }
@@ -5,10 +5,12 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,10 +23,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import com.kaos.calendario.dto.AusenciaRequest;
 import com.kaos.calendario.dto.AusenciaResponse;
 import com.kaos.calendario.entity.Ausencia;
 import com.kaos.calendario.entity.TipoAusencia;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.calendario.mapper.AusenciaMapper;
 import com.kaos.calendario.repository.AusenciaRepository;
 import com.kaos.persona.entity.Persona;
@@ -47,6 +52,9 @@ class AusenciaServiceTest {
     @Mock
     private AusenciaMapper mapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AusenciaService service;
 
@@ -127,7 +135,7 @@ class AusenciaServiceTest {
 
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
             when(mapper.toEntity(request)).thenReturn(ausenciaIndefinida);
-            when(repository.save(any(Ausencia.class))).thenReturn(ausenciaIndefinida);
+            when(repository.saveAndFlush(any(Ausencia.class))).thenReturn(ausenciaIndefinida);
             when(mapper.toResponse(ausenciaIndefinida)).thenReturn(
                     new AusenciaResponse(1L, 1L, "Juan Pérez", 
                             LocalDate.of(2026, 3, 1), null, 
@@ -141,7 +149,7 @@ class AusenciaServiceTest {
             // then
             assertThat(result).isNotNull();
             assertThat(result.fechaFin()).isNull(); // Validar que fechaFin es null
-            verify(repository).save(argThat(a -> a.getFechaFin() == null));
+            verify(repository).saveAndFlush(argThat(a -> a.getFechaFin() == null));
         }
 
         @Test
@@ -150,7 +158,7 @@ class AusenciaServiceTest {
             // given
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
             when(mapper.toEntity(requestMock)).thenReturn(ausenciaMock);
-            when(repository.save(any(Ausencia.class))).thenReturn(ausenciaMock);
+            when(repository.saveAndFlush(any(Ausencia.class))).thenReturn(ausenciaMock);
             when(mapper.toResponse(ausenciaMock)).thenReturn(responseMock);
 
             // when
@@ -159,7 +167,7 @@ class AusenciaServiceTest {
             // then
             assertThat(result).isNotNull();
             assertThat(result.fechaFin()).isEqualTo(LocalDate.of(2026, 3, 15));
-            verify(repository).save(any(Ausencia.class));
+            verify(repository).saveAndFlush(any(Ausencia.class));
         }
 
         @Test
@@ -184,7 +192,12 @@ class AusenciaServiceTest {
             );
 
             when(repository.findById(1L)).thenReturn(Optional.of(ausenciaIndefinida));
-            when(repository.save(any(Ausencia.class))).thenAnswer(inv -> inv.getArgument(0));
+            // El mapper es un mock: se reproduce la copia de fechaFin que hace el real
+            doAnswer(inv -> {
+                inv.<Ausencia>getArgument(1).setFechaFin(updateRequest.fechaFin());
+                return null;
+            }).when(mapper).updateEntity(updateRequest, ausenciaIndefinida);
+            when(repository.saveAndFlush(any(Ausencia.class))).thenAnswer(inv -> inv.getArgument(0));
             when(mapper.toResponse(any())).thenReturn(responseMock);
 
             // when
@@ -192,7 +205,7 @@ class AusenciaServiceTest {
 
             // then
             verify(mapper).updateEntity(updateRequest, ausenciaIndefinida);
-            verify(repository).save(argThat(a -> a.getFechaFin() != null));
+            verify(repository).saveAndFlush(argThat(a -> a.getFechaFin() != null));
         }
 
         @Test
@@ -208,7 +221,7 @@ class AusenciaServiceTest {
             );
 
             when(repository.findById(1L)).thenReturn(Optional.of(ausenciaMock));
-            when(repository.save(any(Ausencia.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(repository.saveAndFlush(any(Ausencia.class))).thenAnswer(inv -> inv.getArgument(0));
             when(mapper.toResponse(any())).thenReturn(
                     new AusenciaResponse(1L, 1L, "Juan Pérez", 
                             LocalDate.of(2026, 3, 1), null, 
@@ -221,7 +234,7 @@ class AusenciaServiceTest {
 
             // then
             verify(mapper).updateEntity(updateRequest, ausenciaMock);
-            verify(repository).save(any(Ausencia.class));
+            verify(repository).saveAndFlush(any(Ausencia.class));
         }
 
         @Test
@@ -237,7 +250,7 @@ class AusenciaServiceTest {
             );
 
             when(repository.findById(1L)).thenReturn(Optional.of(ausenciaMock));
-            when(repository.save(any(Ausencia.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(repository.saveAndFlush(any(Ausencia.class))).thenAnswer(inv -> inv.getArgument(0));
             when(mapper.toResponse(any())).thenReturn(
                     new AusenciaResponse(1L, 1L, "Juan Pérez", 
                             LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 20), 
@@ -249,7 +262,7 @@ class AusenciaServiceTest {
             service.actualizar(1L, updateRequest);
 
             // then
-            verify(repository).save(any(Ausencia.class));
+            verify(repository).saveAndFlush(any(Ausencia.class));
         }
     }
 
@@ -278,7 +291,7 @@ class AusenciaServiceTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("fecha de fin debe ser posterior o igual");
 
-            verify(repository, never()).save(any());
+            verify(repository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -300,7 +313,7 @@ class AusenciaServiceTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("fecha de fin debe ser posterior o igual");
 
-            verify(repository, never()).save(any());
+            verify(repository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -317,7 +330,7 @@ class AusenciaServiceTest {
 
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
             when(mapper.toEntity(request)).thenReturn(ausenciaMock);
-            when(repository.save(any(Ausencia.class))).thenReturn(ausenciaMock);
+            when(repository.saveAndFlush(any(Ausencia.class))).thenReturn(ausenciaMock);
             when(mapper.toResponse(ausenciaMock)).thenReturn(responseMock);
 
             // when & then
@@ -325,6 +338,34 @@ class AusenciaServiceTest {
         }
     }
 
+    // ══════════════════════════════════════════════════════════
+    // SOLAPAMIENTO
+    // ══════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Solapamiento")
+    class SolapamientoTests {
+
+        @Test
+        @DisplayName("crear() solapada con otra ausencia: la restricción de exclusión se traduce a IllegalArgumentException")
+        void crear_conSolapamiento_lanzaExcepcion() {
+            // given
+            when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
+            when(mapper.toEntity(requestMock)).thenReturn(ausenciaMock);
+            when(repository.saveAndFlush(any(Ausencia.class))).thenThrow(new DataIntegrityViolationException(
+                    "could not execute statement",
+                    new SQLException("ERROR: conflicting key value violates exclusion constraint \""
+                            + AusenciaService.RESTRICCION_SOLAPE + "\"", "23P01")));
+
+            // when & then
+            assertThatThrownBy(() -> service.crear(requestMock))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Ya existe una ausencia para esta persona");
+
+            verify(eventPublisher, never()).publishEvent(any(CapacidadInvalidadaEvent.class));
+        }
+    }
+
     // ══════════════════════════════════════════════════════════
     // CRUD BÁSICO
     // ══════════════════════════════════════════════════════════
@@ -352,7 +393,7 @@ class AusenciaServiceTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Persona no encontrada: 999");
 
-            verify(repository, never()).save(any());
+            verify(repository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -394,7 +435,7 @@ class AusenciaServiceTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Ausencia no encontrada: 999");
 
-            verify(repository, never()).save(any());
+            verify(repository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -410,7 +451,7 @@ class AusenciaServiceTest {
             );
 
             when(repository.findById(1L)).thenReturn(Optional.of(ausenciaMock));
-            when(repository.save(any(Ausencia.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(repository.saveAndFlush(any(Ausencia.class))).thenAnswer(inv -> inv.getArgument(0));
             when(mapper.toResponse(any())).thenReturn(
                     new AusenciaResponse(1L, 1L, "Juan Pérez", 
                             LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 15), 
@@ -423,36 +464,35 @@ class AusenciaServiceTest {
 
             // then
             verify(mapper).updateEntity(updateRequest, ausenciaMock);
-            verify(repository).save(any(Ausencia.class));
+            verify(repository).saveAndFlush(any(Ausencia.class));
         }
 
         @Test
         @DisplayName("eliminar() ausencia existente elimina correctamente")
         void eliminar_ausenciaExistente_eliminaCorrectamente() {
             // given
-            when(repository.existsById(1L)).thenReturn(true);
-            doNothing().when(repository).deleteById(1L);
+            when(repository.findById(1L)).thenReturn(Optional.of(ausenciaMock));
 
             // when
             service.eliminar(1L);
 
             // then
-            verify(repository).existsById(1L);
-            verify(repository).deleteById(1L);
+            verify(repository).delete(ausenciaMock);
+            verify(eventPublisher).publishEvent(any(CapacidadInvalidadaEvent.class));
         }
 
         @Test
         @DisplayName("eliminar() ausencia inexistente lanza excepción")
         void eliminar_ausenciaNoExiste_lanzaExcepcion() {
             // given
-            when(repository.existsById(999L)).thenReturn(false);
+            when(repository.findById(999L)).thenReturn(Optional.empty());
 
             // when & then
             assertThatThrownBy(() -> service.eliminar(999L))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Ausencia no encontrada: 999");
 
-            verify(repository, never()).deleteById(any());
+            verify(repository, never()).delete(any());
         }
     }
 
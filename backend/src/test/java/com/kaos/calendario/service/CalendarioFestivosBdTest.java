@@ -0,0 +1,167 @@
+package com.kaos.calendario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.kaos.calendario.dto.FechaFestivoCiudad;
+import com.kaos.calendario.dto.FestivoResponse;
+import com.kaos.calendario.entity.Festivo;
+import com.kaos.calendario.entity.TipoFestivo;
+import com.kaos.calendario.mapper.FestivoMapper;
+import com.kaos.calendario.repository.FestivoRepository;
+
+/**
+ * Tests unitarios para {@link CalendarioFestivosBd}.
+ * Valida que las consultas llegan a la BD como rangos cerrados sobre ciudad y fecha
+ * (sin predicados {@code IS NULL}) y el reparto de fechas por ciudad.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CalendarioFestivosBd Tests")
+class CalendarioFestivosBdTest {
+
+    @Mock
+    private FestivoRepository repository;
+
+    @Mock
+    private FestivoMapper mapper;
+
+    @InjectMocks
+    private CalendarioFestivosBd calendario;
+
+    private static FechaFestivoCiudad fecha(String ciudad, LocalDate fecha) {
+        return new FechaFestivoCiudad() {
+            @Override
+            public String getCiudad() {
+                return ciudad;
+            }
+
+            @Override
+            public LocalDate getFecha() {
+                return fecha;
+            }
+        };
+    }
+
+    @Nested
+    @DisplayName("festivosPorCiudad()")
+    class FestivosPorCiudadTests {
+
+        @Test
+        @DisplayName("Reparte las fechas por ciudad e incluye vacías las ciudades sin festivos")
+        void festivosPorCiudad_reparteYCompletaCiudades() {
+            LocalDate desde = LocalDate.of(2026, 1, 1);
+            LocalDate hasta = LocalDate.of(2026, 12, 31);
+            when(repository.findFestivosPorCiudad(any(), any(), any())).thenCallRealMethod();
+            when(repository.findFechasByCiudadInAndFechaRange(Set.of("Zaragoza", "Madrid", "Temuco"), desde, hasta))
+                    .thenReturn(List.of(
+                            fecha("Zaragoza", LocalDate.of(2026, 1, 29)),
+                            fecha("Madrid", LocalDate.of(2026, 5, 15)),
+                            fecha("Zaragoza", LocalDate.of(2026, 4, 23))));
+
+            var resultado = calendario.festivosPorCiudad(List.of("Zaragoza", "Madrid", "Temuco"), desde, hasta);
+
+            assertThat(resultado).containsOnlyKeys("Zaragoza", "Madrid", "Temuco");
+            assertThat(resultado.get("Zaragoza"))
+                    .containsExactlyInAnyOrder(LocalDate.of(2026, 1, 29), LocalDate.of(2026, 4, 23));
+            assertThat(resultado.get("Madrid")).containsExactly(LocalDate.of(2026, 5, 15));
+            assertThat(resultado.get("Temuco")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Sin ciudades no consulta la BD")
+        void festivosPorCiudad_sinCiudades_noConsulta() {
+            when(repository.findFestivosPorCiudad(any(), any(), any())).thenCallRealMethod();
+
+            assertThat(calendario.festivosPorCiudad(List.of(), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)))
+                    .isEmpty();
+            verify(repository, never()).findFechasByCiudadInAndFechaRange(any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("esFestivo() / contarFestivos() / contarFestivosLaborables()")
+    class RecuentoTests {
+
+        private final LocalDate desde = LocalDate.of(2026, 3, 30);
+        private final LocalDate hasta = LocalDate.of(2026, 4, 5);
+
+        @Test
+        @DisplayName("Cuenta fechas distintas y solo las de lunes a viernes como laborables")
+        void contar_fechasDistintasYLaborables() {
+            when(repository.findFestivosPorCiudad(any(), any(), any())).thenCallRealMethod();
+            when(repository.findFechasByCiudadInAndFechaRange(Set.of("Zaragoza"), desde, hasta))
+                    .thenReturn(List.of(
+                            fecha("Zaragoza", LocalDate.of(2026, 4, 2)),
+                            fecha("Zaragoza", LocalDate.of(2026, 4, 2)),
+                            fecha("Zaragoza", LocalDate.of(2026, 4, 3)),
+                            fecha("Zaragoza", LocalDate.of(2026, 4, 5))));
+
+            assertThat(calendario.contarFestivos("Zaragoza", desde, hasta)).isEqualTo(3);
+            assertThat(calendario.contarFestivosLaborables("Zaragoza", desde, hasta)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("esFestivo consulta solo ese día")
+        void esFestivo_consultaUnDia() {
+            LocalDate jueves = LocalDate.of(2026, 4, 2);
+            when(repository.findFestivosPorCiudad(any(), any(), any())).thenCallRealMethod();
+            when(repository.findFechasByCiudadInAndFechaRange(Set.of("Zaragoza"), jueves, jueves))
+                    .thenReturn(List.of(fecha("Zaragoza", jueves)));
+
+            assertThat(calendario.esFestivo("Zaragoza", jueves)).isTrue();
+            assertThat(calendario.esFestivo("Madrid", jueves)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Sin ciudad o con rango vacío no consulta la BD")
+        void contar_sinCiudadORangoVacio_noConsulta() {
+            assertThat(calendario.contarFestivos(null, desde, hasta)).isZero();
+            assertThat(calendario.contarFestivosLaborables("Zaragoza", hasta, desde)).isZero();
+            verify(repository, never()).findFechasByCiudadInAndFechaRange(any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("listar()")
+    class ListarTests {
+
+        @Test
+        @DisplayName("Los extremos nulos se consultan como límites fijos, no como IS NULL")
+        void listar_sinLimites_usaRangoCerrado() {
+            Festivo festivo = new Festivo();
+            FestivoResponse response = new FestivoResponse(1L, LocalDate.of(2026, 1, 29), "San Valero",
+                    TipoFestivo.LOCAL, "Zaragoza", null, null);
+            when(repository.findByCiudadAndFechaRange(any(), any(), any())).thenCallRealMethod();
+            when(repository.findByCiudadAndFechaBetween("Zaragoza",
+                    FestivoRepository.SIN_LIMITE_INICIO, FestivoRepository.SIN_LIMITE_FIN)).thenReturn(List.of(festivo));
+            when(mapper.toResponseList(List.of(festivo))).thenReturn(List.of(response));
+
+            assertThat(calendario.listar("Zaragoza", null, null)).containsExactly(response);
+        }
+
+        @Test
+        @DisplayName("Con extremos se consulta el rango pedido")
+        void listar_conLimites_usaRangoPedido() {
+            LocalDate desde = LocalDate.of(2026, 3, 1);
+            LocalDate hasta = LocalDate.of(2026, 3, 31);
+            when(repository.findByCiudadAndFechaRange(any(), any(), any())).thenCallRealMethod();
+            when(repository.findByCiudadAndFechaBetween("Madrid", desde, hasta)).thenReturn(List.of());
+            when(mapper.toResponseList(List.of())).thenReturn(List.of());
+
+            assertThat(calendario.listar("Madrid", desde, hasta)).isEmpty();
+            verify(repository).findByCiudadAndFechaBetween("Madrid", desde, hasta);
+        }
+    }
+}
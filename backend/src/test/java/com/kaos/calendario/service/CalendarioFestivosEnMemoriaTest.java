@@ -0,0 +1,184 @@
+package com.kaos.calendario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.kaos.calendario.dto.FestivoResponse;
+import com.kaos.calendario.entity.Festivo;
+import com.kaos.calendario.entity.TipoFestivo;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
+import com.kaos.calendario.mapper.FestivoMapper;
+import com.kaos.calendario.repository.FestivoRepository;
+
+/**
+ * Tests unitarios para {@link CalendarioFestivosEnMemoria}.
+ * Valida las consultas sobre la instantánea en memoria y su recarga tras cambios en festivos.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CalendarioFestivosEnMemoria Tests - Instantánea de festivos por ciudad")
+class CalendarioFestivosEnMemoriaTest {
+
+    private static final LocalDate ANIO_NUEVO = LocalDate.of(2026, 1, 1);     // jueves
+    private static final LocalDate REYES = LocalDate.of(2026, 1, 6);          // martes
+    private static final LocalDate SAN_VALERO = LocalDate.of(2026, 1, 29);    // jueves
+    private static final LocalDate SABADO = LocalDate.of(2026, 1, 31);
+
+    @Mock
+    private FestivoRepository repository;
+
+    @Mock
+    private FestivoMapper mapper;
+
+    @InjectMocks
+    private CalendarioFestivosEnMemoria calendario;
+
+    private static FestivoResponse festivo(long id, LocalDate fecha, String descripcion, String ciudad) {
+        return new FestivoResponse(id, fecha, descripcion, TipoFestivo.LOCAL, ciudad, null, null);
+    }
+
+    /** Hace que la próxima lectura de BD devuelva estos festivos. */
+    private void enBd(FestivoResponse... festivos) {
+        List<Festivo> entidades = List.of(new Festivo());
+        when(repository.findAll()).thenReturn(entidades);
+        when(mapper.toResponseList(entidades)).thenReturn(List.of(festivos));
+    }
+
+    private void calendarioZaragozaYMadrid() {
+        enBd(
+                festivo(3L, SAN_VALERO, "San Valero", "Zaragoza"),
+                festivo(1L, ANIO_NUEVO, "Año Nuevo", "Zaragoza"),
+                festivo(2L, REYES, "Reyes", "Zaragoza"),
+                festivo(4L, SABADO, "Festivo en sábado", "Zaragoza"),
+                festivo(5L, REYES, "Otro festivo el mismo día", "Zaragoza"),
+                festivo(6L, ANIO_NUEVO, "Año Nuevo", "Madrid"));
+    }
+
+    // ══════════════════════════════════════════════════════════
+    // CONSULTAS
+    // ══════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Consultas sobre la instantánea")
+    class ConsultasTests {
+
+        @Test
+        @DisplayName("esFestivo() solo en la ciudad del festivo")
+        void esFestivo_porCiudad() {
+            calendarioZaragozaYMadrid();
+
+            assertThat(calendario.esFestivo("Zaragoza", SAN_VALERO)).isTrue();
+            assertThat(calendario.esFestivo("Madrid", SAN_VALERO)).isFalse();
+            assertThat(calendario.esFestivo("Temuco", ANIO_NUEVO)).isFalse();
+            assertThat(calendario.esFestivo("Zaragoza", LocalDate.of(2026, 1, 2))).isFalse();
+        }
+
+        @Test
+        @DisplayName("contarFestivos() cuenta días en el rango inclusive, sin repetir días")
+        void contarFestivos_rangoInclusive() {
+            calendarioZaragozaYMadrid();
+
+            assertThat(calendario.contarFestivos("Zaragoza", ANIO_NUEVO, SABADO)).isEqualTo(4);
+            assertThat(calendario.contarFestivos("Zaragoza", REYES, REYES)).isEqualTo(1);
+            assertThat(calendario.contarFestivos("Zaragoza", LocalDate.of(2026, 1, 2), LocalDate.of(2026, 1, 5))).isZero();
+            assertThat(calendario.contarFestivos("Temuco", ANIO_NUEVO, SABADO)).isZero();
+        }
+
+        @Test
+        @DisplayName("contarFestivosLaborables() descarta los festivos en fin de semana")
+        void contarFestivosLaborables_sinFinesDeSemana() {
+            calendarioZaragozaYMadrid();
+
+            assertThat(calendario.contarFestivosLaborables("Zaragoza", ANIO_NUEVO, SABADO)).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("festivosPorCiudad() incluye todas las ciudades pedidas, vacías si no hay festivos")
+        void festivosPorCiudad_todasLasCiudades() {
+            calendarioZaragozaYMadrid();
+
+            Map<String, Set<LocalDate>> festivos = calendario.festivosPorCiudad(
+                    List.of("Zaragoza", "Temuco"), REYES, LocalDate.of(2026, 12, 31));
+
+            assertThat(festivos).containsOnlyKeys("Zaragoza", "Temuco");
+            assertThat(festivos.get("Zaragoza")).containsExactlyInAnyOrder(REYES, SAN_VALERO, SABADO);
+            assertThat(festivos.get("Temuco")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("listar() devuelve los festivos de la ciudad ordenados por fecha")
+        void listar_ordenadosPorFecha() {
+            calendarioZaragozaYMadrid();
+
+            assertThat(calendario.listar("Zaragoza", REYES, SAN_VALERO))
+                .extracting(FestivoResponse::id)
+                .containsExactly(2L, 5L, 3L);
+        }
+
+        @Test
+        @DisplayName("listar() sin límites devuelve todos; ciudad sin festivos, lista vacía")
+        void listar_sinLimites() {
+            calendarioZaragozaYMadrid();
+
+            assertThat(calendario.listar("Zaragoza", null, null)).hasSize(5);
+            assertThat(calendario.listar("Zaragoza", null, ANIO_NUEVO)).extracting(FestivoResponse::id).containsExactly(1L);
+            assertThat(calendario.listar("Temuco", null, null)).isEmpty();
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════
+    // RECARGA
+    // ══════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Carga y recarga")
+    class RecargaTests {
+
+        @Test
+        @DisplayName("Se carga una sola vez en el primer uso")
+        void primerUso_cargaUnaVez() {
+            calendarioZaragozaYMadrid();
+
+            calendario.esFestivo("Zaragoza", ANIO_NUEVO);
+            calendario.contarFestivos("Madrid", ANIO_NUEVO, SABADO);
+
+            verify(repository, times(1)).findAll();
+        }
+
+        @Test
+        @DisplayName("Un cambio en los festivos de una ciudad sustituye la instantánea")
+        void cambioDeCiudad_recarga() {
+            enBd(festivo(1L, ANIO_NUEVO, "Año Nuevo", "Zaragoza"));
+            calendario.alArrancar();
+            assertThat(calendario.esFestivo("Zaragoza", SAN_VALERO)).isFalse();
+
+            enBd(festivo(1L, ANIO_NUEVO, "Año Nuevo", "Zaragoza"), festivo(3L, SAN_VALERO, "San Valero", "Zaragoza"));
+            calendario.onCapacidadInvalidada(CapacidadInvalidadaEvent.deCiudad("Zaragoza", SAN_VALERO));
+
+            assertThat(calendario.esFestivo("Zaragoza", SAN_VALERO)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Cambios que no son de festivos no recargan")
+        void cambioDePersona_noRecarga() {
+            calendarioZaragozaYMadrid();
+            calendario.alArrancar();
+
+            calendario.onCapacidadInvalidada(CapacidadInvalidadaEvent.dePersona(1L));
+            calendario.onCapacidadInvalidada(CapacidadInvalidadaEvent.deSquad(1L));
+
+            verify(repository, times(1)).findAll();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.kaos.calendario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.kaos.calendario.entity.Ausencia;
+import com.kaos.calendario.entity.MotivoReduccion;
+import com.kaos.calendario.entity.Vacacion;
+
+/**
+ * Tests unitarios para {@link CalendarioLaboral}.
+ * Valida el mapa de bits anual y el recuento de días laborables por rango.
+ */
+@DisplayName("CalendarioLaboral Tests - Mapa de bits anual")
+class CalendarioLaboralTest {
+
+    @Test
+    @DisplayName("Año sin reducciones: solo se descuentan fines de semana")
+    void contarLaborables_anioCompleto_soloFinesSemana() {
+        CalendarioLaboral cal = CalendarioLaboral.construir(2026, Set.of(), List.of(), List.of());
+
+        // 2026: 365 días, empieza en jueves → 261 laborables
+        assertThat(cal.contarLaborables(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31))).isEqualTo(261);
+    }
+
+    @Test
+    @DisplayName("Año bisiesto que empieza en domingo marca el 1 de enero como fin de semana")
+    void motivoReduccion_anioBisiestoEmpiezaEnDomingo() {
+        CalendarioLaboral cal = CalendarioLaboral.construir(2012, Set.of(), List.of(), List.of());
+
+        assertThat(cal.motivoReduccion(LocalDate.of(2012, 1, 1))).isEqualTo(MotivoReduccion.FIN_SEMANA);
+        assertThat(cal.esLaborable(LocalDate.of(2012, 12, 31))).isTrue();
+        assertThat(cal.contarLaborables(LocalDate.of(2012, 1, 1), LocalDate.of(2012, 12, 31))).isEqualTo(261);
+    }
+
+    @Test
+    @DisplayName("Prioridad de motivos: fin de semana > festivo > vacación > ausencia")
+    void motivoReduccion_respetaPrioridad() {
+        LocalDate martes = LocalDate.of(2026, 3, 10);
+        LocalDate sabado = LocalDate.of(2026, 3, 14);
+
+        Vacacion vacacion = Vacacion.builder().fechaInicio(martes).fechaFin(sabado).build();
+        Ausencia ausencia = Ausencia.builder().fechaInicio(martes.minusDays(1)).fechaFin(null).build();
+
+        CalendarioLaboral cal = CalendarioLaboral.construir(
+                2026, Set.of(martes), List.of(vacacion), List.of(ausencia));
+
+        assertThat(cal.motivoReduccion(martes)).isEqualTo(MotivoReduccion.FESTIVO);
+        assertThat(cal.motivoReduccion(martes.plusDays(1))).isEqualTo(MotivoReduccion.VACACION);
+        assertThat(cal.motivoReduccion(sabado)).isEqualTo(MotivoReduccion.FIN_SEMANA);
+        assertThat(cal.motivoReduccion(martes.minusDays(1))).isEqualTo(MotivoReduccion.AUSENCIA);
+        assertThat(cal.motivoReduccion(martes.minusDays(2))).isEqualTo(MotivoReduccion.FIN_SEMANA);
+        assertThat(cal.motivoReduccion(martes.minusDays(4))).isNull();
+    }
+
+    @Test
+    @DisplayName("Ausencia indefinida bloquea hasta fin de año")
+    void contarLaborables_ausenciaIndefinida() {
+        Ausencia baja = Ausencia.builder().fechaInicio(LocalDate.of(2026, 12, 1)).fechaFin(null).build();
+
+        CalendarioLaboral cal = CalendarioLaboral.construir(2026, Set.of(), List.of(), List.of(baja));
+
+        assertThat(cal.contarLaborables(LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 31))).isZero();
+        assertThat(cal.contarLaborables(LocalDate.of(2026, 11, 30), LocalDate.of(2026, 11, 30))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Rangos que cruzan el año se recortan a sus límites")
+    void construir_rangosEntreAnios_seRecortan() {
+        Vacacion navidad = Vacacion.builder()
+                .fechaInicio(LocalDate.of(2025, 12, 22))
+                .fechaFin(LocalDate.of(2026, 1, 9))
+                .build();
+
+        CalendarioLaboral cal = CalendarioLaboral.construir(2026, Set.of(), List.of(navidad), List.of());
+
+        // 1-9 enero 2026: jue, vie y lun-vie → 7 laborables, todos de vacación
+        assertThat(cal.contarLaborables(LocalDate.of(2025, 12, 1), LocalDate.of(2026, 1, 9))).isZero();
+        assertThat(cal.contarLaborables(LocalDate.of(2026, 1, 12), LocalDate.of(2027, 3, 1))).isEqualTo(254);
+    }
+
+    @Test
+    @DisplayName("Recuento cruzando palabras de 64 bits coincide con el recorrido día a día")
+    void contarLaborables_coincideConRecorridoDiario() {
+        CalendarioLaboral cal = CalendarioLaboral.construir(
+                2026, Set.of(LocalDate.of(2026, 3, 19), LocalDate.of(2026, 5, 1)), List.of(), List.of());
+
+        LocalDate desde = LocalDate.of(2026, 2, 20);
+        LocalDate hasta = LocalDate.of(2026, 7, 15);
+        int esperado = 0;
+        for (LocalDate d = desde; !d.isAfter(hasta); d = d.plusDays(1)) {
+            if (cal.esLaborable(d)) {
+                esperado++;
+            }
+        }
+
+        assertThat(cal.contarLaborables(desde, hasta)).isEqualTo(esperado);
+    }
+
+    @Test
+    @DisplayName("Consultar una fecha de otro año lanza excepción")
+    void esLaborable_fechaFueraDeAnio_lanzaExcepcion() {
+        CalendarioLaboral cal = CalendarioLaboral.construir(2026, Set.of(), List.of(), List.of());
+
+        assertThatThrownBy(() -> cal.esLaborable(LocalDate.of(2027, 1, 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
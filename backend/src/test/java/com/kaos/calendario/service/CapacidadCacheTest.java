@@ -0,0 +1,144 @@
+package com.kaos.calendario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
+
+/**
+ * Tests unitarios para {@link CapacidadCache}.
+ * Valida aciertos/fallos, tamaño acotado e invalidación selectiva por evento.
+ */
+@DisplayName("CapacidadCache Tests - Caché por squad y año")
+class CapacidadCacheTest {
+
+    private final AtomicInteger construcciones = new AtomicInteger();
+
+    @Nested
+    @DisplayName("obtener() - Aciertos y fallos")
+    class ObtenerTests {
+
+        @Test
+        @DisplayName("Segunda consulta del mismo squad y año no reconstruye")
+        void obtener_mismaClave_acierta() {
+            CapacidadCache cache = new CapacidadCache(true, 10);
+
+            cache.obtener(1L, 2026, () -> capacidad(1L, 2026, 10L, "Zaragoza", 1L));
+            cache.obtener(1L, 2026, () -> capacidad(1L, 2026, 10L, "Zaragoza", 1L));
+
+            assertThat(construcciones).hasValue(1);
+            assertThat(cache.getAciertos()).isEqualTo(1);
+            assertThat(cache.getFallos()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Caché desactivada construye siempre")
+        void obtener_deshabilitada_construyeSiempre() {
+            CapacidadCache cache = new CapacidadCache(false, 10);
+
+            cache.obtener(1L, 2026, () -> capacidad(1L, 2026, 10L, "Zaragoza", 1L));
+            cache.obtener(1L, 2026, () -> capacidad(1L, 2026, 10L, "Zaragoza", 1L));
+
+            assertThat(construcciones).hasValue(2);
+            assertThat(cache.tamanio()).isZero();
+        }
+
+        @Test
+        @DisplayName("Superado el máximo se desaloja la entrada menos usada")
+        void obtener_superaMaximo_desalojaLru() {
+            CapacidadCache cache = new CapacidadCache(true, 2);
+
+            cache.obtener(1L, 2026, () -> capacidad(1L, 2026, 10L, "Zaragoza", 1L));
+            cache.obtener(2L, 2026, () -> capacidad(2L, 2026, 20L, "Madrid", 1L));
+            cache.obtener(1L, 2026, () -> capacidad(1L, 2026, 10L, "Zaragoza", 1L));
+            cache.obtener(3L, 2026, () -> capacidad(3L, 2026, 30L, "Madrid", 1L));
+
+            assertThat(cache.tamanio()).isEqualTo(2);
+            assertThat(cache.getDesalojos()).isEqualTo(1);
+
+            // squad 1 se usó recientemente y sigue en caché; squad 2 fue desalojado
+            cache.obtener(1L, 2026, () -> capacidad(1L, 2026, 10L, "Zaragoza", 1L));
+            cache.obtener(2L, 2026, () -> capacidad(2L, 2026, 20L, "Madrid", 1L));
+            assertThat(construcciones).hasValue(4);
+        }
+
+        @Test
+        @DisplayName("Invalidación durante la construcción impide guardar el resultado")
+        void obtener_invalidacionConcurrente_noGuarda() {
+            CapacidadCache cache = new CapacidadCache(true, 10);
+
+            cache.obtener(1L, 2026, () -> {
+                cache.onCapacidadInvalidada(CapacidadInvalidadaEvent.deSquad(1L));
+                return capacidad(1L, 2026, 10L, "Zaragoza", 1L);
+            });
+
+            assertThat(cache.tamanio()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("onCapacidadInvalidada() - Invalidación selectiva")
+    class InvalidacionTests {
+
+        @Test
+        @DisplayName("Vacación de una persona invalida solo sus squads en los años afectados")
+        void invalidar_persona_soloSquadsYAniosAfectados() {
+            CapacidadCache cache = cacheConTresEntradas();
+
+            cache.onCapacidadInvalidada(CapacidadInvalidadaEvent.dePersona(
+                    10L, LocalDate.of(2026, 8, 1), LocalDate.of(2026, 8, 15)));
+
+            assertThat(cache.tamanio()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Festivo de una ciudad invalida los squads con miembros en esa ciudad")
+        void invalidar_ciudad_soloSquadsDeEsaCiudad() {
+            CapacidadCache cache = cacheConTresEntradas();
+
+            cache.onCapacidadInvalidada(CapacidadInvalidadaEvent.deCiudad("Madrid", LocalDate.of(2026, 5, 2)));
+
+            assertThat(cache.tamanio()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Cambio de squad invalida todos sus años")
+        void invalidar_squad_todosLosAnios() {
+            CapacidadCache cache = cacheConTresEntradas();
+
+            cache.onCapacidadInvalidada(CapacidadInvalidadaEvent.deSquad(1L));
+
+            assertThat(cache.tamanio()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Ausencia indefinida invalida desde su año en adelante")
+        void invalidar_ausenciaIndefinida_aniosPosteriores() {
+            CapacidadCache cache = cacheConTresEntradas();
+
+            cache.onCapacidadInvalidada(CapacidadInvalidadaEvent.dePersona(10L, LocalDate.of(2025, 12, 1), null));
+
+            assertThat(cache.tamanio()).isEqualTo(1);
+        }
+
+        private CapacidadCache cacheConTresEntradas() {
+            CapacidadCache cache = new CapacidadCache(true, 10);
+            cache.obtener(1L, 2026, () -> capacidad(1L, 2026, 10L, "Zaragoza", 1L));
+            cache.obtener(1L, 2027, () -> capacidad(1L, 2027, 10L, "Zaragoza", 1L));
+            cache.obtener(2L, 2026, () -> capacidad(2L, 2026, 20L, "Madrid", 2L));
+            return cache;
+        }
+    }
+
+    private CapacidadSquadAnio capacidad(Long squadId, int anio, Long personaId, String ciudad, Long perfilId) {
+        construcciones.incrementAndGet();
+        CalendarioLaboral calendario = CalendarioLaboral.construir(anio, Set.of(), List.of(), List.of());
+        return new CapacidadSquadAnio(squadId, "Squad " + squadId, anio, List.of(
+                new CapacidadSquadAnio.Miembro(personaId, "Persona " + personaId, ciudad, perfilId, 8.0, calendario)));
+    }
+}
@@ -7,7 +7,9 @@ import static org.mockito.Mockito.when;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import com.kaos.calendario.dto.CapacidadDiaResponse;
 import com.kaos.calendario.dto.CapacidadPersonaResponse;
@@ -28,7 +31,6 @@ import com.kaos.calendario.entity.TipoFestivo;
 import com.kaos.calendario.entity.TipoVacacion;
 import com.kaos.calendario.entity.Vacacion;
 import com.kaos.calendario.repository.AusenciaRepository;
-import com.kaos.calendario.repository.FestivoRepository;
 import com.kaos.calendario.repository.VacacionRepository;
 import com.kaos.dedicacion.entity.SquadMember;
 import com.kaos.dedicacion.repository.SquadMemberRepository;
@@ -45,6 +47,10 @@ import com.kaos.squad.repository.SquadRepository;
 @DisplayName("CapacidadService Tests - Motor de cálculo CA-12")
 class CapacidadServiceTest {
 
+    /** Los calendarios laborales se construyen por año completo. */
+    private static final LocalDate INICIO_ANIO = LocalDate.of(2026, 1, 1);
+    private static final LocalDate FIN_ANIO = LocalDate.of(2026, 12, 31);
+
     @Mock
     private SquadRepository squadRepository;
 
@@ -52,7 +58,7 @@ class CapacidadServiceTest {
     private SquadMemberRepository squadMemberRepository;
 
     @Mock
-    private FestivoRepository festivoRepository;
+    private CalendarioFestivos calendarioFestivos;
 
     @Mock
     private VacacionRepository vacacionRepository;
@@ -60,6 +66,10 @@ class CapacidadServiceTest {
     @Mock
     private AusenciaRepository ausenciaRepository;
 
+    /** Caché desactivada: cada llamada construye los calendarios desde los repositorios. */
+    @Spy
+    private CapacidadCache cache = new CapacidadCache(false, 0);
+
     @InjectMocks
     private CapacidadService service;
 
@@ -81,6 +91,7 @@ class CapacidadServiceTest {
         personaMock.setId(1L);
         personaMock.setNombre("Juan Pérez");
         personaMock.setEmail("juan.perez@kaos.com");
+        personaMock.setCiudad("Zaragoza"); // NOT NULL en BD; los festivos se indexan por ciudad
         personaMock.setPerfilHorario(perfilCompleto);
 
         // Squad mock
@@ -169,9 +180,9 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
-            when(vacacionRepository.findBySquadIdAndFechaRange(1L, lunes, lunes)).thenReturn(List.of());
-            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, lunes, lunes)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
+            when(vacacionRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
+            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
 
             // when
             CapacidadSquadResponse result = service.calcularCapacidad(1L, lunes, lunes);
@@ -181,7 +192,6 @@ class CapacidadServiceTest {
             assertThat(result.personas()).hasSize(1);
 
             CapacidadPersonaResponse persona = result.personas().get(0);
-            assertThat(persona.detalles()).isEqualTo(8.0);
             assertThat(persona.detalles()).hasSize(1);
 
             CapacidadDiaResponse dia = persona.detalles().get(0);
@@ -199,9 +209,9 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
-            when(vacacionRepository.findBySquadIdAndFechaRange(1L, lunes, viernes)).thenReturn(List.of());
-            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, lunes, viernes)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
+            when(vacacionRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
+            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
 
             // when
             CapacidadSquadResponse result = service.calcularCapacidad(1L, lunes, viernes);
@@ -230,9 +240,9 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
-            when(vacacionRepository.findBySquadIdAndFechaRange(1L, sabado, sabado)).thenReturn(List.of());
-            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, sabado, sabado)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
+            when(vacacionRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
+            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
 
             // when
             CapacidadSquadResponse result = service.calcularCapacidad(1L, sabado, sabado);
@@ -253,9 +263,9 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
-            when(vacacionRepository.findBySquadIdAndFechaRange(1L, domingo, domingo)).thenReturn(List.of());
-            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, domingo, domingo)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
+            when(vacacionRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
+            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
 
             // when
             CapacidadSquadResponse result = service.calcularCapacidad(1L, domingo, domingo);
@@ -274,9 +284,9 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
-            when(vacacionRepository.findBySquadIdAndFechaRange(1L, lunes, domingo)).thenReturn(List.of());
-            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, lunes, domingo)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
+            when(vacacionRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
+            when(ausenciaRepository.findBySquadIdAndFechaRange(1L, INICIO_ANIO, FIN_ANIO)).thenReturn(List.of());
 
             // when
             CapacidadSquadResponse result = service.calcularCapacidad(1L, lunes, domingo);
@@ -318,7 +328,10 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of(festivo));
+            personaMock.setCiudad("Zaragoza");
+            when(calendarioFestivos.festivosPorCiudad(
+                    Set.of("Zaragoza"), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)))
+                    .thenReturn(Map.of("Zaragoza", Set.of(festivo.getFecha())));
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
 
@@ -351,7 +364,11 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of(festivo));
+            // Solo se piden los festivos de la ciudad de los miembros: el de Valencia no se lee
+            personaMock.setCiudad("Zaragoza");
+            when(calendarioFestivos.festivosPorCiudad(
+                    Set.of("Zaragoza"), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)))
+                    .thenReturn(Map.of("Zaragoza", Set.of()));
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
 
@@ -391,7 +408,7 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of(vacacion));
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
 
@@ -424,7 +441,7 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of(vacacion));
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
 
@@ -459,9 +476,10 @@ class CapacidadServiceTest {
                     .tipo(TipoAusencia.BAJA_MEDICA)
                     .build();
 
+            when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of(ausencia));
 
@@ -478,7 +496,7 @@ class CapacidadServiceTest {
         @DisplayName("Ausencia indefinida (fechaFin=null) retorna 0h en cualquier fecha posterior")
         void calcularCapacidad_ausenciaIndefinida_retorna0HorasSinFin() {
             // given
-            LocalDate fechaConsulta = LocalDate.of(2026, 3, 15);
+            LocalDate fechaConsulta = LocalDate.of(2026, 3, 16); // Lunes: en domingo el motivo sería FIN_SEMANA
 
             Ausencia ausenciaIndefinida = Ausencia.builder()
                     .id(1L)
@@ -490,7 +508,7 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any()))
                     .thenReturn(List.of(ausenciaIndefinida));
@@ -522,7 +540,7 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
 
@@ -544,7 +562,7 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
 
@@ -570,7 +588,7 @@ class CapacidadServiceTest {
 
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
 
@@ -605,7 +623,7 @@ class CapacidadServiceTest {
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L))
                     .thenReturn(List.of(miembroMock, m2, m3));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
 
@@ -642,7 +660,7 @@ class CapacidadServiceTest {
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L))
                     .thenReturn(List.of(miembroMock, m2, m3));
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any()))
                     .thenReturn(List.of(vacacionP2));
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
@@ -669,7 +687,7 @@ class CapacidadServiceTest {
             when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
             when(squadMemberRepository.findBySquadId(1L))
                     .thenReturn(List.of(miembroMock, m2, m3)); // 100%, 50%, 25%
-            when(festivoRepository.findByAnio(2026)).thenReturn(List.of());
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
             when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
             when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
 
@@ -681,6 +699,112 @@ class CapacidadServiceTest {
         }
     }
 
+    // ══════════════════════════════════════════════════════════
+    // RECUENTO SIN DETALLE Y CONSULTA PUNTUAL
+    // ══════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Horas totales y horas disponibles por día")
+    class RecuentoTests {
+
+        @Test
+        @DisplayName("calcularHorasTotales() coincide con calcularCapacidad() en un rango con vacación")
+        void calcularHorasTotales_coincideConDetalle() {
+            // given
+            LocalDate inicio = LocalDate.of(2026, 3, 9);
+            LocalDate fin = LocalDate.of(2026, 3, 16);
+
+            Vacacion vacacion = Vacacion.builder()
+                    .id(1L)
+                    .persona(personaMock)
+                    .fechaInicio(LocalDate.of(2026, 3, 10))
+                    .fechaFin(LocalDate.of(2026, 3, 14))
+                    .tipo(TipoVacacion.VACACIONES)
+                    .estado(EstadoVacacion.REGISTRADA)
+                    .build();
+
+            when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
+            when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
+            when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of(vacacion));
+            when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
+
+            // when
+            double horas = service.calcularHorasTotales(1L, inicio, fin);
+
+            // then
+            assertThat(horas).isEqualTo(service.calcularCapacidad(1L, inicio, fin).horasTotales());
+            assertThat(horas).isEqualTo(16.0);
+        }
+
+        @Test
+        @DisplayName("calcularHorasTotales() en un rango que cruza de año usa ambos calendarios")
+        void calcularHorasTotales_rangoEntreAnios() {
+            // given: lun 29/12/2025 - vie 02/01/2026 con festivo el 01/01 en la ciudad de la persona
+            personaMock.setCiudad("Madrid");
+            Festivo anioNuevo = Festivo.builder()
+                    .fecha(LocalDate.of(2026, 1, 1))
+                    .descripcion("Año Nuevo")
+                    .tipo(TipoFestivo.NACIONAL)
+                    .ciudad("Madrid")
+                    .build();
+
+            when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
+            when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
+            when(calendarioFestivos.festivosPorCiudad(
+                    Set.of("Madrid"), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)))
+                    .thenReturn(Map.of("Madrid", Set.of()));
+            when(calendarioFestivos.festivosPorCiudad(
+                    Set.of("Madrid"), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)))
+                    .thenReturn(Map.of("Madrid", Set.of(anioNuevo.getFecha())));
+            when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
+            when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
+
+            // when
+            double horas = service.calcularHorasTotales(
+                    1L, LocalDate.of(2025, 12, 29), LocalDate.of(2026, 1, 2));
+
+            // then
+            assertThat(horas).isEqualTo(32.0); // 5 laborables - 1 festivo = 4 × 8h
+        }
+
+        @Test
+        @DisplayName("calcularHorasDisponibles() retorna 0h en un día de ausencia y 8h en uno laborable")
+        void calcularHorasDisponibles_ausenciaYLaborable() {
+            // given
+            Ausencia ausencia = Ausencia.builder()
+                    .id(1L)
+                    .persona(personaMock)
+                    .fechaInicio(LocalDate.of(2026, 3, 10))
+                    .fechaFin(LocalDate.of(2026, 3, 10))
+                    .tipo(TipoAusencia.EMERGENCIA)
+                    .build();
+
+            when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
+            when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
+            when(calendarioFestivos.festivosPorCiudad(any(), any(), any())).thenReturn(Map.of());
+            when(vacacionRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of());
+            when(ausenciaRepository.findBySquadIdAndFechaRange(any(), any(), any())).thenReturn(List.of(ausencia));
+
+            // when & then
+            assertThat(service.calcularHorasDisponibles(1L, 1L, LocalDate.of(2026, 3, 10))).isZero();
+            assertThat(service.calcularHorasDisponibles(1L, 1L, LocalDate.of(2026, 3, 11))).isEqualTo(8.0);
+        }
+
+        @Test
+        @DisplayName("calcularHorasDisponibles() persona fuera del squad lanza excepción")
+        void calcularHorasDisponibles_personaFueraDelSquad_lanzaExcepcion() {
+            // given
+            when(squadRepository.findById(1L)).thenReturn(Optional.of(squadMock));
+            when(squadMemberRepository.findBySquadId(1L)).thenReturn(List.of(miembroMock));
+
+            // when & then
+            assertThatThrownBy(() -> service.calcularHorasDisponibles(1L, 99L, LocalDate.of(2026, 3, 10)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("no pertenece al squad");
+        }
+    }
+
     // ══════════════════════════════════════════════════════════
     // HELPERS
     // ══════════════════════════════════════════════════════════
@@ -690,6 +814,7 @@ class CapacidadServiceTest {
         persona.setId(id);
         persona.setNombre(nombre);
         persona.setEmail(nombre.toLowerCase().replace(" ", ".") + "@kaos.com");
+        persona.setCiudad("Zaragoza");
         persona.setPerfilHorario(perfil);
         return persona;
     }
@@ -3,13 +3,19 @@ package com.kaos.calendario.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,16 +23,26 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
 import com.kaos.calendario.dto.ExcelAnalysisResponse;
 import com.kaos.calendario.dto.ExcelImportResponse;
+import com.kaos.calendario.dto.ParametrosImportacionExcel;
+import com.kaos.calendario.dto.PeriodoPersona;
 import com.kaos.calendario.entity.Ausencia;
 import com.kaos.calendario.entity.Vacacion;
 import com.kaos.calendario.repository.AusenciaRepository;
+import com.kaos.calendario.repository.CalendarioBatchRepository;
 import com.kaos.calendario.repository.VacacionRepository;
+import com.kaos.importacion.service.ImportacionEnCurso;
 import com.kaos.persona.entity.Persona;
 import com.kaos.persona.repository.PersonaRepository;
 
@@ -48,9 +64,30 @@ class ExcelImportServiceTest {
     @Mock
     private AusenciaRepository ausenciaRepository;
 
+    @Mock
+    private CalendarioBatchRepository batchRepository;
+
+    @Mock
+    private CalendarioFestivos calendarioFestivos;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     private ExcelImportService service;
 
+    @Captor
+    private ArgumentCaptor<List<Vacacion>> vacaciones;
+
+    @Captor
+    private ArgumentCaptor<List<Ausencia>> ausencias;
+
+    @TempDir
+    private Path tempDir;
+
     private Persona personaAlberto;
     private Persona personaMarcela;
 
@@ -74,10 +111,7 @@ class ExcelImportServiceTest {
         void testAnalizarExcelEspañaFY26() throws IOException {
             // Given: Archivo Excel España con personas exactas
             MultipartFile file = createExcelEspañaFY26();
-            when(personaRepository.findByNombreIgnoreCase("Alberto Rodriguez González"))
-                    .thenReturn(Optional.of(personaAlberto));
-            when(personaRepository.findByNombreIgnoreCase("Persona Desconocida"))
-                    .thenReturn(Optional.empty());
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
 
             // When: Análisis dry-run
             ExcelAnalysisResponse analysis = service.analizarExcel(file, 2026);
@@ -96,10 +130,7 @@ class ExcelImportServiceTest {
         void testAnalizarExcelConCoincidenciaParcia() throws IOException {
             // Given: Archivo con "Alberto" (sin apellido) — debe encontrar por LIKE
             MultipartFile file = createExcelConNombreIncompleto();
-            when(personaRepository.findByNombreIgnoreCase("Alberto"))
-                    .thenReturn(Optional.empty());
-            when(personaRepository.findByNombreContainingIgnoreCase("Alberto"))
-                    .thenReturn(List.of(personaAlberto));
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
 
             // When
             ExcelAnalysisResponse analysis = service.analizarExcel(file, 2026);
@@ -108,6 +139,8 @@ class ExcelImportServiceTest {
             assertThat(analysis.personasResueltas()).hasSize(1);
             assertThat(analysis.personasResueltas().get(0).personaId())
                     .isEqualTo(1L);
+            assertThat(analysis.personasResueltas().get(0).criterio()).isEqualTo("CONTENIDA");
+            assertThat(analysis.personasResueltas().get(0).confianza()).isLessThan(1.0);
         }
 
         @Test
@@ -133,17 +166,10 @@ class ExcelImportServiceTest {
             MultipartFile file = createExcelConVacaciones();
             var mappings = java.util.Map.of("Alberto Rodriguez González", 1L);
 
-            when(personaRepository.findByNombreIgnoreCase("Alberto Rodriguez González"))
-                    .thenReturn(Optional.of(personaAlberto));
-            when(vacacionRepository.save(any(Vacacion.class)))
-                    .thenAnswer(inv -> {
-                        Vacacion v = inv.getArgument(0);
-                        v.setId(100L);
-                        return v;
-                    });
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
 
             // When
-            ExcelImportResponse result = service.importarExcel(file, 2026, mappings);
+            ExcelImportResponse result = importar(file, 2026, mappings);
 
             // Then: Debe crear al menos 1 vacación (días agrupados)
             assertThat(result.vacacionesCreadas()).isGreaterThanOrEqualTo(1);
@@ -157,19 +183,13 @@ class ExcelImportServiceTest {
             MultipartFile file = createExcelConNombreRaro();
             var mappings = java.util.Map.of("Persona Rara", 2L);
 
-            when(personaRepository.findByNombreIgnoreCase("Persona Rara"))
-                    .thenReturn(Optional.empty());
+            // Marcela no está activa: el mapeo manual recurre a findById
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto));
             when(personaRepository.findById(2L))
                     .thenReturn(Optional.of(personaMarcela));
-            when(vacacionRepository.save(any(Vacacion.class)))
-                    .thenAnswer(inv -> {
-                        Vacacion v = inv.getArgument(0);
-                        v.setId(101L);
-                        return v;
-                    });
 
             // When
-            ExcelImportResponse result = service.importarExcel(file, 2026, mappings);
+            ExcelImportResponse result = importar(file, 2026, mappings);
 
             // Then: Usa el mapeo manual
             assertThat(result.personasProcesadas()).isEqualTo(1);
@@ -183,11 +203,10 @@ class ExcelImportServiceTest {
             MultipartFile file = createExcelConPersonaDesconocida();
             Map<String, Long> mappings = java.util.Map.of();
 
-            when(personaRepository.findByNombreIgnoreCase(anyString()))
-                    .thenReturn(Optional.empty());
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
 
             // When
-            ExcelImportResponse result = service.importarExcel(file, 2026, mappings);
+            ExcelImportResponse result = importar(file, 2026, mappings);
 
             // Then: La añade a personasNoEncontradas
             assertThat(result.personasNoEncontradas()).isNotEmpty();
@@ -201,23 +220,10 @@ class ExcelImportServiceTest {
             MultipartFile file = createExcelConCodigosVariados();
             var mappings = java.util.Map.of("Alberto Rodriguez González", 1L);
 
-            when(personaRepository.findByNombreIgnoreCase("Alberto Rodriguez González"))
-                    .thenReturn(Optional.of(personaAlberto));
-            when(vacacionRepository.save(any(Vacacion.class)))
-                    .thenAnswer(inv -> {
-                        Vacacion v = inv.getArgument(0);
-                        v.setId(100L);
-                        return v;
-                    });
-            when(ausenciaRepository.save(any(Ausencia.class)))
-                    .thenAnswer(inv -> {
-                        Ausencia a = inv.getArgument(0);
-                        a.setId(200L);
-                        return a;
-                    });
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
 
             // When
-            ExcelImportResponse result = service.importarExcel(file, 2026, mappings);
+            ExcelImportResponse result = importar(file, 2026, mappings);
 
             // Then: Debe crear vacaciones (V) y ausencias (LD, AP, etc.)
             assertThat(result.vacacionesCreadas() + result.ausenciasCreadas())
@@ -248,27 +254,173 @@ class ExcelImportServiceTest {
             MultipartFile file = createExcelWithWeekendGap();
             var mappings = java.util.Map.of("Alberto Rodriguez González", 1L);
 
-            when(personaRepository.findByNombreIgnoreCase("Alberto Rodriguez González"))
-                    .thenReturn(Optional.of(personaAlberto));
-            when(vacacionRepository.save(any(Vacacion.class)))
-                    .thenAnswer(inv -> {
-                        Vacacion v = inv.getArgument(0);
-                        v.setId(100L);
-                        return v;
-                    });
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
 
             // When
-            ExcelImportResponse result = service.importarExcel(file, 2026, mappings);
+            ExcelImportResponse result = importar(file, 2026, mappings);
 
             // Then: Debe agrupar como 1 vacación (no 2)
             assertThat(result.vacacionesCreadas()).isEqualTo(1);
         }
+
+        @Test
+        @DisplayName("CA-T10: Año fiscal Chile (desde ABRIL) — meses ABR-DIC en año-1, ENE-MAR en año")
+        void testImportarExcelChileAñoFiscalCruzado() throws IOException {
+            // Given: FY2025 que empieza en abril; fila de persona con localización en col[2]
+            Workbook wb = new XSSFWorkbook();
+            var sheet = wb.createSheet("Chile");
+            var meses = sheet.createRow(5);
+            meses.createCell(11).setCellValue("ABRIL");
+            meses.createCell(13).setCellValue("ENERO");
+            var dias = sheet.createRow(6);
+            dias.createCell(11).setCellValue(7);   // 7-abr-2024
+            dias.createCell(13).setCellValue(13);  // 13-ene-2025
+            var fila = sheet.createRow(8);
+            fila.createCell(1).setCellValue("Marcela");
+            fila.createCell(2).setCellValue("Santiago");
+            fila.createCell(11).setCellValue("V");
+            fila.createCell(13).setCellValue("B");
+            MultipartFile file = mockMultipartFile(wb, "chile_fy2025.xlsx");
+
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
+
+            // When
+            ExcelImportResponse result = importar(file, 2025, null);
+
+            // Then
+            verify(batchRepository).insertarVacaciones(vacaciones.capture());
+            verify(batchRepository).insertarAusencias(ausencias.capture());
+            assertThat(vacaciones.getValue()).singleElement()
+                    .extracting(Vacacion::getFechaInicio).isEqualTo(LocalDate.of(2024, 4, 7));
+            assertThat(ausencias.getValue()).singleElement()
+                    .extracting(Ausencia::getFechaInicio).isEqualTo(LocalDate.of(2025, 1, 13));
+            assertThat(result.personasProcesadas()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("CA-T11: Solapamiento con vacación existente — omite solo el rango afectado")
+        void testImportarExcelOmiteSolapamientoVacacion() throws IOException {
+            // Given: rangos 6-8 ene y 3 feb; ya existe una vacación el 7 de enero
+            MultipartFile file = createExcelConVacaciones();
+            var mappings = java.util.Map.of("Alberto Rodriguez González", 1L);
+
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
+            when(vacacionRepository.findPeriodosByPersonaIdIn(
+                    eq(Set.of(1L)), eq(LocalDate.of(2026, 1, 6)), eq(LocalDate.of(2026, 2, 3))))
+                    .thenReturn(List.of(periodo(1L, LocalDate.of(2026, 1, 7), LocalDate.of(2026, 1, 7))));
+
+            // When
+            ExcelImportResponse result = importar(file, 2026, mappings);
+
+            // Then: solo se inserta el rango de febrero, en un único batch
+            assertThat(result.vacacionesCreadas()).isEqualTo(1);
+            assertThat(result.errores()).isEmpty();
+            verify(batchRepository).insertarVacaciones(vacaciones.capture());
+            assertThat(vacaciones.getValue()).singleElement()
+                    .extracting(Vacacion::getFechaInicio).isEqualTo(LocalDate.of(2026, 2, 3));
+        }
+
+        @Test
+        @DisplayName("CA-T12: Ausencia indefinida existente — bloquea ausencias posteriores")
+        void testImportarExcelOmiteAusenciaSolapadaConIndefinida() throws IOException {
+            // Given: Marcela tiene una baja abierta desde diciembre de 2024
+            Workbook wb = new XSSFWorkbook();
+            var sheet = wb.createSheet("Chile");
+            var meses = sheet.createRow(5);
+            meses.createCell(11).setCellValue("ABRIL");
+            meses.createCell(13).setCellValue("ENERO");
+            var dias = sheet.createRow(6);
+            dias.createCell(11).setCellValue(7);
+            dias.createCell(13).setCellValue(13);
+            var fila = sheet.createRow(8);
+            fila.createCell(1).setCellValue("Marcela");
+            fila.createCell(2).setCellValue("Santiago");
+            fila.createCell(11).setCellValue("V");
+            fila.createCell(13).setCellValue("B");
+            MultipartFile file = mockMultipartFile(wb, "chile_fy2025.xlsx");
+
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
+            when(ausenciaRepository.findPeriodosByPersonaIdIn(any(), any(), any()))
+                    .thenReturn(List.of(periodo(2L, LocalDate.of(2024, 12, 1), null)));
+
+            // When
+            ExcelImportResponse result = importar(file, 2025, null);
+
+            // Then
+            assertThat(result.vacacionesCreadas()).isEqualTo(1);
+            assertThat(result.ausenciasCreadas()).isZero();
+            verify(batchRepository).insertarAusencias(ausencias.capture());
+            assertThat(ausencias.getValue()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("CA-T13: Reanudación — salta las filas confirmadas y acumula sobre el resultado previo")
+        void testReanudarImportacionDesdeFilaConfirmada() throws IOException {
+            // Given: la fila de Alberto ya se confirmó; queda la de "Persona Desconocida"
+            Workbook wb = new XSSFWorkbook();
+            var sheet = wb.createSheet("España");
+            sheet.createRow(10).createCell(7).setCellValue("ENERO");
+            sheet.createRow(11).createCell(7).setCellValue(5);
+            var alberto = sheet.createRow(13);
+            alberto.createCell(1).setCellValue("Alberto Rodriguez González");
+            alberto.createCell(2).setCellValue("Zaragoza");
+            alberto.createCell(7).setCellValue("V");
+            var desconocida = sheet.createRow(14);
+            desconocida.createCell(1).setCellValue("Persona Desconocida");
+            desconocida.createCell(2).setCellValue("Zaragoza");
+            desconocida.createCell(7).setCellValue("V");
+            Path fichero = tempDir.resolve("reanudacion.xlsx");
+            mockMultipartFile(wb, "reanudacion.xlsx").transferTo(fichero);
+            ExcelImportResponse previo = new ExcelImportResponse(1, 1, 0, List.of(), List.of());
+            @SuppressWarnings("unchecked")
+            ImportacionEnCurso.Seguimiento<ExcelImportResponse> seguimiento =
+                    mock(ImportacionEnCurso.Seguimiento.class);
+
+            when(personaRepository.findByActivoTrue()).thenReturn(List.of(personaAlberto, personaMarcela));
+
+            // When
+            ExcelImportResponse result = service.procesar(new ImportacionEnCurso<>(
+                    fichero, new ParametrosImportacionExcel(2026, null), 1, previo, seguimiento));
+
+            // Then: no se vuelve a insertar la vacación de Alberto
+            assertThat(result.personasProcesadas()).isEqualTo(1);
+            assertThat(result.vacacionesCreadas()).isEqualTo(1);
+            assertThat(result.personasNoEncontradas()).containsExactly("Persona Desconocida");
+            verify(batchRepository, never()).insertarVacaciones(any());
+            verify(seguimiento).total(2);
+            verify(seguimiento).confirmar(eq(2), eq(0), any());
+        }
+    }
+
+    private static PeriodoPersona periodo(Long personaId, LocalDate inicio, LocalDate fin) {
+        return new PeriodoPersona() {
+            @Override
+            public Long getPersonaId() {
+                return personaId;
+            }
+
+            @Override
+            public LocalDate getFechaInicio() {
+                return inicio;
+            }
+
+            @Override
+            public LocalDate getFechaFin() {
+                return fin;
+            }
+        };
     }
 
     // ─────────────────────────────────────────────────────────
     // Métodos auxiliares para crear archivos Excel de prueba
     // ─────────────────────────────────────────────────────────
 
+    private ExcelImportResponse importar(MultipartFile file, int año, Map<String, Long> mappings) throws IOException {
+        Path fichero = tempDir.resolve(file.getOriginalFilename());
+        file.transferTo(fichero);
+        return service.procesar(ImportacionEnCurso.sinSeguimiento(fichero, new ParametrosImportacionExcel(año, mappings)));
+    }
+
     private MultipartFile createExcelEspañaFY26() throws IOException {
         Workbook wb = new XSSFWorkbook();
         var sheet = wb.createSheet();
@@ -291,12 +443,14 @@ class ExcelImportServiceTest {
         // Row 13: Alberto (con V en ENERO)
         var row13 = sheet.createRow(13);
         row13.createCell(1).setCellValue("Alberto Rodriguez González");
+        row13.createCell(2).setCellValue("Zaragoza");
         row13.createCell(7).setCellValue("V"); // 1-ene
         row13.createCell(8).setCellValue("V"); // 2-ene
 
         // Row 14: Persona Desconocida
         var row14 = sheet.createRow(14);
         row14.createCell(1).setCellValue("Persona Desconocida");
+        row14.createCell(2).setCellValue("Zaragoza");
         row14.createCell(7).setCellValue("V"); // 1-ene
 
         return mockMultipartFile(wb, "españa_fy26.xlsx");
@@ -317,6 +471,7 @@ class ExcelImportServiceTest {
         // Persona con nombre incompleto
         var row13 = sheet.createRow(13);
         row13.createCell(1).setCellValue("Alberto");
+        row13.createCell(2).setCellValue("Zaragoza");
         row13.createCell(7).setCellValue("V");
 
         return mockMultipartFile(wb, "incompleto.xlsx");
@@ -354,6 +509,7 @@ class ExcelImportServiceTest {
         
         var row13 = sheet.createRow(13);
         row13.createCell(1).setCellValue("Alberto Rodriguez González");
+        row13.createCell(2).setCellValue("Zaragoza");
         row13.createCell(7).setCellValue("V");
         row13.createCell(8).setCellValue("V");
         row13.createCell(9).setCellValue("V");
@@ -375,6 +531,7 @@ class ExcelImportServiceTest {
         
         var row13 = sheet.createRow(13);
         row13.createCell(1).setCellValue("Persona Rara");
+        row13.createCell(2).setCellValue("Zaragoza");
         row13.createCell(7).setCellValue("V");
         
         return mockMultipartFile(wb, "nombreRaro.xlsx");
@@ -393,6 +550,7 @@ class ExcelImportServiceTest {
         
         var row13 = sheet.createRow(13);
         row13.createCell(1).setCellValue("XXXXXX Desconocida");
+        row13.createCell(2).setCellValue("Zaragoza");
         row13.createCell(7).setCellValue("V");
         
         return mockMultipartFile(wb, "desconocida.xlsx");
@@ -413,6 +571,7 @@ class ExcelImportServiceTest {
         
         var row13 = sheet.createRow(13);
         row13.createCell(1).setCellValue("Alberto Rodriguez González");
+        row13.createCell(2).setCellValue("Zaragoza");
         row13.createCell(7).setCellValue("V");     // Vacaciones
         row13.createCell(8).setCellValue("LD");    // Libre disposición
         row13.createCell(9).setCellValue("AP");    // Asuntos propios
@@ -437,6 +596,7 @@ class ExcelImportServiceTest {
         
         var row13 = sheet.createRow(13);
         row13.createCell(1).setCellValue("Alberto Rodriguez González");
+        row13.createCell(2).setCellValue("Zaragoza");
         row13.createCell(7).setCellValue("V");
         row13.createCell(8).setCellValue("V");
         
@@ -3,11 +3,17 @@ package com.kaos.calendario.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,17 +23,24 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+import com.kaos.calendario.dto.FestivoCsvError;
 import com.kaos.calendario.dto.FestivoCsvUploadResponse;
 import com.kaos.calendario.dto.FestivoRequest;
 import com.kaos.calendario.dto.FestivoResponse;
 import com.kaos.calendario.entity.Festivo;
 import com.kaos.calendario.entity.TipoFestivo;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.calendario.mapper.FestivoMapper;
 import com.kaos.calendario.repository.FestivoRepository;
+import com.kaos.importacion.service.ImportacionEnCurso;
 import jakarta.persistence.EntityNotFoundException;
 
 /**
@@ -45,9 +58,21 @@ class FestivoServiceTest {
     @Mock
     private FestivoMapper mapper;
 
+    @Mock
+    private CalendarioFestivos calendario;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     private FestivoService service;
 
+    @TempDir
+    private Path tempDir;
+
     private Festivo festivoMock;
     private FestivoRequest requestMock;
     private FestivoResponse responseMock;
@@ -363,30 +388,28 @@ class FestivoServiceTest {
         @DisplayName("eliminar() festivo existente borra correctamente")
         void eliminar_festivoExistente_eliminaCorrectamente() {
             // given
-            when(repository.existsById(1L)).thenReturn(true);
-            doNothing().when(repository).deleteById(1L);
+            when(repository.findById(1L)).thenReturn(Optional.of(festivoMock));
 
             // when
             service.eliminar(1L);
 
             // then
-            verify(repository).existsById(1L);
-            verify(repository).deleteById(1L);
+            verify(repository).delete(festivoMock);
+            verify(eventPublisher).publishEvent(any(CapacidadInvalidadaEvent.class));
         }
 
         @Test
         @DisplayName("eliminar() festivo inexistente lanza excepción")
         void eliminar_festivoNoExiste_lanzaExcepcion() {
             // given
-            when(repository.existsById(999L)).thenReturn(false);
+            when(repository.findById(999L)).thenReturn(Optional.empty());
 
             // when & then
             assertThatThrownBy(() -> service.eliminar(999L))
                     .isInstanceOf(EntityNotFoundException.class)
                     .hasMessageContaining("Festivo no encontrado con id: 999");
 
-            verify(repository).existsById(999L);
-            verify(repository, never()).deleteById(any());
+            verify(repository, never()).delete(any());
         }
     }
 
@@ -404,32 +427,29 @@ class FestivoServiceTest {
             // given
             LocalDate inicio = LocalDate.of(2026, 1, 1);
             LocalDate fin = LocalDate.of(2026, 12, 31);
-            List<Festivo> festivos = List.of(festivoMock);
-
-            when(repository.findByCiudadAndFechaRange("Zaragoza", inicio, fin)).thenReturn(festivos);
-            when(mapper.toResponseList(festivos)).thenReturn(List.of(responseMock));
+            when(calendario.listar("Zaragoza", inicio, fin)).thenReturn(List.of(responseMock));
 
             // when
             List<FestivoResponse> result = service.listarPorCiudad("Zaragoza", inicio, fin);
 
             // then
             assertThat(result).hasSize(1);
-            verify(repository).findByCiudadAndFechaRange("Zaragoza", inicio, fin);
+            verify(calendario).listar("Zaragoza", inicio, fin);
+            verifyNoInteractions(repository);
         }
 
         @Test
         @DisplayName("listarPorCiudad() sin festivos retorna lista vacía")
         void listarPorCiudad_sinFestivos_retornaVacia() {
             // given
-            when(repository.findByCiudadAndFechaRange("Temuco", null, null)).thenReturn(List.of());
-            when(mapper.toResponseList(List.of())).thenReturn(List.of());
+            when(calendario.listar("Temuco", null, null)).thenReturn(List.of());
 
             // when
             List<FestivoResponse> result = service.listarPorCiudad("Temuco", null, null);
 
             // then
             assertThat(result).isEmpty();
-            verify(repository).findByCiudadAndFechaRange("Temuco", null, null);
+            verify(calendario).listar("Temuco", null, null);
         }
     }
 
@@ -443,7 +463,7 @@ class FestivoServiceTest {
 
         @Test
         @DisplayName("cargarCsv() CSV perfectamente válido procesa todo")
-        void cargarCsv_csvValido_procesaTodo() {
+        void cargarCsv_csvValido_procesaTodo() throws IOException {
             // given
             String csvContent = """
                     2026-01-01;Año Nuevo;NACIONAL;Zaragoza
@@ -462,7 +482,7 @@ class FestivoServiceTest {
             when(repository.save(any(Festivo.class))).thenAnswer(inv -> inv.getArgument(0));
 
             // when
-            FestivoCsvUploadResponse result = service.cargarCsv(file);
+            FestivoCsvUploadResponse result = cargar(file);
 
             // then
             assertThat(result.totalProcesados()).isEqualTo(3);
@@ -474,7 +494,7 @@ class FestivoServiceTest {
 
         @Test
         @DisplayName("cargarCsv() CSV con duplicado se salta sin generar error")
-        void cargarCsv_festivoDuplicado_saltaSinError() {
+        void cargarCsv_festivoDuplicado_saltaSinError() throws IOException {
             // given
             String csvContent = """
                     2026-01-01;Año Nuevo;NACIONAL;Zaragoza
@@ -500,7 +520,7 @@ class FestivoServiceTest {
             when(repository.save(any(Festivo.class))).thenAnswer(inv -> inv.getArgument(0));
 
             // when
-            FestivoCsvUploadResponse result = service.cargarCsv(file);
+            FestivoCsvUploadResponse result = cargar(file);
 
             // then
             assertThat(result.totalProcesados()).isEqualTo(3);
@@ -511,7 +531,7 @@ class FestivoServiceTest {
 
         @Test
         @DisplayName("cargarCsv() CSV con formato incorrecto genera error")
-        void cargarCsv_formatoIncorrecto_generaError() {
+        void cargarCsv_formatoIncorrecto_generaError() throws IOException {
             // given
             String csvContent = """
                     2026-01-01;Año Nuevo;NACIONAL;Zaragoza
@@ -530,7 +550,7 @@ class FestivoServiceTest {
             when(repository.save(any(Festivo.class))).thenAnswer(inv -> inv.getArgument(0));
 
             // when
-            FestivoCsvUploadResponse result = service.cargarCsv(file);
+            FestivoCsvUploadResponse result = cargar(file);
 
             // then
             assertThat(result.totalProcesados()).isEqualTo(3);
@@ -543,7 +563,7 @@ class FestivoServiceTest {
 
         @Test
         @DisplayName("cargarCsv() CSV mix de errores procesa correctamente")
-        void cargarCsv_mixErrores_procesaParcialmente() {
+        void cargarCsv_mixErrores_procesaParcialmente() throws IOException {
             // given
             String csvContent = """
                     2026-01-01;Año Nuevo;NACIONAL;Zaragoza
@@ -569,7 +589,7 @@ class FestivoServiceTest {
             when(repository.save(any(Festivo.class))).thenAnswer(inv -> inv.getArgument(0));
 
             // when
-            FestivoCsvUploadResponse result = service.cargarCsv(file);
+            FestivoCsvUploadResponse result = cargar(file);
 
             // then
             assertThat(result.totalProcesados()).isEqualTo(4);
@@ -581,7 +601,7 @@ class FestivoServiceTest {
 
         @Test
         @DisplayName("cargarCsv() CSV vacío procesa sin errores")
-        void cargarCsv_csvVacio_procesaSinErrores() {
+        void cargarCsv_csvVacio_procesaSinErrores() throws IOException {
             // given
             String csvContent = "";
 
@@ -593,7 +613,7 @@ class FestivoServiceTest {
             );
 
             // when
-            FestivoCsvUploadResponse result = service.cargarCsv(file);
+            FestivoCsvUploadResponse result = cargar(file);
 
             // then
             assertThat(result.totalProcesados()).isZero();
@@ -604,7 +624,7 @@ class FestivoServiceTest {
 
         @Test
         @DisplayName("cargarCsv() CSV con ciudad vacía genera error")
-        void cargarCsv_ciudadVacia_generaError() {
+        void cargarCsv_ciudadVacia_generaError() throws IOException {
             // given
             String csvContent = "2026-01-01;Año Nuevo;NACIONAL;   \n";
 
@@ -616,7 +636,7 @@ class FestivoServiceTest {
             );
 
             // when
-            FestivoCsvUploadResponse result = service.cargarCsv(file);
+            FestivoCsvUploadResponse result = cargar(file);
 
             // then
             assertThat(result.totalProcesados()).isEqualTo(1);
@@ -624,5 +644,41 @@ class FestivoServiceTest {
             assertThat(result.errores()).isEqualTo(1);
             assertThat(result.detalleErrores().get(0).mensaje()).contains("Ciudad no puede estar vacía");
         }
+
+        @Test
+        @DisplayName("procesar() al reanudar salta las líneas confirmadas y acumula sobre el resultado previo")
+        void procesar_reanudacion_saltaLineasConfirmadas() throws IOException {
+            // given: la línea 1 ya se confirmó en una ejecución anterior (con un error)
+            Path fichero = Files.writeString(tempDir.resolve("festivos.csv"), """
+                    2026-12-25-NAVIDAD
+                    2026-04-18;Viernes Santo;NACIONAL;Valencia
+                    2026-08-15;Asunción;REGIONAL;Temuco
+                    """);
+            FestivoCsvUploadResponse previo = new FestivoCsvUploadResponse(
+                    1, 0, 1, List.of(new FestivoCsvError(1, "Formato inválido")));
+            @SuppressWarnings("unchecked")
+            ImportacionEnCurso.Seguimiento<FestivoCsvUploadResponse> seguimiento =
+                    mock(ImportacionEnCurso.Seguimiento.class);
+
+            when(repository.existsByFechaAndDescripcionAndCiudad(any(), any(), any())).thenReturn(false);
+
+            // when
+            FestivoCsvUploadResponse result = service.procesar(
+                    new ImportacionEnCurso<>(fichero, null, 1, previo, seguimiento));
+
+            // then
+            assertThat(result.totalProcesados()).isEqualTo(3);
+            assertThat(result.exitosos()).isEqualTo(2);
+            assertThat(result.errores()).isEqualTo(1);
+            verify(repository, times(2)).save(any(Festivo.class));
+            verify(seguimiento).total(3);
+            verify(seguimiento).confirmar(eq(3), eq(1), any());
+        }
+    }
+
+    private FestivoCsvUploadResponse cargar(MockMultipartFile file) throws IOException {
+        Path fichero = tempDir.resolve(file.getOriginalFilename());
+        file.transferTo(fichero);
+        return service.procesar(ImportacionEnCurso.sinSeguimiento(fichero, null));
     }
 }
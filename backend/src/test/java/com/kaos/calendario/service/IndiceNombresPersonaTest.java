@@ -0,0 +1,85 @@
+package com.kaos.calendario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.kaos.calendario.service.IndiceNombresPersona.Criterio;
+import com.kaos.persona.entity.Persona;
+
+/**
+ * Tests unitarios para {@link IndiceNombresPersona}.
+ * Valida el orden de reglas y la confianza de cada coincidencia.
+ */
+@DisplayName("IndiceNombresPersona Tests - Resolución de nombres en memoria")
+class IndiceNombresPersonaTest {
+
+    private final Persona alberto = persona(1L, "Alberto Rodríguez González");
+    private final Persona albertoMoreno = persona(2L, "Alberto Moreno");
+    private final Persona marcela = persona(3L, "María Marcela Pérez");
+
+    private final IndiceNombresPersona indice = IndiceNombresPersona.construir(List.of(alberto, albertoMoreno, marcela));
+
+    @Test
+    @DisplayName("Coincidencia exacta sin distinguir mayúsculas tiene confianza 1")
+    void resolver_exacta() {
+        var coincidencia = indice.resolver("  alberto rodríguez gonzález ").orElseThrow();
+
+        assertThat(coincidencia.persona()).isSameAs(alberto);
+        assertThat(coincidencia.criterio()).isEqualTo(Criterio.EXACTA);
+        assertThat(coincidencia.confianza()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Ignora tildes y orden de palabras")
+    void resolver_normalizada() {
+        var coincidencia = indice.resolver("GONZALEZ, Alberto Rodriguez").orElseThrow();
+
+        assertThat(coincidencia.persona()).isSameAs(alberto);
+        assertThat(coincidencia.criterio()).isEqualTo(Criterio.NORMALIZADA);
+    }
+
+    @Test
+    @DisplayName("Nombre parcial contenido en una sola persona")
+    void resolver_contenida() {
+        assertThat(indice.resolver("Marcela Perez").orElseThrow().persona()).isSameAs(marcela);
+    }
+
+    @Test
+    @DisplayName("Nombre parcial contenido en varias personas es ambiguo")
+    void resolver_contenidaAmbigua_noResuelve() {
+        assertThat(indice.resolver("Alberto")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Sin coincidencia completa se prueba con las dos primeras palabras")
+    void resolver_dosPrimerasPalabras() {
+        var coincidencia = indice.resolver("Alberto Moreno Sanz").orElseThrow();
+
+        assertThat(coincidencia.persona()).isSameAs(albertoMoreno);
+        assertThat(coincidencia.criterio()).isEqualTo(Criterio.DOS_PRIMERAS_PALABRAS);
+    }
+
+    @Test
+    @DisplayName("Errata leve se resuelve por similitud con confianza reducida")
+    void resolver_similitud() {
+        var coincidencia = indice.resolver("Alberto Rodrigez Gonzalez").orElseThrow();
+
+        assertThat(coincidencia.persona()).isSameAs(alberto);
+        assertThat(coincidencia.criterio()).isEqualTo(Criterio.SIMILITUD);
+        assertThat(coincidencia.confianza()).isLessThan(0.7);
+    }
+
+    @Test
+    @DisplayName("Nombre sin parecido no se resuelve")
+    void resolver_desconocido() {
+        assertThat(indice.resolver("Persona Desconocida")).isEmpty();
+    }
+
+    private static Persona persona(Long id, String nombre) {
+        Persona persona = new Persona();
+        persona.setId(id);
+        persona.setNombre(nombre);
+        return persona;
+    }
+}
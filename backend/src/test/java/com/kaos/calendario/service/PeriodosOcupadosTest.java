@@ -0,0 +1,53 @@
+package com.kaos.calendario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para {@link PeriodosOcupados}.
+ */
+@DisplayName("PeriodosOcupados - Solapamientos en memoria")
+class PeriodosOcupadosTest {
+
+    private static final LocalDate ENE_05 = LocalDate.of(2026, 1, 5);
+    private static final LocalDate ENE_09 = LocalDate.of(2026, 1, 9);
+    private static final LocalDate ENE_12 = LocalDate.of(2026, 1, 12);
+    private static final LocalDate ENE_16 = LocalDate.of(2026, 1, 16);
+
+    @Test
+    @DisplayName("Detecta solapamiento en los extremos (fechas inclusive)")
+    void solapa_extremosInclusive() {
+        PeriodosOcupados ocupados = new PeriodosOcupados();
+        ocupados.ocupar(1L, ENE_05, ENE_09);
+
+        assertThat(ocupados.solapa(1L, ENE_09, ENE_12)).isTrue();
+        assertThat(ocupados.solapa(1L, ENE_05.minusDays(3), ENE_05)).isTrue();
+        assertThat(ocupados.solapa(1L, ENE_12, ENE_16)).isFalse();
+        assertThat(ocupados.solapa(2L, ENE_05, ENE_09)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Fusiona los intervalos que se solapan al ocupar")
+    void ocupar_fusionaIntervalos() {
+        PeriodosOcupados ocupados = new PeriodosOcupados();
+        ocupados.ocupar(1L, ENE_12, ENE_16);
+        ocupados.ocupar(1L, ENE_05, ENE_05);
+        ocupados.ocupar(1L, ENE_05.plusDays(1), ENE_12.plusDays(1));
+
+        assertThat(ocupados.solapa(1L, ENE_09, ENE_09)).isTrue();
+        assertThat(ocupados.solapa(1L, ENE_16, ENE_16)).isTrue();
+        assertThat(ocupados.solapa(1L, ENE_16.plusDays(1), ENE_16.plusDays(5))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un periodo sin fecha fin ocupa todo lo posterior")
+    void ocupar_sinFechaFin_esIndefinido() {
+        PeriodosOcupados ocupados = new PeriodosOcupados();
+        ocupados.ocupar(1L, ENE_12, null);
+
+        assertThat(ocupados.solapa(1L, LocalDate.of(2027, 6, 1), LocalDate.of(2027, 6, 2))).isTrue();
+        assertThat(ocupados.solapa(1L, ENE_05, ENE_09)).isFalse();
+    }
+}
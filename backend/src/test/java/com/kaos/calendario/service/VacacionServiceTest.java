@@ -3,13 +3,12 @@ package com.kaos.calendario.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
-import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,11 +21,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import com.kaos.calendario.dto.VacacionRequest;
 import com.kaos.calendario.dto.VacacionResponse;
 import com.kaos.calendario.entity.EstadoVacacion;
 import com.kaos.calendario.entity.TipoVacacion;
 import com.kaos.calendario.entity.Vacacion;
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.calendario.mapper.VacacionMapper;
 import com.kaos.calendario.repository.VacacionRepository;
 import com.kaos.persona.entity.Persona;
@@ -49,6 +52,12 @@ class VacacionServiceTest {
     @Mock
     private VacacionMapper mapper;
 
+    @Mock
+    private CalendarioFestivos calendarioFestivos;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private VacacionService service;
 
@@ -125,9 +134,8 @@ class VacacionServiceTest {
             );
 
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
-            when(repository.existsSolapamiento(anyLong(), isNull(), any(), any())).thenReturn(false);
             when(mapper.toEntity(request)).thenReturn(vacacionMock);
-            when(repository.save(any(Vacacion.class))).thenAnswer(inv -> {
+            when(repository.saveAndFlush(any(Vacacion.class))).thenAnswer(inv -> {
                 Vacacion v = inv.getArgument(0);
                 v.setId(1L);
                 return v;
@@ -138,7 +146,7 @@ class VacacionServiceTest {
             service.crear(request);
 
             // then
-            verify(repository).save(argThat(v -> v.getDiasLaborables() == 1));
+            verify(repository).saveAndFlush(argThat(v -> v.getDiasLaborables() == 1));
         }
 
         @Test
@@ -155,9 +163,8 @@ class VacacionServiceTest {
             );
 
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
-            when(repository.existsSolapamiento(anyLong(), isNull(), any(), any())).thenReturn(false);
             when(mapper.toEntity(request)).thenReturn(vacacionMock);
-            when(repository.save(any(Vacacion.class))).thenAnswer(inv -> {
+            when(repository.saveAndFlush(any(Vacacion.class))).thenAnswer(inv -> {
                 Vacacion v = inv.getArgument(0);
                 v.setId(1L);
                 return v;
@@ -168,7 +175,7 @@ class VacacionServiceTest {
             service.crear(request);
 
             // then
-            verify(repository).save(argThat(v -> v.getDiasLaborables() == 0));
+            verify(repository).saveAndFlush(argThat(v -> v.getDiasLaborables() == 0));
         }
 
         @Test
@@ -185,9 +192,8 @@ class VacacionServiceTest {
             );
 
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
-            when(repository.existsSolapamiento(anyLong(), isNull(), any(), any())).thenReturn(false);
             when(mapper.toEntity(request)).thenReturn(vacacionMock);
-            when(repository.save(any(Vacacion.class))).thenAnswer(inv -> {
+            when(repository.saveAndFlush(any(Vacacion.class))).thenAnswer(inv -> {
                 Vacacion v = inv.getArgument(0);
                 v.setId(1L);
                 return v;
@@ -198,7 +204,7 @@ class VacacionServiceTest {
             service.crear(request);
 
             // then
-            verify(repository).save(argThat(v -> v.getDiasLaborables() == 5));
+            verify(repository).saveAndFlush(argThat(v -> v.getDiasLaborables() == 5));
         }
 
         @Test
@@ -215,9 +221,8 @@ class VacacionServiceTest {
             );
 
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
-            when(repository.existsSolapamiento(anyLong(), isNull(), any(), any())).thenReturn(false);
             when(mapper.toEntity(request)).thenReturn(vacacionMock);
-            when(repository.save(any(Vacacion.class))).thenAnswer(inv -> {
+            when(repository.saveAndFlush(any(Vacacion.class))).thenAnswer(inv -> {
                 Vacacion v = inv.getArgument(0);
                 v.setId(1L);
                 return v;
@@ -228,7 +233,7 @@ class VacacionServiceTest {
             service.crear(request);
 
             // then
-            verify(repository).save(argThat(v -> v.getDiasLaborables() == 2));
+            verify(repository).saveAndFlush(argThat(v -> v.getDiasLaborables() == 2));
         }
 
         @Test
@@ -245,9 +250,8 @@ class VacacionServiceTest {
             );
 
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
-            when(repository.existsSolapamiento(anyLong(), isNull(), any(), any())).thenReturn(false);
             when(mapper.toEntity(request)).thenReturn(vacacionMock);
-            when(repository.save(any(Vacacion.class))).thenAnswer(inv -> {
+            when(repository.saveAndFlush(any(Vacacion.class))).thenAnswer(inv -> {
                 Vacacion v = inv.getArgument(0);
                 v.setId(1L);
                 return v;
@@ -258,7 +262,7 @@ class VacacionServiceTest {
             service.crear(request);
 
             // then
-            verify(repository).save(argThat(v -> v.getDiasLaborables() == 0));
+            verify(repository).saveAndFlush(argThat(v -> v.getDiasLaborables() == 0));
         }
 
         @Test
@@ -275,9 +279,8 @@ class VacacionServiceTest {
             );
 
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
-            when(repository.existsSolapamiento(anyLong(), isNull(), any(), any())).thenReturn(false);
             when(mapper.toEntity(request)).thenReturn(vacacionMock);
-            when(repository.save(any(Vacacion.class))).thenAnswer(inv -> {
+            when(repository.saveAndFlush(any(Vacacion.class))).thenAnswer(inv -> {
                 Vacacion v = inv.getArgument(0);
                 v.setId(1L);
                 return v;
@@ -288,12 +291,12 @@ class VacacionServiceTest {
             service.crear(request);
 
             // then
-            verify(repository).save(argThat(v -> v.getDiasLaborables() == 10));
+            verify(repository).saveAndFlush(argThat(v -> v.getDiasLaborables() == 10));
         }
 
         @Test
-        @DisplayName("Mes completo marzo 2026 retorna 23 días laborables")
-        void crear_mesCompleto_retorna23DiasLaborables() {
+        @DisplayName("Mes completo marzo 2026 retorna 22 días laborables")
+        void crear_mesCompleto_retorna22DiasLaborables() {
             // given
             VacacionRequest request = new VacacionRequest(
                     1L,
@@ -305,9 +308,8 @@ class VacacionServiceTest {
             );
 
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
-            when(repository.existsSolapamiento(anyLong(), isNull(), any(), any())).thenReturn(false);
             when(mapper.toEntity(request)).thenReturn(vacacionMock);
-            when(repository.save(any(Vacacion.class))).thenAnswer(inv -> {
+            when(repository.saveAndFlush(any(Vacacion.class))).thenAnswer(inv -> {
                 Vacacion v = inv.getArgument(0);
                 v.setId(1L);
                 return v;
@@ -318,8 +320,27 @@ class VacacionServiceTest {
             service.crear(request);
 
             // then
-            // Marzo 2026: 31 días - 8 fines de semana = 23 días laborables
-            verify(repository).save(argThat(v -> v.getDiasLaborables() == 23));
+            // Marzo 2026: 31 días - 9 días de fin de semana = 22 días laborables
+            verify(repository).saveAndFlush(argThat(v -> v.getDiasLaborables() == 22));
+        }
+
+        @Test
+        @DisplayName("Festivo entre semana en la ciudad de la persona no cuenta como día laborable")
+        void crear_festivoEntreSemana_restaDiaLaborable() {
+            // given
+            personaMock.setCiudad("Zaragoza");
+            when(calendarioFestivos.contarFestivosLaborables(
+                    "Zaragoza", LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 8))).thenReturn(1);
+            when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
+            when(mapper.toEntity(requestMock)).thenReturn(vacacionMock);
+            when(repository.saveAndFlush(any(Vacacion.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(mapper.toResponse(any())).thenReturn(responseMock);
+
+            // when
+            service.crear(requestMock);
+
+            // then
+            verify(repository).saveAndFlush(argThat(v -> v.getDiasLaborables() == 4));
         }
     }
 
@@ -331,15 +352,21 @@ class VacacionServiceTest {
     @DisplayName("Validación Solapamiento - CA-09")
     class ValidacionSolapamientoTests {
 
+        private DataIntegrityViolationException violacion(String restriccion) {
+            // Como PostgreSQL: Hibernate no extrae el nombre, va en el mensaje del driver
+            return new DataIntegrityViolationException("could not execute statement",
+                    new ConstraintViolationException("could not execute statement", new SQLException(
+                            "ERROR: conflicting key value violates exclusion constraint \"" + restriccion + "\"",
+                            "23P01"), null));
+        }
+
         @Test
-        @DisplayName("crear() sin solapamiento crea vacación correctamente")
+        @DisplayName("crear() sin solapamiento crea vacación sin consulta previa")
         void crear_sinSolapamiento_creaCorrectamente() {
             // given
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
-            when(repository.existsSolapamiento(1L, null, requestMock.fechaInicio(), requestMock.fechaFin()))
-                    .thenReturn(false);
             when(mapper.toEntity(requestMock)).thenReturn(vacacionMock);
-            when(repository.save(any(Vacacion.class))).thenReturn(vacacionMock);
+            when(repository.saveAndFlush(any(Vacacion.class))).thenReturn(vacacionMock);
             when(mapper.toResponse(vacacionMock)).thenReturn(responseMock);
 
             // when
@@ -347,35 +374,32 @@ class VacacionServiceTest {
 
             // then
             assertThat(result).isNotNull();
-            verify(repository).existsSolapamiento(1L, null, requestMock.fechaInicio(), requestMock.fechaFin());
-            verify(repository).save(any(Vacacion.class));
+            verify(repository).saveAndFlush(any(Vacacion.class));
         }
 
         @Test
-        @DisplayName("crear() con solapamiento lanza IllegalArgumentException")
+        @DisplayName("crear() con solapamiento: la restricción de exclusión se traduce a IllegalArgumentException")
         void crear_conSolapamiento_lanzaExcepcion() {
             // given
             when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
-            when(repository.existsSolapamiento(1L, null, requestMock.fechaInicio(), requestMock.fechaFin()))
-                    .thenReturn(true);
+            when(mapper.toEntity(requestMock)).thenReturn(vacacionMock);
+            when(repository.saveAndFlush(any(Vacacion.class)))
+                    .thenThrow(violacion(VacacionService.RESTRICCION_SOLAPE));
 
             // when & then
             assertThatThrownBy(() -> service.crear(requestMock))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Ya existe una vacación para esta persona");
 
-            verify(repository).existsSolapamiento(1L, null, requestMock.fechaInicio(), requestMock.fechaFin());
-            verify(repository, never()).save(any());
+            verify(eventPublisher, never()).publishEvent(any(CapacidadInvalidadaEvent.class));
         }
 
         @Test
-        @DisplayName("actualizar() con self-exclusion permite actualizar fechas sin solapamiento")
+        @DisplayName("actualizar() sin solapamiento con otras vacaciones actualiza correctamente")
         void actualizar_sinSolapamientoPropio_actualizaCorrectamente() {
             // given
             when(repository.findById(1L)).thenReturn(Optional.of(vacacionMock));
-            when(repository.existsSolapamiento(1L, 1L, requestMock.fechaInicio(), requestMock.fechaFin()))
-                    .thenReturn(false); // No hay solapamiento con otras vacaciones
-            when(repository.save(any(Vacacion.class))).thenReturn(vacacionMock);
+            when(repository.saveAndFlush(any(Vacacion.class))).thenReturn(vacacionMock);
             when(mapper.toResponse(vacacionMock)).thenReturn(responseMock);
 
             // when
@@ -383,8 +407,7 @@ class VacacionServiceTest {
 
             // then
             assertThat(result).isNotNull();
-            verify(repository).existsSolapamiento(1L, 1L, requestMock.fechaInicio(), requestMock.fechaFin());
-            verify(repository).save(any(Vacacion.class));
+            verify(repository).saveAndFlush(any(Vacacion.class));
         }
 
         @Test
@@ -392,16 +415,26 @@ class VacacionServiceTest {
         void actualizar_conSolapamientoOtraVacacion_lanzaExcepcion() {
             // given
             when(repository.findById(1L)).thenReturn(Optional.of(vacacionMock));
-            when(repository.existsSolapamiento(1L, 1L, requestMock.fechaInicio(), requestMock.fechaFin()))
-                    .thenReturn(true); // Hay solapamiento con otra vacación
+            when(repository.saveAndFlush(any(Vacacion.class)))
+                    .thenThrow(violacion(VacacionService.RESTRICCION_SOLAPE));
 
             // when & then
             assertThatThrownBy(() -> service.actualizar(1L, requestMock))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Ya existe una vacación para esta persona");
+        }
+
+        @Test
+        @DisplayName("Otras violaciones de integridad se propagan sin traducir")
+        void crear_otraViolacion_sePropaga() {
+            // given
+            when(personaRepository.findById(1L)).thenReturn(Optional.of(personaMock));
+            when(mapper.toEntity(requestMock)).thenReturn(vacacionMock);
+            when(repository.saveAndFlush(any(Vacacion.class))).thenThrow(violacion("chk_vacacion_fechas"));
 
-            verify(repository).existsSolapamiento(1L, 1L, requestMock.fechaInicio(), requestMock.fechaFin());
-            verify(repository, never()).save(any());
+            // when & then
+            assertThatThrownBy(() -> service.crear(requestMock))
+                    .isInstanceOf(DataIntegrityViolationException.class);
         }
     }
 
@@ -431,7 +464,7 @@ class VacacionServiceTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("fecha de fin debe ser posterior o igual");
 
-            verify(repository, never()).save(any());
+            verify(repository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -454,7 +487,7 @@ class VacacionServiceTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Persona no encontrada: 999");
 
-            verify(repository, never()).save(any());
+            verify(repository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -499,44 +532,42 @@ class VacacionServiceTest {
             );
 
             when(repository.findById(1L)).thenReturn(Optional.of(vacacionMock));
-            when(repository.existsSolapamiento(anyLong(), anyLong(), any(), any())).thenReturn(false);
-            when(repository.save(any(Vacacion.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(repository.saveAndFlush(any(Vacacion.class))).thenAnswer(inv -> inv.getArgument(0));
             when(mapper.toResponse(any())).thenReturn(responseMock);
 
             // when
             service.actualizar(1L, updateRequest);
 
             // then
-            verify(repository).save(argThat(v -> v.getDiasLaborables() == 10)); // 2 semanas = 10 días
+            verify(repository).saveAndFlush(argThat(v -> v.getDiasLaborables() == 10)); // 2 semanas = 10 días
         }
 
         @Test
         @DisplayName("eliminar() vacación existente elimina correctamente")
         void eliminar_vacacionExistente_eliminaCorrectamente() {
             // given
-            when(repository.existsById(1L)).thenReturn(true);
-            doNothing().when(repository).deleteById(1L);
+            when(repository.findById(1L)).thenReturn(Optional.of(vacacionMock));
 
             // when
             service.eliminar(1L);
 
             // then
-            verify(repository).existsById(1L);
-            verify(repository).deleteById(1L);
+            verify(repository).delete(vacacionMock);
+            verify(eventPublisher).publishEvent(any(CapacidadInvalidadaEvent.class));
         }
 
         @Test
         @DisplayName("eliminar() vacación inexistente lanza excepción")
         void eliminar_vacacionNoExiste_lanzaExcepcion() {
             // given
-            when(repository.existsById(999L)).thenReturn(false);
+            when(repository.findById(999L)).thenReturn(Optional.empty());
 
             // when & then
             assertThatThrownBy(() -> service.eliminar(999L))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Vacación no encontrada: 999");
 
-            verify(repository, never()).deleteById(any());
+            verify(repository, never()).delete(any());
         }
     }
 
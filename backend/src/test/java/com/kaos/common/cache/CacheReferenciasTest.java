@@ -0,0 +1,146 @@
+package com.kaos.common.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import com.kaos.horario.entity.PerfilHorario;
+import com.kaos.horario.repository.PerfilHorarioRepository;
+import com.kaos.jira.entity.JiraIssueTypeConfig;
+import com.kaos.jira.repository.JiraIssueTypeConfigRepository;
+import com.kaos.squad.entity.Squad;
+import com.kaos.squad.repository.SquadRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Tests de la caché de segundo nivel de las tablas de referencia ({@link CacheReferencias}),
+ * sobre H2 con el esquema generado por Hibernate y las regiones de {@code ehcache.xml}.
+ * <p>
+ * Sin transacción de test: cada llamada al repositorio abre su propia sesión, como en una
+ * petición real, y lo que no sale de la caché se ve en las sentencias preparadas.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Caché de segundo nivel de tablas de referencia")
+class CacheReferenciasTest {
+
+    private static final AtomicInteger secuencia = new AtomicInteger();
+
+    @Autowired
+    private PerfilHorarioRepository perfilHorarioRepository;
+
+    @Autowired
+    private SquadRepository squadRepository;
+
+    @Autowired
+    private JiraIssueTypeConfigRepository jiraIssueTypeConfigRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    private PerfilHorario perfil() {
+        BigDecimal ocho = new BigDecimal("8.00");
+        return perfilHorarioRepository.save(PerfilHorario.builder()
+                .nombre("Perfil " + secuencia.incrementAndGet())
+                .zonaHoraria("Europe/Madrid")
+                .horasLunes(ocho)
+                .horasMartes(ocho)
+                .horasMiercoles(ocho)
+                .horasJueves(ocho)
+                .horasViernes(new BigDecimal("7.00"))
+                .build());
+    }
+
+    private Squad squad() {
+        return squadRepository.save(Squad.builder().nombre("squad-" + secuencia.incrementAndGet()).build());
+    }
+
+    private JiraIssueTypeConfig config(Squad squad, String subtipo) {
+        return jiraIssueTypeConfigRepository.save(JiraIssueTypeConfig.builder()
+                .squad(squad)
+                .tipoJira("Sub-task")
+                .subtipoKaos(subtipo)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Un perfil horario leído una vez se sirve desde la caché, con totalSemanal")
+    void perfilHorario_segundaLecturaDesdeCache() {
+        Long id = perfil().getId();
+        estadisticas.clear();
+
+        PerfilHorario primera = perfilHorarioRepository.findById(id).orElseThrow();
+        PerfilHorario segunda = perfilHorarioRepository.findById(id).orElseThrow();
+
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estadisticas.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(primera.getTotalSemanal()).isEqualByComparingTo("39.00");
+        assertThat(segunda.getTotalSemanal()).isEqualByComparingTo("39.00");
+    }
+
+    @Test
+    @DisplayName("Alta y modificación de un perfil horario: totalSemanal (@Formula) nunca sale desfasado")
+    void perfilHorario_escrituraRecalculaFormula() {
+        Long id = perfil().getId();
+        assertThat(entityManagerFactory.getCache().contains(PerfilHorario.class, id)).isFalse();
+        PerfilHorario leido = perfilHorarioRepository.findById(id).orElseThrow();
+        assertThat(leido.getTotalSemanal()).isEqualByComparingTo("39.00");
+
+        leido.setHorasViernes(new BigDecimal("8.00"));
+        perfilHorarioRepository.save(leido);
+
+        assertThat(perfilHorarioRepository.findById(id).orElseThrow().getTotalSemanal()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    @DisplayName("Listado de squads repetido: una sola consulta")
+    void squads_listadoDesdeCacheDeConsultas() {
+        squad();
+        squad();
+        estadisticas.clear();
+
+        int primera = squadRepository.findAll().size();
+        int segunda = squadRepository.findAll().size();
+
+        assertThat(segunda).isEqualTo(primera);
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Configuración de tipos por squad: caché de consultas invalidada al escribir en la tabla")
+    void configuracionJira_escrituraInvalidaConsulta() {
+        Squad squad = squad();
+        config(squad, "DESARROLLO");
+        estadisticas.clear();
+
+        assertThat(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(squad.getId())).hasSize(1);
+        assertThat(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(squad.getId())).hasSize(1);
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+
+        config(squad, "JUNIT");
+
+        assertThat(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(squad.getId())).hasSize(2);
+    }
+}
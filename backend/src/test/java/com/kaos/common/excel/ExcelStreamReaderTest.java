@@ -0,0 +1,77 @@
+package com.kaos.common.excel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para {@link ExcelStreamReader}.
+ * Valida la lectura por eventos frente a un libro generado con el modelo de usuario de POI.
+ */
+@DisplayName("ExcelStreamReader Tests - Lectura .xlsx en streaming")
+class ExcelStreamReaderTest {
+
+    @Test
+    @DisplayName("Entrega filas con su índice real, saltando filas ausentes, y números enteros sin decimales")
+    void leer_filasDispersas_indicesYValores() throws IOException {
+        byte[] xlsx;
+        try (Workbook wb = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            var sheet = wb.createSheet("FY26");
+            sheet.createRow(10).createCell(7).setCellValue("ENERO");
+            var dias = sheet.createRow(11);
+            dias.createCell(7).setCellValue(1);
+            dias.createCell(8).setCellValue(2.5);
+            var persona = sheet.createRow(13);
+            persona.createCell(1).setCellValue("  Ana  ");
+            persona.createCell(2).setCellValue(" ");
+            wb.write(out);
+            xlsx = out.toByteArray();
+        }
+
+        List<String> eventos = new ArrayList<>();
+        ExcelStreamReader.leer(new ByteArrayInputStream(xlsx), new ExcelStreamReader.ManejadorFilas() {
+            @Override
+            public void inicioHoja(String nombre) {
+                eventos.add("hoja:" + nombre);
+            }
+
+            @Override
+            public void fila(int indice, ExcelStreamReader.FilaExcel fila) {
+                switch (indice) {
+                    case 10 -> assertThat(fila.texto(7)).isEqualTo("ENERO");
+                    case 11 -> {
+                        assertThat(fila.texto(7)).isEqualTo("1");
+                        assertThat(fila.texto(8)).isEqualTo("2.5");
+                    }
+                    case 13 -> {
+                        assertThat(fila.texto(1)).isEqualTo("Ana");
+                        assertThat(fila.tieneValor(2)).isTrue();
+                        assertThat(fila.texto(2)).isNull();
+                        assertThat(fila.valor(7)).isNull();
+                    }
+                    default -> throw new AssertionError("Fila inesperada " + indice);
+                }
+                eventos.add("fila:" + indice);
+            }
+        });
+
+        assertThat(eventos).containsExactly("hoja:FY26", "fila:10", "fila:11", "fila:13");
+    }
+
+    @Test
+    @DisplayName("Contenido que no es .xlsx lanza IllegalArgumentException")
+    void leer_noXlsx_lanzaExcepcion() {
+        byte[] csv = "Nombre,Enero1\nAna,V\n".getBytes();
+
+        assertThatThrownBy(() -> ExcelStreamReader.leer(new ByteArrayInputStream(csv), (indice, fila) -> { }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
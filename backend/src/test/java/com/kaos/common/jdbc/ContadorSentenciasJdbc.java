@@ -0,0 +1,93 @@
+package com.kaos.common.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Cuenta lo que llega a la BD a través de un {@link DataSource}, para benchmarks.
+ * <ul>
+ *   <li><b>Viajes</b>: cada {@code execute*} de una sentencia, incluido {@code executeBatch}
+ *       (un lote JDBC es un viaje).</li>
+ *   <li><b>Sentencias</b>: cada ejecución suelta más cada fila añadida con {@code addBatch}.</li>
+ * </ul>
+ */
+public final class ContadorSentenciasJdbc {
+
+    private static final Set<String> EJECUCIONES =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+    private static final Set<String> LOTES = Set.of("executeBatch", "executeLargeBatch");
+
+    private final AtomicLong viajes = new AtomicLong();
+    private final AtomicLong sentencias = new AtomicLong();
+
+    /** DataSource cuyas conexiones cuentan en este contador. */
+    public DataSource envolver(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return envolver(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return envolver(super.getConnection(username, password));
+            }
+        };
+    }
+
+    public long viajes() {
+        return viajes.get();
+    }
+
+    public long sentencias() {
+        return sentencias.get();
+    }
+
+    public void reiniciar() {
+        viajes.set(0);
+        sentencias.set(0);
+    }
+
+    private Connection envolver(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(conexion, metodo, args);
+                    // Statement, PreparedStatement o CallableStatement, según el método que la creó
+                    return resultado instanceof Statement sentencia
+                            ? envolver(sentencia, metodo.getReturnType())
+                            : resultado;
+                });
+    }
+
+    private Statement envolver(Statement sentencia, Class<?> tipo) {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {tipo},
+                (proxy, metodo, args) -> {
+                    String nombre = metodo.getName();
+                    if (EJECUCIONES.contains(nombre)) {
+                        viajes.incrementAndGet();
+                        sentencias.incrementAndGet();
+                    } else if (LOTES.contains(nombre)) {
+                        viajes.incrementAndGet();
+                    } else if (nombre.equals("addBatch")) {
+                        sentencias.incrementAndGet();
+                    }
+                    return invocar(sentencia, metodo, args);
+                });
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.kaos.common.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import com.kaos.calendario.entity.Festivo;
+import com.kaos.calendario.entity.TipoFestivo;
+import com.kaos.calendario.repository.FestivoRepository;
+import com.kaos.common.jdbc.ContadorSentenciasJdbc;
+import com.kaos.squad.entity.Squad;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Benchmark de las escrituras masivas por JPA con ids de secuencia pooled y lotes JDBC
+ * ({@code hibernate.jdbc.batch_size}, {@code order_inserts}, {@code order_updates}).
+ * <p>
+ * Se ejecuta sobre H2 con el esquema generado por Hibernate (las secuencias {@code <tabla>_id_seq}
+ * salen de {@link SecuenciaPorTablaNamingStrategy}) y cuenta viajes y sentencias JDBC con
+ * {@link ContadorSentenciasJdbc}. Con {@code IDENTITY} cada fila era un viaje, porque Hibernate
+ * necesita el id generado y no puede agrupar los INSERT.
+ * </p>
+ */
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(InsercionEnLoteBenchmarkTest.ContarSentencias.class)
+@DisplayName("Benchmark de escrituras en lote con secuencias pooled")
+class InsercionEnLoteBenchmarkTest {
+
+    private static final int FILAS = 1_000;
+    private static final int LOTE = BaseEntity.TAMANO_BLOQUE_ID;
+
+    private static final ContadorSentenciasJdbc contador = new ContadorSentenciasJdbc();
+
+    @TestConfiguration
+    static class ContarSentencias {
+
+        @Bean
+        static BeanPostProcessor contarSentenciasJdbc() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nombre) {
+                    return bean instanceof DataSource dataSource ? contador.envolver(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private FestivoRepository festivoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private static List<Festivo> festivos(int n) {
+        return IntStream.range(0, n)
+                .<Festivo>mapToObj(i -> Festivo.builder()
+                        .fecha(LocalDate.of(2026, 1, 1).plusDays(i))
+                        .descripcion("Festivo " + i)
+                        .tipo(TipoFestivo.LOCAL)
+                        .ciudad("Ciudad " + (i % 10))
+                        .build())
+                .toList();
+    }
+
+    private static void informar(String escenario, int filas) {
+        log.info("[benchmark] {}: {} filas, {} sentencias en {} viajes (fila a fila serían {} viajes)",
+                escenario, filas, contador.sentencias(), contador.viajes(), filas);
+    }
+
+    @Test
+    @DisplayName("saveAll: un nextval y un lote de INSERT por cada 50 filas")
+    void saveAll_insertaEnLotes() {
+        List<Festivo> nuevos = festivos(FILAS);
+        contador.reiniciar();
+
+        festivoRepository.saveAll(nuevos);
+        entityManager.flush();
+        informar("saveAll", FILAS);
+
+        assertThat(nuevos).allSatisfy(f -> assertThat(f.getId()).isNotNull());
+        // Un bloque de ids y un lote por cada 50 filas; el primer bloque puede pedir un nextval extra
+        assertThat(contador.viajes()).isLessThanOrEqualTo(2L * FILAS / LOTE + 1);
+        assertThat(contador.sentencias()).isLessThanOrEqualTo(FILAS + FILAS / LOTE + 1L);
+    }
+
+    @Test
+    @DisplayName("Modificar entidades gestionadas: un lote de UPDATE por cada 50 filas")
+    void flush_actualizaEnLotes() {
+        List<Festivo> guardados = festivoRepository.saveAll(festivos(FILAS));
+        entityManager.flush();
+        contador.reiniciar();
+
+        guardados.forEach(f -> f.setTipo(TipoFestivo.REGIONAL));
+        entityManager.flush();
+        informar("update", FILAS);
+
+        assertThat(contador.viajes()).isEqualTo(FILAS / LOTE);
+        assertThat(contador.sentencias()).isEqualTo(FILAS);
+    }
+
+    @Test
+    @DisplayName("Entidades intercaladas: order_inserts agrupa los INSERT por tabla")
+    void entidadesIntercaladas_seAgrupanPorTabla() {
+        int porTabla = FILAS / 2;
+        List<Festivo> nuevos = festivos(porTabla);
+        List<Object> intercaladas = new ArrayList<>(FILAS);
+        for (int i = 0; i < porTabla; i++) {
+            intercaladas.add(nuevos.get(i));
+            intercaladas.add(Squad.builder().nombre("squad-" + i).build());
+        }
+        contador.reiniciar();
+
+        intercaladas.forEach(entityManager::persist);
+        entityManager.flush();
+        informar("intercaladas", FILAS);
+
+        // Sin ordenar, alternar tablas cerraría el lote en cada fila
+        assertThat(contador.viajes()).isLessThanOrEqualTo(2L * FILAS / LOTE + 2);
+    }
+}
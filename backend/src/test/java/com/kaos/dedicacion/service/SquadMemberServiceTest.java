@@ -1,5 +1,6 @@
 package com.kaos.dedicacion.service;
 
+import com.kaos.calendario.event.CapacidadInvalidadaEvent;
 import com.kaos.dedicacion.dto.SquadMemberRequest;
 import com.kaos.dedicacion.dto.SquadMemberResponse;
 import com.kaos.dedicacion.entity.SquadMember;
@@ -19,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -49,6 +51,9 @@ class SquadMemberServiceTest {
     @Mock
     private SquadRepository squadRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SquadMemberService service;
 
@@ -534,29 +539,27 @@ class SquadMemberServiceTest {
         @DisplayName("Debe eliminar asignación existente")
         void eliminar_asignacionExistente_elimina() {
             // Given
-            when(repository.existsById(1L)).thenReturn(true);
-            doNothing().when(repository).deleteById(1L);
+            when(repository.findById(1L)).thenReturn(Optional.of(squadMemberMock));
 
             // When
             service.eliminar(1L);
 
             // Then
-            verify(repository).existsById(1L);
-            verify(repository).deleteById(1L);
+            verify(repository).delete(squadMemberMock);
+            verify(eventPublisher).publishEvent(any(CapacidadInvalidadaEvent.class));
         }
 
         @Test
         @DisplayName("Debe lanzar EntityNotFoundException cuando asignación no existe")
         void eliminar_asignacionInexistente_lanzaExcepcion() {
             // Given
-            when(repository.existsById(999L)).thenReturn(false);
+            when(repository.findById(999L)).thenReturn(Optional.empty());
 
             // When / Then
             assertThatThrownBy(() -> service.eliminar(999L))
                     .isInstanceOf(EntityNotFoundException.class)
                     .hasMessageContaining("Asignación no encontrada con id: 999");
-            verify(repository).existsById(999L);
-            verify(repository, never()).deleteById(any());
+            verify(repository, never()).delete(any());
         }
     }
 }
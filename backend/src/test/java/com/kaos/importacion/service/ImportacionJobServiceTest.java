@@ -0,0 +1,338 @@
+package com.kaos.importacion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaos.importacion.dto.ImportacionJobResponse;
+import com.kaos.importacion.entity.EstadoImportacion;
+import com.kaos.importacion.entity.ImportacionJob;
+import com.kaos.importacion.entity.TipoImportacion;
+import com.kaos.importacion.repository.ImportacionJobRepository;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Tests unitarios para {@link ImportacionJobService}.
+ * El executor corre los jobs en el hilo del test y el procesador es un doble que
+ * registra la {@link ImportacionEnCurso} recibida.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImportacionJobService Tests")
+class ImportacionJobServiceTest {
+
+    @Mock
+    private ImportacionJobRepository repository;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProcesadorPrueba procesador = new ProcesadorPrueba();
+
+    record ParametrosPrueba(int año) {}
+
+    record ResultadoPrueba(int filas) {}
+
+    /**
+     * Procesador que confirma un bloque de 2 filas y opcionalmente falla después.
+     */
+    static class ProcesadorPrueba implements ProcesadorImportacion<ParametrosPrueba, ResultadoPrueba> {
+
+        final List<ImportacionEnCurso<ParametrosPrueba, ResultadoPrueba>> recibidas = new ArrayList<>();
+        boolean fallar;
+
+        @Override
+        public TipoImportacion getTipo() {
+            return TipoImportacion.VACACIONES_EXCEL;
+        }
+
+        @Override
+        public Class<ParametrosPrueba> getTipoParametros() {
+            return ParametrosPrueba.class;
+        }
+
+        @Override
+        public Class<ResultadoPrueba> getTipoResultado() {
+            return ResultadoPrueba.class;
+        }
+
+        @Override
+        public ResultadoPrueba procesar(ImportacionEnCurso<ParametrosPrueba, ResultadoPrueba> importacion)
+                throws IOException {
+            recibidas.add(importacion);
+            int previas = importacion.getResultadoPrevio().map(ResultadoPrueba::filas).orElse(0);
+            importacion.total(4);
+            importacion.confirmar(importacion.getFilaInicial() + 2, 0, new ResultadoPrueba(previas + 2));
+            if (fallar) {
+                throw new IOException("Fichero truncado");
+            }
+            return new ResultadoPrueba(previas + 2);
+        }
+    }
+
+    private ImportacionJobService crearServicio(Executor executor) {
+        return new ImportacionJobService(repository, objectMapper, List.of(procesador), tempDir, executor);
+    }
+
+    private ImportacionJob createJob(Long id, EstadoImportacion estado, Path fichero) {
+        return ImportacionJob.builder()
+                .id(id)
+                .tipo(TipoImportacion.VACACIONES_EXCEL)
+                .estado(estado)
+                .nombreFichero("vacaciones.xlsx")
+                .rutaFichero(fichero.toString())
+                .build();
+    }
+
+    private MockMultipartFile createFile() {
+        return new MockMultipartFile("file", "vacaciones 2026.xlsx", "application/octet-stream", "datos".getBytes());
+    }
+
+    // ══════════════════════════════════════════════════════════
+    // crear / ejecutar
+    // ══════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("crear")
+    class CrearTests {
+
+        @Test
+        @DisplayName("Registra el job PENDIENTE con una copia del fichero y lo ejecuta hasta COMPLETADA")
+        void crear_ejecutaJobHastaCompletada() {
+            // given
+            ImportacionJobService service = crearServicio(Runnable::run);
+            ImportacionJob[] guardado = new ImportacionJob[1];
+            when(repository.save(any(ImportacionJob.class))).thenAnswer(inv -> {
+                ImportacionJob job = inv.getArgument(0);
+                if (job.getId() == null) {
+                    job.setId(1L);
+                }
+                guardado[0] = job;
+                return job;
+            });
+            when(repository.findById(1L)).thenAnswer(inv -> Optional.of(guardado[0]));
+
+            // when
+            ImportacionJobResponse response = service.crear(
+                    TipoImportacion.VACACIONES_EXCEL, createFile(), new ParametrosPrueba(2026));
+
+            // then
+            assertThat(response.id()).isEqualTo(1L);
+            assertThat(procesador.recibidas).hasSize(1);
+            ImportacionEnCurso<ParametrosPrueba, ResultadoPrueba> recibida = procesador.recibidas.get(0);
+            assertThat(recibida.getParametros()).isEqualTo(new ParametrosPrueba(2026));
+            assertThat(recibida.getFilaInicial()).isZero();
+            assertThat(recibida.getFichero().getParent()).isEqualTo(tempDir);
+            assertThat(recibida.getFichero().getFileName().toString()).endsWith("-vacaciones_2026.xlsx");
+
+            assertThat(guardado[0].getEstado()).isEqualTo(EstadoImportacion.COMPLETADA);
+            assertThat(guardado[0].getResultado()).isEqualTo("{\"filas\":2}");
+            assertThat(guardado[0].getFinalizadoEn()).isNotNull();
+            assertThat(Files.exists(recibida.getFichero())).isFalse();
+            verify(repository).registrarTotal(1L, 4);
+            verify(repository).registrarProgreso(1L, 2, 0, "{\"filas\":2}");
+        }
+
+        @Test
+        @DisplayName("Tipo sin procesador lanza IllegalArgumentException")
+        void crear_tipoNoSoportado_lanzaExcepcion() {
+            // given
+            ImportacionJobService service = crearServicio(Runnable::run);
+
+            // when & then
+            assertThatThrownBy(() -> service.crear(TipoImportacion.FESTIVOS_CSV, createFile(), null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("FESTIVOS_CSV");
+            verify(repository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Cola llena deja el job FALLIDA y lanza IllegalStateException")
+        void crear_colaLlena_marcaFallida() {
+            // given
+            ImportacionJobService service = crearServicio(r -> {
+                throw new RejectedExecutionException("llena");
+            });
+            when(repository.save(any(ImportacionJob.class))).thenAnswer(inv -> {
+                ImportacionJob job = inv.getArgument(0);
+                job.setId(3L);
+                return job;
+            });
+
+            // when & then
+            assertThatThrownBy(() -> service.crear(TipoImportacion.VACACIONES_EXCEL, createFile(), null))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("3");
+            assertThat(procesador.recibidas).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Fallo a mitad conserva el progreso confirmado y el fichero para reanudar")
+        void ejecutar_fallo_marcaFallidaConservandoFichero() throws IOException {
+            // given
+            procesador.fallar = true;
+            ImportacionJobService service = crearServicio(Runnable::run);
+            Path fichero = Files.writeString(tempDir.resolve("vacaciones.xlsx"), "datos");
+            ImportacionJob job = createJob(4L, EstadoImportacion.PENDIENTE, fichero);
+            when(repository.findById(4L)).thenReturn(Optional.of(job));
+            when(repository.save(any(ImportacionJob.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            // when
+            service.ejecutar(4L);
+
+            // then
+            assertThat(job.getEstado()).isEqualTo(EstadoImportacion.FALLIDA);
+            assertThat(job.getMensajeError()).isEqualTo("Fichero truncado");
+            assertThat(Files.exists(fichero)).isTrue();
+            verify(repository).registrarProgreso(eq(4L), eq(2), eq(0), anyString());
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════
+    // reanudar
+    // ══════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("reanudar")
+    class ReanudarTests {
+
+        @Test
+        @DisplayName("Reanuda desde las filas confirmadas con el resultado acumulado")
+        void reanudar_jobFallido_continuaDesdeUltimoBloque() throws IOException {
+            // given
+            ImportacionJobService service = crearServicio(Runnable::run);
+            Path fichero = Files.writeString(tempDir.resolve("vacaciones.xlsx"), "datos");
+            ImportacionJob job = createJob(5L, EstadoImportacion.FALLIDA, fichero);
+            job.setFilasProcesadas(2);
+            job.setTotalFilas(4);
+            job.setResultado("{\"filas\":2}");
+            when(repository.findById(5L)).thenReturn(Optional.of(job));
+            when(repository.cambiarEstado(5L, EstadoImportacion.FALLIDA, EstadoImportacion.PENDIENTE)).thenReturn(1);
+            when(repository.save(any(ImportacionJob.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            // when
+            service.reanudar(5L);
+
+            // then
+            ImportacionEnCurso<ParametrosPrueba, ResultadoPrueba> recibida = procesador.recibidas.get(0);
+            assertThat(recibida.getFilaInicial()).isEqualTo(2);
+            assertThat(recibida.getResultadoPrevio()).contains(new ResultadoPrueba(2));
+            assertThat(job.getFilasIniciales()).isEqualTo(2);
+            assertThat(job.getEstado()).isEqualTo(EstadoImportacion.COMPLETADA);
+            assertThat(job.getResultado()).isEqualTo("{\"filas\":4}");
+        }
+
+        @Test
+        @DisplayName("Job no FALLIDA lanza IllegalStateException sin encolar")
+        void reanudar_jobNoFallido_lanzaExcepcion() throws IOException {
+            // given
+            ImportacionJobService service = crearServicio(Runnable::run);
+            Path fichero = Files.writeString(tempDir.resolve("vacaciones.xlsx"), "datos");
+            when(repository.findById(6L)).thenReturn(Optional.of(createJob(6L, EstadoImportacion.EN_CURSO, fichero)));
+            when(repository.cambiarEstado(6L, EstadoImportacion.FALLIDA, EstadoImportacion.PENDIENTE)).thenReturn(0);
+
+            // when & then
+            assertThatThrownBy(() -> service.reanudar(6L))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("EN_CURSO");
+            assertThat(procesador.recibidas).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Fichero eliminado lanza IllegalStateException")
+        void reanudar_sinFichero_lanzaExcepcion() {
+            // given
+            ImportacionJobService service = crearServicio(Runnable::run);
+            when(repository.findById(7L)).thenReturn(Optional.of(
+                    createJob(7L, EstadoImportacion.FALLIDA, tempDir.resolve("borrado.xlsx"))));
+
+            // when & then
+            assertThatThrownBy(() -> service.reanudar(7L))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("ya no está disponible");
+            verify(repository, never()).cambiarEstado(any(), any(), any());
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════
+    // obtener / marcarInterrumpidas
+    // ══════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("obtener y marcarInterrumpidas")
+    class EstadoTests {
+
+        @Test
+        @DisplayName("Job en curso informa porcentaje, ritmo de la ejecución actual y ETA")
+        void obtener_jobEnCurso_calculaRitmoYEta() {
+            // given
+            ImportacionJobService service = crearServicio(Runnable::run);
+            ImportacionJob job = createJob(8L, EstadoImportacion.EN_CURSO, tempDir.resolve("x.xlsx"));
+            job.setTotalFilas(100);
+            job.setFilasIniciales(10);
+            job.setFilasProcesadas(60);
+            job.setIniciadoEn(LocalDateTime.now().minusSeconds(10));
+            when(repository.findById(8L)).thenReturn(Optional.of(job));
+
+            // when
+            ImportacionJobResponse response = service.obtener(8L);
+
+            // then: 50 filas en ~10 s → ~5 filas/s, quedan 40 → ~8 s
+            assertThat(response.porcentaje()).isEqualTo(60.0);
+            assertThat(response.filasPorSegundo()).isBetween(4.9, 5.0);
+            assertThat(response.segundosRestantes()).isBetween(8L, 9L);
+        }
+
+        @Test
+        @DisplayName("Job inexistente lanza EntityNotFoundException")
+        void obtener_noExiste_lanzaExcepcion() {
+            // given
+            ImportacionJobService service = crearServicio(Runnable::run);
+            when(repository.findById(99L)).thenReturn(Optional.empty());
+
+            // when & then
+            assertThatThrownBy(() -> service.obtener(99L))
+                    .isInstanceOf(EntityNotFoundException.class)
+                    .hasMessageContaining("99");
+        }
+
+        @Test
+        @DisplayName("Al arrancar, los jobs PENDIENTE y EN_CURSO pasan a FALLIDA")
+        void marcarInterrumpidas_pasanAFallida() {
+            // given
+            ImportacionJobService service = crearServicio(Runnable::run);
+            ImportacionJob enCurso = createJob(9L, EstadoImportacion.EN_CURSO, tempDir.resolve("x.xlsx"));
+            when(repository.findByEstadoIn(List.of(EstadoImportacion.PENDIENTE, EstadoImportacion.EN_CURSO)))
+                    .thenReturn(List.of(enCurso));
+
+            // when
+            service.marcarInterrumpidas();
+
+            // then
+            assertThat(enCurso.getEstado()).isEqualTo(EstadoImportacion.FALLIDA);
+            assertThat(enCurso.getMensajeError()).contains("reinicio");
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaos.jira.dto.IssueJira;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests de {@link BusquedaPaginadaJira} contra un sustituto local de
+ * {@code /rest/api/2/search} (servidor HTTP del JDK) con latencia simulada por página.
+ */
+@DisplayName("BusquedaPaginadaJira")
+class BusquedaPaginadaJiraTest {
+
+    private static final String JQL = "project = RED ORDER BY updated ASC";
+    private static final String CAMPOS = JiraSyncService.CAMPOS_IMPORTACION;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final AtomicInteger maxEnVuelo = new AtomicInteger();
+    private final AtomicInteger peticiones = new AtomicInteger();
+    private final Set<String> camposRecibidos = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, AtomicInteger> startAtPedidos = new ConcurrentHashMap<>();
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+
+    /** Configuración del proyecto simulado; se puede cambiar antes de cada búsqueda. */
+    private volatile int totalIssues = 5_000;
+    private volatile int maxResultsServidor = 100;
+    private volatile long latenciaMs = 20;
+    private volatile int startAtConError = -1;
+
+    @BeforeEach
+    void arrancarJira() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext(BusquedaPaginadaJira.RUTA_BUSQUEDA, this::responderBusqueda);
+        servidor.start();
+    }
+
+    @AfterEach
+    void pararJira() {
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+    }
+
+    private void responderBusqueda(HttpExchange exchange) throws IOException {
+        int actuales = enVuelo.incrementAndGet();
+        maxEnVuelo.accumulateAndGet(actuales, Math::max);
+        peticiones.incrementAndGet();
+        try {
+            Map<String, String> params = parametros(exchange.getRequestURI().getRawQuery());
+            camposRecibidos.add(params.get("fields"));
+            int startAt = Integer.parseInt(params.getOrDefault("startAt", "0"));
+            startAtPedidos.computeIfAbsent(startAt, k -> new AtomicInteger()).incrementAndGet();
+            int maxResults = Math.min(Integer.parseInt(params.getOrDefault("maxResults", "50")), maxResultsServidor);
+            Thread.sleep(latenciaMs);
+
+            if (startAt == startAtConError) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            List<Map<String, Object>> issues = new ArrayList<>();
+            for (int i = startAt; i < Math.min(startAt + maxResults, totalIssues); i++) {
+                issues.add(Map.of(
+                        "key", "RED-" + (i + 1),
+                        "fields", Map.of("summary", "Issue " + (i + 1), "status", Map.of("name", "To Do"))));
+            }
+            byte[] cuerpo = objectMapper.writeValueAsBytes(Map.of(
+                    "startAt", startAt, "maxResults", maxResults, "total", totalIssues, "issues", issues));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(cuerpo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            enVuelo.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> parametros(String query) {
+        Map<String, String> params = new HashMap<>();
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            params.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                    URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private BusquedaPaginadaJira busqueda(int paralelismo) {
+        RestClient client = RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + servidor.getAddress().getPort())
+                .build();
+        return new BusquedaPaginadaJira(client, new LectorBusquedaJira("customfield_10020"),
+                JiraSyncService.JIRA_MAX_RESULTS, paralelismo);
+    }
+
+    private static Set<String> claves(List<List<IssueJira>> paginas) {
+        Set<String> claves = new HashSet<>();
+        paginas.forEach(p -> p.forEach(issue -> claves.add(issue.jiraKey())));
+        return claves;
+    }
+
+    @Test
+    @DisplayName("Proyecto de 5.000 issues: entrega todas las páginas sin truncar a 100")
+    void recorrer_proyectoGrande_devuelveTodasLasIssues() {
+        List<List<IssueJira>> paginas = new ArrayList<>();
+
+        int entregadas = busqueda(8).recorrer(JQL, CAMPOS, paginas::add);
+
+        assertThat(entregadas).isEqualTo(5_000);
+        assertThat(paginas).hasSize(50);
+        assertThat(claves(paginas)).hasSize(5_000).contains("RED-1", "RED-5000");
+        assertThat(peticiones.get()).isEqualTo(50);
+        assertThat(camposRecibidos).containsExactly(CAMPOS);
+    }
+
+    @Test
+    @DisplayName("Usa el maxResults que devuelve Jira si es menor que el pedido")
+    void recorrer_jiraRebajaMaxResults_ajustaTamanoPagina() {
+        maxResultsServidor = 40;
+        totalIssues = 1_000;
+        List<List<IssueJira>> paginas = new ArrayList<>();
+
+        int entregadas = busqueda(4).recorrer(JQL, CAMPOS, paginas::add);
+
+        assertThat(entregadas).isEqualTo(1_000);
+        assertThat(paginas).hasSize(25);
+        assertThat(claves(paginas)).hasSize(1_000);
+    }
+
+    @Test
+    @DisplayName("Una sola página no lanza peticiones adicionales")
+    void recorrer_unaPagina_unaPeticion() {
+        totalIssues = 30;
+        List<List<IssueJira>> paginas = new ArrayList<>();
+
+        int entregadas = busqueda(4).recorrer(JQL, CAMPOS, paginas::add);
+
+        assertThat(entregadas).isEqualTo(30);
+        assertThat(peticiones.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("No supera el paralelismo y entrega las páginas en el hilo llamante")
+    void recorrer_respetaParalelismoYHiloLlamante() {
+        totalIssues = 2_000;
+        Thread llamante = Thread.currentThread();
+        Set<Thread> hilosConsumidor = ConcurrentHashMap.newKeySet();
+
+        busqueda(3).recorrer(JQL, CAMPOS, pagina -> hilosConsumidor.add(Thread.currentThread()));
+
+        assertThat(maxEnVuelo.get()).isLessThanOrEqualTo(3).isGreaterThan(1);
+        assertThat(hilosConsumidor).containsExactly(llamante);
+    }
+
+    @Test
+    @DisplayName("Convierte cada issue en un registro con los campos de importación")
+    void recorrer_convierteIssues() {
+        totalIssues = 3;
+        List<IssueJira> issues = new ArrayList<>();
+
+        busqueda(4).recorrer(JQL, CAMPOS, issues::addAll);
+
+        assertThat(issues).extracting(IssueJira::jiraKey, IssueJira::titulo, IssueJira::estado)
+            .containsExactly(
+                tuple("RED-1", "Issue 1", "To Do"),
+                tuple("RED-2", "Issue 2", "To Do"),
+                tuple("RED-3", "Issue 3", "To Do"));
+    }
+
+    @Test
+    @DisplayName("Un error en una página se propaga en lugar de devolver resultados parciales como completos")
+    void recorrer_errorEnPagina_lanzaExcepcion() {
+        startAtConError = 1_200;
+
+        assertThatThrownBy(() -> busqueda(4).recorrer(JQL, CAMPOS, pagina -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("503");
+    }
+
+    @Test
+    @DisplayName("Con paralelismo solapa peticiones sin superar el límite y pide cada página una sola vez")
+    void recorrer_paralelo_solapaPeticionesSinRepetirPaginas() {
+        int secuencial = busqueda(1).recorrer(JQL, CAMPOS, pagina -> { });
+        assertThat(maxEnVuelo.get()).isEqualTo(1);
+
+        maxEnVuelo.set(0);
+        startAtPedidos.clear();
+        int paralelo = busqueda(8).recorrer(JQL, CAMPOS, pagina -> { });
+
+        assertThat(secuencial).isEqualTo(paralelo).isEqualTo(5_000);
+        assertThat(maxEnVuelo.get()).isGreaterThan(1).isLessThanOrEqualTo(8);
+        assertThat(startAtPedidos).hasSize(50).containsOnlyKeys(
+                IntStream.range(0, 50).map(i -> i * 100).boxed().toList());
+        assertThat(startAtPedidos.values()).allSatisfy(veces -> assertThat(veces.get()).isEqualTo(1));
+    }
+}
@@ -0,0 +1,82 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.kaos.jira.service.CircuitoJira.Estado;
+
+/**
+ * Tests unitarios para {@link CircuitoJira}, con reloj manual.
+ */
+@DisplayName("CircuitoJira")
+class CircuitoJiraTest {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+
+    private final AtomicLong ahora = new AtomicLong();
+    private final CircuitoJira circuito = new CircuitoJira(3, 60 * SEGUNDO, ahora::get);
+
+    private void fallar(int veces) {
+        for (int i = 0; i < veces; i++) {
+            circuito.permitir();
+            circuito.registrarFallo();
+        }
+    }
+
+    @Test
+    @DisplayName("Se abre al llegar al umbral de fallos seguidos y rechaza sin enviar")
+    void umbral_abreYRechaza() {
+        fallar(2);
+        assertThat(circuito.permitir()).isTrue();
+
+        circuito.registrarFallo();
+
+        assertThat(circuito.estado()).isEqualTo(Estado.ABIERTO);
+        assertThat(circuito.permitir()).isFalse();
+        assertThat(circuito.msHastaPrueba()).isEqualTo(60_000);
+    }
+
+    @Test
+    @DisplayName("Un éxito reinicia la cuenta de fallos seguidos")
+    void exito_reiniciaCuenta() {
+        fallar(2);
+        circuito.registrarExito();
+        fallar(2);
+
+        assertThat(circuito.estado()).isEqualTo(Estado.CERRADO);
+    }
+
+    @Test
+    @DisplayName("Pasada la apertura deja pasar una sola prueba; si va bien se cierra")
+    void apertura_pruebaCorrecta_cierra() {
+        fallar(3);
+        ahora.addAndGet(60 * SEGUNDO);
+
+        assertThat(circuito.permitir()).isTrue();
+        assertThat(circuito.estado()).isEqualTo(Estado.SEMIABIERTO);
+        assertThat(circuito.permitir()).isFalse();
+
+        circuito.registrarExito();
+
+        assertThat(circuito.estado()).isEqualTo(Estado.CERRADO);
+        assertThat(circuito.permitir()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Si la prueba falla vuelve a abrirse con una apertura completa")
+    void apertura_pruebaFallida_reabre() {
+        fallar(3);
+        ahora.addAndGet(61 * SEGUNDO);
+        assertThat(circuito.permitir()).isTrue();
+
+        circuito.registrarFallo();
+
+        assertThat(circuito.estado()).isEqualTo(Estado.ABIERTO);
+        assertThat(circuito.permitir()).isFalse();
+        ahora.addAndGet(59 * SEGUNDO);
+        assertThat(circuito.permitir()).isFalse();
+        ahora.addAndGet(SEGUNDO);
+        assertThat(circuito.permitir()).isTrue();
+    }
+}
@@ -0,0 +1,83 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.kaos.jira.entity.JiraIssueTypeConfig;
+import com.kaos.jira.event.JiraIssueTypeConfigModificadaEvent;
+import com.kaos.jira.repository.JiraIssueTypeConfigRepository;
+
+/**
+ * Tests unitarios para {@link ClasificadorSubtiposCache}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClasificadorSubtiposCache")
+class ClasificadorSubtiposCacheTest {
+
+    @Mock
+    private JiraIssueTypeConfigRepository jiraIssueTypeConfigRepository;
+
+    private ClasificadorSubtiposCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ClasificadorSubtiposCache(jiraIssueTypeConfigRepository);
+    }
+
+    private static JiraIssueTypeConfig config(String patron, String subtipo) {
+        JiraIssueTypeConfig cfg = new JiraIssueTypeConfig();
+        cfg.setTipoJira("Sub-task");
+        cfg.setPatronNombre(patron);
+        cfg.setSubtipoKaos(subtipo);
+        return cfg;
+    }
+
+    @Test
+    @DisplayName("Segunda consulta del mismo squad no vuelve a BD")
+    void obtener_mismoSquad_reutiliza() {
+        when(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(1L))
+            .thenReturn(List.of(config("desarrollo.*", "DESARROLLO")));
+
+        ClasificadorSubtipos primero = cache.obtener(1L);
+        ClasificadorSubtipos segundo = cache.obtener(1L);
+
+        assertThat(segundo).isSameAs(primero);
+        verify(jiraIssueTypeConfigRepository, times(1)).findBySquadIdAndActivaTrue(1L);
+    }
+
+    @Test
+    @DisplayName("Un cambio en la configuración del squad reconstruye su clasificador")
+    void onConfigModificada_reconstruyeSquad() {
+        when(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(1L))
+            .thenReturn(List.of(config("desarrollo.*", "DESARROLLO")))
+            .thenReturn(List.of(config("desarrollo.*", "DEV")));
+        when(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(2L)).thenReturn(List.of());
+        cache.obtener(1L);
+        cache.obtener(2L);
+
+        cache.onConfigModificada(new JiraIssueTypeConfigModificadaEvent(1L));
+
+        assertThat(cache.tamanio()).isEqualTo(1);
+        assertThat(cache.obtener(1L).clasificar("Sub-task", "Desarrollo de login")).isEqualTo("DEV");
+        verify(jiraIssueTypeConfigRepository, times(1)).findBySquadIdAndActivaTrue(2L);
+    }
+
+    @Test
+    @DisplayName("Un evento sin squad vacía la caché")
+    void onConfigModificada_sinSquad_vaciaTodo() {
+        when(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(1L)).thenReturn(List.of());
+        cache.obtener(1L);
+
+        cache.onConfigModificada(new JiraIssueTypeConfigModificadaEvent(null));
+
+        assertThat(cache.tamanio()).isZero();
+    }
+}
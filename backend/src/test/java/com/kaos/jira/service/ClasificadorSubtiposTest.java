@@ -0,0 +1,196 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import com.kaos.jira.entity.JiraIssueTypeConfig;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tests unitarios para {@link ClasificadorSubtipos}.
+ * Valida la prioridad de los patrones y la agrupación por tipo, y que un lote grande se
+ * clasifica igual que compilando los patrones por issue sin volver a compilarlos. La
+ * comparación de tiempos depende de la máquina y solo se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@DisplayName("ClasificadorSubtipos")
+class ClasificadorSubtiposTest {
+
+    private static JiraIssueTypeConfig config(Long id, String tipo, String patron, String subtipo) {
+        JiraIssueTypeConfig cfg = new JiraIssueTypeConfig();
+        cfg.setId(id);
+        cfg.setTipoJira(tipo);
+        cfg.setPatronNombre(patron);
+        cfg.setSubtipoKaos(subtipo);
+        return cfg;
+    }
+
+    @Nested
+    @DisplayName("clasificar()")
+    class ClasificarTests {
+
+        @Test
+        @DisplayName("Gana el primer patrón por id aunque otro posterior también encaje")
+        void clasificar_variosEncajan_ganaElDeMenorId() {
+            ClasificadorSubtipos clasificador = ClasificadorSubtipos.compilar(List.of(
+                    config(3L, "Sub-task", ".*login.*", "OTRO"),
+                    config(1L, "Sub-task", "desarrollo.*", "DESARROLLO"),
+                    config(2L, "Sub-task", "junit.*", "JUNIT")));
+
+            assertThat(clasificador.clasificar("Sub-task", "Desarrollo de login")).isEqualTo("DESARROLLO");
+            assertThat(clasificador.clasificar("Sub-task", "JUnit de login")).isEqualTo("JUNIT");
+            assertThat(clasificador.clasificar("Sub-task", "Revisar login")).isEqualTo("OTRO");
+        }
+
+        @Test
+        @DisplayName("Un prefijo que encaja parcialmente no impide probar los siguientes patrones")
+        void clasificar_encajeParcial_pruebaSiguiente() {
+            ClasificadorSubtipos clasificador = ClasificadorSubtipos.compilar(List.of(
+                    config(1L, "Sub-task", "doc", "CORTO"),
+                    config(2L, "Sub-task", "doc.*", "DOCUMENTACION")));
+
+            assertThat(clasificador.clasificar("Sub-task", "Doc")).isEqualTo("CORTO");
+            assertThat(clasificador.clasificar("Sub-task", "Documentación API")).isEqualTo("DOCUMENTACION");
+        }
+
+        @Test
+        @DisplayName("Los patrones se agrupan por tipo Jira")
+        void clasificar_porTipo() {
+            ClasificadorSubtipos clasificador = ClasificadorSubtipos.compilar(List.of(
+                    config(1L, "Sub-task", "desarrollo.*", "DESARROLLO"),
+                    config(2L, "Sub-bug", "desarrollo.*", "CORRECCION")));
+
+            assertThat(clasificador.clasificar("Sub-bug", "Desarrollo del fix")).isEqualTo("CORRECCION");
+            assertThat(clasificador.clasificar("Story", "Desarrollo del fix")).isEqualTo("OTROS");
+            assertThat(clasificador.clasificar(null, "Desarrollo del fix")).isEqualTo("OTROS");
+        }
+
+        @Test
+        @DisplayName("Patrones con referencias a grupos funcionan igual que por separado")
+        void clasificar_referenciaAGrupo() {
+            ClasificadorSubtipos clasificador = ClasificadorSubtipos.compilar(List.of(
+                    config(1L, "Sub-task", "(\\w+) y \\1", "REPETIDO"),
+                    config(2L, "Sub-task", "junit.*", "JUNIT")));
+
+            assertThat(clasificador.clasificar("Sub-task", "tests y tests")).isEqualTo("REPETIDO");
+            assertThat(clasificador.clasificar("Sub-task", "junit y otra cosa")).isEqualTo("JUNIT");
+        }
+
+        @Test
+        @DisplayName("Un patrón inválido se ignora sin afectar al resto")
+        void clasificar_patronInvalido_seIgnora() {
+            ClasificadorSubtipos clasificador = ClasificadorSubtipos.compilar(List.of(
+                    config(1L, "Sub-task", "desarrollo[", "ROTO"),
+                    config(2L, "Sub-task", "desarrollo.*", "DESARROLLO")));
+
+            assertThat(clasificador.clasificar("Sub-task", "Desarrollo de login")).isEqualTo("DESARROLLO");
+        }
+
+        @Test
+        @DisplayName("Summary null o sin configuraciones → OTROS")
+        void clasificar_sinDatos_otros() {
+            ClasificadorSubtipos clasificador = ClasificadorSubtipos.compilar(List.of(
+                    config(1L, "Sub-task", "desarrollo.*", "DESARROLLO")));
+
+            assertThat(clasificador.clasificar("Sub-task", null)).isEqualTo("OTROS");
+            assertThat(ClasificadorSubtipos.compilar(List.of()).clasificar("Sub-task", "Desarrollo"))
+                .isEqualTo("OTROS");
+        }
+    }
+
+    @Nested
+    @DisplayName("Rendimiento")
+    class RendimientoTests {
+
+        private static final int SUMMARIES = 10_000;
+        private static final int PATRONES = 30;
+
+        /** Implementación anterior: compila cada patrón para cada issue. */
+        private String detectarCompilandoPorIssue(String summary, List<JiraIssueTypeConfig> configs) {
+            for (JiraIssueTypeConfig cfg : configs) {
+                if (Pattern.compile(cfg.getPatronNombre(), Pattern.CASE_INSENSITIVE).matcher(summary).matches()) {
+                    return cfg.getSubtipoKaos();
+                }
+            }
+            return ClasificadorSubtipos.SUBTIPO_OTROS;
+        }
+
+        private List<JiraIssueTypeConfig> configs() {
+            List<JiraIssueTypeConfig> configs = new ArrayList<>();
+            for (int p = 0; p < PATRONES; p++) {
+                configs.add(config((long) p + 1, "Sub-task", "(tarea|task)[ -]" + p + "\\b.*", "SUBTIPO_" + p));
+            }
+            return configs;
+        }
+
+        private List<String> summaries() {
+            List<String> summaries = new ArrayList<>();
+            for (int i = 0; i < SUMMARIES; i++) {
+                // un tercio no encaja con ningún patrón (peor caso: se prueban los 30)
+                summaries.add(i % 3 == 0 ? "Revisión " + i : "Tarea " + (i / 3 % PATRONES) + " del issue " + i);
+            }
+            return summaries;
+        }
+
+        @Test
+        @DisplayName("10.000 summaries × 30 patrones: mismo resultado que compilar por issue, sin volver a leer los patrones")
+        void clasificar_loteGrande_compilaUnaSolaVez() {
+            List<JiraIssueTypeConfig> configs = configs();
+            List<String> summaries = summaries();
+            List<String> esperados = new ArrayList<>(SUMMARIES);
+            for (String summary : summaries) {
+                esperados.add(detectarCompilandoPorIssue(summary, configs));
+            }
+
+            List<JiraIssueTypeConfig> observadas = configs.stream().map(Mockito::spy).toList();
+            ClasificadorSubtipos clasificador = ClasificadorSubtipos.compilar(observadas);
+            clearInvocations(observadas.toArray());
+            List<String> obtenidos = new ArrayList<>(SUMMARIES);
+            for (String summary : summaries) {
+                obtenidos.add(clasificador.clasificar("Sub-task", summary));
+            }
+
+            assertThat(obtenidos).isEqualTo(esperados);
+            assertThat(obtenidos).contains("SUBTIPO_0", "SUBTIPO_29", "OTROS");
+            // Los patrones se compilaron en compilar(): clasificar no vuelve a las configuraciones
+            observadas.forEach(Mockito::verifyNoInteractions);
+        }
+
+        @Test
+        @Tag("benchmark")
+        @DisplayName("10.000 summaries × 30 patrones: el clasificador compilado es al menos 3 veces más rápido")
+        void clasificar_loteGrande_masRapidoQueCompilarPorIssue() {
+            List<JiraIssueTypeConfig> configs = configs();
+            List<String> summaries = summaries();
+
+            long msPorIssue = Long.MAX_VALUE;
+            long msCompilado = Long.MAX_VALUE;
+            // La primera vuelta calienta el JIT; se queda el mejor tiempo de cada forma
+            for (int vuelta = 0; vuelta < 4; vuelta++) {
+                long inicio = System.nanoTime();
+                for (String summary : summaries) {
+                    detectarCompilandoPorIssue(summary, configs);
+                }
+                msPorIssue = Math.min(msPorIssue, (System.nanoTime() - inicio) / 1_000_000);
+
+                inicio = System.nanoTime();
+                ClasificadorSubtipos clasificador = ClasificadorSubtipos.compilar(configs);
+                for (String summary : summaries) {
+                    clasificador.clasificar("Sub-task", summary);
+                }
+                msCompilado = Math.min(msCompilado, (System.nanoTime() - inicio) / 1_000_000);
+            }
+
+            log.info("[benchmark] clasificador de subtipos, {} summaries × {} patrones: {} ms compilando por issue, "
+                    + "{} ms con el clasificador compilado", SUMMARIES, PATRONES, msPorIssue, msCompilado);
+            assertThat(msCompilado * 3).isLessThan(msPorIssue);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import com.kaos.jira.dto.IssueJira;
+import com.kaos.jira.service.ColaWebhookJira.Pendiente;
+
+/**
+ * Tests unitarios para {@link ColaWebhookJira}.
+ * Los instantes se pasan explícitamente (ms convertidos a ns) para no depender del reloj.
+ */
+@DisplayName("ColaWebhookJira")
+class ColaWebhookJiraTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final ColaWebhookJira cola = new ColaWebhookJira(100 * MS, 3);
+
+    private static Pendiente modificada(String clave, String estado) {
+        return Pendiente.modificada(new IssueJira(clave, "Título " + clave, "Story", estado, null, null, null));
+    }
+
+    @Nested
+    @DisplayName("encolar() - Agrupación")
+    class AgrupacionTests {
+
+        @Test
+        @DisplayName("Varios eventos de la misma issue en la ventana → un único cambio con el último")
+        void encolar_mismaClave_agrupaYConservaElUltimo() {
+            cola.encolar(modificada("RED-1", "To Do"), 0);
+            cola.encolar(modificada("RED-1", "In Progress"), 10 * MS);
+            cola.encolar(modificada("RED-1", "Done"), 20 * MS);
+
+            assertThat(cola.tamanio()).isEqualTo(1);
+            assertThat(cola.agrupados()).isEqualTo(2);
+            assertThat(cola.extraerListos(100 * MS, 10)).singleElement()
+                .satisfies(p -> assertThat(p.issue().estado()).isEqualTo("Done"));
+        }
+
+        @Test
+        @DisplayName("Un borrado posterior sustituye a la modificación pendiente")
+        void encolar_borradoTrasModificacion_quedaBorrado() {
+            cola.encolar(modificada("RED-1", "To Do"), 0);
+            cola.encolar(Pendiente.eliminada("RED-1"), 5 * MS);
+
+            assertThat(cola.extraerListos(100 * MS, 10)).containsExactly(Pendiente.eliminada("RED-1"));
+        }
+
+        @Test
+        @DisplayName("Cola llena: rechaza claves nuevas pero sigue agrupando las pendientes")
+        void encolar_colaLlena_rechazaSoloClavesNuevas() {
+            assertThat(cola.encolar(modificada("RED-1", "A"), 0)).isTrue();
+            assertThat(cola.encolar(modificada("RED-2", "A"), 0)).isTrue();
+            assertThat(cola.encolar(modificada("RED-3", "A"), 0)).isTrue();
+
+            assertThat(cola.encolar(modificada("RED-4", "A"), 0)).isFalse();
+            assertThat(cola.encolar(modificada("RED-2", "B"), 0)).isTrue();
+            assertThat(cola.rechazados()).isEqualTo(1);
+            assertThat(cola.tamanio()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Ventana negativa o capacidad 0 → IllegalArgumentException")
+        void constructor_parametrosInvalidos_lanzaExcepcion() {
+            assertThatThrownBy(() -> new ColaWebhookJira(-1, 10)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> new ColaWebhookJira(0, 0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("extraerListos() - Ventana")
+    class VentanaTests {
+
+        @Test
+        @DisplayName("No saca nada antes de que venza la ventana del primer evento")
+        void extraerListos_antesDeLaVentana_vacio() {
+            cola.encolar(modificada("RED-1", "A"), 0);
+
+            assertThat(cola.extraerListos(99 * MS, 10)).isEmpty();
+            assertThat(cola.tamanio()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("La ventana cuenta desde el primer evento: los eventos seguidos no la alargan")
+        void extraerListos_eventosContinuos_noRetrasanLaIssue() {
+            cola.encolar(modificada("RED-1", "A"), 0);
+            cola.encolar(modificada("RED-1", "B"), 90 * MS);
+
+            assertThat(cola.extraerListos(100 * MS, 10)).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Saca en orden de llegada, solo las vencidas y como mucho el máximo")
+        void extraerListos_ordenYMaximo() {
+            cola.encolar(modificada("RED-1", "A"), 0);
+            cola.encolar(modificada("RED-2", "A"), 10 * MS);
+            cola.encolar(modificada("RED-3", "A"), 50 * MS);
+
+            assertThat(cola.extraerListos(120 * MS, 1)).extracting(Pendiente::jiraKey).containsExactly("RED-1");
+            assertThat(cola.extraerListos(120 * MS, 10)).extracting(Pendiente::jiraKey).containsExactly("RED-2");
+            assertThat(cola.extraerListos(150 * MS, 10)).extracting(Pendiente::jiraKey).containsExactly("RED-3");
+            assertThat(cola.tamanio()).isZero();
+        }
+
+        @Test
+        @DisplayName("Una clave aplicada vuelve a encolarse con una ventana nueva")
+        void extraerListos_claveAplicada_nuevaVentana() {
+            cola.encolar(modificada("RED-1", "A"), 0);
+            cola.extraerListos(100 * MS, 10);
+
+            cola.encolar(modificada("RED-1", "B"), 150 * MS);
+
+            assertThat(cola.extraerListos(200 * MS, 10)).isEmpty();
+            assertThat(cola.extraerListos(250 * MS, 10)).hasSize(1);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests de {@link InterceptorResilienciaJira} contra un servidor HTTP local del JDK cuyas
+ * respuestas se programan en cada test. Las esperas entre reintentos se registran en vez
+ * de dormir.
+ */
+@DisplayName("InterceptorResilienciaJira")
+class InterceptorResilienciaJiraTest {
+
+    private static final Duration ESPERA_BASE = Duration.ofMillis(100);
+    private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(10);
+
+    /** Respuesta del servidor a la petición n (desde 0). */
+    @FunctionalInterface
+    private interface Guion {
+        void responder(int n, HttpExchange exchange) throws Exception;
+    }
+
+    private record Resultado(int codigo, String cuerpo) {
+    }
+
+    private final AtomicInteger peticiones = new AtomicInteger();
+    private final List<String> acceptEncoding = new CopyOnWriteArrayList<>();
+    private final List<Long> esperas = new CopyOnWriteArrayList<>();
+    private volatile Guion guion = (n, exchange) -> responder(exchange, 200, "ok");
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void arrancar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/", exchange -> {
+            int n = peticiones.getAndIncrement();
+            acceptEncoding.add(String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+            try {
+                guion.responder(n, exchange);
+            } catch (Exception e) {
+                // La conexión se cierra sin respuesta
+            } finally {
+                exchange.close();
+            }
+        });
+        servidor.start();
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    }
+
+    @AfterEach
+    void parar() {
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+        httpClient.close();
+    }
+
+    private static void responder(HttpExchange exchange, int codigo, String cuerpo) throws IOException {
+        byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(codigo, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private RestClient cliente(CircuitoJira circuito, int reintentos, Duration timeoutLectura) {
+        JdkClientHttpRequestFactory fabrica = new JdkClientHttpRequestFactory(httpClient);
+        fabrica.setReadTimeout(timeoutLectura);
+        return RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + servidor.getAddress().getPort())
+                .requestFactory(fabrica)
+                .requestInterceptor(new InterceptorResilienciaJira(
+                        "127.0.0.1", circuito, reintentos, ESPERA_BASE, ESPERA_MAXIMA, esperas::add))
+                .build();
+    }
+
+    private RestClient cliente(int reintentos) {
+        return cliente(new CircuitoJira(100, Duration.ofMinutes(1).toNanos(), System::nanoTime),
+                reintentos, Duration.ofSeconds(5));
+    }
+
+    private static Resultado pedir(RestClient cliente) {
+        return cliente.get().uri("/rest/api/2/search")
+                .exchange((peticion, respuesta) -> new Resultado(respuesta.getStatusCode().value(),
+                        StreamUtils.copyToString(respuesta.getBody(), StandardCharsets.UTF_8)));
+    }
+
+    @Nested
+    @DisplayName("Reintentos")
+    class ReintentosTests {
+
+        @Test
+        @DisplayName("429 con Retry-After: espera lo indicado y reintenta")
+        void rateLimit_respetaRetryAfter() {
+            guion = (n, exchange) -> {
+                if (n == 0) {
+                    exchange.getResponseHeaders().add("Retry-After", "2");
+                    responder(exchange, 429, "");
+                } else {
+                    responder(exchange, 200, "ok");
+                }
+            };
+
+            Resultado resultado = pedir(cliente(3));
+
+            assertThat(resultado).isEqualTo(new Resultado(200, "ok"));
+            assertThat(peticiones.get()).isEqualTo(2);
+            assertThat(esperas).containsExactly(2_000L);
+        }
+
+        @Test
+        @DisplayName("Retry-After mayor que la espera máxima: no reintenta y devuelve el 429")
+        void rateLimit_retryAfterExcesivo_noReintenta() {
+            guion = (n, exchange) -> {
+                exchange.getResponseHeaders().add("Retry-After", "3600");
+                responder(exchange, 429, "demasiadas");
+            };
+
+            assertThat(pedir(cliente(3)).codigo()).isEqualTo(429);
+            assertThat(peticiones.get()).isEqualTo(1);
+            assertThat(esperas).isEmpty();
+        }
+
+        @Test
+        @DisplayName("503 persistente: reintenta con espera exponencial y al agotar devuelve el 503")
+        void servicioNoDisponible_esperaExponencialYAgota() {
+            guion = (n, exchange) -> responder(exchange, 503, "caído");
+
+            assertThat(pedir(cliente(3))).isEqualTo(new Resultado(503, "caído"));
+
+            assertThat(peticiones.get()).isEqualTo(4);
+            assertThat(esperas).hasSize(3);
+            assertThat(esperas.get(0)).isBetween(50L, 100L);
+            assertThat(esperas.get(1)).isBetween(100L, 200L);
+            assertThat(esperas.get(2)).isBetween(200L, 400L);
+        }
+
+        @Test
+        @DisplayName("404 y otros 4xx no se reintentan")
+        void errorCliente_noReintenta() {
+            guion = (n, exchange) -> responder(exchange, 404, "no existe");
+
+            assertThat(pedir(cliente(3)).codigo()).isEqualTo(404);
+            assertThat(peticiones.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Timeout de lectura: reintenta y la siguiente respuesta llega")
+        void timeoutLectura_reintenta() {
+            guion = (n, exchange) -> {
+                if (n == 0) {
+                    Thread.sleep(1_000);
+                }
+                responder(exchange, 200, "ok");
+            };
+            RestClient cliente = cliente(new CircuitoJira(100, Duration.ofMinutes(1).toNanos(), System::nanoTime),
+                    2, Duration.ofMillis(200));
+
+            assertThat(pedir(cliente)).isEqualTo(new Resultado(200, "ok"));
+            assertThat(esperas).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Sin respuesta tras agotar los reintentos: error con el host y los intentos")
+        void timeoutLectura_agota_lanzaExcepcion() {
+            guion = (n, exchange) -> Thread.sleep(1_000);
+            CircuitoJira circuito = new CircuitoJira(2, Duration.ofMinutes(1).toNanos(), System::nanoTime);
+            RestClient cliente = cliente(circuito, 1, Duration.ofMillis(100));
+
+            assertThatThrownBy(() -> pedir(cliente))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("Jira 127.0.0.1 sin respuesta tras 2 intentos");
+            // Los dos timeouts cuentan como fallos del host
+            assertThat(circuito.permitir()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Cortocircuito y gzip")
+    class CircuitoYGzipTests {
+
+        @Test
+        @DisplayName("Tras el umbral de fallos no envía más peticiones al host")
+        void circuitoAbierto_fallaSinEnviar() {
+            guion = (n, exchange) -> responder(exchange, 500, "error");
+            CircuitoJira circuito = new CircuitoJira(2, Duration.ofMinutes(1).toNanos(), System::nanoTime);
+            RestClient cliente = cliente(circuito, 0, Duration.ofSeconds(5));
+
+            assertThat(pedir(cliente).codigo()).isEqualTo(500);
+            assertThat(pedir(cliente).codigo()).isEqualTo(500);
+
+            assertThatThrownBy(() -> pedir(cliente))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Jira 127.0.0.1 no disponible");
+            assertThat(peticiones.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Pide gzip y descomprime la respuesta")
+        void gzip_descomprime() {
+            guion = (n, exchange) -> {
+                ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+                    gzip.write("{\"issues\": []}".getBytes(StandardCharsets.UTF_8));
+                }
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, comprimido.size());
+                try (OutputStream out = exchange.getResponseBody()) {
+                    comprimido.writeTo(out);
+                }
+            };
+
+            assertThat(pedir(cliente(0))).isEqualTo(new Resultado(200, "{\"issues\": []}"));
+            assertThat(acceptEncoding).containsExactly("gzip");
+        }
+    }
+
+    @Test
+    @DisplayName("Retry-After en segundos o fecha HTTP; valores no válidos → null")
+    void retryAfterMs_formatos() {
+        assertThat(InterceptorResilienciaJira.retryAfterMs("5")).isEqualTo(5_000L);
+        assertThat(InterceptorResilienciaJira.retryAfterMs("Wed, 21 Oct 2015 07:28:00 GMT")).isZero();
+        assertThat(InterceptorResilienciaJira.retryAfterMs("pronto")).isNull();
+        assertThat(InterceptorResilienciaJira.retryAfterMs(null)).isNull();
+    }
+}
@@ -1,42 +1,67 @@
 package com.kaos.jira.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import java.util.Collection;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import com.kaos.jira.dto.IssueJira;
+import com.kaos.jira.dto.JiraIssueActual;
+import com.kaos.jira.dto.JiraSyncStatus;
+import com.kaos.jira.entity.JiraConfig;
 import com.kaos.jira.entity.JiraIssue;
 import com.kaos.jira.entity.JiraIssueTypeConfig;
+import com.kaos.jira.repository.JiraIssueBatchRepository;
+import com.kaos.jira.repository.JiraIssueRepository;
 import com.kaos.jira.repository.JiraIssueTypeConfigRepository;
+import com.kaos.planificacion.entity.Sprint;
 import com.kaos.squad.entity.Squad;
 
 /**
  * Tests unitarios para JiraImportService.
- * Cubre la detección de subtipo_jira en sub-tasks y la lógica de processIssue().
+ * Cubre la detección de subtipo_jira en sub-tasks, la lógica de processIssue() y el
+ * upsert por páginas de processIssues() y qué issues se propagan a la jerarquía.
  */
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 @DisplayName("JiraImportService")
 class JiraImportServiceTest {
 
+    @Mock
+    private JiraIssueRepository jiraIssueRepository;
+
     @Mock
     private JiraIssueTypeConfigRepository jiraIssueTypeConfigRepository;
 
-    @InjectMocks
+    @Mock
+    private JiraIssueBatchRepository jiraIssueBatchRepository;
+
+    @Mock
+    private JiraJerarquiaService jiraJerarquiaService;
+
     private JiraImportService jiraImportService;
 
     private Squad squad;
 
     @BeforeEach
     void setUp() {
+        jiraImportService = new JiraImportService(jiraIssueRepository,
+                new ClasificadorSubtiposCache(jiraIssueTypeConfigRepository), jiraIssueBatchRepository,
+                jiraJerarquiaService);
         squad = new Squad();
         squad.setId(1L);
         squad.setNombre("Squad Test");
@@ -161,9 +186,9 @@ class JiraImportServiceTest {
         private JiraIssue buildIssue(String issueKey, String summary, String parentKey) {
             JiraIssue issue = new JiraIssue();
             issue.setSquad(squad);
-            issue.setIssueKey(issueKey);
-            issue.setSummary(summary);
-            issue.setTipoJira("Sub-task");
+            issue.setJiraKey(issueKey);
+            issue.setTitulo(summary);
+            issue.setTipo("Sub-task");
             issue.setParentKey(parentKey);
             return issue;
         }
@@ -173,12 +198,12 @@ class JiraImportServiceTest {
         void testSubtaskDesarrollo() {
             JiraIssue issue = buildIssue("KAOS-10", "Desarrollo de login", "KAOS-1");
             JiraIssueTypeConfig cfg = new JiraIssueTypeConfig();
+            cfg.setTipoJira("Sub-task");
             cfg.setPatronNombre("desarrollo.*");
             cfg.setSubtipoKaos("DESARROLLO");
             cfg.setActiva(true);
 
-            when(jiraIssueTypeConfigRepository.findBySquadIdAndTipoJiraAndActivaTrue(1L, "Sub-task"))
-                .thenReturn(List.of(cfg));
+            when(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(1L)).thenReturn(List.of(cfg));
 
             jiraImportService.processIssue(issue);
 
@@ -190,22 +215,40 @@ class JiraImportServiceTest {
         void testSubtaskOtros() {
             JiraIssue issue = buildIssue("KAOS-11", "Revisión de código", "KAOS-1");
 
-            when(jiraIssueTypeConfigRepository.findBySquadIdAndTipoJiraAndActivaTrue(1L, "Sub-task"))
-                .thenReturn(List.of());
+            when(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(1L)).thenReturn(List.of());
 
             jiraImportService.processIssue(issue);
 
             assertThat(issue.getSubtipoJira()).isEqualTo("OTROS");
         }
 
+        @Test
+        @DisplayName("Varias sub-tasks del squad: las configuraciones se consultan una sola vez")
+        void testClasificadorCacheado() {
+            JiraIssueTypeConfig cfg = new JiraIssueTypeConfig();
+            cfg.setTipoJira("Sub-task");
+            cfg.setPatronNombre("junit.*");
+            cfg.setSubtipoKaos("JUNIT");
+            when(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(1L)).thenReturn(List.of(cfg));
+
+            JiraIssue primera = buildIssue("KAOS-12", "JUnit del servicio", "KAOS-1");
+            JiraIssue segunda = buildIssue("KAOS-13", "Maquetación", "KAOS-1");
+            jiraImportService.processIssue(primera);
+            jiraImportService.processIssue(segunda);
+
+            assertThat(primera.getSubtipoJira()).isEqualTo("JUNIT");
+            assertThat(segunda.getSubtipoJira()).isEqualTo("OTROS");
+            verify(jiraIssueTypeConfigRepository, times(1)).findBySquadIdAndActivaTrue(1L);
+        }
+
         @Test
         @DisplayName("Issue que no es sub-task (parentKey=null) → subtipoJira=null")
         void testNoSubtask() {
             JiraIssue issue = new JiraIssue();
             issue.setSquad(squad);
-            issue.setIssueKey("KAOS-5");
-            issue.setSummary("Historia de usuario");
-            issue.setTipoJira("Story");
+            issue.setJiraKey("KAOS-5");
+            issue.setTitulo("Historia de usuario");
+            issue.setTipo("Story");
             issue.setParentKey(null);
 
             jiraImportService.processIssue(issue);
@@ -213,4 +256,232 @@ class JiraImportServiceTest {
             assertThat(issue.getSubtipoJira()).isNull();
         }
     }
+
+    // ── processIssues() ──────────────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("processIssues()")
+    class ProcessIssuesTests {
+
+        private JiraConfig jiraConfig() {
+            JiraConfig config = new JiraConfig();
+            config.setId(3L);
+            config.setSquad(squad);
+            return config;
+        }
+
+        private IssueJira issue(String clave, String summary, String estado) {
+            return new IssueJira(clave, summary, "Story", estado, null, null, null);
+        }
+
+        private JiraIssueActual actual(Long id, String clave, String titulo, String estado) {
+            return actual(id, clave, titulo, estado, null);
+        }
+
+        /** Fila actual en BD de una Story del squad 1, sin sprint ni subtipo. */
+        private JiraIssueActual actual(Long id, String clave, String titulo, String estado, String parentKey) {
+            return new JiraIssueActual() {
+                @Override
+                public Long getId() {
+                    return id;
+                }
+
+                @Override
+                public String getJiraKey() {
+                    return clave;
+                }
+
+                @Override
+                public String getTitulo() {
+                    return titulo;
+                }
+
+                @Override
+                public String getTipo() {
+                    return "Story";
+                }
+
+                @Override
+                public String getEstado() {
+                    return estado;
+                }
+
+                @Override
+                public Long getSquadId() {
+                    return 1L;
+                }
+
+                @Override
+                public Long getSprintId() {
+                    return null;
+                }
+
+                @Override
+                public String getParentKey() {
+                    return parentKey;
+                }
+
+                @Override
+                public String getSubtipoJira() {
+                    return null;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<JiraIssue> insertadas() {
+            ArgumentCaptor<List<JiraIssue>> captor = ArgumentCaptor.forClass(List.class);
+            verify(jiraIssueBatchRepository).insertar(captor.capture());
+            return captor.getValue();
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<JiraIssue> actualizadas() {
+            ArgumentCaptor<List<JiraIssue>> captor = ArgumentCaptor.forClass(List.class);
+            verify(jiraIssueBatchRepository).actualizar(captor.capture());
+            return captor.getValue();
+        }
+
+        @Test
+        @DisplayName("Sub-task nueva: se inserta con squad, padre y subtipo, y cuenta como importada")
+        void testSubtaskNuevaConPadre() {
+            IssueJira issue = new IssueJira(
+                    "KAOS-20", "Desarrollo del endpoint", "Sub-task", "In Progress", "KAOS-2", "Sprint 7", null);
+            JiraIssueTypeConfig cfg = new JiraIssueTypeConfig();
+            cfg.setTipoJira("Sub-task");
+            cfg.setPatronNombre("desarrollo.*");
+            cfg.setSubtipoKaos("DESARROLLO");
+
+            when(jiraIssueRepository.findActualesByJiraKeyIn(any())).thenReturn(List.of());
+            when(jiraIssueTypeConfigRepository.findBySquadIdAndActivaTrue(1L)).thenReturn(List.of(cfg));
+
+            JiraSyncStatus status = new JiraSyncStatus();
+            jiraImportService.processIssues(List.of(issue), jiraConfig(), null, status);
+
+            assertThat(insertadas()).singleElement().satisfies(guardada -> {
+                assertThat(guardada.getJiraKey()).isEqualTo("KAOS-20");
+                assertThat(guardada.getTitulo()).isEqualTo("Desarrollo del endpoint");
+                assertThat(guardada.getEstado()).isEqualTo("In Progress");
+                assertThat(guardada.getSquad()).isSameAs(squad);
+                assertThat(guardada.getParentKey()).isEqualTo("KAOS-2");
+                assertThat(guardada.getSubtipoJira()).isEqualTo("DESARROLLO");
+            });
+            assertThat(actualizadas()).isEmpty();
+            assertThat(status.getIssuesImportadas()).isEqualTo(1);
+            verify(jiraIssueRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Resuelve todas las claves de la página con una sola consulta y separa nuevas, modificadas y sin cambios")
+        void testPaginaMixta() {
+            List<JiraIssueActual> existentes = List.of(
+                    actual(10L, "KAOS-1", "Historia", "To Do"),
+                    actual(11L, "KAOS-2", "Otra historia", "To Do"));
+            when(jiraIssueRepository.findActualesByJiraKeyIn(any())).thenReturn(existentes);
+
+            JiraSyncStatus status = new JiraSyncStatus();
+            jiraImportService.processIssues(List.of(
+                    issue("KAOS-1", "Historia", "To Do"),
+                    issue("KAOS-2", "Otra historia", "Done"),
+                    issue("KAOS-3", "Nueva", "To Do")), jiraConfig(), null, status);
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Collection<String>> claves = ArgumentCaptor.forClass(Collection.class);
+            verify(jiraIssueRepository, times(1)).findActualesByJiraKeyIn(claves.capture());
+            assertThat(claves.getValue()).containsExactly("KAOS-1", "KAOS-2", "KAOS-3");
+
+            assertThat(insertadas()).extracting(JiraIssue::getJiraKey).containsExactly("KAOS-3");
+            assertThat(actualizadas()).singleElement().satisfies(modificada -> {
+                assertThat(modificada.getId()).isEqualTo(11L);
+                assertThat(modificada.getEstado()).isEqualTo("Done");
+            });
+            assertThat(status.getIssuesImportadas()).isEqualTo(1);
+            assertThat(status.getIssuesActualizadas()).isEqualTo(1);
+            assertThat(status.getIssuesSinCambios()).isEqualTo(1);
+            assertThat(status.getErrores()).isEmpty();
+            // Un cambio de estado no toca la jerarquía; la issue nueva sí
+            verify(jiraJerarquiaService).actualizar(List.of("KAOS-3"));
+        }
+
+        @Test
+        @DisplayName("Cambio de padre: se actualiza y se propaga a la jerarquía")
+        void testCambioPadre() {
+            JiraIssueActual existente = actual(10L, "KAOS-1", "Historia", "To Do", "KAOS-EPIC-1");
+            when(jiraIssueRepository.findActualesByJiraKeyIn(any())).thenReturn(List.of(existente));
+
+            jiraImportService.processIssues(List.of(
+                    new IssueJira("KAOS-1", "Historia", "Story", "To Do", "KAOS-EPIC-2", null, null)),
+                    jiraConfig(), null, new JiraSyncStatus());
+
+            assertThat(actualizadas()).singleElement()
+                .satisfies(modificada -> assertThat(modificada.getParentKey()).isEqualTo("KAOS-EPIC-2"));
+            verify(jiraJerarquiaService).actualizar(List.of("KAOS-1"));
+        }
+
+        @Test
+        @DisplayName("Cambio de sprint activo cuenta como modificación")
+        void testCambioSprint() {
+            Sprint sprint = new Sprint();
+            sprint.setId(5L);
+            JiraIssueActual existente = actual(10L, "KAOS-1", "Historia", "To Do");
+            when(jiraIssueRepository.findActualesByJiraKeyIn(any())).thenReturn(List.of(existente));
+
+            JiraSyncStatus status = new JiraSyncStatus();
+            jiraImportService.processIssues(
+                    List.of(issue("KAOS-1", "Historia", "To Do")), jiraConfig(), sprint, status);
+
+            assertThat(actualizadas()).singleElement()
+                .satisfies(modificada -> assertThat(modificada.getSprint()).isSameAs(sprint));
+            assertThat(status.getIssuesActualizadas()).isEqualTo(1);
+            assertThat(status.getIssuesSinCambios()).isZero();
+        }
+
+        @Test
+        @DisplayName("Clave repetida en la página: se escribe y cuenta una sola vez con el último valor")
+        void testClaveRepetida() {
+            when(jiraIssueRepository.findActualesByJiraKeyIn(any())).thenReturn(List.of());
+
+            JiraSyncStatus status = new JiraSyncStatus();
+            jiraImportService.processIssues(List.of(
+                    issue("KAOS-1", "Historia", "To Do"),
+                    issue("KAOS-1", "Historia", "Done")), jiraConfig(), null, status);
+
+            assertThat(insertadas()).singleElement()
+                .satisfies(nueva -> assertThat(nueva.getEstado()).isEqualTo("Done"));
+            assertThat(status.getIssuesImportadas()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Issues inválidas se registran como error sin cortar el lote")
+        void testErroresAislados() {
+            when(jiraIssueRepository.findActualesByJiraKeyIn(any())).thenReturn(List.of());
+            IssueJira estadoLargo = issue("KAOS-X", "Historia", "x".repeat(101));
+            IssueJira tituloLargo = issue("KAOS-Y", "x".repeat(501), "To Do");
+
+            JiraSyncStatus status = new JiraSyncStatus();
+            jiraImportService.processIssues(List.of(
+                    estadoLargo, issue("KAOS-1", "Historia", "To Do"), tituloLargo),
+                    jiraConfig(), null, status);
+
+            assertThat(insertadas()).extracting(JiraIssue::getJiraKey).containsExactly("KAOS-1");
+            assertThat(status.getIssuesImportadas()).isEqualTo(1);
+            assertThat(status.getErrores()).hasSize(2)
+                .anySatisfy(e -> assertThat(e).contains("KAOS-X").contains("100"))
+                .anySatisfy(e -> assertThat(e).contains("KAOS-Y").contains("500"));
+            assertThat(status.getClavesConError()).containsExactly("KAOS-X", "KAOS-Y");
+        }
+
+        @Test
+        @DisplayName("Página sin issues válidas no consulta ni escribe")
+        void testSinIssuesValidas() {
+            JiraSyncStatus status = new JiraSyncStatus();
+            jiraImportService.processIssues(List.of(
+                    new IssueJira(null, "Sin clave", "Story", "To Do", null, null, null),
+                    new IssueJira("KAOS-9", null, null, null, null, null, null)), jiraConfig(), null, status);
+
+            verifyNoInteractions(jiraIssueBatchRepository);
+            verify(jiraIssueRepository, never()).findActualesByJiraKeyIn(any());
+            assertThat(status.getIssuesImportadas()).isZero();
+        }
+    }
 }
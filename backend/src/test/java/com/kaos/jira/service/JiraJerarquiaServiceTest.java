@@ -0,0 +1,162 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import com.kaos.jira.dto.RollupJiraResponse;
+import com.kaos.jira.entity.JiraIssue;
+import com.kaos.jira.repository.JiraIssueRepository;
+import com.kaos.jira.repository.JiraJerarquiaRepository;
+import com.kaos.jira.repository.JiraJerarquiaRepository.FilaAgregado;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Tests unitarios para {@link JiraJerarquiaService}: qué árboles se rehacen al importar o
+ * eliminar issues y cómo se agregan las filas por padre. Las consultas SQL de la tabla de
+ * cierre se ejecutan contra PostgreSQL y no se cubren aquí.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("JiraJerarquiaService")
+class JiraJerarquiaServiceTest {
+
+    @Mock
+    private JiraJerarquiaRepository jiraJerarquiaRepository;
+
+    @Mock
+    private JiraIssueRepository jiraIssueRepository;
+
+    @InjectMocks
+    private JiraJerarquiaService service;
+
+    @Nested
+    @DisplayName("Mantenimiento de la tabla de cierre")
+    class MantenimientoTests {
+
+        @Test
+        @DisplayName("Rehace el árbol anterior y el actual de las issues cambiadas, borrando antes de insertar")
+        void actualizar_rehaceArbolesAfectados() {
+            // RED-3 estaba bajo la épica RED-1 y ahora cuelga de RED-10
+            when(jiraJerarquiaRepository.miembros(List.of("RED-3"))).thenReturn(List.of("RED-1", "RED-2", "RED-3"));
+            when(jiraJerarquiaRepository.nodos(Set.of("RED-1", "RED-2", "RED-3")))
+                .thenReturn(List.of("RED-1", "RED-2", "RED-10", "RED-3", "RED-11"));
+
+            service.actualizar(List.of("RED-3"));
+
+            InOrder orden = inOrder(jiraJerarquiaRepository);
+            orden.verify(jiraJerarquiaRepository).eliminar(Set.of("RED-1", "RED-2", "RED-3", "RED-10", "RED-11"));
+            orden.verify(jiraJerarquiaRepository).insertar(List.of("RED-1", "RED-2", "RED-10", "RED-3", "RED-11"));
+        }
+
+        @Test
+        @DisplayName("Issue nueva sin árbol previo: se rehace el árbol al que se incorpora")
+        void actualizar_issueNueva() {
+            when(jiraJerarquiaRepository.miembros(List.of("RED-1"))).thenReturn(List.of());
+            when(jiraJerarquiaRepository.nodos(Set.of("RED-1"))).thenReturn(List.of("RED-1", "RED-5"));
+
+            service.actualizar(List.of("RED-1"));
+
+            verify(jiraJerarquiaRepository).eliminar(Set.of("RED-1", "RED-5"));
+            verify(jiraJerarquiaRepository).insertar(List.of("RED-1", "RED-5"));
+        }
+
+        @Test
+        @DisplayName("Sin cambios de jerarquía no consulta ni escribe")
+        void actualizar_sinClaves_noHaceNada() {
+            service.actualizar(List.of());
+
+            verifyNoInteractions(jiraJerarquiaRepository);
+        }
+
+        @Test
+        @DisplayName("Eliminar: lee los árboles antes de borrar y rehace el resto sin las eliminadas")
+        void eliminarIssues_rehaceSinLasEliminadas() {
+            when(jiraJerarquiaRepository.miembros(List.of("RED-2"))).thenReturn(List.of("RED-1", "RED-2", "RED-3"));
+            when(jiraIssueRepository.eliminarPorClaves(List.of("RED-2"))).thenReturn(1);
+            when(jiraJerarquiaRepository.nodos(Set.of("RED-1", "RED-3"))).thenReturn(List.of("RED-1", "RED-3"));
+
+            assertThat(service.eliminarIssues(List.of("RED-2"))).isEqualTo(1);
+
+            InOrder orden = inOrder(jiraJerarquiaRepository, jiraIssueRepository);
+            orden.verify(jiraJerarquiaRepository).miembros(List.of("RED-2"));
+            orden.verify(jiraIssueRepository).eliminarPorClaves(List.of("RED-2"));
+            orden.verify(jiraJerarquiaRepository).eliminar(Set.of("RED-1", "RED-3"));
+            orden.verify(jiraJerarquiaRepository).insertar(List.of("RED-1", "RED-3"));
+        }
+
+        @Test
+        @DisplayName("Eliminar issues sueltas no rehace nada")
+        void eliminarIssues_sinArbol() {
+            when(jiraJerarquiaRepository.miembros(List.of("RED-9"))).thenReturn(List.of("RED-9"));
+
+            service.eliminarIssues(List.of("RED-9"));
+
+            verify(jiraIssueRepository).eliminarPorClaves(List.of("RED-9"));
+            verify(jiraJerarquiaRepository, never()).nodos(any());
+            verify(jiraJerarquiaRepository, never()).insertar(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Agregados")
+    class AgregadosTests {
+
+        @Test
+        @DisplayName("Junta las filas de cada padre por estado y subtipo")
+        void rollupSquad_agrupaPorPadre() {
+            when(jiraJerarquiaRepository.agregadosSquad(1L)).thenReturn(List.of(
+                    new FilaAgregado("RED-1", "Done", null, 2, 2, 1),
+                    new FilaAgregado("RED-1", "Done", "DESARROLLO", 0, 3, 2),
+                    new FilaAgregado("RED-1", "To Do", "JUNIT", 0, 1, 2),
+                    new FilaAgregado("RED-2", "To Do", "DESARROLLO", 1, 1, 1)));
+
+            List<RollupJiraResponse> rollup = service.rollupSquad(1L);
+
+            assertThat(rollup).containsExactly(
+                    new RollupJiraResponse("RED-1", 2, 6, 2,
+                            Map.of("Done", 5L, "To Do", 1L), Map.of("DESARROLLO", 3L, "JUNIT", 1L)),
+                    new RollupJiraResponse("RED-2", 1, 1, 1,
+                            Map.of("To Do", 1L), Map.of("DESARROLLO", 1L)));
+        }
+
+        @Test
+        @DisplayName("Issue sin hijos: agregado a cero")
+        void rollupIssue_sinHijos() {
+            when(jiraJerarquiaRepository.agregadosIssue("RED-7")).thenReturn(List.of());
+            when(jiraIssueRepository.findByJiraKey("RED-7")).thenReturn(Optional.of(new JiraIssue()));
+
+            assertThat(service.rollupIssue("RED-7"))
+                .isEqualTo(new RollupJiraResponse("RED-7", 0, 0, 0, Map.of(), Map.of()));
+        }
+
+        @Test
+        @DisplayName("Issue no importada: EntityNotFoundException")
+        void rollupIssue_noExiste() {
+            when(jiraJerarquiaRepository.agregadosIssue("RED-404")).thenReturn(List.of());
+            when(jiraIssueRepository.findByJiraKey("RED-404")).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> service.rollupIssue("RED-404"))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("RED-404");
+        }
+    }
+}
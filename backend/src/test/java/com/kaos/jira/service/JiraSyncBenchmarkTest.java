@@ -0,0 +1,344 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+import com.kaos.common.jdbc.ContadorSentenciasJdbc;
+import com.kaos.jira.dto.JiraIssueActual;
+import com.kaos.jira.entity.JiraConfig;
+import com.kaos.jira.entity.JiraSyncMarca;
+import com.kaos.jira.entity.TipoSincronizacion;
+import com.kaos.jira.repository.JiraIssueBatchRepository;
+import com.kaos.jira.repository.JiraIssueRepository;
+import com.kaos.jira.repository.JiraIssueTypeConfigRepository;
+import com.kaos.jira.repository.JiraSyncMarcaRepository;
+import com.kaos.jira.repository.JiraSyncStatusRepository;
+import com.kaos.planificacion.repository.SprintRepository;
+import com.kaos.squad.entity.Squad;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Benchmark de extremo a extremo de la sincronización Jira.
+ * <p>
+ * {@link JiraSyncService}, {@link ClienteHttpJira} (reintentos incluidos) y
+ * {@link JiraImportService} reales contra {@link SimuladorJira}, con latencia y ráfagas de
+ * 429, escribiendo en una H2 en memoria (modo PostgreSQL) a través de
+ * {@link JiraIssueBatchRepository}. {@code findActualesByJiraKeyIn} se resuelve con SQL
+ * sobre la misma H2; la jerarquía ({@link JiraJerarquiaService}) usa SQL propio de PostgreSQL
+ * y se sustituye por un mock.
+ * </p>
+ * <p>
+ * Mide issues por segundo, sentencias SQL por issue (cada ejecución o lote JDBC cuenta una),
+ * bytes asignados por issue en el hilo que importa y heap retenido por issue, y falla si
+ * alguna medida empeora respecto a {@code benchmark/jira-sync-linea-base.properties}. Las
+ * medidas se escriben en {@code target/benchmark/jira-sync.properties} para actualizar la
+ * línea base. El tamaño del proyecto se cambia con {@code -Dkaos.benchmark.issues}.
+ * </p>
+ * <p>
+ * Las sentencias por issue no dependen de la máquina y se comprueban siempre. Los límites de
+ * tiempo y memoria sí dependen de la carga, así que esa comprobación lleva la etiqueta
+ * {@value #ETIQUETA} y solo se ejecuta con {@code mvn test -Pbenchmark}.
+ * </p>
+ */
+@Slf4j
+@DisplayName("Benchmark de sincronización Jira")
+class JiraSyncBenchmarkTest {
+
+    static final String ETIQUETA = "benchmark";
+
+    private static final int ISSUES = Integer.getInteger("kaos.benchmark.issues", 3_000);
+    private static final String LINEA_BASE = "/benchmark/jira-sync-linea-base.properties";
+    private static final Path INFORME = Path.of("target", "benchmark", "jira-sync.properties");
+
+    private static final String DDL_JIRA_ISSUE = """
+            CREATE TABLE jira_issue (
+                id              BIGINT          GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                jira_key        VARCHAR(50)     NOT NULL UNIQUE,
+                titulo          VARCHAR(500)    NOT NULL,
+                tipo            VARCHAR(50),
+                estado          VARCHAR(100),
+                config_id       BIGINT          NOT NULL,
+                squad_id        BIGINT          NOT NULL,
+                sprint_id       BIGINT,
+                parent_key      VARCHAR(50),
+                subtipo_jira    VARCHAR(30),
+                created_at      TIMESTAMP       NOT NULL,
+                updated_at      TIMESTAMP
+            )""";
+
+    private static final String SELECT_ACTUALES =
+            "SELECT id, jira_key, titulo, tipo, estado, squad_id, sprint_id, parent_key, subtipo_jira "
+            + "FROM jira_issue WHERE jira_key IN (:claves)";
+
+    private static final Properties lineaBase = new Properties();
+    private static final Properties medido = new Properties();
+
+    /**
+     * Una medición de una sincronización.
+     *
+     * @param issues        issues recibidas de Jira
+     * @param ms            duración
+     * @param sentencias    ejecuciones SQL (un lote JDBC cuenta una)
+     * @param bytesHilo     bytes asignados en el hilo llamante
+     * @param heapRetenido  heap ocupado tras la sincronización menos el de antes, tras GC
+     *                      (0 si no se ha medido)
+     */
+    private record Medicion(long issues, long ms, long sentencias, long bytesHilo, long heapRetenido) {
+
+        double issuesPorSegundo() {
+            return issues * 1000.0 / Math.max(1, ms);
+        }
+
+        double porIssue(long valor) {
+            return (double) valor / Math.max(1, issues);
+        }
+    }
+
+    /** Fila de {@code jira_issue} con los campos que compara la importación. */
+    private record FilaActual(Long id, String jiraKey, String titulo, String tipo, String estado,
+                              Long squadId, Long sprintId, String parentKey, String subtipoJira)
+            implements JiraIssueActual {
+
+        @Override public Long getId() { return id; }
+        @Override public String getJiraKey() { return jiraKey; }
+        @Override public String getTitulo() { return titulo; }
+        @Override public String getTipo() { return tipo; }
+        @Override public String getEstado() { return estado; }
+        @Override public Long getSquadId() { return squadId; }
+        @Override public Long getSprintId() { return sprintId; }
+        @Override public String getParentKey() { return parentKey; }
+        @Override public String getSubtipoJira() { return subtipoJira; }
+    }
+
+    private final ContadorSentenciasJdbc contador = new ContadorSentenciasJdbc();
+    private final Map<TipoSincronizacion, JiraSyncMarca> marcas = new EnumMap<>(TipoSincronizacion.class);
+
+    private SimuladorJira jira;
+    private SingleConnectionDataSource bd;
+    private JdbcTemplate jdbcTemplate;
+    private ClienteHttpJira clienteHttpJira;
+    private JiraSyncService jiraSyncService;
+    private JiraConfig config;
+
+    @BeforeAll
+    static void cargarLineaBase() throws IOException {
+        try (InputStream in = JiraSyncBenchmarkTest.class.getResourceAsStream(LINEA_BASE)) {
+            assertThat(in).as("línea base " + LINEA_BASE).isNotNull();
+            lineaBase.load(in);
+        }
+    }
+
+    @AfterAll
+    static void escribirInforme() throws IOException {
+        Files.createDirectories(INFORME.getParent());
+        try (OutputStream out = Files.newOutputStream(INFORME)) {
+            medido.store(out, "Medidas de JiraSyncBenchmarkTest con " + ISSUES + " issues");
+        }
+    }
+
+    @BeforeEach
+    void preparar() throws IOException {
+        jira = new SimuladorJira(ISSUES).latencia(5).rafagas429(10, 1, 0);
+
+        bd = new SingleConnectionDataSource("jdbc:h2:mem:jira-" + UUID.randomUUID() + ";MODE=PostgreSQL", true);
+        jdbcTemplate = new JdbcTemplate(contador.envolver(bd));
+        jdbcTemplate.execute(DDL_JIRA_ISSUE);
+        NamedParameterJdbcTemplate consultas = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+        JiraIssueRepository jiraIssueRepository = mock(JiraIssueRepository.class);
+        when(jiraIssueRepository.findActualesByJiraKeyIn(any())).thenAnswer(inv -> consultas.query(
+                SELECT_ACTUALES, Map.of("claves", inv.<Collection<String>>getArgument(0)),
+                (rs, n) -> new FilaActual(rs.getLong("id"), rs.getString("jira_key"), rs.getString("titulo"),
+                        rs.getString("tipo"), rs.getString("estado"), rs.getLong("squad_id"),
+                        rs.getObject("sprint_id", Long.class), rs.getString("parent_key"),
+                        rs.getString("subtipo_jira"))));
+        JiraImportService jiraImportService = new JiraImportService(jiraIssueRepository,
+                new ClasificadorSubtiposCache(mock(JiraIssueTypeConfigRepository.class)),
+                new JiraIssueBatchRepository(jdbcTemplate), mock(JiraJerarquiaService.class));
+
+        JiraSyncMarcaRepository jiraSyncMarcaRepository = mock(JiraSyncMarcaRepository.class);
+        when(jiraSyncMarcaRepository.findByConfigIdAndTipo(any(), any()))
+                .thenAnswer(inv -> Optional.ofNullable(marcas.get(inv.<TipoSincronizacion>getArgument(1))));
+        when(jiraSyncMarcaRepository.save(any())).thenAnswer(inv -> {
+            JiraSyncMarca marca = inv.getArgument(0);
+            marcas.put(marca.getTipo(), marca);
+            return marca;
+        });
+
+        clienteHttpJira = new ClienteHttpJira(RestClient.builder(), Duration.ofSeconds(5), Duration.ofSeconds(10),
+                5, Duration.ofMillis(5), Duration.ofSeconds(1), 1_000, Duration.ofMinutes(1));
+        jiraSyncService = new JiraSyncService(jiraImportService, mock(SprintRepository.class), clienteHttpJira,
+                mock(JiraSyncStatusRepository.class), jiraSyncMarcaRepository);
+        ReflectionTestUtils.setField(jiraSyncService, "zonaJira", "UTC");
+
+        Squad squad = new Squad();
+        squad.setId(1L);
+        config = new JiraConfig();
+        config.setId(1L);
+        config.setSquad(squad);
+        config.setProjectKey(SimuladorJira.PROYECTO);
+        config.setTipo(TipoSincronizacion.EVOLUTIVO);
+        config.setJiraUrl(jira.url());
+        config.setUsuarioEmail("benchmark@example.com");
+        config.setApiToken("token");
+    }
+
+    @AfterEach
+    void cerrar() {
+        clienteHttpJira.cerrar();
+        jira.close();
+        bd.destroy();
+    }
+
+    private Medicion medir() {
+        return medir(false);
+    }
+
+    /** @param conHeap si se fuerza un GC antes y después para medir el heap retenido */
+    private Medicion medir(boolean conHeap) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long heapAntes = conHeap ? heapTrasGc() : 0;
+        jira.reiniciarContadores();
+        contador.reiniciar();
+        long asignadoAntes = hilos.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+
+        jiraSyncService.sincronizarIssues(config);
+
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        long asignado = hilos.getCurrentThreadAllocatedBytes() - asignadoAntes;
+        return new Medicion(jira.issuesServidas(), ms, contador.viajes(), asignado,
+                conHeap ? heapTrasGc() - heapAntes : 0);
+    }
+
+    private static long heapTrasGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private long filas(String where) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jira_issue WHERE " + where, Long.class);
+    }
+
+    /** Estado inicial del simulador: To Do, In Progress, Done, To Do... */
+    private static boolean yaEnDone(int indice) {
+        return indice % 3 == 2;
+    }
+
+    private static void informar(String escenario, Medicion m) {
+        log.info("[benchmark] {}: {} issues en {} ms ({} issues/s), {} sentencias ({}/issue), "
+                        + "{} B/issue asignados, {} B/issue retenidos",
+                escenario, m.issues(), m.ms(), Math.round(m.issuesPorSegundo()), m.sentencias(),
+                String.format(Locale.ROOT, "%.4f", m.porIssue(m.sentencias())),
+                Math.round(m.porIssue(m.bytesHilo())), Math.round(m.porIssue(m.heapRetenido())));
+    }
+
+    private static void noMenorQue(String clave, double valor) {
+        medido.setProperty(clave, String.format(Locale.ROOT, "%.4f", valor));
+        double minimo = Double.parseDouble(lineaBase.getProperty(clave + ".min"));
+        assertThat(valor).as("%s (línea base: mínimo %s)", clave, minimo).isGreaterThanOrEqualTo(minimo);
+    }
+
+    private static void noMayorQue(String clave, double valor) {
+        medido.setProperty(clave, String.format(Locale.ROOT, "%.4f", valor));
+        double maximo = Double.parseDouble(lineaBase.getProperty(clave + ".max"));
+        assertThat(valor).as("%s (línea base: máximo %s)", clave, maximo).isLessThanOrEqualTo(maximo);
+    }
+
+    /** Calentamiento (JIT, conexiones) con la misma carga; después se parte de cero. */
+    private void calentar() {
+        jiraSyncService.sincronizarIssues(config);
+        jdbcTemplate.update("DELETE FROM jira_issue");
+        marcas.clear();
+    }
+
+    @Test
+    @DisplayName("Carga completa: todas las issues pese a los 429, dentro de la línea base de sentencias")
+    void cargaCompleta() {
+        Medicion m = medir();
+        informar("carga completa", m);
+
+        assertThat(filas("1 = 1")).isEqualTo(ISSUES);
+        assertThat(filas("parent_key IS NOT NULL AND subtipo_jira IS NOT NULL")).isEqualTo(ISSUES / 5);
+        assertThat(jira.respuestas429()).isPositive();
+        assertThat(marcas.get(TipoSincronizacion.EVOLUTIVO).getActualizadaHasta().toInstant())
+            .isEqualTo(jira.ultimaActualizacion());
+        noMayorQue("carga-completa.sentencias-por-issue", m.porIssue(m.sentencias()));
+    }
+
+    @Test
+    @Tag(ETIQUETA)
+    @DisplayName("Carga completa: tiempo y memoria dentro de la línea base")
+    void cargaCompleta_rendimiento() {
+        calentar();
+
+        Medicion m = medir(true);
+        informar("carga completa (rendimiento)", m);
+
+        assertThat(filas("1 = 1")).isEqualTo(ISSUES);
+        noMenorQue("carga-completa.issues-por-segundo", m.issuesPorSegundo());
+        noMayorQue("carga-completa.bytes-asignados-por-issue", m.porIssue(m.bytesHilo()));
+        noMayorQue("carga-completa.heap-retenido-por-issue", m.porIssue(m.heapRetenido()));
+    }
+
+    @Test
+    @DisplayName("Incremental sin cambios: solo relee el solape y no escribe")
+    void incrementalSinCambios() {
+        jiraSyncService.sincronizarIssues(config);
+
+        Medicion m = medir();
+        informar("incremental sin cambios", m);
+
+        assertThat(m.issues()).isLessThan(JiraSyncService.JIRA_MAX_RESULTS);
+        assertThat(filas("updated_at IS NOT NULL")).isZero();
+        noMayorQue("incremental-sin-cambios.sentencias", m.sentencias());
+    }
+
+    @Test
+    @DisplayName("Incremental con cambios: actualiza solo las modificadas")
+    void incrementalConCambios() {
+        jiraSyncService.sincronizarIssues(config);
+        int modificadas = Math.min(500, ISSUES);
+        jira.modificar(modificadas, jira.ultimaActualizacion().plus(1, ChronoUnit.HOURS));
+
+        Medicion m = medir();
+        informar("incremental con cambios", m);
+
+        assertThat(m.issues()).isLessThan(modificadas + JiraSyncService.JIRA_MAX_RESULTS);
+        // Las que ya estaban en Done solo cambian de updated y no se reescriben
+        assertThat(filas("updated_at IS NOT NULL"))
+            .isEqualTo(IntStream.range(0, modificadas).filter(i -> !yaEnDone(i)).count());
+        assertThat(filas("estado = 'Done'"))
+            .isEqualTo(modificadas + IntStream.range(modificadas, ISSUES).filter(i -> yaEnDone(i)).count());
+        noMayorQue("incremental-con-cambios.sentencias-por-issue", m.porIssue(m.sentencias()));
+    }
+}
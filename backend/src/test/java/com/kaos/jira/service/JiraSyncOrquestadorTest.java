@@ -0,0 +1,253 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import com.kaos.jira.entity.JiraConfig;
+import com.kaos.jira.entity.JiraSyncEjecucion;
+import com.kaos.jira.entity.ResultadoSincronizacion;
+import com.kaos.jira.repository.JiraConfigRepository;
+import com.kaos.jira.repository.JiraSyncEjecucionRepository;
+
+/**
+ * Tests unitarios para {@link JiraSyncOrquestador}.
+ * La sincronización de cada proyecto se simula con esperas y latches para observar paralelismo y límites.
+ */
+@DisplayName("JiraSyncOrquestador")
+class JiraSyncOrquestadorTest {
+
+    private JiraConfigRepository jiraConfigRepository;
+    private JiraSyncService jiraSyncService;
+    private JiraSyncEjecucionRepository ejecucionRepository;
+
+    /** Proyectos sincronizando a la vez, en total y por host. */
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final AtomicInteger maxEnVuelo = new AtomicInteger();
+    private final Map<String, AtomicInteger> enVueloHost = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> maxEnVueloHost = new ConcurrentHashMap<>();
+    private final Map<String, Long> arranques = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        jiraConfigRepository = mock(JiraConfigRepository.class);
+        jiraSyncService = mock(JiraSyncService.class);
+        ejecucionRepository = mock(JiraSyncEjecucionRepository.class);
+    }
+
+    private JiraSyncOrquestador orquestador(int maxConcurrentes, int maxPorHost, long escalonadoMs) {
+        return new JiraSyncOrquestador(jiraConfigRepository, jiraSyncService, ejecucionRepository,
+                true, maxConcurrentes, maxPorHost, escalonadoMs, 30);
+    }
+
+    private static JiraConfig config(long id, String projectKey, String host) {
+        JiraConfig config = new JiraConfig();
+        config.setId(id);
+        config.setProjectKey(projectKey);
+        config.setJiraUrl("https://" + host);
+        return config;
+    }
+
+    /** Cada sincronización tarda {@code ms} y registra la concurrencia observada. */
+    private void simularDuracion(long ms) {
+        doAnswer(inv -> {
+            JiraConfig config = inv.getArgument(0);
+            String host = JiraSyncOrquestador.host(config);
+            arranques.put(config.getProjectKey(), System.nanoTime());
+            maxEnVuelo.accumulateAndGet(enVuelo.incrementAndGet(), Math::max);
+            int hostActuales = enVueloHost.computeIfAbsent(host, h -> new AtomicInteger()).incrementAndGet();
+            maxEnVueloHost.computeIfAbsent(host, h -> new AtomicInteger()).accumulateAndGet(hostActuales, Math::max);
+            try {
+                Thread.sleep(ms);
+            } finally {
+                enVuelo.decrementAndGet();
+                enVueloHost.get(host).decrementAndGet();
+            }
+            return null;
+        }).when(jiraSyncService).sincronizarIssues(any(JiraConfig.class));
+    }
+
+    private List<JiraSyncEjecucion> ejecucionesRegistradas(int esperadas) {
+        ArgumentCaptor<JiraSyncEjecucion> captor = ArgumentCaptor.forClass(JiraSyncEjecucion.class);
+        verify(ejecucionRepository, times(esperadas)).save(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Nested
+    @DisplayName("ejecutarRonda() - Concurrencia")
+    class ConcurrenciaTests {
+
+        @Test
+        @DisplayName("40 proyectos: se sincronizan todos a la vez, no uno detrás de otro")
+        void ejecutarRonda_cuarentaProyectos_enParalelo() throws Exception {
+            List<JiraConfig> configs = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                configs.add(config(i, "P" + i, "jira" + (i % 4) + ".example.com"));
+            }
+            when(jiraConfigRepository.findByActivoTrue()).thenReturn(configs);
+            // Ninguna sincronización termina hasta que han empezado las 40: en serie no se llegaría nunca
+            CountDownLatch todasDentro = new CountDownLatch(40);
+            AtomicInteger solapadas = new AtomicInteger();
+            doAnswer(inv -> {
+                todasDentro.countDown();
+                if (todasDentro.await(5, TimeUnit.SECONDS)) {
+                    solapadas.incrementAndGet();
+                }
+                return null;
+            }).when(jiraSyncService).sincronizarIssues(any(JiraConfig.class));
+
+            orquestador(40, 10, 0).ejecutarRonda().get(10, TimeUnit.SECONDS);
+
+            assertThat(solapadas.get()).isEqualTo(40);
+            assertThat(ejecucionesRegistradas(40))
+                .extracting(JiraSyncEjecucion::getResultado)
+                .containsOnly(ResultadoSincronizacion.CORRECTA);
+        }
+
+        @Test
+        @DisplayName("No supera el límite por host aunque haya plazas globales libres")
+        void ejecutarRonda_respetaLimitePorHost() throws Exception {
+            List<JiraConfig> configs = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                configs.add(config(i, "A" + i, "a.example.com"));
+                configs.add(config(10 + i, "B" + i, "b.example.com"));
+            }
+            when(jiraConfigRepository.findByActivoTrue()).thenReturn(configs);
+            simularDuracion(50);
+
+            orquestador(10, 2, 0).ejecutarRonda().get(10, TimeUnit.SECONDS);
+
+            assertThat(maxEnVueloHost.get("a.example.com").get()).isEqualTo(2);
+            assertThat(maxEnVueloHost.get("b.example.com").get()).isEqualTo(2);
+            assertThat(maxEnVuelo.get()).isLessThanOrEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("No supera el límite global")
+        void ejecutarRonda_respetaLimiteGlobal() throws Exception {
+            List<JiraConfig> configs = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                configs.add(config(i, "P" + i, "jira" + i + ".example.com"));
+            }
+            when(jiraConfigRepository.findByActivoTrue()).thenReturn(configs);
+            simularDuracion(50);
+
+            orquestador(3, 4, 0).ejecutarRonda().get(10, TimeUnit.SECONDS);
+
+            assertThat(maxEnVuelo.get()).isEqualTo(3);
+            verify(jiraSyncService, times(8)).sincronizarIssues(any(JiraConfig.class));
+        }
+
+        @Test
+        @DisplayName("Escalona los arranques de los proyectos")
+        void ejecutarRonda_escalonaArranques() throws Exception {
+            when(jiraConfigRepository.findByActivoTrue()).thenReturn(List.of(
+                    config(1, "P1", "a.example.com"),
+                    config(2, "P2", "b.example.com"),
+                    config(3, "P3", "c.example.com")));
+            simularDuracion(1);
+
+            orquestador(10, 10, 100).ejecutarRonda().get(10, TimeUnit.SECONDS);
+
+            long separacionMs = (arranques.get("P3") - arranques.get("P1")) / 1_000_000;
+            assertThat(separacionMs).isGreaterThanOrEqualTo(190);
+        }
+    }
+
+    @Nested
+    @DisplayName("ejecutarRonda() - Proyectos y resultados")
+    class ResultadosTests {
+
+        @Test
+        @DisplayName("Proyecto aún en curso en la siguiente ronda: se omite y se registra como OMITIDA")
+        void ejecutarRonda_proyectoEnCurso_seOmite() throws Exception {
+            when(jiraConfigRepository.findByActivoTrue()).thenReturn(List.of(config(1, "LENTO", "a.example.com")));
+            CountDownLatch empezado = new CountDownLatch(1);
+            CountDownLatch liberar = new CountDownLatch(1);
+            doAnswer(inv -> {
+                empezado.countDown();
+                liberar.await(5, TimeUnit.SECONDS);
+                return null;
+            }).when(jiraSyncService).sincronizarIssues(any(JiraConfig.class));
+            JiraSyncOrquestador orquestador = orquestador(4, 4, 0);
+
+            var primera = orquestador.ejecutarRonda();
+            assertThat(empezado.await(5, TimeUnit.SECONDS)).isTrue();
+            orquestador.ejecutarRonda().get(5, TimeUnit.SECONDS);
+            assertThat(orquestador.proyectosEnCurso()).containsExactly("LENTO");
+            liberar.countDown();
+            primera.get(5, TimeUnit.SECONDS);
+
+            verify(jiraSyncService, times(1)).sincronizarIssues(any(JiraConfig.class));
+            assertThat(ejecucionesRegistradas(2))
+                .extracting(JiraSyncEjecucion::getResultado)
+                .containsExactly(ResultadoSincronizacion.OMITIDA, ResultadoSincronizacion.CORRECTA);
+            assertThat(orquestador.proyectosEnCurso()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Configs del mismo proyecto se sincronizan en serie; un fallo no impide la siguiente")
+        void ejecutarRonda_fallo_registraFallidaYSigue() throws Exception {
+            JiraConfig evolutivo = config(1, "RED", "a.example.com");
+            JiraConfig correctivo = config(2, "RED", "a.example.com");
+            when(jiraConfigRepository.findByActivoTrue()).thenReturn(List.of(evolutivo, correctivo));
+            doThrow(new IllegalStateException("Jira 503")).when(jiraSyncService).sincronizarIssues(evolutivo);
+
+            orquestador(4, 4, 0).ejecutarRonda().get(5, TimeUnit.SECONDS);
+
+            verify(jiraSyncService).sincronizarIssues(correctivo);
+            assertThat(ejecucionesRegistradas(1)).singleElement().satisfies(e -> {
+                assertThat(e.getProjectKey()).isEqualTo("RED");
+                assertThat(e.getHost()).isEqualTo("a.example.com");
+                assertThat(e.getResultado()).isEqualTo(ResultadoSincronizacion.FALLIDA);
+                assertThat(e.getMensajeError()).contains("Config 1").contains("Jira 503");
+            });
+            verify(jiraSyncService).registrarFallo(evolutivo, "Config 1: Jira 503");
+            verify(jiraSyncService, never()).registrarFallo(eq(correctivo), any());
+        }
+
+        @Test
+        @DisplayName("Config sin project key: se omite sin impedir el resto de la ronda")
+        void ejecutarRonda_sinProjectKey_seOmite() throws Exception {
+            JiraConfig sinProyecto = config(1, null, "a.example.com");
+            JiraConfig red = config(2, "RED", "a.example.com");
+            when(jiraConfigRepository.findByActivoTrue()).thenReturn(List.of(sinProyecto, red));
+
+            orquestador(4, 4, 0).ejecutarRonda().get(5, TimeUnit.SECONDS);
+
+            verify(jiraSyncService).sincronizarIssues(red);
+            verify(jiraSyncService, never()).sincronizarIssues(sinProyecto);
+            assertThat(ejecucionesRegistradas(1)).singleElement()
+                .satisfies(e -> assertThat(e.getProjectKey()).isEqualTo("RED"));
+        }
+
+        @Test
+        @DisplayName("Con la sincronización deshabilitada la tarea programada no hace nada")
+        void sincronizacionProgramada_deshabilitada_noHaceNada() {
+            new JiraSyncOrquestador(jiraConfigRepository, jiraSyncService, ejecucionRepository,
+                    false, 4, 4, 0, 30).sincronizacionProgramada();
+
+            verifyNoInteractions(jiraConfigRepository, jiraSyncService);
+            verify(ejecucionRepository, never()).eliminarAnterioresA(any());
+        }
+    }
+}
@@ -1,22 +1,22 @@
 package com.kaos.jira.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
-import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -29,9 +29,14 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.web.client.RestClient;
-import com.kaos.jira.dto.JiraSyncStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.kaos.jira.dto.IssueJira;
 import com.kaos.jira.entity.JiraConfig;
+import com.kaos.jira.entity.JiraSyncMarca;
+import com.kaos.jira.entity.JiraSyncStatus;
+import com.kaos.jira.entity.TipoSincronizacion;
+import com.kaos.jira.repository.JiraSyncMarcaRepository;
+import com.kaos.jira.repository.JiraSyncStatusRepository;
 import com.kaos.planificacion.entity.Sprint;
 import com.kaos.planificacion.entity.SprintEstado;
 import com.kaos.planificacion.repository.SprintRepository;
@@ -39,25 +44,18 @@ import com.kaos.squad.entity.Squad;
 
 /**
  * Tests unitarios para JiraSyncService.
- * Cubre la construcción de JQL filtrada por projectKey y la resolución del sprint activo.
- */
-@ExtendWith(MockitoExtension.class)
-@MockitoSettings(strictness = Strictness.LENIENT)
-import com.kaos.jira.entity.JiraConfig;
-import com.kaos.jira.entity.JiraSyncStatus;
-import com.kaos.jira.entity.TipoSincronizacion;
-import com.kaos.jira.repository.JiraSyncStatusRepository;
-
-/**
- * Tests unitarios para JiraSyncService.
- * Cubre los criterios de aceptación del incremento Jira:
+ * Cubre la construcción de JQL filtrada por projectKey, la resolución del sprint activo
+ * y los criterios de aceptación de la carga incremental:
  *   - Primera sync (sin ultimaSync): JQL sin filtro de fecha
  *   - Sync posterior: JQL incluye AND updated >= "<ultimaSync>"
- *   - Logs indican modo [INCREMENTAL] vs [FULL]
  *   - ultima_sync se actualiza al completar OK
  *   - Si sync falla, ultima_sync NO se actualiza
+ *   - Marca de agua por config y tipo: mayor updated visto, con solape y en la zona de Jira;
+ *     si fallan issues, justo antes de la primera fallida
+ * La paginación contra la API se prueba en {@link BusquedaPaginadaJiraTest}.
  */
 @ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 @DisplayName("JiraSyncService")
 class JiraSyncServiceTest {
 
@@ -68,15 +66,25 @@ class JiraSyncServiceTest {
     private SprintRepository sprintRepository;
 
     @Mock
-    private RestClient.Builder restClientBuilder;
+    private ClienteHttpJira clienteHttpJira;
+
+    @Mock
+    private JiraSyncStatusRepository jiraSyncStatusRepository;
+
+    @Mock
+    private JiraSyncMarcaRepository jiraSyncMarcaRepository;
 
     @InjectMocks
+    @Spy
     private JiraSyncService jiraSyncService;
 
     private JiraConfig config;
     private Squad squad;
     private Sprint sprintActivo;
 
+    private JiraConfig configEvolutivo;
+    private JiraConfig configCorrectivo;
+
     @BeforeEach
     void setUp() {
         squad = new Squad();
@@ -98,19 +106,7 @@ class JiraSyncServiceTest {
         sprintActivo.setNombre("RED-Sprint-1");
         sprintActivo.setSquad(squad);
         sprintActivo.setEstado(SprintEstado.ACTIVO);
-    }
 
-    private JiraSyncStatusRepository jiraSyncStatusRepository;
-
-    @InjectMocks
-    @Spy
-    private JiraSyncService jiraSyncService;
-
-    private JiraConfig configEvolutivo;
-    private JiraConfig configCorrectivo;
-
-    @BeforeEach
-    void setUp() {
         configEvolutivo = new JiraConfig();
         configEvolutivo.setProjectKey("BACK");
         configEvolutivo.setTipo(TipoSincronizacion.EVOLUTIVO);
@@ -122,6 +118,21 @@ class JiraSyncServiceTest {
         configCorrectivo.setActivo(true);
     }
 
+    private static IssueJira issue(String clave) {
+        return new IssueJira(clave, "Issue " + clave, "Story", "To Do", null, null, null);
+    }
+
+    /**
+     * Simula la API entregando la misma página para cada JQL.
+     */
+    private void devolverPagina(List<IssueJira> issues) {
+        doAnswer(inv -> {
+            Consumer<List<IssueJira>> porPagina = inv.getArgument(2);
+            porPagina.accept(issues);
+            return issues.size();
+        }).when(jiraSyncService).recorrerIssues(any(), any(), any(Consumer.class));
+    }
+
     // ─── construirJqlEvolutivo ────────────────────────────────────────────────
 
     @Nested
@@ -147,8 +158,8 @@ class JiraSyncServiceTest {
             assertThat(jql).contains("project = GREEN");
             assertThat(jql).doesNotContain("project = RED");
         }
-    }
 
+        @Test
         @DisplayName("Sin lastSync genera JQL de carga completa sin filtro de fecha")
         void sinLastSync_generaJqlCompleto() {
             String jql = jiraSyncService.construirJqlEvolutivo(configEvolutivo, null);
@@ -211,8 +222,8 @@ class JiraSyncServiceTest {
             assertThat(jql).contains("project = BLUE");
             assertThat(jql).doesNotContain("project = RED");
         }
-    }
 
+        @Test
         @DisplayName("Sin lastSync genera JQL de carga completa sin filtro de fecha")
         void sinLastSync_generaJqlCompleto() {
             String jql = jiraSyncService.construirJqlCorrectivo(configCorrectivo, null);
@@ -240,10 +251,10 @@ class JiraSyncServiceTest {
         }
     }
 
-    // ─── sincronizarIssues ────────────────────────────────────────────────────
+    // ─── sincronizarIssues(config, status) ────────────────────────────────────
 
     @Nested
-    @DisplayName("sincronizarIssues()")
+    @DisplayName("sincronizarIssues(config, status)")
     class SincronizarIssuesTests {
 
         @Test
@@ -251,13 +262,10 @@ class JiraSyncServiceTest {
         void testPasaSprintActivoCuandoExiste() {
             when(sprintRepository.findFirstBySquadIdAndEstado(1L, SprintEstado.ACTIVO))
                     .thenReturn(Optional.of(sprintActivo));
+            devolverPagina(List.of(issue("RED-1")));
 
-            JiraSyncService spySyncService = org.mockito.Mockito.spy(jiraSyncService);
-            org.mockito.Mockito.doReturn(Collections.emptyList())
-                    .when(spySyncService).buscarIssues(any(), any());
-
-            JiraSyncStatus status = new JiraSyncStatus();
-            spySyncService.sincronizarIssues(config, status);
+            com.kaos.jira.dto.JiraSyncStatus status = new com.kaos.jira.dto.JiraSyncStatus();
+            jiraSyncService.sincronizarIssues(config, status);
 
             verify(jiraImportService, org.mockito.Mockito.times(2))
                     .processIssues(anyList(), eq(config), eq(sprintActivo), eq(status));
@@ -268,13 +276,10 @@ class JiraSyncServiceTest {
         void testPasaNullSprintCuandoNoExiste() {
             when(sprintRepository.findFirstBySquadIdAndEstado(1L, SprintEstado.ACTIVO))
                     .thenReturn(Optional.empty());
+            devolverPagina(List.of(issue("RED-1")));
 
-            JiraSyncService spySyncService = org.mockito.Mockito.spy(jiraSyncService);
-            org.mockito.Mockito.doReturn(Collections.emptyList())
-                    .when(spySyncService).buscarIssues(any(), any());
-
-            JiraSyncStatus status = new JiraSyncStatus();
-            spySyncService.sincronizarIssues(config, status);
+            com.kaos.jira.dto.JiraSyncStatus status = new com.kaos.jira.dto.JiraSyncStatus();
+            jiraSyncService.sincronizarIssues(config, status);
 
             verify(jiraImportService, org.mockito.Mockito.times(2))
                     .processIssues(anyList(), eq(config), eq((Sprint) null), eq(status));
@@ -285,33 +290,42 @@ class JiraSyncServiceTest {
         void testNoLanzaExcepcionSinSprintActivo() {
             when(sprintRepository.findFirstBySquadIdAndEstado(1L, SprintEstado.ACTIVO))
                     .thenReturn(Optional.empty());
+            devolverPagina(Collections.emptyList());
 
-            JiraSyncService spySyncService = org.mockito.Mockito.spy(jiraSyncService);
-            org.mockito.Mockito.doReturn(Collections.emptyList())
-                    .when(spySyncService).buscarIssues(any(), any());
-
-            JiraSyncStatus status = new JiraSyncStatus();
+            com.kaos.jira.dto.JiraSyncStatus status = new com.kaos.jira.dto.JiraSyncStatus();
 
             org.assertj.core.api.Assertions.assertThatNoException()
-                    .isThrownBy(() -> spySyncService.sincronizarIssues(config, status));
+                    .isThrownBy(() -> jiraSyncService.sincronizarIssues(config, status));
         }
 
         @Test
-        @DisplayName("Llama a processIssues dos veces: evolutivo y correctivo")
-        void testLlamaProcessIssuesDosVeces() {
+        @DisplayName("Entrega cada página a processIssues: evolutivo y correctivo")
+        void testLlamaProcessIssuesPorPagina() {
             when(sprintRepository.findFirstBySquadIdAndEstado(1L, SprintEstado.ACTIVO))
                     .thenReturn(Optional.of(sprintActivo));
+            List<IssueJira> issuesMock = List.of(issue("RED-1"));
+            devolverPagina(issuesMock);
 
-            JiraSyncService spySyncService = org.mockito.Mockito.spy(jiraSyncService);
-            List<Map<String, Object>> issuesMock = List.of(Map.of("key", "RED-1"));
-            org.mockito.Mockito.doReturn(issuesMock)
-                    .when(spySyncService).buscarIssues(any(), any());
-
-            JiraSyncStatus status = new JiraSyncStatus();
-            spySyncService.sincronizarIssues(config, status);
+            com.kaos.jira.dto.JiraSyncStatus status = new com.kaos.jira.dto.JiraSyncStatus();
+            jiraSyncService.sincronizarIssues(config, status);
 
             verify(jiraImportService, org.mockito.Mockito.times(2))
-                    .processIssues(anyList(), eq(config), eq(sprintActivo), eq(status));
+                    .processIssues(eq(issuesMock), eq(config), eq(sprintActivo), eq(status));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        @DisplayName("Un fallo de la API se registra en el status en lugar de ocultarse")
+        void testFalloApiSeRegistraComoError() {
+            doThrow(new IllegalStateException("503 Service Unavailable"))
+                    .when(jiraSyncService).recorrerIssues(any(), any(), any(Consumer.class));
+
+            com.kaos.jira.dto.JiraSyncStatus status = new com.kaos.jira.dto.JiraSyncStatus();
+            jiraSyncService.sincronizarIssues(config, status);
+
+            assertThat(status.getErrores()).hasSize(2);
+            assertThat(status.getErrores().get(0)).contains("503 Service Unavailable");
+            verify(jiraImportService, never()).processIssues(any(), any(), any(), any());
         }
     }
 
@@ -332,11 +346,22 @@ class JiraSyncServiceTest {
         void testJqlCorrectivoNoEsGenerico() {
             String jql = jiraSyncService.construirJqlCorrectivo(config);
             assertThat(jql).contains("project =");
+        }
+    }
+
+    // ─── sincronizarIssues(config) ────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("sincronizarIssues(config) — carga incremental")
+    class SincronizarIncrementalTests {
+
+        @Test
         @DisplayName("Primera sync: no hay ultimaSync, se crea registro con nueva fecha tras completar")
         void primeraSync_creaRegistroUltimaSync() {
             when(jiraSyncStatusRepository.findByProjectKey("BACK")).thenReturn(Optional.empty());
             when(jiraSyncStatusRepository.save(any(JiraSyncStatus.class)))
                     .thenAnswer(inv -> inv.getArgument(0));
+            doReturn(null).when(jiraSyncService).ejecutarSincronizacion(any(), any());
 
             jiraSyncService.sincronizarIssues(configEvolutivo);
 
@@ -357,6 +382,7 @@ class JiraSyncServiceTest {
             when(jiraSyncStatusRepository.findByProjectKey("BACK")).thenReturn(Optional.of(status));
             when(jiraSyncStatusRepository.save(any(JiraSyncStatus.class)))
                     .thenAnswer(inv -> inv.getArgument(0));
+            doReturn(null).when(jiraSyncService).ejecutarSincronizacion(any(), any());
 
             jiraSyncService.sincronizarIssues(configEvolutivo);
 
@@ -380,6 +406,58 @@ class JiraSyncServiceTest {
             verify(jiraSyncStatusRepository, never()).save(any(JiraSyncStatus.class));
         }
 
+        @Test
+        @DisplayName("Sync correcta limpia el error y los fallos consecutivos anteriores")
+        void syncCorrecta_limpiaUltimoError() {
+            JiraSyncStatus status = new JiraSyncStatus();
+            status.setProjectKey("BACK");
+            status.setUltimoError("Jira respondió 503");
+            status.setFallosConsecutivos(3);
+            when(jiraSyncStatusRepository.findByProjectKey("BACK")).thenReturn(Optional.of(status));
+            when(jiraSyncStatusRepository.save(any(JiraSyncStatus.class)))
+                    .thenAnswer(inv -> inv.getArgument(0));
+            doReturn(null).when(jiraSyncService).ejecutarSincronizacion(any(), any());
+
+            jiraSyncService.sincronizarIssues(configEvolutivo);
+
+            assertThat(status.getUltimoError()).isNull();
+            assertThat(status.getFallosConsecutivos()).isZero();
+        }
+
+        @Test
+        @DisplayName("registrarFallo guarda la causa y suma un fallo sin mover ultima_sync")
+        void registrarFallo_guardaCausaSinMoverUltimaSync() {
+            LocalDateTime lastSync = LocalDateTime.of(2026, 2, 20, 10, 0);
+            JiraSyncStatus status = new JiraSyncStatus();
+            status.setProjectKey("BACK");
+            status.setUltimaSync(lastSync);
+            status.setFallosConsecutivos(1);
+            when(jiraSyncStatusRepository.findByProjectKey("BACK")).thenReturn(Optional.of(status));
+
+            jiraSyncService.registrarFallo(configEvolutivo, "Jira myorg.atlassian.net no disponible");
+
+            verify(jiraSyncStatusRepository).save(status);
+            assertThat(status.getUltimaSync()).isEqualTo(lastSync);
+            assertThat(status.getUltimoError()).isEqualTo("Jira myorg.atlassian.net no disponible");
+            assertThat(status.getUltimoFallo()).isNotNull();
+            assertThat(status.getFallosConsecutivos()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("registrarFallo sin registro previo lo crea sin ultima_sync")
+        void registrarFallo_sinRegistro_loCrea() {
+            when(jiraSyncStatusRepository.findByProjectKey("BACK")).thenReturn(Optional.empty());
+
+            jiraSyncService.registrarFallo(configEvolutivo, "x".repeat(1500));
+
+            ArgumentCaptor<JiraSyncStatus> captor = ArgumentCaptor.forClass(JiraSyncStatus.class);
+            verify(jiraSyncStatusRepository).save(captor.capture());
+            assertThat(captor.getValue().getProjectKey()).isEqualTo("BACK");
+            assertThat(captor.getValue().getUltimaSync()).isNull();
+            assertThat(captor.getValue().getUltimoError()).hasSize(1000);
+            assertThat(captor.getValue().getFallosConsecutivos()).isEqualTo(1);
+        }
+
         @Test
         @DisplayName("Primera sync usa JQL de carga completa (sin updated >=)")
         void primeraSync_usaJqlCompleto() {
@@ -387,7 +465,7 @@ class JiraSyncServiceTest {
             when(jiraSyncStatusRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             ArgumentCaptor<String> jqlCaptor = ArgumentCaptor.forClass(String.class);
-            org.mockito.Mockito.doNothing()
+            doReturn(null)
                     .when(jiraSyncService).ejecutarSincronizacion(jqlCaptor.capture(), any());
 
             jiraSyncService.sincronizarIssues(configEvolutivo);
@@ -407,12 +485,239 @@ class JiraSyncServiceTest {
             when(jiraSyncStatusRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
             ArgumentCaptor<String> jqlCaptor = ArgumentCaptor.forClass(String.class);
-            org.mockito.Mockito.doNothing()
+            doReturn(null)
                     .when(jiraSyncService).ejecutarSincronizacion(jqlCaptor.capture(), any());
 
             jiraSyncService.sincronizarIssues(configEvolutivo);
 
             assertThat(jqlCaptor.getValue()).contains("updated >= \"2026-02-20 10:00\"");
         }
+
+        @Test
+        @DisplayName("Config sin tipo sincroniza evolutivo y correctivo")
+        void configSinTipo_sincronizaAmbos() {
+            config.setTipo(null);
+            when(jiraSyncStatusRepository.findByProjectKey("RED")).thenReturn(Optional.empty());
+            when(jiraSyncStatusRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+            ArgumentCaptor<String> jqlCaptor = ArgumentCaptor.forClass(String.class);
+            doReturn(null)
+                    .when(jiraSyncService).ejecutarSincronizacion(jqlCaptor.capture(), any());
+
+            jiraSyncService.sincronizarIssues(config);
+
+            assertThat(jqlCaptor.getAllValues()).hasSize(2);
+            assertThat(jqlCaptor.getAllValues().get(0)).contains("issuetype not in (Sub-task)");
+            assertThat(jqlCaptor.getAllValues().get(1)).contains("issuetype in (Bug, Incident)");
+        }
+
+        @Test
+        @DisplayName("ejecutarSincronizacion importa cada página con el sprint activo del squad")
+        void ejecutarSincronizacion_importaPaginasConSprint() {
+            when(sprintRepository.findFirstBySquadIdAndEstado(1L, SprintEstado.ACTIVO))
+                    .thenReturn(Optional.of(sprintActivo));
+            List<IssueJira> pagina = List.of(issue("RED-7"));
+            devolverPagina(pagina);
+
+            jiraSyncService.ejecutarSincronizacion("project = RED", config);
+
+            verify(jiraSyncService).recorrerIssues(eq(config), eq("project = RED"), any());
+            verify(jiraImportService).processIssues(eq(pagina), eq(config), eq(sprintActivo), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("sincronizarIssues(config) — marca de agua por config y tipo")
+    class MarcaDeAguaTests {
+
+        private final OffsetDateTime marcaAnterior = OffsetDateTime.parse("2026-02-20T10:30:00+01:00");
+
+        @BeforeEach
+        void setUp() {
+            config.setTipo(null);
+            ReflectionTestUtils.setField(jiraSyncService, "zonaJira", "Europe/Madrid");
+            when(jiraSyncStatusRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        }
+
+        private JiraSyncMarca marca(TipoSincronizacion tipo, OffsetDateTime hasta) {
+            JiraSyncMarca marca = JiraSyncMarca.builder().config(config).tipo(tipo).actualizadaHasta(hasta).build();
+            when(jiraSyncMarcaRepository.findByConfigIdAndTipo(1L, tipo)).thenReturn(Optional.of(marca));
+            return marca;
+        }
+
+        @Test
+        @DisplayName("Cada tipo parte de su marca menos el solape, en la zona de Jira, aunque el proyecto tenga ultimaSync")
+        void conMarca_jqlDesdeMarcaMenosSolape() {
+            JiraSyncStatus status = new JiraSyncStatus();
+            status.setProjectKey("RED");
+            status.setUltimaSync(LocalDateTime.of(2026, 3, 1, 8, 0));
+            when(jiraSyncStatusRepository.findByProjectKey("RED")).thenReturn(Optional.of(status));
+            marca(TipoSincronizacion.EVOLUTIVO, marcaAnterior);
+            marca(TipoSincronizacion.CORRECTIVO, OffsetDateTime.parse("2026-02-18T07:00:00Z"));
+            ArgumentCaptor<String> jqlCaptor = ArgumentCaptor.forClass(String.class);
+            doReturn(null).when(jiraSyncService).ejecutarSincronizacion(jqlCaptor.capture(), any());
+
+            jiraSyncService.sincronizarIssues(config);
+
+            assertThat(jqlCaptor.getAllValues().get(0)).contains("updated >= \"2026-02-20 10:20\"");
+            assertThat(jqlCaptor.getAllValues().get(1)).contains("updated >= \"2026-02-18 07:50\"");
+        }
+
+        @Test
+        @DisplayName("La marca avanza al mayor updated visto, no al reloj local")
+        void syncCorrecta_avanzaMarcaAlMayorUpdated() {
+            config.setTipo(TipoSincronizacion.EVOLUTIVO);
+            JiraSyncMarca marca = marca(TipoSincronizacion.EVOLUTIVO, marcaAnterior);
+            OffsetDateTime vista = OffsetDateTime.parse("2026-02-20T11:45:12.345+01:00");
+            devolverPagina(List.of(
+                    new IssueJira("RED-1", "A", "Story", "To Do", null, null, vista),
+                    new IssueJira("RED-2", "B", "Story", "To Do", null, null, marcaAnterior.minusMinutes(5)),
+                    issue("RED-3")));
+
+            jiraSyncService.sincronizarIssues(config);
+
+            verify(jiraSyncMarcaRepository).save(marca);
+            assertThat(marca.getActualizadaHasta()).isEqualTo(vista);
+        }
+
+        @Test
+        @DisplayName("Primera sync de un tipo crea su marca; sin issues recibidas no se crea")
+        void primeraSync_creaMarcaSoloSiHayDatos() {
+            OffsetDateTime vista = OffsetDateTime.parse("2026-02-21T09:00:00Z");
+            doReturn(vista).when(jiraSyncService).ejecutarSincronizacion(
+                    org.mockito.ArgumentMatchers.contains("issuetype not in (Sub-task)"), any());
+            doReturn(null).when(jiraSyncService).ejecutarSincronizacion(
+                    org.mockito.ArgumentMatchers.contains("issuetype in (Bug, Incident)"), any());
+
+            jiraSyncService.sincronizarIssues(config);
+
+            ArgumentCaptor<JiraSyncMarca> captor = ArgumentCaptor.forClass(JiraSyncMarca.class);
+            verify(jiraSyncMarcaRepository).save(captor.capture());
+            assertThat(captor.getValue().getTipo()).isEqualTo(TipoSincronizacion.EVOLUTIVO);
+            assertThat(captor.getValue().getConfig()).isSameAs(config);
+            assertThat(captor.getValue().getActualizadaHasta()).isEqualTo(vista);
+        }
+
+        @Test
+        @DisplayName("La marca nunca retrocede")
+        void marcaNoRetrocede() {
+            config.setTipo(TipoSincronizacion.CORRECTIVO);
+            JiraSyncMarca marca = marca(TipoSincronizacion.CORRECTIVO, marcaAnterior);
+            doReturn(marcaAnterior.minusMinutes(3)).when(jiraSyncService).ejecutarSincronizacion(any(), any());
+
+            jiraSyncService.sincronizarIssues(config);
+
+            verify(jiraSyncMarcaRepository, never()).save(any());
+            assertThat(marca.getActualizadaHasta()).isEqualTo(marcaAnterior);
+        }
+
+        /** Simula que {@code processIssues} no puede importar las claves indicadas. */
+        private void fallanAlImportar(String... claves) {
+            doAnswer(inv -> {
+                List<IssueJira> pagina = inv.getArgument(0);
+                com.kaos.jira.dto.JiraSyncStatus resultado = inv.getArgument(3);
+                for (IssueJira issue : pagina) {
+                    if (List.of(claves).contains(issue.jiraKey())) {
+                        resultado.addError(issue.jiraKey(), "Error procesando issue " + issue.jiraKey());
+                    }
+                }
+                return null;
+            }).when(jiraImportService).processIssues(anyList(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Si alguna issue no se importa la marca queda justo antes de la primera fallida")
+        void errorImportando_marcaAntesDeLaPrimeraFallida() {
+            config.setTipo(TipoSincronizacion.EVOLUTIVO);
+            JiraSyncMarca marca = marca(TipoSincronizacion.EVOLUTIVO, marcaAnterior);
+            OffsetDateTime fallida = marcaAnterior.plusHours(1);
+            devolverPagina(List.of(
+                    new IssueJira("RED-1", "A", "Story", "To Do", null, null, marcaAnterior.plusHours(3)),
+                    new IssueJira("RED-2", "B", "Story", "To Do", null, null, fallida),
+                    new IssueJira("RED-3", "C", "Story", "To Do", null, null, marcaAnterior.plusHours(2)),
+                    new IssueJira("RED-4", "D", "Story", "To Do", null, null, marcaAnterior.plusMinutes(30))));
+            fallanAlImportar("RED-2", "RED-3");
+
+            jiraSyncService.sincronizarIssues(config);
+
+            verify(jiraSyncMarcaRepository).save(marca);
+            assertThat(marca.getActualizadaHasta()).isBefore(fallida).isAfter(fallida.minusSeconds(1));
+        }
+
+        @Test
+        @DisplayName("Una issue que falla siempre no bloquea la marca: se reintenta desde ella en cada sync")
+        void errorPermanente_siguienteSyncIncluyeLaFallida() {
+            config.setTipo(TipoSincronizacion.EVOLUTIVO);
+            JiraSyncMarca marca = marca(TipoSincronizacion.EVOLUTIVO, marcaAnterior);
+            OffsetDateTime fallida = OffsetDateTime.parse("2026-02-20T12:00:00+01:00");
+            devolverPagina(List.of(
+                    new IssueJira("RED-1", "A", "Story", "To Do", null, null, fallida),
+                    new IssueJira("RED-2", "B", "Story", "To Do", null, null, fallida.plusHours(4))));
+            fallanAlImportar("RED-1");
+            ArgumentCaptor<String> jqlCaptor = ArgumentCaptor.forClass(String.class);
+
+            jiraSyncService.sincronizarIssues(config);
+            jiraSyncService.sincronizarIssues(config);
+
+            verify(jiraSyncService, org.mockito.Mockito.times(2)).ejecutarSincronizacion(jqlCaptor.capture(), any());
+            assertThat(jqlCaptor.getAllValues().get(0)).contains("updated >= \"2026-02-20 10:20\"");
+            assertThat(jqlCaptor.getAllValues().get(1)).contains("updated >= \"2026-02-20 11:49\"");
+            assertThat(marca.getActualizadaHasta()).isBefore(fallida);
+        }
+
+        @Test
+        @DisplayName("Primera sync con issues fallidas crea igualmente la marca, antes de la primera fallida")
+        void primeraSyncConErrores_creaMarca() {
+            config.setTipo(TipoSincronizacion.CORRECTIVO);
+            JiraSyncStatus status = new JiraSyncStatus();
+            status.setProjectKey("RED");
+            when(jiraSyncStatusRepository.findByProjectKey("RED")).thenReturn(Optional.of(status));
+            OffsetDateTime fallida = OffsetDateTime.parse("2026-01-10T08:00:00Z");
+            devolverPagina(List.of(
+                    new IssueJira("RED-1", "A", "Bug", "To Do", null, null, fallida.plusDays(5)),
+                    new IssueJira("RED-2", "B", "Bug", "To Do", null, null, fallida)));
+            fallanAlImportar("RED-2");
+
+            jiraSyncService.sincronizarIssues(config);
+
+            ArgumentCaptor<JiraSyncMarca> captor = ArgumentCaptor.forClass(JiraSyncMarca.class);
+            verify(jiraSyncMarcaRepository).save(captor.capture());
+            assertThat(captor.getValue().getTipo()).isEqualTo(TipoSincronizacion.CORRECTIVO);
+            assertThat(captor.getValue().getActualizadaHasta()).isBefore(fallida).isAfter(fallida.minusSeconds(1));
+            assertThat(status.getUltimaSync()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Si la issue fallida no trae fecha la marca queda antes de la primera recibida")
+        void errorSinFecha_marcaAntesDeLaPrimeraRecibida() {
+            config.setTipo(TipoSincronizacion.EVOLUTIVO);
+            JiraSyncMarca marca = marca(TipoSincronizacion.EVOLUTIVO, marcaAnterior);
+            OffsetDateTime primera = marcaAnterior.plusMinutes(1);
+            devolverPagina(List.of(
+                    new IssueJira("RED-1", "A", "Story", "To Do", null, null, marcaAnterior.plusHours(2)),
+                    new IssueJira("RED-2", "B", "Story", "To Do", null, null, primera),
+                    issue("RED-3")));
+            fallanAlImportar("RED-3");
+
+            jiraSyncService.sincronizarIssues(config);
+
+            assertThat(marca.getActualizadaHasta()).isBefore(primera).isAfter(marcaAnterior);
+        }
+
+        @Test
+        @DisplayName("Una issue fallida dentro del solape no hace retroceder la marca")
+        void errorEnSolape_marcaNoRetrocede() {
+            config.setTipo(TipoSincronizacion.EVOLUTIVO);
+            JiraSyncMarca marca = marca(TipoSincronizacion.EVOLUTIVO, marcaAnterior);
+            devolverPagina(List.of(
+                    new IssueJira("RED-1", "A", "Story", "To Do", null, null, marcaAnterior.minusMinutes(5)),
+                    new IssueJira("RED-2", "B", "Story", "To Do", null, null, marcaAnterior.plusHours(1))));
+            fallanAlImportar("RED-1");
+
+            jiraSyncService.sincronizarIssues(config);
+
+            verify(jiraSyncMarcaRepository, never()).save(any());
+            assertThat(marca.getActualizadaHasta()).isEqualTo(marcaAnterior);
+        }
     }
 }
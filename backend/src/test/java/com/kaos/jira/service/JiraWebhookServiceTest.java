@@ -0,0 +1,249 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import com.kaos.jira.dto.IssueJira;
+import com.kaos.jira.dto.JiraSyncStatus;
+import com.kaos.jira.entity.JiraConfig;
+import com.kaos.jira.entity.TipoSincronizacion;
+import com.kaos.jira.repository.JiraConfigRepository;
+
+/**
+ * Tests unitarios para {@link JiraWebhookService}.
+ * Con ventana cero cada {@code drenar()} aplica todo lo encolado hasta ese momento.
+ */
+@DisplayName("JiraWebhookService")
+class JiraWebhookServiceTest {
+
+    private JiraConfigRepository jiraConfigRepository;
+    private JiraSyncService jiraSyncService;
+    private JiraJerarquiaService jiraJerarquiaService;
+
+    private JiraConfig evolutivo;
+    private JiraConfig correctivo;
+
+    @BeforeEach
+    void setUp() {
+        jiraConfigRepository = mock(JiraConfigRepository.class);
+        jiraSyncService = mock(JiraSyncService.class);
+        jiraJerarquiaService = mock(JiraJerarquiaService.class);
+
+        evolutivo = config(1L, "RED", TipoSincronizacion.EVOLUTIVO);
+        correctivo = config(2L, "RED", TipoSincronizacion.CORRECTIVO);
+        when(jiraConfigRepository.findByActivoTrue()).thenReturn(List.of(evolutivo, correctivo));
+        when(jiraSyncService.aplicarIssues(any(JiraConfig.class), anyList())).thenReturn(new JiraSyncStatus());
+    }
+
+    private JiraWebhookService service(String secreto, int capacidad) {
+        return new JiraWebhookService(jiraConfigRepository, jiraSyncService, jiraJerarquiaService,
+                secreto, Duration.ZERO, capacidad, 500, "customfield_10020");
+    }
+
+    private static JiraConfig config(Long id, String projectKey, TipoSincronizacion tipo) {
+        JiraConfig config = new JiraConfig();
+        config.setId(id);
+        config.setProjectKey(projectKey);
+        config.setTipo(tipo);
+        return config;
+    }
+
+    private static byte[] webhook(String evento, String clave, String tipo, String estado) {
+        return ("""
+                {"timestamp": 1741000000000, "webhookEvent": "%s",
+                 "user": {"accountId": "abc", "displayName": "Ana"},
+                 "issue": {"id": "20001", "key": "%s", "fields": {
+                   "summary": "Resumen %s", "issuetype": {"name": "%s"}, "status": {"name": "%s"}}},
+                 "changelog": {"items": [{"field": "status", "toString": "%s"}]}}
+                """).formatted(evento, clave, clave, tipo, estado, estado).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<IssueJira> issuesAplicadas(JiraConfig config) {
+        ArgumentCaptor<List<IssueJira>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jiraSyncService).aplicarIssues(eq(config), captor.capture());
+        return captor.getValue();
+    }
+
+    @Nested
+    @DisplayName("recibir() + drenar() - Agrupación y aplicación")
+    class AplicacionTests {
+
+        @Test
+        @DisplayName("Ráfaga de 50 eventos sobre 5 issues → una sola importación con 5 issues, cada una en su último estado")
+        void recibir_rafaga_agrupaPorClave() {
+            JiraWebhookService service = service("", 100);
+            for (int i = 0; i < 50; i++) {
+                service.recibir(webhook(JiraWebhookService.EVENTO_MODIFICADA,
+                        "RED-" + (i % 5), "Story", "Estado " + i));
+            }
+            assertThat(service.pendientes()).isEqualTo(5);
+
+            service.drenar();
+
+            assertThat(issuesAplicadas(evolutivo))
+                .extracting(IssueJira::jiraKey, IssueJira::estado)
+                .containsExactly(
+                    tuple("RED-0", "Estado 45"),
+                    tuple("RED-1", "Estado 46"),
+                    tuple("RED-2", "Estado 47"),
+                    tuple("RED-3", "Estado 48"),
+                    tuple("RED-4", "Estado 49"));
+            verify(jiraConfigRepository, times(1)).findByActivoTrue();
+            assertThat(service.pendientes()).isZero();
+        }
+
+        @Test
+        @DisplayName("Bugs a la config CORRECTIVO, resto a la EVOLUTIVO; proyectos sin config se descartan")
+        void drenar_asignaConfigPorTipo() {
+            JiraWebhookService service = service("", 100);
+            service.recibir(webhook(JiraWebhookService.EVENTO_CREADA, "RED-1", "Story", "To Do"));
+            service.recibir(webhook(JiraWebhookService.EVENTO_CREADA, "RED-2", "Bug", "To Do"));
+            service.recibir(webhook(JiraWebhookService.EVENTO_CREADA, "OTRO-1", "Bug", "To Do"));
+
+            service.drenar();
+
+            assertThat(issuesAplicadas(evolutivo)).extracting(IssueJira::jiraKey).containsExactly("RED-1");
+            assertThat(issuesAplicadas(correctivo)).extracting(IssueJira::jiraKey).containsExactly("RED-2");
+        }
+
+        @Test
+        @DisplayName("Borrados: una sola sentencia con todas las claves y sin consultar configs")
+        void drenar_borrados_eliminaPorClaves() {
+            JiraWebhookService service = service("", 100);
+            service.recibir(webhook(JiraWebhookService.EVENTO_MODIFICADA, "RED-1", "Story", "To Do"));
+            service.recibir(webhook(JiraWebhookService.EVENTO_ELIMINADA, "RED-1", "Story", "To Do"));
+            service.recibir(webhook(JiraWebhookService.EVENTO_ELIMINADA, "RED-2", "Story", "To Do"));
+
+            service.drenar();
+
+            verify(jiraJerarquiaService).eliminarIssues(List.of("RED-1", "RED-2"));
+            verify(jiraSyncService, never()).aplicarIssues(any(), anyList());
+            verify(jiraConfigRepository, never()).findByActivoTrue();
+        }
+
+        @Test
+        @DisplayName("Un error en una config no impide aplicar las demás")
+        void drenar_errorEnUnaConfig_sigue() {
+            when(jiraSyncService.aplicarIssues(eq(evolutivo), anyList())).thenThrow(new IllegalStateException("BD caída"));
+            JiraWebhookService service = service("", 100);
+            service.recibir(webhook(JiraWebhookService.EVENTO_CREADA, "RED-1", "Story", "To Do"));
+            service.recibir(webhook(JiraWebhookService.EVENTO_CREADA, "RED-2", "Bug", "To Do"));
+
+            service.drenar();
+
+            assertThat(issuesAplicadas(correctivo)).extracting(IssueJira::jiraKey).containsExactly("RED-2");
+        }
+    }
+
+    @Nested
+    @DisplayName("recibir() - Validación")
+    class ValidacionTests {
+
+        @Test
+        @DisplayName("Eventos que no son de issue se ignoran sin encolar")
+        void recibir_eventoNoSoportado_seIgnora() {
+            JiraWebhookService service = service("", 100);
+
+            assertThat(service.recibir(webhook("comment_created", "RED-1", "Story", "To Do"))).isTrue();
+
+            assertThat(service.pendientes()).isZero();
+        }
+
+        @Test
+        @DisplayName("Cuerpo mal formado o sin clave → IllegalArgumentException")
+        void recibir_invalido_lanzaExcepcion() {
+            JiraWebhookService service = service("", 100);
+
+            assertThatThrownBy(() -> service.recibir("no es json".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> service.recibir(
+                    "{\"webhookEvent\": \"jira:issue_updated\", \"issue\": {\"fields\": {}}}"
+                            .getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sin clave");
+        }
+
+        @Test
+        @DisplayName("Cola llena → false para claves nuevas")
+        void recibir_colaLlena_devuelveFalse() {
+            JiraWebhookService service = service("", 1);
+
+            assertThat(service.recibir(webhook(JiraWebhookService.EVENTO_MODIFICADA, "RED-1", "Story", "A"))).isTrue();
+            assertThat(service.recibir(webhook(JiraWebhookService.EVENTO_MODIFICADA, "RED-2", "Story", "A"))).isFalse();
+            assertThat(service.recibir(webhook(JiraWebhookService.EVENTO_MODIFICADA, "RED-1", "Story", "B"))).isTrue();
+        }
+
+        @Test
+        @DisplayName("Firma HMAC-SHA256: válida si coincide, inválida si falta o no coincide")
+        void firmaValida_conSecreto() throws Exception {
+            JiraWebhookService service = service("s3cr3t", 100);
+            byte[] cuerpo = webhook(JiraWebhookService.EVENTO_MODIFICADA, "RED-1", "Story", "A");
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec("s3cr3t".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            String firma = "sha256=" + HexFormat.of().formatHex(mac.doFinal(cuerpo));
+
+            assertThat(service.firmaValida(cuerpo, firma)).isTrue();
+            assertThat(service.firmaValida(cuerpo, null)).isFalse();
+            assertThat(service.firmaValida(cuerpo, "sha256=zz")).isFalse();
+            assertThat(service.firmaValida(cuerpo, firma.replace("sha256=", "sha1="))).isFalse();
+            assertThat(service.firmaValida("{}".getBytes(StandardCharsets.UTF_8), firma)).isFalse();
+            verifyNoInteractions(jiraSyncService);
+        }
+
+        @Test
+        @DisplayName("Sin secreto configurado el webhook está deshabilitado y ninguna firma es válida")
+        void firmaValida_sinSecreto_rechaza() {
+            JiraWebhookService service = service("", 100);
+
+            assertThat(service.habilitado()).isFalse();
+            assertThat(service.firmaValida(new byte[0], null)).isFalse();
+            assertThat(service.firmaValida(new byte[0], "sha256=00")).isFalse();
+            assertThat(service("  ", 100).habilitado()).isFalse();
+            assertThat(service("s3cr3t", 100).habilitado()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("elegirConfig() / proyecto()")
+    class ConfigTests {
+
+        @Test
+        @DisplayName("Config sin tipo cubre bugs e historias; sin configs → null")
+        void elegirConfig_casos() {
+            JiraConfig ambos = config(3L, "BACK", null);
+
+            assertThat(JiraWebhookService.elegirConfig(List.of(ambos), "Bug")).isSameAs(ambos);
+            assertThat(JiraWebhookService.elegirConfig(List.of(ambos), "Story")).isSameAs(ambos);
+            assertThat(JiraWebhookService.elegirConfig(List.of(correctivo), "Story")).isSameAs(correctivo);
+            assertThat(JiraWebhookService.elegirConfig(null, "Story")).isNull();
+        }
+
+        @Test
+        @DisplayName("Proyecto = prefijo hasta el último guion")
+        void proyecto_prefijo() {
+            assertThat(JiraWebhookService.proyecto("RED-123")).isEqualTo("RED");
+            assertThat(JiraWebhookService.proyecto("MI-PROY-7")).isEqualTo("MI-PROY");
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.kaos.jira.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaos.jira.dto.IssueJira;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tests unitarios para {@link LectorBusquedaJira}.
+ * Valida la extracción de campos sobre respuestas con la forma real de Jira y que una
+ * página completa da las mismas issues que deserializar a árboles de {@code Map}. La memoria
+ * asignada por issue frente a esos árboles depende de la JVM y solo se mide con
+ * {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@DisplayName("LectorBusquedaJira")
+class LectorBusquedaJiraTest {
+
+    private static final String CAMPO_SPRINT = "customfield_10020";
+
+    private final LectorBusquedaJira lector = new LectorBusquedaJira(CAMPO_SPRINT);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Issue con todo lo que Jira devuelve para los campos pedidos (iconos, self, categorías...). */
+    private static Map<String, Object> issueJira(int n, boolean subtask) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("summary", "Desarrollo de la funcionalidad " + n);
+        fields.put("issuetype", Map.of(
+                "self", "https://myorg.atlassian.net/rest/api/2/issuetype/10003",
+                "id", "10003",
+                "description", "Una tarea pequeña dentro de una historia.",
+                "iconUrl", "https://myorg.atlassian.net/secure/viewavatar?size=medium&avatarId=10316",
+                "name", subtask ? "Sub-task" : "Story",
+                "subtask", subtask,
+                "avatarId", 10316,
+                "hierarchyLevel", subtask ? -1 : 0));
+        fields.put("status", Map.of(
+                "self", "https://myorg.atlassian.net/rest/api/2/status/3",
+                "description", "El trabajo está en curso.",
+                "iconUrl", "https://myorg.atlassian.net/images/icons/statuses/inprogress.png",
+                "name", "In Progress",
+                "id", "3",
+                "statusCategory", Map.of(
+                        "self", "https://myorg.atlassian.net/rest/api/2/statuscategory/4",
+                        "id", 4, "key", "indeterminate", "colorName", "yellow", "name", "En curso")));
+        if (subtask) {
+            fields.put("parent", Map.of(
+                    "id", "20000", "key", "RED-1",
+                    "self", "https://myorg.atlassian.net/rest/api/2/issue/20000",
+                    "fields", Map.of("summary", "Historia padre", "status", Map.of("name", "To Do"))));
+        }
+        fields.put("updated", "2026-03-0" + (1 + n % 9) + "T10:15:30.123+0200");
+        fields.put(CAMPO_SPRINT, List.of(
+                Map.of("id", 40, "name", "RED Sprint 6", "state", "closed", "boardId", 7,
+                        "goal", "", "startDate", "2026-02-01T08:00:00.000Z", "endDate", "2026-02-14T17:00:00.000Z"),
+                Map.of("id", 41, "name", "RED Sprint 7", "state", "active", "boardId", 7,
+                        "goal", "Cerrar la importación", "startDate", "2026-02-15T08:00:00.000Z",
+                        "endDate", "2026-02-28T17:00:00.000Z")));
+
+        Map<String, Object> issue = new LinkedHashMap<>();
+        issue.put("expand", "operations,versionedRepresentations,editmeta,changelog,renderedFields");
+        issue.put("id", String.valueOf(20000 + n));
+        issue.put("self", "https://myorg.atlassian.net/rest/api/2/issue/" + (20000 + n));
+        issue.put("key", "RED-" + n);
+        issue.put("fields", fields);
+        return issue;
+    }
+
+    private byte[] respuesta(int issues) throws IOException {
+        List<Map<String, Object>> lista = new ArrayList<>();
+        for (int i = 1; i <= issues; i++) {
+            lista.add(issueJira(i, i % 2 == 0));
+        }
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("expand", "schema,names");
+        respuesta.put("startAt", 0);
+        respuesta.put("maxResults", 100);
+        respuesta.put("total", 5_000);
+        respuesta.put("issues", lista);
+        return objectMapper.writeValueAsBytes(respuesta);
+    }
+
+    private LectorBusquedaJira.Pagina leer(String json) throws IOException {
+        return lector.leer(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Nested
+    @DisplayName("leer() - Campos")
+    class CamposTests {
+
+        @Test
+        @DisplayName("Extrae clave, summary, tipo, estado, padre, sprint activo y fecha de actualización")
+        void leer_respuestaCompleta_extraeCampos() throws IOException {
+            LectorBusquedaJira.Pagina pagina = lector.leer(new ByteArrayInputStream(respuesta(2)));
+
+            assertThat(pagina.total()).isEqualTo(5_000);
+            assertThat(pagina.maxResults()).isEqualTo(100);
+            assertThat(pagina.issues()).containsExactly(
+                    new IssueJira("RED-1", "Desarrollo de la funcionalidad 1", "Story", "In Progress", null,
+                            "RED Sprint 7", OffsetDateTime.of(2026, 3, 2, 10, 15, 30, 123_000_000, ZoneOffset.ofHours(2))),
+                    new IssueJira("RED-2", "Desarrollo de la funcionalidad 2", "Sub-task", "In Progress", "RED-1",
+                            "RED Sprint 7", OffsetDateTime.of(2026, 3, 3, 10, 15, 30, 123_000_000, ZoneOffset.ofHours(2))));
+        }
+
+        @Test
+        @DisplayName("Campos ausentes, nulos o con tipo inesperado quedan a null sin fallar")
+        void leer_camposIrregulares_toleraYDejaNull() throws IOException {
+            LectorBusquedaJira.Pagina pagina = leer("""
+                    {"issues": [
+                      {"key": "RED-1", "fields": {"summary": null, "status": "Done", "issuetype": [1, 2],
+                                                  "parent": null, "updated": "ayer", "customfield_10020": null}},
+                      {"key": "RED-2"},
+                      {"fields": {"summary": 42}}
+                    ]}
+                    """);
+
+            assertThat(pagina.total()).isEqualTo(3);
+            assertThat(pagina.issues()).containsExactly(
+                    new IssueJira("RED-1", null, null, "Done", null, null, null),
+                    new IssueJira("RED-2", null, null, null, null, null, null),
+                    new IssueJira(null, "42", null, null, null, null, null));
+        }
+
+        @Test
+        @DisplayName("Sprint sin ninguno activo → el último; fecha ISO con ':' en el offset")
+        void leer_sprintSinActivo_ultimo() throws IOException {
+            LectorBusquedaJira.Pagina pagina = leer("""
+                    {"total": 1, "issues": [{"key": "RED-1", "fields": {
+                      "updated": "2026-03-02T10:15:30+02:00",
+                      "customfield_10020": [{"name": "S1", "state": "closed"}, {"name": "S2", "state": "future"}]}}]}
+                    """);
+
+            assertThat(pagina.issues()).singleElement().satisfies(issue -> {
+                assertThat(issue.sprint()).isEqualTo("S2");
+                assertThat(issue.actualizada()).isEqualTo(
+                        OffsetDateTime.of(2026, 3, 2, 10, 15, 30, 0, ZoneOffset.ofHours(2)));
+            });
+        }
+
+        @Test
+        @DisplayName("Webhook: lee el tipo de evento y la issue con los mismos campos que la búsqueda")
+        void leerEvento_webhook_extraeTipoEIssue() throws IOException {
+            LectorBusquedaJira.Evento evento = lector.leerEvento(new ByteArrayInputStream("""
+                    {"timestamp": 1741000000000, "webhookEvent": "jira:issue_updated",
+                     "user": {"displayName": "Ana"},
+                     "issue": {"key": "RED-9", "fields": {"summary": "Login", "issuetype": {"name": "Sub-task"},
+                       "status": {"name": "Done"}, "parent": {"key": "RED-1"},
+                       "customfield_10020": [{"name": "S7", "state": "active"}]}},
+                     "changelog": {"items": [{"field": "status"}]}}
+                    """.getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(evento.tipo()).isEqualTo("jira:issue_updated");
+            assertThat(evento.issue()).isEqualTo(
+                    new IssueJira("RED-9", "Login", "Sub-task", "Done", "RED-1", "S7", null));
+        }
+
+        @Test
+        @DisplayName("Respuesta que no es un objeto JSON → IOException")
+        void leer_noObjeto_lanzaExcepcion() {
+            assertThatThrownBy(() -> leer("[]")).isInstanceOf(IOException.class);
+        }
+    }
+
+    /** Clave, título y estado de cada issue leyendo el árbol de Map completo. */
+    @SuppressWarnings("unchecked")
+    private List<String> clavesTituloEstadoComoMapas(byte[] json) throws IOException {
+        Map<String, Object> respuesta = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        List<String> leidas = new ArrayList<>();
+        for (Map<String, Object> issue : (List<Map<String, Object>>) respuesta.get("issues")) {
+            Map<String, Object> fields = (Map<String, Object>) issue.get("fields");
+            leidas.add(issue.get("key") + "|" + fields.get("summary") + "|"
+                    + ((Map<String, Object>) fields.get("status")).get("name"));
+        }
+        return leidas;
+    }
+
+    @Nested
+    @DisplayName("leer() - Página completa")
+    class PaginaCompletaTests {
+
+        @Test
+        @DisplayName("Página de 100 issues: mismas issues que leyendo el árbol de Map completo")
+        void leer_paginaCompleta_igualQueMapas() throws IOException {
+            byte[] json = respuesta(100);
+
+            List<IssueJira> issues = lector.leer(new ByteArrayInputStream(json)).issues();
+
+            assertThat(issues).hasSize(100);
+            assertThat(issues).extracting(i -> i.jiraKey() + "|" + i.titulo() + "|" + i.estado())
+                .containsExactlyElementsOf(clavesTituloEstadoComoMapas(json));
+            assertThat(issues).filteredOn(i -> i.parentKey() != null).hasSize(50)
+                .allSatisfy(i -> assertThat(i.parentKey()).isEqualTo("RED-1"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Asignación de memoria")
+    class AsignacionTests {
+
+        private static final int ISSUES_POR_PAGINA = 100;
+        private static final int REPETICIONES = 300;
+
+        /** Lectura anterior: árbol de Map completo y extracción con casts. */
+        @SuppressWarnings("unchecked")
+        private int leerComoMapas(byte[] json) throws IOException {
+            Map<String, Object> respuesta = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+            int leidas = 0;
+            for (Map<String, Object> issue : (List<Map<String, Object>>) respuesta.get("issues")) {
+                Map<String, Object> fields = (Map<String, Object>) issue.get("fields");
+                if (issue.get("key") != null && fields.get("summary") != null
+                        && ((Map<String, Object>) fields.get("status")).get("name") != null) {
+                    leidas++;
+                }
+            }
+            return leidas;
+        }
+
+        private int leerEnStreaming(byte[] json) throws IOException {
+            return lector.leer(new ByteArrayInputStream(json)).issues().size();
+        }
+
+        private interface Lectura {
+            int leer(byte[] json) throws IOException;
+        }
+
+        /** Bytes asignados por issue en el hilo actual (HotSpot). */
+        private long bytesPorIssue(byte[] json, Lectura lectura) throws IOException {
+            com.sun.management.ThreadMXBean hilos =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            for (int i = 0; i < REPETICIONES; i++) {
+                lectura.leer(json);
+            }
+            long antes = hilos.getCurrentThreadAllocatedBytes();
+            int issues = 0;
+            for (int i = 0; i < REPETICIONES; i++) {
+                issues += lectura.leer(json);
+            }
+            return (hilos.getCurrentThreadAllocatedBytes() - antes) / issues;
+        }
+
+        @Test
+        @Tag("benchmark")
+        @DisplayName("Página de 100 issues: la lectura en streaming asigna mucha menos memoria por issue")
+        void leer_streaming_asignaMenosQueMapas() throws IOException {
+            byte[] json = respuesta(ISSUES_POR_PAGINA);
+
+            long mapas = bytesPorIssue(json, this::leerComoMapas);
+            long streaming = bytesPorIssue(json, this::leerEnStreaming);
+
+            log.info("[benchmark] memoria asignada por issue ({} bytes de JSON por issue): árbol de Map {} B, "
+                    + "streaming {} B", json.length / ISSUES_POR_PAGINA, mapas, streaming);
+            assertThat(streaming * 3).isLessThan(mapas);
+        }
+    }
+}
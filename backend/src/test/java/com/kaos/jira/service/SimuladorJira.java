@@ -0,0 +1,298 @@
+package com.kaos.jira.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Sustituto local de la API de búsqueda de Jira ({@code /rest/api/2/search}) para tests y
+ * benchmarks, sobre el servidor HTTP del JDK.
+ * <p>
+ * Sirve un proyecto {@code SIM} de tamaño configurable con issues deterministas (historias,
+ * bugs y una sub-task de cada cinco colgando de la issue anterior), ordenadas por
+ * {@code updated} ascendente y paginadas con {@code startAt}/{@code maxResults}. Del JQL solo
+ * interpreta {@code updated >= "yyyy-MM-dd HH:mm"} (en UTC), lo que basta para probar la
+ * sincronización incremental; el resto de filtros se ignoran.
+ * </p>
+ * <p>
+ * Permite inyectar latencia por petición y ráfagas de 429: de cada {@code cada + duracion}
+ * peticiones, las {@code duracion} últimas reciben 429 con {@code Retry-After}.
+ * </p>
+ */
+final class SimuladorJira implements AutoCloseable {
+
+    static final String PROYECTO = "SIM";
+    static final String CAMPO_SPRINT = "customfield_10020";
+
+    /** {@code updated} de la primera issue; cada issue siguiente, un minuto después. */
+    static final LocalDateTime INICIO = LocalDateTime.of(2026, 1, 5, 8, 0);
+
+    private static final DateTimeFormatter FECHA_JIRA = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'+0000'");
+    private static final DateTimeFormatter FECHA_JQL = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final Pattern JQL_DESDE = Pattern.compile("updated >= \"([^\"]+)\"");
+    private static final String[] ESTADOS = {"To Do", "In Progress", "Done"};
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+
+    // Una posición por issue; el orden por updated lo da ordenPorActualizada()
+    private final int total;
+    private final String[] claves;
+    private final String[] estados;
+    private final long[] actualizadas;
+    private final String[] fechas;
+
+    /** Orden de las issues para el último {@code updated >=} pedido; lo invalida modificar(). */
+    private record Orden(long desde, int[] indices) {
+    }
+
+    private volatile Orden orden;
+
+    private volatile long latenciaMs;
+    private volatile int maxResultsServidor = 100;
+    private volatile int rafagaCada;
+    private volatile int rafagaDuracion;
+    private volatile int retryAfterSegundos;
+
+    private final AtomicInteger peticiones = new AtomicInteger();
+    private final AtomicInteger cicloRafaga = new AtomicInteger();
+    private final AtomicInteger respuestas429 = new AtomicInteger();
+    private final AtomicLong issuesServidas = new AtomicLong();
+
+    /**
+     * Arranca el simulador en un puerto libre de 127.0.0.1.
+     *
+     * @param issues tamaño del proyecto simulado
+     */
+    SimuladorJira(int issues) throws IOException {
+        this.total = issues;
+        this.claves = new String[issues];
+        this.estados = new String[issues];
+        this.actualizadas = new long[issues];
+        this.fechas = new String[issues];
+        long inicio = INICIO.toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < issues; i++) {
+            claves[i] = PROYECTO + "-" + (i + 1);
+            estados[i] = ESTADOS[i % ESTADOS.length];
+            actualizadas[i] = inicio + i * 60L;
+            fechas[i] = fechaJira(actualizadas[i]);
+        }
+
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hilos = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(hilos);
+        servidor.createContext(BusquedaPaginadaJira.RUTA_BUSQUEDA, this::responder);
+        servidor.start();
+    }
+
+    /** URL base para {@code JiraConfig.jiraUrl}. */
+    String url() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    /** Latencia añadida a cada respuesta. */
+    SimuladorJira latencia(long ms) {
+        this.latenciaMs = ms;
+        return this;
+    }
+
+    /** Tope de {@code maxResults} que aplica el servidor, como Jira Cloud. */
+    SimuladorJira maxResults(int maximo) {
+        this.maxResultsServidor = maximo;
+        return this;
+    }
+
+    /** De cada {@code cada + duracion} peticiones, responde 429 a las {@code duracion} últimas. */
+    SimuladorJira rafagas429(int cada, int duracion, int retryAfterSegundos) {
+        this.rafagaCada = cada;
+        this.rafagaDuracion = duracion;
+        this.retryAfterSegundos = retryAfterSegundos;
+        return this;
+    }
+
+    /**
+     * Modifica las {@code n} primeras issues: pasan a Done con {@code updated} = {@code cuando}.
+     * Se llama entre sincronizaciones, no con peticiones en curso.
+     */
+    void modificar(int n, Instant cuando) {
+        for (int i = 0; i < Math.min(n, total); i++) {
+            estados[i] = "Done";
+            actualizadas[i] = cuando.getEpochSecond();
+            fechas[i] = fechaJira(actualizadas[i]);
+        }
+        orden = null;
+    }
+
+    /** {@code updated} más reciente del proyecto. */
+    Instant ultimaActualizacion() {
+        long maxima = Long.MIN_VALUE;
+        for (long actualizada : actualizadas) {
+            maxima = Math.max(maxima, actualizada);
+        }
+        return Instant.ofEpochSecond(maxima);
+    }
+
+    int peticiones() {
+        return peticiones.get();
+    }
+
+    int respuestas429() {
+        return respuestas429.get();
+    }
+
+    /** Issues enviadas en respuestas 200, contando repeticiones. */
+    long issuesServidas() {
+        return issuesServidas.get();
+    }
+
+    /** Pone a cero los contadores. */
+    void reiniciarContadores() {
+        peticiones.set(0);
+        cicloRafaga.set(0);
+        respuestas429.set(0);
+        issuesServidas.set(0);
+    }
+
+    private void responder(HttpExchange exchange) throws IOException {
+        peticiones.incrementAndGet();
+        try {
+            if (latenciaMs > 0) {
+                Thread.sleep(latenciaMs);
+            }
+            if (rafaga()) {
+                respuestas429.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfterSegundos));
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+
+            Map<String, String> params = parametros(exchange.getRequestURI().getRawQuery());
+            int startAt = Integer.parseInt(params.getOrDefault("startAt", "0"));
+            int maxResults = Math.min(Integer.parseInt(params.getOrDefault("maxResults", "50")), maxResultsServidor);
+            long desde = desde(params.getOrDefault("jql", ""));
+
+            byte[] cuerpo = pagina(desde, startAt, maxResults);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(cuerpo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean rafaga() {
+        if (rafagaCada <= 0 || rafagaDuracion <= 0) {
+            return false;
+        }
+        return cicloRafaga.getAndIncrement() % (rafagaCada + rafagaDuracion) >= rafagaCada;
+    }
+
+    /** Segundos UTC del filtro {@code updated >=} del JQL, o el mínimo si no lo lleva. */
+    private static long desde(String jql) {
+        Matcher m = JQL_DESDE.matcher(jql);
+        return m.find() ? LocalDateTime.parse(m.group(1), FECHA_JQL).toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+    }
+
+    /**
+     * Página de las issues con {@code updated >= desde} en orden de updated ascendente.
+     * Con el orden inicial basta recorrer; tras {@link #modificar} las modificadas van al final.
+     */
+    private byte[] pagina(long desde, int startAt, int maxResults) {
+        int[] orden = ordenPorActualizada(desde);
+        int fin = Math.min(startAt + maxResults, orden.length);
+
+        StringBuilder json = new StringBuilder(256 + Math.max(0, fin - startAt) * 320);
+        json.append("{\"startAt\":").append(startAt)
+            .append(",\"maxResults\":").append(maxResults)
+            .append(",\"total\":").append(orden.length)
+            .append(",\"issues\":[");
+        for (int n = startAt; n < fin; n++) {
+            if (n > startAt) {
+                json.append(',');
+            }
+            issue(json, orden[n]);
+        }
+        json.append("]}");
+        issuesServidas.addAndGet(Math.max(0, fin - startAt));
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int[] ordenPorActualizada(long desde) {
+        Orden actual = orden;
+        if (actual == null || actual.desde() != desde) {
+            int[] indices = IntStream.range(0, total)
+                    .filter(i -> actualizadas[i] >= desde)
+                    .boxed()
+                    .sorted((a, b) -> actualizadas[a] != actualizadas[b]
+                            ? Long.compare(actualizadas[a], actualizadas[b]) : Integer.compare(a, b))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            actual = new Orden(desde, indices);
+            orden = actual;
+        }
+        return actual.indices();
+    }
+
+    private static String fechaJira(long segundos) {
+        return FECHA_JIRA.format(LocalDateTime.ofEpochSecond(segundos, 0, ZoneOffset.UTC));
+    }
+
+    private void issue(StringBuilder json, int i) {
+        boolean subtask = i > 0 && (i + 1) % 5 == 0;
+        String tipo = subtask ? "Sub-task" : ((i + 1) % 7 == 0 ? "Bug" : "Story");
+        json.append("{\"id\":\"").append(10_000 + i)
+            .append("\",\"key\":\"").append(claves[i])
+            .append("\",\"fields\":{\"summary\":\"")
+            .append(subtask ? "Desarrollo de " : "Funcionalidad ").append(claves[i])
+            .append("\",\"issuetype\":{\"name\":\"").append(tipo)
+            .append("\"},\"status\":{\"name\":\"").append(estados[i]).append("\"}");
+        if (subtask) {
+            json.append(",\"parent\":{\"key\":\"").append(claves[i - 1]).append("\"}");
+        }
+        json.append(",\"updated\":\"")
+            .append(fechas[i])
+            .append("\",\"").append(CAMPO_SPRINT).append("\":[{\"id\":1,\"name\":\"SIM Sprint 1\",\"state\":\"active\"}]}}");
+    }
+
+    private static Map<String, String> parametros(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) {
+            return params;
+        }
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                params.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        hilos.shutdownNow();
+    }
+}
@@ -26,6 +26,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import com.kaos.horario.entity.PerfilHorario;
 import com.kaos.horario.repository.PerfilHorarioRepository;
 import com.kaos.persona.dto.PersonaRequest;
@@ -54,6 +55,9 @@ class PersonaServiceTest {
     @Mock
     private PerfilHorarioRepository perfilHorarioRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PersonaService service;
 
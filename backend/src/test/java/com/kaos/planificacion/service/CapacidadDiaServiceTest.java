@@ -0,0 +1,169 @@
+package com.kaos.planificacion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import com.kaos.calendario.service.CapacidadService;
+import com.kaos.persona.entity.Persona;
+import com.kaos.persona.repository.PersonaRepository;
+import com.kaos.planificacion.entity.CapacidadDia;
+import com.kaos.planificacion.entity.Sprint;
+import com.kaos.planificacion.exception.CapacidadInsuficienteException;
+import com.kaos.planificacion.repository.CapacidadDiaRepository;
+import com.kaos.squad.entity.Squad;
+
+/**
+ * Tests unitarios para {@link CapacidadDiaService}.
+ * Valida reservas, liberaciones y traslados en el libro de capacidad (CA-16).
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CapacidadDiaService - Libro de capacidad por persona y día")
+class CapacidadDiaServiceTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2026, 3, 2);
+
+    @Mock
+    private CapacidadDiaRepository repository;
+
+    @Mock
+    private PersonaRepository personaRepository;
+
+    @Mock
+    private CapacidadService capacidadService;
+
+    @InjectMocks
+    private CapacidadDiaService service;
+
+    private Sprint sprint;
+    private Persona persona;
+
+    @BeforeEach
+    void setUp() {
+        Squad squad = new Squad();
+        squad.setId(1L);
+
+        sprint = new Sprint();
+        sprint.setId(10L);
+        sprint.setSquad(squad);
+        sprint.setFechaInicio(LUNES);
+
+        persona = new Persona();
+        persona.setId(5L);
+    }
+
+    @Nested
+    @DisplayName("reservar()")
+    class ReservarTests {
+
+        @Test
+        @DisplayName("Primer hueco del día se crea con las horas reservadas")
+        void reservar_huecoNuevo_creaConHoras() {
+            when(repository.findBySprintIdAndPersonaIdAndDia(10L, 5L, 1)).thenReturn(Optional.empty());
+            when(personaRepository.getReferenceById(5L)).thenReturn(persona);
+            when(capacidadService.calcularHorasDisponibles(1L, 5L, LUNES)).thenReturn(8.0);
+
+            service.reservar(sprint, 5L, 1, BigDecimal.valueOf(5));
+
+            ArgumentCaptor<CapacidadDia> captor = ArgumentCaptor.forClass(CapacidadDia.class);
+            verify(repository).saveAndFlush(captor.capture());
+            assertThat(captor.getValue().getHorasAsignadas()).isEqualByComparingTo("5");
+            assertThat(captor.getValue().getDia()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Descuenta las horas ya asignadas antes de validar")
+        void reservar_huecoConAsignaciones_descuentaAsignadas() {
+            CapacidadDia hueco = hueco(BigDecimal.valueOf(6));
+            when(repository.findBySprintIdAndPersonaIdAndDia(10L, 5L, 1)).thenReturn(Optional.of(hueco));
+            when(capacidadService.calcularHorasDisponibles(1L, 5L, LUNES)).thenReturn(8.0);
+
+            assertThatThrownBy(() -> service.reservar(sprint, 5L, 1, BigDecimal.valueOf(3)))
+                    .isInstanceOf(CapacidadInsuficienteException.class)
+                    .hasMessageContaining("Disponibles: 2.0");
+            verify(repository, never()).saveAndFlush(any());
+        }
+
+        @Test
+        @DisplayName("Inserción concurrente del mismo hueco se traduce en conflicto de concurrencia")
+        void reservar_huecoCreadoEnParalelo_lanzaConcurrencia() {
+            when(repository.findBySprintIdAndPersonaIdAndDia(10L, 5L, 1)).thenReturn(Optional.empty());
+            when(personaRepository.getReferenceById(5L)).thenReturn(persona);
+            when(capacidadService.calcularHorasDisponibles(1L, 5L, LUNES)).thenReturn(8.0);
+            when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk"));
+
+            assertThatThrownBy(() -> service.reservar(sprint, 5L, 1, BigDecimal.valueOf(2)))
+                    .isInstanceOf(ConcurrencyFailureException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("liberar() / reasignar()")
+    class LiberarTests {
+
+        @Test
+        @DisplayName("Liberar nunca deja horas negativas")
+        void liberar_masHorasQueAsignadas_quedaEnCero() {
+            CapacidadDia hueco = hueco(BigDecimal.valueOf(2));
+            when(repository.findBySprintIdAndPersonaIdAndDia(10L, 5L, 1)).thenReturn(Optional.of(hueco));
+
+            service.liberar(sprint, 5L, 1, BigDecimal.valueOf(3));
+
+            assertThat(hueco.getHorasAsignadas()).isEqualByComparingTo("0");
+            verify(repository).saveAndFlush(hueco);
+        }
+
+        @Test
+        @DisplayName("Mismo hueco con menor estimación solo libera la diferencia")
+        void reasignar_mismoHueco_aplicaDiferencia() {
+            CapacidadDia hueco = hueco(BigDecimal.valueOf(6));
+            when(repository.findBySprintIdAndPersonaIdAndDia(10L, 5L, 1)).thenReturn(Optional.of(hueco));
+
+            service.reasignar(sprint, 5L, 1, BigDecimal.valueOf(4), 5L, 1, BigDecimal.valueOf(1));
+
+            assertThat(hueco.getHorasAsignadas()).isEqualByComparingTo("3");
+        }
+
+        @Test
+        @DisplayName("Cambio de día libera el hueco anterior y reserva el nuevo")
+        void reasignar_otroDia_liberaYReserva() {
+            CapacidadDia anterior = hueco(BigDecimal.valueOf(4));
+            when(repository.findBySprintIdAndPersonaIdAndDia(10L, 5L, 1)).thenReturn(Optional.of(anterior));
+            when(repository.findBySprintIdAndPersonaIdAndDia(10L, 5L, 2)).thenReturn(Optional.empty());
+            when(personaRepository.getReferenceById(5L)).thenReturn(persona);
+            when(capacidadService.calcularHorasDisponibles(1L, 5L, LUNES.plusDays(1))).thenReturn(8.0);
+
+            service.reasignar(sprint, 5L, 1, BigDecimal.valueOf(4), 5L, 2, BigDecimal.valueOf(4));
+
+            assertThat(anterior.getHorasAsignadas()).isEqualByComparingTo("0");
+            verify(repository).saveAndFlush(anterior);
+        }
+    }
+
+    private CapacidadDia hueco(BigDecimal asignadas) {
+        return CapacidadDia.builder()
+                .id(1L)
+                .sprint(sprint)
+                .persona(persona)
+                .dia(1)
+                .horasAsignadas(asignadas)
+                .version(0L)
+                .build();
+    }
+}
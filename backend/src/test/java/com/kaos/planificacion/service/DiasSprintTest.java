@@ -0,0 +1,61 @@
+package com.kaos.planificacion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.kaos.planificacion.entity.Sprint;
+
+/**
+ * Tests unitarios para {@link DiasSprint}.
+ * Valida la numeración de días de sprint sobre lunes a viernes.
+ */
+@DisplayName("DiasSprint - Días laborables del sprint")
+class DiasSprintTest {
+
+    @Test
+    @DisplayName("Sprint de dos semanas: día 6 es el lunes de la segunda semana")
+    void fecha_sprintDosSemanas_saltaFinDeSemana() {
+        Sprint sprint = sprint(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 15));
+
+        assertThat(DiasSprint.fecha(sprint, 1)).isEqualTo(LocalDate.of(2026, 3, 2));
+        assertThat(DiasSprint.fecha(sprint, 5)).isEqualTo(LocalDate.of(2026, 3, 6));
+        assertThat(DiasSprint.fecha(sprint, 6)).isEqualTo(LocalDate.of(2026, 3, 9));
+        assertThat(DiasSprint.fecha(sprint, 10)).isEqualTo(LocalDate.of(2026, 3, 13));
+    }
+
+    @Test
+    @DisplayName("Inicio en miércoles o en fin de semana se alinea con el recorrido día a día")
+    void fecha_coincideConFechasLaborables() {
+        for (LocalDate inicio = LocalDate.of(2026, 3, 2); inicio.isBefore(LocalDate.of(2026, 3, 9));
+                inicio = inicio.plusDays(1)) {
+            Sprint sprint = sprint(inicio, inicio.plusDays(30));
+            var fechas = DiasSprint.fechasLaborables(sprint.getFechaInicio(), sprint.getFechaFin());
+
+            for (int dia = 1; dia <= fechas.size(); dia++) {
+                assertThat(DiasSprint.fecha(sprint, dia)).isEqualTo(fechas.get(dia - 1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Día posterior a fechaFin lanza excepción")
+    void fecha_fueraDelSprint_lanzaExcepcion() {
+        Sprint sprint = sprint(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 15));
+
+        assertThat(DiasSprint.fechasLaborables(sprint.getFechaInicio(), sprint.getFechaFin())).hasSize(10);
+        assertThatThrownBy(() -> DiasSprint.fecha(sprint, 11))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DiasSprint.fecha(sprint, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Sprint sprint(LocalDate inicio, LocalDate fin) {
+        Sprint sprint = new Sprint();
+        sprint.setId(1L);
+        sprint.setFechaInicio(inicio);
+        sprint.setFechaFin(fin);
+        return sprint;
+    }
+}
@@ -4,10 +4,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,16 +20,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import com.kaos.calendario.dto.CapacidadDiaResponse;
 import com.kaos.calendario.dto.CapacidadPersonaResponse;
 import com.kaos.calendario.dto.CapacidadSquadResponse;
 import com.kaos.calendario.service.CapacidadService;
 import com.kaos.planificacion.dto.DashboardSprintResponse;
+import com.kaos.planificacion.dto.ResumenEstadoTareas;
 import com.kaos.planificacion.dto.TimelineSprintResponse;
+import com.kaos.persona.entity.Persona;
 import com.kaos.planificacion.entity.EstadoTarea;
+import com.kaos.planificacion.entity.Prioridad;
 import com.kaos.planificacion.entity.Sprint;
 import com.kaos.planificacion.entity.SprintEstado;
-import com.kaos.planificacion.repository.BloqueoRepository;
+import com.kaos.planificacion.entity.Tarea;
 import com.kaos.planificacion.repository.SprintRepository;
 import com.kaos.planificacion.repository.TareaRepository;
 import com.kaos.squad.entity.Squad;
@@ -46,8 +51,6 @@ class PlanificacionServiceTest {
     @Mock
     private TareaRepository tareaRepository;
     @Mock
-    private BloqueoRepository bloqueoRepository;
-    @Mock
     private CapacidadService capacidadService;
 
     @InjectMocks
@@ -82,12 +85,32 @@ class PlanificacionServiceTest {
         );
     }
 
-    private void stubTareasCounts(long total, long pendientes, long enProgreso, long completadas, long bloqueadas) {
-        when(tareaRepository.countBySprintId(1L)).thenReturn(total);
-        when(tareaRepository.countBySprintIdAndEstado(1L, EstadoTarea.PENDIENTE)).thenReturn(pendientes);
-        when(tareaRepository.countBySprintIdAndEstado(1L, EstadoTarea.EN_PROGRESO)).thenReturn(enProgreso);
-        when(tareaRepository.countBySprintIdAndEstado(1L, EstadoTarea.COMPLETADA)).thenReturn(completadas);
-        when(tareaRepository.countBySprintIdAndEstado(1L, EstadoTarea.BLOQUEADO)).thenReturn(bloqueadas);
+    private void stubResumen(ResumenEstadoTareas... filas) {
+        when(tareaRepository.resumirPorEstado(1L)).thenReturn(List.of(filas));
+    }
+
+    private ResumenEstadoTareas resumen(EstadoTarea estado, long tareas, double horas, long bloqueos) {
+        return new ResumenEstadoTareas() {
+            @Override
+            public EstadoTarea getEstado() {
+                return estado;
+            }
+
+            @Override
+            public Long getTareas() {
+                return tareas;
+            }
+
+            @Override
+            public BigDecimal getHoras() {
+                return BigDecimal.valueOf(horas);
+            }
+
+            @Override
+            public Long getBloqueosActivos() {
+                return bloqueos;
+            }
+        };
     }
 
     @Nested
@@ -98,17 +121,22 @@ class PlanificacionServiceTest {
         @DisplayName("CA-23: Sprint existente retorna DashboardSprintResponse con métricas")
         void testObtenerDashboard() {
             when(sprintRepository.findById(1L)).thenReturn(Optional.of(sprint));
-            stubTareasCounts(10L, 3L, 4L, 3L, 0L);
-            when(bloqueoRepository.countByEstadoAbiertosOEnGestion()).thenReturn(0L);
-            when(capacidadService.calcularCapacidad(anyLong(), any(), any())).thenReturn(capacidadMock);
+            stubResumen(
+                resumen(EstadoTarea.PENDIENTE, 3L, 12.0, 0L),
+                resumen(EstadoTarea.EN_PROGRESO, 4L, 16.0, 0L),
+                resumen(EstadoTarea.COMPLETADA, 3L, 12.0, 0L));
+            when(capacidadService.calcularHorasTotales(anyLong(), any(), any())).thenReturn(160.0);
 
             DashboardSprintResponse result = planificacionService.obtenerDashboard(1L);
 
             assertThat(result).isNotNull();
             assertThat(result.sprintId()).isEqualTo(1L);
+            assertThat(result.tareasTotal()).isEqualTo(10L);
             assertThat(result.tareasPendientes()).isEqualTo(3L);
             assertThat(result.tareasEnProgreso()).isEqualTo(4L);
             assertThat(result.tareasCompletadas()).isEqualTo(3L);
+            assertThat(result.tareasBloqueadas()).isZero();
+            assertThat(result.progresoReal()).isEqualTo(30.0);
         }
 
         @Test
@@ -124,35 +152,52 @@ class PlanificacionServiceTest {
         @DisplayName("CA-23: ocupacionPorcentaje = (horasAsignadas / horasTotales) * 100")
         void testOcupacionPorcentaje() {
             when(sprintRepository.findById(1L)).thenReturn(Optional.of(sprint));
-            stubTareasCounts(10L, 5L, 3L, 2L, 0L);
-            when(bloqueoRepository.countByEstadoAbiertosOEnGestion()).thenReturn(0L);
-
             // horasAsignadas = 120, horasTotales = 160 → 75%
-            var capacidadConAsignacion = new CapacidadSquadResponse(
-                1L, "Squad", LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 16),
-                160.0,
-                List.of(new CapacidadPersonaResponse(1L, "Juan", 80.0, List.of()),
-                        new CapacidadPersonaResponse(2L, "Ana", 80.0, List.of()))
-            );
-            when(capacidadService.calcularCapacidad(anyLong(), any(), any())).thenReturn(capacidadConAsignacion);
+            stubResumen(
+                resumen(EstadoTarea.PENDIENTE, 5L, 60.0, 0L),
+                resumen(EstadoTarea.EN_PROGRESO, 3L, 40.0, 0L),
+                resumen(EstadoTarea.COMPLETADA, 2L, 20.0, 0L));
+            when(capacidadService.calcularHorasTotales(anyLong(), any(), any())).thenReturn(160.0);
 
             DashboardSprintResponse result = planificacionService.obtenerDashboard(1L);
 
-            assertThat(result.ocupacionPorcentaje()).isGreaterThanOrEqualTo(0.0);
-            assertThat(result.ocupacionPorcentaje()).isLessThanOrEqualTo(100.0);
+            assertThat(result.capacidadAsignadaHoras()).isEqualTo(120.0);
+            assertThat(result.capacidadTotalHoras()).isEqualTo(160.0);
+            assertThat(result.ocupacionPorcentaje()).isEqualTo(75.0);
         }
 
         @Test
         @DisplayName("CA-23: Dashboard incluye alertas cuando hay bloqueos activos")
         void testDashboardConBloqueos() {
             when(sprintRepository.findById(1L)).thenReturn(Optional.of(sprint));
-            stubTareasCounts(10L, 3L, 3L, 3L, 1L);
-            when(bloqueoRepository.countByEstadoAbiertosOEnGestion()).thenReturn(4L);
-            when(capacidadService.calcularCapacidad(anyLong(), any(), any())).thenReturn(capacidadMock);
+            stubResumen(
+                resumen(EstadoTarea.PENDIENTE, 3L, 12.0, 4L),
+                resumen(EstadoTarea.EN_PROGRESO, 3L, 12.0, 4L),
+                resumen(EstadoTarea.COMPLETADA, 3L, 12.0, 4L),
+                resumen(EstadoTarea.BLOQUEADO, 1L, 4.0, 4L));
+            when(capacidadService.calcularHorasTotales(anyLong(), any(), any())).thenReturn(160.0);
 
             DashboardSprintResponse result = planificacionService.obtenerDashboard(1L);
 
             assertThat(result.bloqueosActivos()).isEqualTo(4L);
+            assertThat(result.tareasBloqueadas()).isEqualTo(1L);
+            assertThat(result.alertas()).anyMatch(a -> a.contains("4 bloqueo(s)"));
+        }
+
+        @Test
+        @DisplayName("CA-23: Sprint sin tareas ni capacidad no divide por cero ni alerta de progreso")
+        void testDashboardSprintVacio() {
+            when(sprintRepository.findById(1L)).thenReturn(Optional.of(sprint));
+            stubResumen();
+            when(capacidadService.calcularHorasTotales(anyLong(), any(), any())).thenReturn(0.0);
+
+            DashboardSprintResponse result = planificacionService.obtenerDashboard(1L);
+
+            assertThat(result.tareasTotal()).isZero();
+            assertThat(result.progresoReal()).isZero();
+            assertThat(result.ocupacionPorcentaje()).isZero();
+            assertThat(result.bloqueosActivos()).isZero();
+            assertThat(result.alertas()).isEmpty();
         }
     }
 
@@ -165,7 +210,7 @@ class PlanificacionServiceTest {
         void testObtenerTimeline() {
             when(sprintRepository.findById(1L)).thenReturn(Optional.of(sprint));
             when(capacidadService.calcularCapacidad(anyLong(), any(), any())).thenReturn(capacidadMock);
-            when(tareaRepository.findBySprintId(eq(1L), any())).thenReturn(new PageImpl<>(List.of()));
+            when(tareaRepository.findAsignadasConBloqueadores(1L)).thenReturn(List.of());
 
             TimelineSprintResponse result = planificacionService.obtenerTimeline(1L);
 
@@ -197,11 +242,75 @@ class PlanificacionServiceTest {
             );
             when(sprintRepository.findById(1L)).thenReturn(Optional.of(sprint));
             when(capacidadService.calcularCapacidad(anyLong(), any(), any())).thenReturn(capacidadDosPersonas);
-            when(tareaRepository.findBySprintId(eq(1L), any())).thenReturn(new PageImpl<>(List.of()));
+            when(tareaRepository.findAsignadasConBloqueadores(1L)).thenReturn(List.of());
 
             TimelineSprintResponse result = planificacionService.obtenerTimeline(1L);
 
             assertThat(result.personas()).hasSize(2);
         }
+
+        @Test
+        @DisplayName("CA-24: Sprint de tres semanas genera 15 días laborables y ubica cada tarea")
+        void testTimelineSprintLargoSaltaFinesDeSemana() {
+            sprint.setFechaFin(LocalDate.of(2026, 3, 22));
+            List<CapacidadDiaResponse> detalles = new ArrayList<>();
+            for (LocalDate f = sprint.getFechaInicio(); !f.isAfter(sprint.getFechaFin()); f = f.plusDays(1)) {
+                boolean finde = f.getDayOfWeek().getValue() >= 6;
+                detalles.add(new CapacidadDiaResponse(f, finde ? 0.0 : 8.0, 8.0, finde ? 0 : 100, null));
+            }
+            var capacidad = new CapacidadSquadResponse(
+                1L, "Squad Backend", sprint.getFechaInicio(), sprint.getFechaFin(), 120.0,
+                List.of(new CapacidadPersonaResponse(1L, "Juan", 120.0, detalles)));
+
+            Persona juan = new Persona();
+            juan.setId(1L);
+            Tarea tarea = new Tarea();
+            tarea.setId(7L);
+            tarea.setTitulo("Migración");
+            tarea.setPersona(juan);
+            tarea.setDiaAsignado(11);
+            tarea.setEstimacion(BigDecimal.valueOf(4));
+            tarea.setEstado(EstadoTarea.PENDIENTE);
+            tarea.setPrioridad(Prioridad.ALTA);
+
+            when(sprintRepository.findById(1L)).thenReturn(Optional.of(sprint));
+            when(capacidadService.calcularCapacidad(anyLong(), any(), any())).thenReturn(capacidad);
+            when(tareaRepository.findAsignadasConBloqueadores(1L)).thenReturn(List.of(tarea));
+
+            TimelineSprintResponse result = planificacionService.obtenerTimeline(1L);
+
+            var dias = result.personas().get(0).dias();
+            assertThat(dias).hasSize(15);
+            assertThat(dias).allMatch(d -> d.horasDisponibles() == 8.0);
+            // Día 11 = lunes de la tercera semana
+            assertThat(dias.get(10).fecha()).isEqualTo(LocalDate.of(2026, 3, 16));
+            assertThat(dias.get(10).tareas()).extracting(TimelineSprintResponse.TareaEnLinea::tareaId)
+                .containsExactly(7L);
+            assertThat(dias.get(10).tareas().get(0).bloqueada()).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("exportarTimelineExcel()")
+    class ExportarTimelineTests {
+
+        @Test
+        @DisplayName("Escribe un .xlsx en el stream con una fila por tarea")
+        void testExportarTimelineEscribeXlsx() throws Exception {
+            var tarea = TimelineSprintResponse.TareaEnLinea.builder().tareaId(1L).titulo("Migración").build();
+            var dia = TimelineSprintResponse.DiaConTareas.builder()
+                .dia(1).fecha(LocalDate.of(2026, 3, 2)).horasDisponibles(8.0).tareas(List.of(tarea)).build();
+            var timeline = TimelineSprintResponse.builder()
+                .sprintId(1L)
+                .personas(List.of(TimelineSprintResponse.PersonaEnLinea.builder()
+                    .personaId(1L).personaNombre("Juan").dias(List.of(dia)).build()))
+                .build();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            planificacionService.exportarTimelineExcel(timeline, out);
+
+            // Un .xlsx es un ZIP: empieza por "PK"
+            assertThat(out.toByteArray()).startsWith((byte) 'P', (byte) 'K');
+        }
     }
 }
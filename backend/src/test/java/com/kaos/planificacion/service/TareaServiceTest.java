@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -24,7 +26,6 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import com.kaos.calendario.service.CapacidadService;
 import com.kaos.persona.entity.Persona;
 import com.kaos.persona.repository.PersonaRepository;
 import com.kaos.planificacion.dto.TareaRequest;
@@ -33,6 +34,7 @@ import com.kaos.planificacion.entity.EstadoTarea;
 import com.kaos.planificacion.entity.Sprint;
 import com.kaos.planificacion.entity.SprintEstado;
 import com.kaos.planificacion.entity.Tarea;
+import com.kaos.planificacion.exception.CapacidadInsuficienteException;
 import com.kaos.planificacion.mapper.TareaMapper;
 import com.kaos.planificacion.repository.SprintRepository;
 import com.kaos.planificacion.repository.TareaRepository;
@@ -57,7 +59,7 @@ class TareaServiceTest {
     @Mock
     private TareaMapper tareaMapper;
     @Mock
-    private CapacidadService capacidadService;
+    private CapacidadDiaService capacidadDiaService;
 
     @InjectMocks
     private TareaService tareaService;
@@ -150,6 +152,43 @@ class TareaServiceTest {
             verify(tareaRepository).save(any());
         }
 
+        @Test
+        @DisplayName("CA-16: Crear tarea asignada reserva la estimación en el libro de capacidad")
+        void testCrearAsignadaReservaCapacidad() {
+            TareaRequest req = new TareaRequest(
+                "Tarea asignada", 1L, null, "FEATURE", "BACKEND",
+                BigDecimal.valueOf(4), "NORMAL", 1L, 3, null, null
+            );
+            when(sprintRepository.findById(1L)).thenReturn(Optional.of(sprint));
+            when(tareaMapper.toEntity(req)).thenReturn(tarea);
+            when(personaRepository.existsById(1L)).thenReturn(true);
+            when(tareaRepository.save(any())).thenReturn(tarea);
+            when(tareaMapper.toResponse(tarea)).thenReturn(tareaResponse);
+
+            tareaService.crear(req);
+
+            verify(capacidadDiaService).reservar(sprint, 1L, 3, BigDecimal.valueOf(4));
+            verify(tareaRepository).save(any());
+        }
+
+        @Test
+        @DisplayName("CA-16: Crear tarea sin capacidad restante no persiste")
+        void testCrearSinCapacidadNoPersiste() {
+            TareaRequest req = new TareaRequest(
+                "Tarea asignada", 1L, null, "FEATURE", "BACKEND",
+                BigDecimal.valueOf(4), "NORMAL", 1L, 3, null, null
+            );
+            when(sprintRepository.findById(1L)).thenReturn(Optional.of(sprint));
+            when(tareaMapper.toEntity(req)).thenReturn(tarea);
+            when(personaRepository.existsById(1L)).thenReturn(true);
+            doThrow(new CapacidadInsuficienteException("sin capacidad", 1L, 3, 2.0, 4.0))
+                .when(capacidadDiaService).reservar(sprint, 1L, 3, BigDecimal.valueOf(4));
+
+            assertThatThrownBy(() -> tareaService.crear(req))
+                .isInstanceOf(CapacidadInsuficienteException.class);
+            verify(tareaRepository, never()).save(any());
+        }
+
         @Test
         @DisplayName("CA-15: Crear tarea con sprint inexistente lanza EntityNotFoundException")
         void testCrearSprintInvalido() {
@@ -212,6 +251,23 @@ class TareaServiceTest {
             verify(tareaRepository).save(any());
         }
 
+        @Test
+        @DisplayName("CA-16: Actualizar traslada la reserva desde la asignación anterior")
+        void testActualizarTrasladaReserva() {
+            tarea.setEstimacion(BigDecimal.valueOf(2));
+            TareaRequest request = new TareaRequest("Tarea", 1L, null, "HISTORIA",
+                "EVOLUTIVO", BigDecimal.valueOf(5), "NORMAL", 2L, 4, null, null);
+            when(tareaRepository.findById(1L)).thenReturn(Optional.of(tarea));
+            when(personaRepository.existsById(2L)).thenReturn(true);
+            when(tareaRepository.save(any())).thenReturn(tarea);
+            when(tareaMapper.toResponse(tarea)).thenReturn(tareaResponse);
+
+            tareaService.actualizar(1L, request);
+
+            verify(capacidadDiaService).reasignar(
+                sprint, 1L, 1, BigDecimal.valueOf(2), 2L, 4, BigDecimal.valueOf(5));
+        }
+
         @Test
         @DisplayName("CA-15: Actualizar tarea inexistente lanza EntityNotFoundException")
         void testActualizarInexistente() {
@@ -256,6 +312,20 @@ class TareaServiceTest {
             assertThat(result).isNotNull();
         }
 
+        @Test
+        @DisplayName("CA-16: Completar tarea asignada libera su capacidad")
+        void testCompletarLiberaCapacidad() {
+            tarea.setEstado(EstadoTarea.EN_PROGRESO);
+            tarea.setEstimacion(BigDecimal.valueOf(6));
+            when(tareaRepository.findById(1L)).thenReturn(Optional.of(tarea));
+            when(tareaRepository.save(any())).thenReturn(tarea);
+            when(tareaMapper.toResponse(tarea)).thenReturn(tareaResponse);
+
+            tareaService.cambiarEstado(1L, EstadoTarea.COMPLETADA);
+
+            verify(capacidadDiaService).liberar(sprint, 1L, 1, BigDecimal.valueOf(6));
+        }
+
         @Test
         @DisplayName("CA-17: Transición inválida desde COMPLETADA lanza excepción")
         void testCambiarEstadoInvalido() {
@@ -308,9 +378,11 @@ class TareaServiceTest {
             tarea.setEstado(EstadoTarea.PENDIENTE);
             when(tareaRepository.findById(1L)).thenReturn(Optional.of(tarea));
 
+            tarea.setEstimacion(BigDecimal.valueOf(3));
             tareaService.eliminar(1L);
 
             verify(tareaRepository).deleteById(1L);
+            verify(capacidadDiaService).liberar(eq(sprint), eq(1L), eq(1), eq(BigDecimal.valueOf(3)));
         }
 
         @Test
@@ -411,6 +411,14 @@ function ImportarExcelPage() {
                     </span>
                     <span className="text-xs text-muted-foreground">→</span>
                     <span className="font-medium">{m.personaNombre}</span>
+                    {m.confianza !== undefined && m.confianza < 1 && (
+                      <span
+                        className="text-xs text-amber-600"
+                        title={m.criterio}
+                      >
+                        {Math.round(m.confianza * 100)}%
+                      </span>
+                    )}
                   </div>
                 ))}
               </div>
@@ -4,10 +4,12 @@
  */
 
 import { api } from "./api";
+import { importacionService } from "./importacionService";
 import type {
   FestivoResponse,
   FestivoRequest,
   FestivoCsvUploadResponse,
+  ImportacionJobResponse,
   PageResponse,
 } from "@/types/api";
 
@@ -67,14 +69,15 @@ export const festivoService = {
   },
 
   /**
-   * Carga masiva de festivos desde CSV
+   * Carga masiva de festivos desde CSV.
+   * El backend procesa el fichero en segundo plano; se espera a que el job termine.
    */
   cargarCsv: async (file: File) => {
     const formData = new FormData();
     formData.append("file", file);
 
-    const { data } = await api.post<FestivoCsvUploadResponse>(
-      "/festivos/csv",
+    const { data } = await api.post<ImportacionJobResponse>(
+      "/festivos/carga-masiva",
       formData,
       {
         headers: {
@@ -82,7 +85,7 @@ export const festivoService = {
         },
       },
     );
-    return data;
+    return importacionService.esperarResultado<FestivoCsvUploadResponse>(data);
   },
 
   /**
@@ -0,0 +1,60 @@
+/**
+ * Servicio API para Importaciones
+ * Seguimiento de los jobs de importación asíncrona (Excel de vacaciones, CSV de festivos)
+ */
+
+import { api } from "./api";
+import type { ImportacionJobResponse } from "@/types/api";
+
+/** Intervalo entre consultas de estado mientras el job no termina. */
+const INTERVALO_CONSULTA_MS = 1000;
+
+const esFinal = (job: ImportacionJobResponse) =>
+  job.estado === "COMPLETADA" || job.estado === "FALLIDA";
+
+export const importacionService = {
+  /**
+   * Obtiene el estado y el avance de una importación
+   */
+  obtener: async (id: number) => {
+    const { data } = await api.get<ImportacionJobResponse>(
+      `/importaciones/${id}`,
+    );
+    return data;
+  },
+
+  /**
+   * Reanuda una importación fallida desde el último bloque confirmado
+   */
+  reanudar: async (id: number) => {
+    const { data } = await api.post<ImportacionJobResponse>(
+      `/importaciones/${id}/reanudar`,
+    );
+    return data;
+  },
+
+  /**
+   * Consulta el job hasta que termina y devuelve su resultado.
+   *
+   * @param job        Job devuelto al lanzar la importación
+   * @param onProgreso Callback opcional con cada estado intermedio
+   * @throws Error con el mensaje del job si termina FALLIDA
+   */
+  esperarResultado: async <T>(
+    job: ImportacionJobResponse,
+    onProgreso?: (job: ImportacionJobResponse) => void,
+  ): Promise<T> => {
+    let actual = job;
+    while (!esFinal(actual)) {
+      onProgreso?.(actual);
+      await new Promise((resolve) => setTimeout(resolve, INTERVALO_CONSULTA_MS));
+      actual = await importacionService.obtener(actual.id);
+    }
+    if (actual.estado === "FALLIDA") {
+      throw new Error(
+        actual.mensajeError ?? `La importación ${actual.id} ha fallado`,
+      );
+    }
+    return actual.resultado as T;
+  },
+};
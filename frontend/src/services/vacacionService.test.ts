@@ -5,6 +5,14 @@ import { api } from "@/services/api";
 // Mock api
 vi.mock("@/services/api");
 
+/** Job de importación ya terminado, tal como lo devuelve el POST si el fichero es pequeño. */
+const jobCompletado = (resultado: unknown) => ({
+  id: 1,
+  tipo: "VACACIONES_EXCEL",
+  estado: "COMPLETADA",
+  resultado,
+});
+
 describe("VacacionService — Excel Import/Analysis", () => {
   beforeEach(() => {
     vi.clearAllMocks();
@@ -85,7 +93,7 @@ describe("VacacionService — Excel Import/Analysis", () => {
         errores: [],
       };
 
-      vi.mocked(api.post).mockResolvedValue({ data: expectedResponse });
+      vi.mocked(api.post).mockResolvedValue({ data: jobCompletado(expectedResponse) });
 
       const result = await vacacionService.vacacionService.importarExcel(
         file,
@@ -118,7 +126,7 @@ describe("VacacionService — Excel Import/Analysis", () => {
         errores: [],
       };
 
-      vi.mocked(api.post).mockResolvedValue({ data: expectedResponse });
+      vi.mocked(api.post).mockResolvedValue({ data: jobCompletado(expectedResponse) });
 
       const result = await vacacionService.vacacionService.importarExcel(
         file,
@@ -142,7 +150,7 @@ describe("VacacionService — Excel Import/Analysis", () => {
       const file = new File(["content"], "test.xlsx");
       const mappings = { "Name A": 100, "Name B": 200 };
 
-      vi.mocked(api.post).mockResolvedValue({ data: {} as any });
+      vi.mocked(api.post).mockResolvedValue({ data: jobCompletado({}) });
 
       await vacacionService.vacacionService.importarExcel(file, 2026, mappings);
 
@@ -163,7 +171,7 @@ describe("VacacionService — Excel Import/Analysis", () => {
         errores: [],
       };
 
-      vi.mocked(api.post).mockResolvedValue({ data: responseWithErrors });
+      vi.mocked(api.post).mockResolvedValue({ data: jobCompletado(responseWithErrors) });
 
       const result = await vacacionService.vacacionService.importarExcel(
         file,
@@ -185,7 +193,7 @@ describe("VacacionService — Excel Import/Analysis", () => {
         errores: ["Formato de Excel inválido", "Año fiscal no soportado"],
       };
 
-      vi.mocked(api.post).mockResolvedValue({ data: responseWithErrors });
+      vi.mocked(api.post).mockResolvedValue({ data: jobCompletado(responseWithErrors) });
 
       const result = await vacacionService.vacacionService.importarExcel(
         file,
@@ -195,6 +203,45 @@ describe("VacacionService — Excel Import/Analysis", () => {
       expect(result.errores).toHaveLength(2);
       expect(result.errores[0]).toContain("Formato de Excel inválido");
     });
+
+    it("CA-S11: Consulta el job hasta que termina", async () => {
+      vi.useFakeTimers();
+      const file = new File(["content"], "test.xlsx");
+      const resultado = {
+        personasProcesadas: 1,
+        vacacionesCreadas: 1,
+        ausenciasCreadas: 0,
+        personasNoEncontradas: [],
+        errores: [],
+      };
+
+      vi.mocked(api.post).mockResolvedValue({
+        data: { id: 7, estado: "PENDIENTE", resultado: null },
+      });
+      vi.mocked(api.get)
+        .mockResolvedValueOnce({ data: { id: 7, estado: "EN_CURSO" } })
+        .mockResolvedValueOnce({ data: jobCompletado(resultado) });
+
+      const promesa = vacacionService.vacacionService.importarExcel(file, 2026);
+      await vi.runAllTimersAsync();
+
+      await expect(promesa).resolves.toEqual(resultado);
+      expect(api.get).toHaveBeenCalledWith("/importaciones/7");
+      expect(api.get).toHaveBeenCalledTimes(2);
+      vi.useRealTimers();
+    });
+
+    it("CA-S12: Rechaza con el mensaje del job si falla", async () => {
+      const file = new File(["content"], "test.xlsx");
+
+      vi.mocked(api.post).mockResolvedValue({
+        data: { id: 8, estado: "FALLIDA", mensajeError: "Fichero truncado" },
+      });
+
+      await expect(
+        vacacionService.vacacionService.importarExcel(file, 2026),
+      ).rejects.toThrow("Fichero truncado");
+    });
   });
 
   describe("Validación de tipos", () => {
@@ -236,7 +283,7 @@ describe("VacacionService — Excel Import/Analysis", () => {
         errores: ["Error processing row 5"],
       };
 
-      vi.mocked(api.post).mockResolvedValue({ data: importResult });
+      vi.mocked(api.post).mockResolvedValue({ data: jobCompletado(importResult) });
 
       const result = await vacacionService.vacacionService.importarExcel(
         file,
@@ -4,11 +4,13 @@
  */
 
 import { api } from "./api";
+import { importacionService } from "./importacionService";
 import type {
   VacacionResponse,
   VacacionRequest,
   ExcelAnalysisResponse,
   ExcelImportResponse,
+  ImportacionJobResponse,
   PageResponse,
 } from "@/types/api";
 
@@ -108,6 +110,7 @@ export const vacacionService = {
 
   /**
    * Importa vacaciones y ausencias desde un fichero Excel (.xlsx).
+   * El backend procesa el fichero en segundo plano; se espera a que el job termine.
    *
    * @param file     Fichero Excel seleccionado por el usuario
    * @param año      Año fiscal (por defecto el año en curso)
@@ -126,11 +129,11 @@ export const vacacionService = {
       params.set("mappingsJson", JSON.stringify(mappings));
     }
     const qs = params.toString() ? `?${params.toString()}` : "";
-    const { data } = await api.post<ExcelImportResponse>(
+    const { data } = await api.post<ImportacionJobResponse>(
       `/vacaciones/importar-excel${qs}`,
       formData,
       { headers: { "Content-Type": "multipart/form-data" } },
     );
-    return data;
+    return importacionService.esperarResultado<ExcelImportResponse>(data);
   },
 };
@@ -440,6 +440,10 @@ export interface ExcelPersonaMatch {
   nombreExcel: string;
   personaId: number;
   personaNombre: string;
+  /** Regla que resolvió el nombre: EXACTA, NORMALIZADA, CONTENIDA, DOS_PRIMERAS_PALABRAS, SIMILITUD */
+  criterio?: string;
+  /** Confianza de la coincidencia (0-1) */
+  confianza?: number;
 }
 
 export interface ExcelAnalysisResponse {
@@ -455,3 +459,30 @@ export interface ExcelImportResponse {
   personasNoEncontradas: string[];
   errores: string[];
 }
+
+// ============= Importaciones =============
+
+export type TipoImportacion = "VACACIONES_EXCEL" | "FESTIVOS_CSV";
+
+export type EstadoImportacion =
+  | "PENDIENTE"
+  | "EN_CURSO"
+  | "COMPLETADA"
+  | "FALLIDA";
+
+export interface ImportacionJobResponse {
+  id: number;
+  tipo: TipoImportacion;
+  estado: EstadoImportacion;
+  nombreFichero: string;
+  totalFilas: number | null;
+  filasProcesadas: number;
+  porcentaje: number | null;
+  filasPorSegundo: number | null;
+  segundosRestantes: number | null;
+  errores: number;
+  mensajeError: string | null;
+  iniciadoEn: string | null;
+  finalizadoEn: string | null;
+  resultado: unknown;
+}